@@ -0,0 +1,39 @@
+package uk.gov.dhsc.htbhf.load;
+
+/**
+ * Mirrors the stub's FirstNameScenario, mapping the first names that trigger each card scenario to the card ID
+ * prefix the stub gives cards created with that name. Any other first name gets the default prefix of 9.
+ */
+public enum CardScenario {
+
+    CARD_ERROR("CardError", 9),
+    NO_TOP_UP("NoTopup", 1),
+    PARTIAL("Partial", 2),
+    BALANCE_ERROR("BalanceError", 3),
+    PAYMENT_ERROR("PaymentError", 4);
+
+    private static final int DEFAULT_CARD_ID_PREFIX = 9;
+
+    private final String firstName;
+    private final int cardIdPrefix;
+
+    CardScenario(String firstName, int cardIdPrefix) {
+        this.firstName = firstName;
+        this.cardIdPrefix = cardIdPrefix;
+    }
+
+    /**
+     * Gets the card ID prefix the stub uses for cards created with the given first name.
+     *
+     * @param firstName The first name in the create card request
+     * @return The card ID prefix
+     */
+    public static int cardIdPrefixForFirstName(String firstName) {
+        for (CardScenario scenario : values()) {
+            if (scenario.firstName.equalsIgnoreCase(firstName)) {
+                return scenario.cardIdPrefix;
+            }
+        }
+        return DEFAULT_CARD_ID_PREFIX;
+    }
+}
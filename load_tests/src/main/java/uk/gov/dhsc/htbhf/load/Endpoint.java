@@ -0,0 +1,23 @@
+package uk.gov.dhsc.htbhf.load;
+
+/**
+ * The stub endpoints that load can be generated against.
+ */
+public enum Endpoint {
+
+    DWP_BENEFITS("GET /v2/dwp/benefits"),
+    CREATE_CARD("POST /v1/cards"),
+    CARD_BALANCE("GET /v1/cards/{id}/balance"),
+    DEPOSIT_FUNDS("POST /v1/cards/{id}/deposit"),
+    POSTCODE("GET /v1/postcodes/{postcode}");
+
+    private final String description;
+
+    Endpoint(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,98 @@
+package uk.gov.dhsc.htbhf.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the latencies and outcomes of requests to a single endpoint. Latencies are recorded into an HdrHistogram
+ * {@link Recorder}, so response threads can record concurrently while the reporter takes interval snapshots.
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Endpoint endpoint;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder ioFailures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private Histogram interval;
+
+    public EndpointStats(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public void recordResponse(int statusCode, long latencyInNanos) {
+        recorder.recordValue(Math.min(latencyInNanos, HIGHEST_TRACKABLE_LATENCY));
+        if (statusCode >= 500) {
+            serverErrors.increment();
+        } else if (statusCode >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    public void recordFailure(long latencyInNanos) {
+        recorder.recordValue(Math.min(latencyInNanos, HIGHEST_TRACKABLE_LATENCY));
+        ioFailures.increment();
+    }
+
+    /**
+     * Records a request that was due to be sent but was not, because the maximum number of requests were in flight.
+     */
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * Takes the latencies recorded since the last call and adds them to the running total. Only called by the
+     * reporting thread.
+     *
+     * @return The latencies recorded since the last call
+     */
+    public synchronized Histogram takeInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return interval;
+    }
+
+    public synchronized Histogram getTotal() {
+        return total;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getIoFailures() {
+        return ioFailures.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getCompleted() {
+        return getSuccesses() + getClientErrors() + getServerErrors() + getIoFailures();
+    }
+}
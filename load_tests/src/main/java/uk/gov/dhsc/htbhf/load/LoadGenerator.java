@@ -0,0 +1,194 @@
+package uk.gov.dhsc.htbhf.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates an open model load against the stub: requests are sent at a fixed arrival rate regardless of how quickly
+ * the stub responds, so a slow stub builds up requests in flight rather than slowing the load down. Each request has
+ * an intended start time on the schedule, and its latency is measured from that time rather than from when it was
+ * actually sent. If the generator itself falls behind (e.g. during a GC pause) the requests it sends late still count
+ * the time they spent waiting, which avoids the coordinated omission that a closed loop of clients would suffer from.
+ *
+ * <p>Run with ./gradlew run --args='--rate=2000 --duration=PT2M', see {@link LoadProfile#DEFAULTS} for all arguments.
+ */
+public class LoadGenerator {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final String INVALID_PERCENTILES = String.format("%9s %9s %9s %9s %9s",
+            "invalid", "invalid", "invalid", "invalid", "invalid");
+
+    private final LoadProfile profile;
+    private final StubRequestFactory requestFactory;
+    private final HttpClient httpClient;
+    private final ExecutorService responseExecutor;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final PrintStream out;
+
+    public LoadGenerator(LoadProfile profile, PrintStream out) {
+        this.profile = profile;
+        this.out = out;
+        this.requestFactory = new StubRequestFactory(profile);
+        this.responseExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(responseExecutor)
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadProfile profile = LoadProfile.fromArguments(args);
+        if (!new LoadGenerator(profile, System.out).run()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the load test and reports the results.
+     *
+     * @return false if any requests were rejected, in which case the reported latency percentiles are not valid
+     */
+    public boolean run() throws InterruptedException {
+        out.printf("Sending %d requests/s to %s for %s%n", profile.getRequestsPerSecond(), profile.getBaseUrl(), profile.getDuration());
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long reportIntervalNanos = profile.getReportInterval().toNanos();
+        reporter.scheduleAtFixedRate(this::reportInterval, reportIntervalNanos, reportIntervalNanos, TimeUnit.NANOSECONDS);
+
+        long start = System.nanoTime();
+        sendAtFixedRate(start);
+        drain();
+        long elapsed = System.nanoTime() - start;
+
+        reporter.shutdownNow();
+        reportInterval();
+        boolean valid = reportTotals(elapsed);
+        responseExecutor.shutdownNow();
+        return valid;
+    }
+
+    private void sendAtFixedRate(long start) {
+        double periodNanos = (double) NANOS_PER_SECOND / profile.getRequestsPerSecond();
+        long totalRequests = profile.getDuration().toSeconds() * profile.getRequestsPerSecond();
+        SplittableRandom random = new SplittableRandom(profile.getSeed());
+        for (long i = 0; i < totalRequests; i++) {
+            long intendedStart = start + (long) (i * periodNanos);
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = profile.getEndpoints().pick(random);
+            send(endpoint, requestFactory.buildRequest(endpoint, random), intendedStart);
+        }
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, long intendedStart) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (inFlight.incrementAndGet() > profile.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            endpointStats.recordRejected();
+            return;
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, throwable) -> {
+                    long latency = System.nanoTime() - intendedStart;
+                    inFlight.decrementAndGet();
+                    if (throwable == null) {
+                        endpointStats.recordResponse(response.statusCode(), latency);
+                    } else {
+                        endpointStats.recordFailure(latency);
+                    }
+                });
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            out.printf("Gave up waiting for %d requests still in flight%n", inFlight.get());
+        }
+    }
+
+    private void reportInterval() {
+        StringBuilder report = new StringBuilder(String.format("in flight: %d", inFlight.get()));
+        for (EndpointStats endpointStats : stats.values()) {
+            Histogram interval = endpointStats.takeInterval();
+            long rejected = endpointStats.getRejected();
+            if (rejected > 0) {
+                report.append(String.format(" | %s n=%d rejected=%d p99=invalid", endpointStats.getEndpoint(), interval.getTotalCount(),
+                        rejected));
+            } else if (interval.getTotalCount() > 0) {
+                report.append(String.format(" | %s n=%d p99=%.1fms", endpointStats.getEndpoint(), interval.getTotalCount(),
+                        interval.getValueAtPercentile(99) / NANOS_PER_MILLI));
+            }
+        }
+        out.println(report);
+    }
+
+    private boolean reportTotals(long elapsedNanos) {
+        double elapsedSeconds = (double) elapsedNanos / NANOS_PER_SECOND;
+        long totalRejected = 0;
+        out.printf("%n%-15s %9s %9s %7s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "4xx%", "5xx%", "io%", "rej%", "p50ms", "p90ms", "p99ms", "p99.9ms", "maxms");
+        for (EndpointStats endpointStats : stats.values()) {
+            long completed = endpointStats.getCompleted();
+            long rejected = endpointStats.getRejected();
+            long attempted = completed + rejected;
+            if (attempted == 0) {
+                continue;
+            }
+            totalRejected += rejected;
+            out.printf("%-15s %9d %9.1f %7.2f %7.2f %7.2f %7.2f %s%n",
+                    endpointStats.getEndpoint(),
+                    completed,
+                    completed / elapsedSeconds,
+                    percentage(endpointStats.getClientErrors(), attempted),
+                    percentage(endpointStats.getServerErrors(), attempted),
+                    percentage(endpointStats.getIoFailures(), attempted),
+                    percentage(rejected, attempted),
+                    rejected == 0 ? formatPercentiles(endpointStats.getTotal()) : INVALID_PERCENTILES);
+        }
+        if (totalRejected > 0) {
+            out.printf("%n%d requests were never sent because max-in-flight (%d) requests were already outstanding, so their "
+                    + "latencies are unknown and the percentiles of those endpoints are not valid. "
+                    + "Raise --max-in-flight or lower --rate.%n",
+                    totalRejected, profile.getMaxInFlight());
+        }
+        return totalRejected == 0;
+    }
+
+    private static String formatPercentiles(Histogram total) {
+        return String.format("%9.2f %9.2f %9.2f %9.2f %9.2f",
+                total.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                total.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                total.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                total.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                total.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private static double percentage(long count, long total) {
+        return 100.0 * count / total;
+    }
+}
@@ -0,0 +1,107 @@
+package uk.gov.dhsc.htbhf.load;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The configuration of a load run, parsed from command line arguments in the format --name=value.
+ * Any argument not given takes the default shown in {@link #DEFAULTS}.
+ */
+public class LoadProfile {
+
+    /**
+     * The default value of every argument. Weights are in the format name:weight,name:weight, where first names
+     * and surnames should include the stub's scenario values (see FirstNameScenario and VerificationOutcomeForSurname).
+     */
+    public static final Map<String, String> DEFAULTS = Map.of(
+            "base-url", "http://localhost:8120",
+            "rate", "1000",
+            "duration", "PT1M",
+            "max-in-flight", "10000",
+            "report-interval", "PT10S",
+            "seed", "42",
+            "endpoints", "DWP_BENEFITS:40,CREATE_CARD:15,CARD_BALANCE:20,DEPOSIT_FUNDS:15,POSTCODE:10",
+            "first-names", "Homer:88,NoTopup:3,Partial:3,BalanceError:2,PaymentError:2,CardError:2",
+            "surnames", "Simpson:86,MobileNotHeld:2,EmailNotHeld:2,MobileAndEmailNotHeld:2,MobileNotMatched:2,"
+                    + "EmailNotMatched:2,MobileAndEmailNotMatched:2,AddressLineOneNotMatched:1,PostcodeNotMatched:1"
+    );
+
+    private final URI baseUrl;
+    private final int requestsPerSecond;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final Duration reportInterval;
+    private final long seed;
+    private final WeightedChoice<Endpoint> endpoints;
+    private final WeightedChoice<String> firstNames;
+    private final WeightedChoice<String> surnames;
+
+    private LoadProfile(Map<String, String> arguments) {
+        this.baseUrl = URI.create(arguments.get("base-url"));
+        this.requestsPerSecond = Integer.parseInt(arguments.get("rate"));
+        this.duration = Duration.parse(arguments.get("duration"));
+        this.maxInFlight = Integer.parseInt(arguments.get("max-in-flight"));
+        this.reportInterval = Duration.parse(arguments.get("report-interval"));
+        this.seed = Long.parseLong(arguments.get("seed"));
+        this.endpoints = WeightedChoice.parse(arguments.get("endpoints"), Endpoint::valueOf);
+        this.firstNames = WeightedChoice.parse(arguments.get("first-names"), Function.identity());
+        this.surnames = WeightedChoice.parse(arguments.get("surnames"), Function.identity());
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("rate must be greater than zero");
+        }
+    }
+
+    public static LoadProfile fromArguments(String... args) {
+        Map<String, String> arguments = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argument [" + arg + "] is not in the format --name=value");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown argument [" + name + "], expected one of " + DEFAULTS.keySet());
+            }
+            arguments.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadProfile(arguments);
+    }
+
+    public URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public WeightedChoice<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public WeightedChoice<String> getFirstNames() {
+        return firstNames;
+    }
+
+    public WeightedChoice<String> getSurnames() {
+        return surnames;
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.dhsc.htbhf.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Builds randomised requests for each stub endpoint, choosing first names and surnames from the configured
+ * scenario mix. Card IDs are built with the prefix the stub would give a card created with the chosen first name,
+ * so balance and deposit requests exercise the same scenarios as card creation without depending on its responses.
+ */
+public class StubRequestFactory {
+
+    // Letters allowed at the start of a NINO, excluding X which triggers the stub's not matched scenarios.
+    private static final char[] NINO_FIRST_LETTERS = "ABCEGHJKLMNOPRSTWYZ".toCharArray();
+    private static final char[] NINO_SECOND_LETTERS = "ABCEGHJKLMNPRSTWYZ".toCharArray();
+    private static final char[] NINO_SUFFIXES = "ABCD".toCharArray();
+    private static final String[] POSTCODES = {"BS1 4TB", "AA1 1AA", "SW1A 1AA", "M1 1AE", "EH1 1YZ", "CF10 1EP", "LS1 4DY", "B33 8TH"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final WeightedChoice<String> firstNames;
+    private final WeightedChoice<String> surnames;
+    private final String eligibilityEndDate = LocalDate.now().plusDays(28).toString();
+
+    public StubRequestFactory(LoadProfile profile) {
+        this.baseUrl = profile.getBaseUrl();
+        this.firstNames = profile.getFirstNames();
+        this.surnames = profile.getSurnames();
+    }
+
+    public HttpRequest buildRequest(Endpoint endpoint, SplittableRandom random) {
+        switch (endpoint) {
+            case DWP_BENEFITS:
+                return dwpBenefitsRequest(random);
+            case CREATE_CARD:
+                return createCardRequest(random);
+            case CARD_BALANCE:
+                return request("/v1/cards/" + cardId(random) + "/balance").GET().build();
+            case DEPOSIT_FUNDS:
+                return postJson("/v1/cards/" + cardId(random) + "/deposit",
+                        "{\"amountInPence\":1240,\"reference\":\"" + Long.toHexString(random.nextLong()) + "\"}");
+            case POSTCODE:
+                return request("/v1/postcodes/" + POSTCODES[random.nextInt(POSTCODES.length)].replace(" ", "")).GET().build();
+            default:
+                throw new IllegalArgumentException("Unsupported endpoint: " + endpoint);
+        }
+    }
+
+    private HttpRequest dwpBenefitsRequest(SplittableRandom random) {
+        return request("/v2/dwp/benefits")
+                .header("surname", surnames.pick(random))
+                .header("nino", nino(random))
+                .header("dateOfBirth", "1985-12-31")
+                .header("addressLine1", "742 Evergreen Terrace")
+                .header("postcode", POSTCODES[random.nextInt(POSTCODES.length)])
+                .header("emailAddress", "homer@simpson.com")
+                .header("mobilePhoneNumber", "+447700900000")
+                .header("eligibilityEndDate", eligibilityEndDate)
+                .header("ucMonthlyIncomeThreshold", "40800")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest createCardRequest(SplittableRandom random) {
+        String body = "{\"firstName\":\"" + firstNames.pick(random) + "\","
+                + "\"lastName\":\"Simpson\","
+                + "\"address\":{\"addressLine1\":\"742 Evergreen Terrace\",\"townOrCity\":\"Springfield\",\"postcode\":\"AA1 1AA\"},"
+                + "\"dateOfBirth\":\"1985-12-31\","
+                + "\"email\":\"homer@simpson.com\","
+                + "\"mobile\":\"+447700900000\","
+                + "\"claimId\":\"" + Long.toHexString(random.nextLong()) + "\"}";
+        return postJson("/v1/cards", body);
+    }
+
+    private String nino(SplittableRandom random) {
+        StringBuilder nino = new StringBuilder(9)
+                .append(NINO_FIRST_LETTERS[random.nextInt(NINO_FIRST_LETTERS.length)])
+                .append(NINO_SECOND_LETTERS[random.nextInt(NINO_SECOND_LETTERS.length)]);
+        // The first two digits are the number of children under 1 and under 4, so keep them realistic.
+        nino.append(random.nextInt(2)).append(random.nextInt(4));
+        for (int i = 0; i < 4; i++) {
+            nino.append(random.nextInt(10));
+        }
+        return nino.append(NINO_SUFFIXES[random.nextInt(NINO_SUFFIXES.length)]).toString();
+    }
+
+    private String cardId(SplittableRandom random) {
+        return CardScenario.cardIdPrefixForFirstName(firstNames.pick(random)) + "-" + Long.toHexString(random.nextLong());
+    }
+
+    private HttpRequest postJson(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(TIMEOUT);
+    }
+}
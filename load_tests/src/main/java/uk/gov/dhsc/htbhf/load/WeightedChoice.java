@@ -0,0 +1,77 @@
+package uk.gov.dhsc.htbhf.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Picks values at random in proportion to their configured weights.
+ *
+ * @param <T> The type of value to pick
+ */
+public class WeightedChoice<T> {
+
+    private final List<T> values;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public WeightedChoice(Map<T, Integer> weights) {
+        this.values = new ArrayList<>(weights.size());
+        this.cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        for (Map.Entry<T, Integer> weight : weights.entrySet()) {
+            if (weight.getValue() < 0) {
+                throw new IllegalArgumentException("Weight for " + weight.getKey() + " must not be negative");
+            }
+            total += weight.getValue();
+            cumulativeWeights[values.size()] = total;
+            values.add(weight.getKey());
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be greater than zero");
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Parses weights in the format name:weight,name:weight, e.g. Homer:90,NoTopup:10.
+     *
+     * @param weights   The weights to parse
+     * @param keyParser Converts each name to a value
+     * @param <T>       The type of value
+     * @return The weighted choice
+     */
+    public static <T> WeightedChoice<T> parse(String weights, Function<String, T> keyParser) {
+        Map<T, Integer> parsedWeights = new LinkedHashMap<>();
+        for (String weight : weights.split(",")) {
+            String[] nameAndWeight = weight.trim().split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Weight [" + weight + "] is not in the format name:weight");
+            }
+            parsedWeights.merge(keyParser.apply(nameAndWeight[0].trim()), Integer.valueOf(nameAndWeight[1].trim()), Integer::sum);
+        }
+        return new WeightedChoice<>(parsedWeights);
+    }
+
+    public T pick(SplittableRandom random) {
+        int target = random.nextInt(totalWeight);
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return values.get(low);
+    }
+
+    public List<T> getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.dhsc.htbhf.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class LoadProfileTest {
+
+    @Test
+    void shouldUseDefaultsWhenNoArgumentsGiven() {
+        //When
+        LoadProfile profile = LoadProfile.fromArguments();
+
+        //Then
+        assertThat(profile.getBaseUrl()).isEqualTo(URI.create("http://localhost:8120"));
+        assertThat(profile.getRequestsPerSecond()).isEqualTo(1000);
+        assertThat(profile.getDuration()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(profile.getEndpoints().getValues()).containsExactly(Endpoint.values());
+        assertThat(profile.getFirstNames().getValues()).contains("Homer", "NoTopup", "CardError");
+    }
+
+    @Test
+    void shouldOverrideDefaultsWithArguments() {
+        //When
+        LoadProfile profile = LoadProfile.fromArguments("--rate=250", "--duration=PT30S", "--endpoints=POSTCODE:1",
+                "--base-url=http://smart-stub:8080");
+
+        //Then
+        assertThat(profile.getRequestsPerSecond()).isEqualTo(250);
+        assertThat(profile.getDuration()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(profile.getEndpoints().getValues()).containsExactly(Endpoint.POSTCODE);
+        assertThat(profile.getBaseUrl()).isEqualTo(URI.create("http://smart-stub:8080"));
+    }
+
+    @Test
+    void shouldRejectUnknownArguments() {
+        //When
+        Throwable thrown = catchThrowable(() -> LoadProfile.fromArguments("--users=10"));
+
+        //Then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unknown argument [users]");
+    }
+
+    @Test
+    void shouldRejectArgumentsInTheWrongFormat() {
+        //When
+        Throwable thrown = catchThrowable(() -> LoadProfile.fromArguments("rate=10"));
+
+        //Then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Argument [rate=10] is not in the format --name=value");
+    }
+
+    @Test
+    void shouldRejectRateOfZero() {
+        //When
+        Throwable thrown = catchThrowable(() -> LoadProfile.fromArguments("--rate=0"));
+
+        //Then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("rate must be greater than zero");
+    }
+}
@@ -0,0 +1,74 @@
+package uk.gov.dhsc.htbhf.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class WeightedChoiceTest {
+
+    @Test
+    void shouldPickValuesInProportionToTheirWeights() {
+        //Given
+        WeightedChoice<String> choice = WeightedChoice.parse("Homer:80,NoTopup:15,Partial:5", Function.identity());
+        SplittableRandom random = new SplittableRandom(1);
+        Map<String, Integer> counts = new HashMap<>();
+
+        //When
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(choice.pick(random), 1, Integer::sum);
+        }
+
+        //Then
+        assertThat(counts.get("Homer")).isBetween(79_000, 81_000);
+        assertThat(counts.get("NoTopup")).isBetween(14_000, 16_000);
+        assertThat(counts.get("Partial")).isBetween(4_500, 5_500);
+    }
+
+    @Test
+    void shouldNeverPickValuesWithZeroWeight() {
+        //Given
+        WeightedChoice<Endpoint> choice = WeightedChoice.parse("POSTCODE:0,CARD_BALANCE:1,DWP_BENEFITS:0", Endpoint::valueOf);
+        SplittableRandom random = new SplittableRandom(1);
+
+        //When
+        for (int i = 0; i < 1_000; i++) {
+            //Then
+            assertThat(choice.pick(random)).isEqualTo(Endpoint.CARD_BALANCE);
+        }
+    }
+
+    @Test
+    void shouldCombineWeightsForRepeatedNames() {
+        //When
+        WeightedChoice<String> choice = WeightedChoice.parse("Homer:1, Homer:2", Function.identity());
+
+        //Then
+        assertThat(choice.getValues()).containsExactly("Homer");
+    }
+
+    @Test
+    void shouldRejectWeightsInTheWrongFormat() {
+        //When
+        Throwable thrown = catchThrowable(() -> WeightedChoice.parse("Homer", Function.identity()));
+
+        //Then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Weight [Homer] is not in the format name:weight");
+    }
+
+    @Test
+    void shouldRejectAllZeroWeights() {
+        //When
+        Throwable thrown = catchThrowable(() -> WeightedChoice.parse("Homer:0", Function.identity()));
+
+        //Then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At least one weight must be greater than zero");
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.testdata.CardSeeder;
+import uk.gov.dhsc.htbhf.smartstub.testdata.DataScenario;
+import uk.gov.dhsc.htbhf.smartstub.testdata.ScenarioMix;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures seeding 1 million cards into an empty namespace with 1, 2, 4 and 8 fork/join threads, to show how seeding
+ * scales with cores. Run with ./gradlew jmh -PjmhInclude=CardSeederBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CardSeederBenchmark {
+
+    private static final int CARDS = 1_000_000;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private final ScenarioMix mix = ScenarioMix.parse(ScenarioMix.DEFAULT_MIX).without(DataScenario.CARD_ERROR);
+    private ForkJoinPool pool;
+    private CardSeeder seeder;
+    private StubNamespace namespace;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void createPool() {
+        pool = new ForkJoinPool(threads);
+        seeder = new CardSeeder(pool);
+    }
+
+    @Setup(Level.Iteration)
+    public void createNamespace() {
+        namespace = new StubNamespace("benchmark", seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public StubNamespace seedCards() throws IOException {
+        seeder.seed(OutputStream.nullOutputStream(), namespace, mix, CARDS, seed++);
+        return namespace;
+    }
+}
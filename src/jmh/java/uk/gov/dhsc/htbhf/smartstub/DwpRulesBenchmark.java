@@ -0,0 +1,120 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.CompiledDwpRules;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.DwpRules;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.SurnameRule;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.VerificationOutcomeForSurname;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares deciding the outcomes of v2 DWP requests with the compiled rule table against the if/else rules the
+ * service used before, for a mix of NINOs and surnames covering every scenario. Both return the same outcomes, which
+ * is checked when the benchmark is set up. Run with ./gradlew jmh -PjmhInclude=DwpRulesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DwpRulesBenchmark {
+
+    private static final int REQUESTS = 1024;
+    private static final String[] NINOS = {"MC123456A", "XC123456A", "MX123456A", "AB123456C"};
+
+    private final String[] ninos = new String[REQUESTS];
+    private final String[] surnames = new String[REQUESTS];
+    private StubSettings settings;
+    private DwpRules dwpRules;
+    private int request;
+
+    @Setup(Level.Trial)
+    public void createRequests() {
+        StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+        settings = stubSettingsHolder.get();
+        dwpRules = DwpRules.defaultRules(stubSettingsHolder);
+        List<String> triggerSurnames = new ArrayList<>(settings.getSurnameVerificationOutcomes().keySet());
+        triggerSurnames.add(settings.getAddressLine1NotMatchedSurname());
+        triggerSurnames.add(settings.getPostcodeNotMatchedSurname());
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < REQUESTS; i++) {
+            ninos[i] = NINOS[random.nextInt(NINOS.length)];
+            // Half the surnames trigger nothing, as most real requests would not
+            surnames[i] = random.nextBoolean() ? "Simpson" + i : triggerSurnames.get(random.nextInt(triggerSurnames.size()));
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            if (currentRules(ninos[i], surnames[i]) != compiledRules(ninos[i], surnames[i])) {
+                throw new IllegalStateException("Compiled rules disagree with current rules for " + ninos[i] + ", " + surnames[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public int currentRules() {
+        int i = request++ & (REQUESTS - 1);
+        return currentRules(ninos[i], surnames[i]);
+    }
+
+    @Benchmark
+    public int compiledRules() {
+        int i = request++ & (REQUESTS - 1);
+        return compiledRules(ninos[i], surnames[i]);
+    }
+
+    private int compiledRules(String nino, String surname) {
+        CompiledDwpRules rules = dwpRules.compiledFor(settings);
+        int flags = rules.evaluateNino(nino);
+        SurnameRule surnameRule = rules.getSurnameRule(surname);
+        return pack(rules.getIdentityOutcome(flags), rules.getEligibilityOutcome(flags), surnameRule.getAddressLine1(),
+                surnameRule.getPostcode(), surnameRule.getMobile(), surnameRule.getEmail());
+    }
+
+    /**
+     * The rules as IdentityAndEligibilityService applied them before the rule table was introduced.
+     */
+    private int currentRules(String nino, String surname) {
+        IdentityOutcome identityOutcome = nino.charAt(0) == 'X' ? IdentityOutcome.NOT_MATCHED : IdentityOutcome.MATCHED;
+        EligibilityOutcome eligibilityOutcome = identityOutcome == IdentityOutcome.NOT_MATCHED ? EligibilityOutcome.NOT_SET
+                : nino.charAt(1) == 'X' ? EligibilityOutcome.NOT_CONFIRMED : EligibilityOutcome.CONFIRMED;
+        VerificationOutcome addressLine1Outcome;
+        VerificationOutcome postcodeOutcome;
+        if (surname != null && surname.equals(settings.getAddressLine1NotMatchedSurname())) {
+            addressLine1Outcome = VerificationOutcome.NOT_MATCHED;
+            postcodeOutcome = VerificationOutcome.MATCHED;
+        } else if (surname != null && surname.equals(settings.getPostcodeNotMatchedSurname())) {
+            addressLine1Outcome = VerificationOutcome.MATCHED;
+            postcodeOutcome = VerificationOutcome.NOT_MATCHED;
+        } else {
+            addressLine1Outcome = VerificationOutcome.MATCHED;
+            postcodeOutcome = VerificationOutcome.MATCHED;
+        }
+        VerificationOutcomeForSurname outcomes = settings.getVerificationOutcomesForSurname(surname);
+        return pack(identityOutcome, eligibilityOutcome, addressLine1Outcome, postcodeOutcome, outcomes.getMobileOutcome(), outcomes.getEmailOutcome());
+    }
+
+    private static int pack(IdentityOutcome identity, EligibilityOutcome eligibility, VerificationOutcome addressLine1,
+                            VerificationOutcome postcode, VerificationOutcome mobile, VerificationOutcome email) {
+        return identity.ordinal() | eligibility.ordinal() << 4 | addressLine1.ordinal() << 8 | postcode.ordinal() << 12
+                | mobile.ordinal() << 16 | email.ordinal() << 20;
+    }
+}
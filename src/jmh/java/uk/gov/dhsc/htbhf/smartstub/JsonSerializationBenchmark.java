@@ -0,0 +1,154 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import uk.gov.dhsc.htbhf.dwp.model.DWPEligibilityRequest;
+import uk.gov.dhsc.htbhf.dwp.model.PersonDTO;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.json.PooledJsonHttpMessageConverter;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CardBalanceResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.IdentifierService;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.DwpRules;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.HouseholdIdentifierMode.RANDOM;
+
+/**
+ * Compares writing each response type with the standard Jackson message converter against the pooled converter with
+ * Afterburner, as enabled by json.high-throughput.enabled. Setup fails if the two produce different JSON.
+ * Run with ./gradlew jmh -PjmhInclude=JsonSerializationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"IDENTITY_AND_ELIGIBILITY", "CREATE_CARD", "CARD_BALANCE", "DEPOSIT_FUNDS"})
+    private String responseType;
+
+    private Object response;
+    private MappingJackson2HttpMessageConverter standardConverter;
+    private PooledJsonHttpMessageConverter pooledConverter;
+    private final ReusableOutputMessage outputMessage = new ReusableOutputMessage();
+
+    @Setup
+    public void createConverters() throws IOException {
+        response = buildResponse(responseType);
+        standardConverter = new MappingJackson2HttpMessageConverter(buildObjectMapper());
+        ObjectMapper afterburnerMapper = buildObjectMapper().registerModule(new AfterburnerModule());
+        pooledConverter = new PooledJsonHttpMessageConverter(afterburnerMapper);
+
+        byte[] standardJson = standard().toByteArray();
+        byte[] pooledJson = pooled().toByteArray();
+        if (!Arrays.equals(standardJson, pooledJson)) {
+            throw new IllegalStateException("Pooled JSON " + new String(pooledJson) + " differs from standard JSON " + new String(standardJson));
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream standard() throws IOException {
+        outputMessage.reset();
+        standardConverter.write(response, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.body;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream pooled() throws IOException {
+        outputMessage.reset();
+        pooledConverter.write(response, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.body;
+    }
+
+    // Matches the ObjectMapper Spring Boot configures, with spring.jackson.default-property-inclusion=non_null
+    private static ObjectMapper buildObjectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static Object buildResponse(String responseType) {
+        switch (responseType) {
+            case "IDENTITY_AND_ELIGIBILITY":
+                PersonDTO person = PersonDTO.builder()
+                        .surname("Simpson")
+                        .nino("MC129999A")
+                        .dateOfBirth(LocalDate.of(1985, 12, 31))
+                        .addressLine1("742 Evergreen Terrace")
+                        .postcode("AA1 1AA")
+                        .emailAddress("homer@simpson.com")
+                        .mobilePhoneNumber("+447700900000")
+                        .build();
+                DWPEligibilityRequest request = DWPEligibilityRequest.builder()
+                        .person(person)
+                        .eligibilityEndDate(LocalDate.now().plusDays(28))
+                        .ucMonthlyIncomeThresholdInPence(40800)
+                        .build();
+                StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+                return new IdentityAndEligibilityService(stubSettingsHolder, DwpRules.defaultRules(stubSettingsHolder), new IdentifierService(), RANDOM,
+                        new SimulationClock(), new RandomOutcomes())
+                        .evaluateEligibility(request);
+            case "CREATE_CARD":
+                return CreateCardResponse.builder().cardAccountId("9-7c9e6679-7425-40de-944b-e07fc1f90ae7").build();
+            case "CARD_BALANCE":
+                return CardBalanceResponse.builder().availableBalanceInPence(1239).ledgerBalanceInPence(1239).build();
+            case "DEPOSIT_FUNDS":
+                return DepositFundsResponse.builder().referenceId("0f8fad5b-d9cb-469f-a165-70867728950e").build();
+            default:
+                throw new IllegalArgumentException("Unknown response type: " + responseType);
+        }
+    }
+
+    private static class ReusableOutputMessage implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        private HttpHeaders headers;
+
+        void reset() {
+            body.reset();
+            headers = new HttpHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixture;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixtureIndex;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures NINO fixture lookups against indexes of 1 million and 10 million NINOs, for NINOs that have a fixture and
+ * those that don't. Run with ./gradlew jmh -PjmhInclude=NinoFixtureIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NinoFixtureIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final String PREFIXES = "ABCEHJKLMPRSTWY";
+    private static final String SUFFIXES = "ABCD";
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private Path csvFile;
+    private Path indexFile;
+    private NinoFixtureIndex index;
+    private final String[] hits = new String[QUERIES];
+    private final String[] misses = new String[QUERIES];
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildIndex() throws IOException {
+        csvFile = Files.createTempFile("nino-fixtures", ".csv");
+        indexFile = Files.createTempFile("nino-fixtures", ".idx");
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile)) {
+            for (int i = 0; i < size; i++) {
+                writer.write(nino(2 * i));
+                writer.write(i % 3 == 0 ? ",NOT_MATCHED,NOT_SET\n" : ",MATCHED,CONFIRMED,UNIVERSAL_CREDIT,MATCHED,MATCHED,NOT_HELD,MATCHED\n");
+            }
+        }
+        index = NinoFixtureIndex.build(csvFile, indexFile);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < QUERIES; i++) {
+            int n = random.nextInt(size);
+            hits[i] = nino(2 * n);
+            misses[i] = nino(2 * n + 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    @Benchmark
+    public Optional<NinoFixture> findHit() {
+        return index.find(hits[query++ & (QUERIES - 1)]);
+    }
+
+    @Benchmark
+    public Optional<NinoFixture> findMiss() {
+        return index.find(misses[query++ & (QUERIES - 1)]);
+    }
+
+    // Spreads sequential numbers over the prefix letters, digits and suffix letter of valid NINOs.
+    private static String nino(int number) {
+        int digits = number % 1_000_000;
+        int rest = number / 1_000_000;
+        char suffix = SUFFIXES.charAt(rest % SUFFIXES.length());
+        rest /= SUFFIXES.length();
+        char second = PREFIXES.charAt(rest % PREFIXES.length());
+        char first = PREFIXES.charAt(rest / PREFIXES.length());
+        return String.format("%c%c%06d%c", first, second, digits, suffix);
+    }
+}
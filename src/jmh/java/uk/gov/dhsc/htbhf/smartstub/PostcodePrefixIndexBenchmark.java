@@ -0,0 +1,60 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodePrefixIndex;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.generatePostcodeDataset;
+
+/**
+ * Measures autocomplete queries per second, typing each of a set of random postcodes one keystroke at a time.
+ * Run with ./gradlew jmh -PjmhInclude=PostcodePrefixIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PostcodePrefixIndexBenchmark {
+
+    private static final int QUERIES = 4096;
+
+    @Param({"100000", "2600000"})
+    private int size;
+
+    private PostcodePrefixIndex index;
+    private final String[] prefixes = new String[QUERIES];
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        PostcodeDataset dataset = generatePostcodeDataset(size, 42);
+        index = new PostcodePrefixIndex(dataset);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < QUERIES; i++) {
+            String postcode = dataset.getPostcode(random.nextInt(size));
+            prefixes[i] = postcode.substring(0, 1 + random.nextInt(postcode.length()));
+        }
+    }
+
+    @Benchmark
+    public List<String> autocomplete() {
+        return index.findPostcodesStartingWith(prefixes[query++ & (QUERIES - 1)], 10);
+    }
+}
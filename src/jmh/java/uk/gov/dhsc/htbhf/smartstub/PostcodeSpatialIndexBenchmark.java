@@ -0,0 +1,68 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeSpatialIndex;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.generatePostcodeDataset;
+
+/**
+ * Measures nearest postcode lookups against generated datasets of 1 million and 2.6 million postcodes
+ * (roughly the number of live postcodes in the UK). Run with ./gradlew jmh -PjmhInclude=PostcodeSpatialIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PostcodeSpatialIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"1000000", "2600000"})
+    private int size;
+
+    @Param({"100", "2000"})
+    private int radiusInMetres;
+
+    private PostcodeSpatialIndex index;
+    private final double[] longitudes = new double[QUERIES];
+    private final double[] latitudes = new double[QUERIES];
+    private int query;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        index = new PostcodeSpatialIndex(generatePostcodeDataset(size, 42));
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < QUERIES; i++) {
+            longitudes[i] = -5.5 + random.nextDouble() * 7;
+            latitudes[i] = 50.2 + random.nextDouble() * 8;
+        }
+    }
+
+    @Benchmark
+    public PostcodeSpatialIndex.Neighbours findNearestTen() {
+        int i = query++ & (QUERIES - 1);
+        return index.findNearest(longitudes[i], latitudes[i], 10, radiusInMetres);
+    }
+
+    @Benchmark
+    public PostcodeSpatialIndex.Neighbours findNearestHundred() {
+        int i = query++ & (QUERIES - 1);
+        return index.findNearest(longitudes[i], latitudes[i], 100, radiusInMetres);
+    }
+}
@@ -0,0 +1,78 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dhsc.htbhf.smartstub.ratelimit.RateLimiter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the cost of rate limiting a request with 32 threads contending for the same buckets.
+ * Run with ./gradlew jmh -PjmhInclude=RateLimiterBenchmark
+ *
+ * <ul>
+ * <li>allowed - limits high enough that every request gets a token, so every call updates all three buckets</li>
+ * <li>rejected - limits so low that almost every request is rejected by its client bucket</li>
+ * <li>sharedClient - every thread uses the same client id, so all three buckets are contended</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class RateLimiterBenchmark {
+
+    private static final int UNLIMITED_RATE = 1_000_000_000;
+    private static final int UNLIMITED_BURST = 1_000_000;
+
+    private final AtomicInteger clientIds = new AtomicInteger();
+    private RateLimiter highLimits;
+    private RateLimiter lowLimits;
+    private Method endpoint;
+
+    @State(Scope.Thread)
+    public static class Client {
+        private String clientId;
+
+        @Setup
+        public void assignClientId(RateLimiterBenchmark benchmark) {
+            clientId = "client-" + benchmark.clientIds.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void createRateLimiters() throws NoSuchMethodException {
+        endpoint = RateLimiterBenchmark.class.getMethod("allowed", Client.class);
+        highLimits = new RateLimiter(true, UNLIMITED_RATE, UNLIMITED_BURST, UNLIMITED_RATE, UNLIMITED_BURST, UNLIMITED_RATE, UNLIMITED_BURST, 100);
+        lowLimits = new RateLimiter(true, 1, 1, 1, 1, 1, 1, 100);
+    }
+
+    @Benchmark
+    public long allowed(Client client) {
+        return highLimits.tryAcquire(endpoint, client.clientId);
+    }
+
+    @Benchmark
+    public long rejected(Client client) {
+        return lowLimits.tryAcquire(endpoint, client.clientId);
+    }
+
+    @Benchmark
+    public long sharedClient() {
+        return highLimits.tryAcquire(endpoint, "shared-client");
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.gov.dhsc.htbhf.smartstub.settlement.TimerWheel;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deposit settlement timers with 1 million and 10 million pending, comparing the {@link TimerWheel} with a
+ * {@link PriorityQueue}. Each operation schedules one timer with a delay of up to twice the number pending and advances
+ * one tick, so about that many stay pending throughout. Run with ./gradlew jmh -PjmhInclude=TimerWheelBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimerWheelBenchmark {
+
+    private static final int DELAYS = 4096;
+    private static final Object TARGET = new Object();
+
+    @Param({"1000000", "10000000"})
+    private int pending;
+
+    private final long[] delays = new long[DELAYS];
+    private TimerWheel<Object> wheel;
+    private PriorityQueue<Timer> queue;
+    private long queueTick;
+    private int delay;
+
+    @Setup(Level.Trial)
+    public void fillTimers() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < DELAYS; i++) {
+            delays[i] = 1 + random.nextLong(2L * pending);
+        }
+        wheel = new TimerWheel<>();
+        queue = new PriorityQueue<>(pending);
+        for (int i = 0; i < pending; i++) {
+            long delayInTicks = 1 + random.nextLong(2L * pending);
+            wheel.schedule(delayInTicks, TARGET, i);
+            queue.add(new Timer(delayInTicks, i));
+        }
+    }
+
+    @Benchmark
+    public int timerWheel(Blackhole blackhole) {
+        wheel.schedule(delays[delay++ & (DELAYS - 1)], TARGET, 1);
+        return wheel.advanceTo(wheel.getCurrentTick() + 1, (target, value) -> blackhole.consume(value));
+    }
+
+    @Benchmark
+    public int priorityQueue(Blackhole blackhole) {
+        queue.add(new Timer(queueTick + delays[delay++ & (DELAYS - 1)], 1));
+        queueTick++;
+        int expired = 0;
+        while (!queue.isEmpty() && queue.peek().deadline <= queueTick) {
+            blackhole.consume(queue.poll().value);
+            expired++;
+        }
+        return expired;
+    }
+
+    private static final class Timer implements Comparable<Timer> {
+
+        private final long deadline;
+        private final long value;
+
+        private Timer(long deadline, long value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+}
@@ -2,12 +2,22 @@ package uk.gov.dhsc.htbhf.smartstub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import uk.gov.dhsc.htbhf.CommonRestConfiguration;
 import uk.gov.dhsc.htbhf.smartstub.controller.v2.DwpEligibilityRequestResolver;
 import uk.gov.dhsc.htbhf.smartstub.converter.v2.RequestHeaderToDWPEligibilityRequestConverter;
+import uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.ratelimit.ConcurrencyLimitInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.ratelimit.RateLimitInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.settings.LatencyAndFaultInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.timing.ServerTimingInterceptor;
 
 import java.util.List;
 
@@ -15,14 +25,60 @@ import java.util.List;
 @Import(CommonRestConfiguration.class)
 public class SmartStubApplication implements WebMvcConfigurer {
 
+    private static final String[] UPSTREAM_API_PATHS = {"/v2/dwp/benefits", "/v1/cards", "/v1/cards/**"};
+
+    private final NamespaceInterceptor namespaceInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final LatencyAndFaultInterceptor latencyAndFaultInterceptor;
+    private final ServerTimingInterceptor serverTimingInterceptor;
+
+    public SmartStubApplication(NamespaceInterceptor namespaceInterceptor,
+                                RateLimitInterceptor rateLimitInterceptor,
+                                ConcurrencyLimitInterceptor concurrencyLimitInterceptor,
+                                LatencyAndFaultInterceptor latencyAndFaultInterceptor,
+                                ServerTimingInterceptor serverTimingInterceptor) {
+        this.namespaceInterceptor = namespaceInterceptor;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+        this.latencyAndFaultInterceptor = latencyAndFaultInterceptor;
+        this.serverTimingInterceptor = serverTimingInterceptor;
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(SmartStubApplication.class, args);
     }
 
+    /**
+     * Adds a strong ETag, computed from the response body, to DWP eligibility responses and responds to a matching
+     * If-None-Match header with 304 (Not Modified). Only registered when the household identifier is derived from the
+     * NINO, as random identifiers never give a matching ETag, and buffering and hashing every body would be wasted.
+     */
+    @Bean
+    @ConditionalOnExpression("'${dwp.household-identifier-mode}' != 'RANDOM'")
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> eligibilityEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/v2/dwp/benefits");
+        return registration;
+    }
+
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
         RequestHeaderToDWPEligibilityRequestConverter converter = new RequestHeaderToDWPEligibilityRequestConverter();
         argumentResolvers.add(new DwpEligibilityRequestResolver(converter));
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Requests for an invalid namespace are rejected before they can use up any rate limit or concurrency permits.
+        registry.addInterceptor(namespaceInterceptor).addPathPatterns(UPSTREAM_API_PATHS);
+        // Rate limits are checked next so that requests over the rate are rejected without waiting for a permit.
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns(UPSTREAM_API_PATHS);
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns(UPSTREAM_API_PATHS);
+        // Latency is added while holding a concurrency permit, as a slow upstream request would be.
+        registry.addInterceptor(latencyAndFaultInterceptor).addPathPatterns(UPSTREAM_API_PATHS);
+        // Must be last, as it marks the end of the time spent in interceptors.
+        registry.addInterceptor(serverTimingInterceptor);
+    }
+
 }
@@ -0,0 +1,182 @@
+package uk.gov.dhsc.htbhf.smartstub.clock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * The clock every time-dependent response of the stub is based on, instead of the system clock, so that a simulation
+ * covering weeks of payment cycles can be run in minutes. It starts at the system time running at normal speed, and
+ * can be set to any time, frozen, or run at any multiple of normal speed through /admin/clock.
+ *
+ * <p>The time is worked out from an immutable {@link Anchor}: the simulated time at a given {@link System#nanoTime()},
+ * and the speed it has run at since. Changes replace the anchor whole through a single volatile reference, so reading
+ * the clock takes a volatile read, a call to {@link System#nanoTime()} and some arithmetic, with no locking. The
+ * arithmetic saturates, so a clock run fast for long enough stops at the end of the range of nanoseconds since the
+ * epoch (in 2262) rather than wrapping round to 1677.
+ *
+ * <p>As well as the time, the clock has a monotonic {@link #nanoTime()} for timing simulated delays, such as deposit
+ * settlement. It runs at the same speed as the time, but isn't changed by setting the time, so setting the clock back
+ * never holds up a delay that is already running.
+ *
+ * <p>Rate limits, concurrency queueing, injected latency, slow drip and server timing are all about the real load on
+ * the stub, so they stay on real time.
+ */
+@Component
+@Slf4j
+public class SimulationClock extends Clock {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile Anchor anchor = new Anchor(System.nanoTime(), 0, currentEpochNanos(), 1);
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zoneId) {
+        return zone.equals(zoneId) ? this : new ZonedClock(this, zoneId);
+    }
+
+    @Override
+    public Instant instant() {
+        long epochNanos = anchor.epochNanosAt(System.nanoTime());
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    @Override
+    public long millis() {
+        return Math.floorDiv(anchor.epochNanosAt(System.nanoTime()), NANOS_PER_MILLI);
+    }
+
+    /**
+     * @return The simulated date in the system time zone
+     */
+    public LocalDate today() {
+        return LocalDate.now(this);
+    }
+
+    /**
+     * The simulated equivalent of {@link System#nanoTime()}, which only has meaning when compared with another value
+     * from this method.
+     *
+     * @return The simulated nanoseconds since an arbitrary origin
+     */
+    public long nanoTime() {
+        return anchor.simulatedNanosAt(System.nanoTime());
+    }
+
+    public double getSpeed() {
+        return anchor.speed;
+    }
+
+    /**
+     * Sets the simulated time and the speed it runs at from now on.
+     *
+     * @param time  The simulated time now, or null to carry on from the current simulated time
+     * @param speed The multiple of normal speed to run at, where 0 freezes the clock
+     */
+    public synchronized void set(Instant time, double speed) {
+        if (!(speed >= 0)) {
+            throw new IllegalArgumentException("The speed of the clock must be zero or more, not " + speed);
+        }
+        long nowNanos = System.nanoTime();
+        Anchor current = anchor;
+        long epochNanos = time == null ? current.epochNanosAt(nowNanos) : toEpochNanos(time);
+        anchor = new Anchor(nowNanos, current.simulatedNanosAt(nowNanos), epochNanos, speed);
+        log.info("Simulation clock set to {} running at {} times normal speed", instant(), speed);
+    }
+
+    /**
+     * Puts the clock back to the system time, running at normal speed.
+     */
+    public synchronized void reset() {
+        long nowNanos = System.nanoTime();
+        anchor = new Anchor(nowNanos, anchor.simulatedNanosAt(nowNanos), currentEpochNanos(), 1);
+        log.info("Simulation clock reset to the system time");
+    }
+
+    private static long currentEpochNanos() {
+        return toEpochNanos(Instant.now());
+    }
+
+    private static long toEpochNanos(Instant time) {
+        return Math.addExact(Math.multiplyExact(time.getEpochSecond(), NANOS_PER_SECOND), time.getNano());
+    }
+
+    private static final class Anchor {
+
+        private final long realNanos;
+        private final long simulatedNanos;
+        private final long epochNanos;
+        private final double speed;
+
+        private Anchor(long realNanos, long simulatedNanos, long epochNanos, double speed) {
+            this.realNanos = realNanos;
+            this.simulatedNanos = simulatedNanos;
+            this.epochNanos = epochNanos;
+            this.speed = speed;
+        }
+
+        private long elapsedNanosAt(long nowNanos) {
+            long realElapsed = nowNanos - realNanos;
+            return speed == 1 ? realElapsed : (long) (realElapsed * speed);
+        }
+
+        private long simulatedNanosAt(long nowNanos) {
+            return saturatedAdd(simulatedNanos, elapsedNanosAt(nowNanos));
+        }
+
+        private long epochNanosAt(long nowNanos) {
+            return saturatedAdd(epochNanos, elapsedNanosAt(nowNanos));
+        }
+
+        // Casting the elapsed time from a double already saturates, so only the additions can overflow.
+        private static long saturatedAdd(long a, long b) {
+            long sum = a + b;
+            if (((a ^ sum) & (b ^ sum)) < 0) {
+                return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+            }
+            return sum;
+        }
+    }
+
+    private static final class ZonedClock extends Clock {
+
+        private final SimulationClock clock;
+        private final ZoneId zone;
+
+        private ZonedClock(SimulationClock clock, ZoneId zone) {
+            this.clock = clock;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zoneId) {
+            return clock.withZone(zoneId);
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+
+        @Override
+        public long millis() {
+            return clock.millis();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.dhsc.htbhf.smartstub.clock;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The time of the {@link SimulationClock} and the multiple of normal speed it runs at, where a speed of 0 freezes it.
+ * When setting the clock, a null time carries on from the current simulated time.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class SimulationClockSettings {
+
+    @JsonProperty("time")
+    private Instant time;
+
+    @NotNull
+    @DecimalMin("0")
+    @DecimalMax("100000")
+    @JsonProperty("speed")
+    private Double speed;
+}
@@ -0,0 +1,73 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespaces;
+import uk.gov.dhsc.htbhf.smartstub.testdata.CardSeedingService;
+import uk.gov.dhsc.htbhf.smartstub.testdata.ScenarioMix;
+
+import java.io.IOException;
+import java.util.Optional;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Creates cards in a namespace in bulk before a test run starts, as though each had been created through
+ * POST /v1/cards, and streams their IDs back for the load generator to use. The card ID prefix of each card is picked
+ * from the given scenario mix, so the same count, seed and mix always give the same card IDs.
+ */
+@RestController
+@RequestMapping("/admin/namespaces/{namespace}/cards")
+@AllArgsConstructor
+@Slf4j
+public class CardSeedingController {
+
+    private StubNamespaces stubNamespaces;
+    private CardSeedingService cardSeedingService;
+
+    @PostMapping
+    public void seedCards(@PathVariable("namespace") String namespace,
+                          @RequestParam(name = "count", defaultValue = "1000") long count,
+                          @RequestParam(name = "seed", defaultValue = "42") long seed,
+                          @RequestParam(name = "mix", defaultValue = ScenarioMix.DEFAULT_MIX) String mix,
+                          HttpServletResponse response) throws IOException {
+        log.debug("Received seed cards request for namespace: {}, count: {}, seed: {}, mix: {}", namespace, count, seed, mix);
+        if (!StubNamespaces.isValidId(namespace)) {
+            throw new IllegalArgumentException("Namespace must be 1 to 64 letters, digits, '.', '_' or '-'");
+        }
+        cardSeedingService.checkCount(count);
+        ScenarioMix cardMix = cardSeedingService.createCardMix(ScenarioMix.parse(mix));
+        Optional<StubNamespace> stubNamespace = stubNamespaces.getOrCreate(namespace);
+        if (stubNamespace.isEmpty()) {
+            response.sendError(SERVICE_UNAVAILABLE.value(), "Too many namespaces, drop one through /admin/namespaces");
+            return;
+        }
+        response.setContentType("text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cards-" + namespace + "-" + seed + ".csv\"");
+        cardSeedingService.seed(response.getOutputStream(), stubNamespace.get(), cardMix, count, seed);
+    }
+
+    /**
+     * Handles an invalid namespace, count or mix, all of which are found before anything is written.
+     *
+     * @param exception The exception describing what is invalid
+     * @return The reason the request is invalid
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public String handleInvalidRequest(IllegalArgumentException exception) {
+        return exception.getMessage();
+    }
+}
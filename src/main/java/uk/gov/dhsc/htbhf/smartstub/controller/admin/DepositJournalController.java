@@ -0,0 +1,89 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.journal.DepositJournal;
+import uk.gov.dhsc.htbhf.smartstub.journal.JournalExport;
+import uk.gov.dhsc.htbhf.smartstub.journal.JournalFormat;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Locale;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Exports the journal of every deposit accepted since the stub started, for reconciling against the deposits a load
+ * test made. The journal is already held in each format, so it is sent as it is: by Tomcat with sendfile, which copies
+ * the file to the socket without it passing through the JVM, or for small journals and other servers with
+ * {@link JournalExport#transferTo}.
+ */
+@RestController
+@RequestMapping("/admin/deposits")
+@AllArgsConstructor
+@Slf4j
+public class DepositJournalController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // As with Tomcat's DefaultServlet, smaller files are quicker to copy than to hand over
+    private static final long MIN_SENDFILE_LENGTH = 48 * 1024;
+
+    private DepositJournal depositJournal;
+
+    /**
+     * Sends every deposit recorded before the request, oldest first.
+     *
+     * @param format   CSV or NDJSON
+     * @param request  The request, used to hand the file to Tomcat
+     * @param response The response to send the journal in, which is 404 (Not Found) if the journal is disabled
+     */
+    @GetMapping
+    public void exportDeposits(@RequestParam(name = "format", defaultValue = "CSV") String format,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        log.debug("Received export deposits request for format: {}", format);
+        Optional<JournalExport> export = depositJournal.export(JournalFormat.valueOf(format.toUpperCase(Locale.UK)));
+        if (export.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        JournalExport journalExport = export.get();
+        response.setContentType(journalExport.getFormat().getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setContentLengthLong(journalExport.getLength());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"deposits." + journalExport.getFormat().name().toLowerCase(Locale.UK) + "\"");
+        if (journalExport.getLength() >= MIN_SENDFILE_LENGTH && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, journalExport.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, journalExport.getLength());
+        } else {
+            journalExport.transferTo(Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * Handles an unknown format, which is found before anything is written.
+     *
+     * @param exception The exception describing what is invalid
+     * @return The reason the request is invalid
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public String handleInvalidRequest(IllegalArgumentException exception) {
+        return exception.getMessage();
+    }
+}
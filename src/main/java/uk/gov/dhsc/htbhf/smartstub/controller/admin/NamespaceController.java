@@ -0,0 +1,62 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccountSummary;
+import uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceSummary;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespaces;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Shows and drops the state held for each namespace (test run), identified by the X-Test-Run-Id header of the
+ * requests that created it. Dropping a namespace gives the next request for it a clean slate without restarting the stub.
+ */
+@RestController
+@RequestMapping("/admin/namespaces")
+@AllArgsConstructor
+@Slf4j
+public class NamespaceController {
+
+    private StubNamespaces stubNamespaces;
+
+    @GetMapping
+    public List<NamespaceSummary> getNamespaces() {
+        return stubNamespaces.getAll().stream()
+                .map(NamespaceSummary::of)
+                .collect(toList());
+    }
+
+    @GetMapping("/{namespace}")
+    public ResponseEntity<NamespaceSummary> getNamespace(@PathVariable("namespace") String namespace) {
+        return ResponseEntity.of(stubNamespaces.find(namespace).map(NamespaceSummary::of));
+    }
+
+    @GetMapping("/{namespace}/cards/{cardId}")
+    public ResponseEntity<CardAccountSummary> getCardAccount(@PathVariable("namespace") String namespace,
+                                                             @PathVariable("cardId") String cardId) {
+        return ResponseEntity.of(stubNamespaces.find(namespace)
+                .flatMap(stubNamespace -> stubNamespace.findCardAccount(cardId))
+                .map(CardAccountSummary::of));
+    }
+
+    /**
+     * Drops all the state held for the namespace. Takes the same, short, time however much state there is.
+     *
+     * @param namespace The namespace to drop
+     * @return 204 (No Content) if the namespace was dropped, or 404 (Not Found) if there was no such namespace
+     */
+    @DeleteMapping("/{namespace}")
+    public ResponseEntity<Void> dropNamespace(@PathVariable("namespace") String namespace) {
+        log.debug("Received drop namespace request for: {}", namespace);
+        return stubNamespaces.drop(namespace) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,40 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixtures;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixturesSummary;
+
+/**
+ * Shows the NINO fixtures in use, and reloads them from the fixtures file without restarting the stub.
+ */
+@RestController
+@RequestMapping("/admin/nino-fixtures")
+@AllArgsConstructor
+@Slf4j
+public class NinoFixturesController {
+
+    private NinoFixtures ninoFixtures;
+
+    @GetMapping
+    public NinoFixturesSummary getNinoFixtures() {
+        return NinoFixturesSummary.of(ninoFixtures);
+    }
+
+    /**
+     * Rebuilds the index of NINO fixtures from the fixtures file. Requests continue to be served from the previous
+     * fixtures until the new index is ready, and if the file is invalid the previous fixtures are kept.
+     *
+     * @return The fixtures now in use
+     */
+    @PostMapping("/rebuild")
+    public NinoFixturesSummary rebuildNinoFixtures() {
+        log.debug("Received rebuild NINO fixtures request");
+        ninoFixtures.rebuild();
+        return NinoFixturesSummary.of(ninoFixtures);
+    }
+}
@@ -0,0 +1,50 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClockSettings;
+
+import javax.validation.Valid;
+
+/**
+ * Sets the stub's {@link SimulationClock}, so that time-dependent responses such as children's dates of birth can be
+ * moved on through a simulation faster than real time. PUT sets the time and speed, with a speed of 0 freezing the
+ * clock, and DELETE puts it back to the system time at normal speed.
+ */
+@RestController
+@RequestMapping("/admin/clock")
+@AllArgsConstructor
+@Slf4j
+public class SimulationClockController {
+
+    private SimulationClock simulationClock;
+
+    @GetMapping
+    public SimulationClockSettings getClock() {
+        return currentSettings();
+    }
+
+    @PutMapping
+    public SimulationClockSettings setClock(@RequestBody @Valid SimulationClockSettings settings) {
+        log.debug("Received set clock request: {}", settings);
+        simulationClock.set(settings.getTime(), settings.getSpeed());
+        return currentSettings();
+    }
+
+    @DeleteMapping
+    public SimulationClockSettings resetClock() {
+        simulationClock.reset();
+        return currentSettings();
+    }
+
+    private SimulationClockSettings currentSettings() {
+        return new SimulationClockSettings(simulationClock.instant(), simulationClock.getSpeed());
+    }
+}
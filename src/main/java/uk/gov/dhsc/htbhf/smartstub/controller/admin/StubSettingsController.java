@@ -0,0 +1,44 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import javax.validation.Valid;
+
+/**
+ * Allows the stub's behaviour to be changed at runtime, e.g. between the phases of a load test, without a restart.
+ * The whole of the settings are replaced at once, so a GET followed by a PUT of the modified settings is the way
+ * to change part of them.
+ */
+@RestController
+@RequestMapping("/admin/settings")
+@AllArgsConstructor
+@Slf4j
+public class StubSettingsController {
+
+    private StubSettingsHolder stubSettingsHolder;
+
+    @GetMapping
+    public StubSettings getSettings() {
+        return stubSettingsHolder.get();
+    }
+
+    @PutMapping
+    public StubSettings updateSettings(@RequestBody @Valid StubSettings settings) {
+        log.debug("Received update settings request: {}", settings);
+        return stubSettingsHolder.update(settings);
+    }
+
+    @DeleteMapping
+    public StubSettings resetSettings() {
+        return stubSettingsHolder.reset();
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.testdata.ScenarioMix;
+import uk.gov.dhsc.htbhf.smartstub.testdata.TestDataFormat;
+import uk.gov.dhsc.htbhf.smartstub.testdata.TestDataRecordGenerator;
+import uk.gov.dhsc.htbhf.smartstub.testdata.TestDataService;
+
+import java.io.IOException;
+import java.util.Locale;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Streams test data for load tests: records of the details to send to the DWP and card endpoints, each triggering a
+ * scenario picked from the given mix with the stub's current settings. The same count, seed and mix always give the same
+ * records, as long as the settings are the same. Records are written as they are generated, so any number can be
+ * requested.
+ */
+@RestController
+@RequestMapping("/admin/test-data")
+@AllArgsConstructor
+@Slf4j
+public class TestDataController {
+
+    private TestDataService testDataService;
+
+    @GetMapping
+    public void generateTestData(@RequestParam(name = "count", defaultValue = "1000") long count,
+                                 @RequestParam(name = "seed", defaultValue = "42") long seed,
+                                 @RequestParam(name = "mix", defaultValue = ScenarioMix.DEFAULT_MIX) String mix,
+                                 @RequestParam(name = "format", defaultValue = "CSV") String format,
+                                 HttpServletResponse response) throws IOException {
+        log.debug("Received test data request for count: {}, seed: {}, mix: {}, format: {}", count, seed, mix, format);
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        TestDataFormat testDataFormat = TestDataFormat.valueOf(format.toUpperCase(Locale.UK));
+        ScenarioMix scenarioMix = ScenarioMix.parse(mix);
+        TestDataRecordGenerator generator = testDataService.createGenerator(scenarioMix);
+        response.setContentType(testDataFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"test-data-" + seed + "." + testDataFormat.name().toLowerCase(Locale.UK) + "\"");
+        testDataService.write(response.getOutputStream(), generator, scenarioMix, testDataFormat, count, seed);
+    }
+
+    /**
+     * Handles an invalid count, format or mix, all of which are found before anything is written.
+     *
+     * @param exception The exception describing what is invalid
+     * @return The reason the request is invalid
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public String handleInvalidRequest(IllegalArgumentException exception) {
+        return exception.getMessage();
+    }
+}
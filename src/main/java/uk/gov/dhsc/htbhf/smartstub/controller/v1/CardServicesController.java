@@ -4,10 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import uk.gov.dhsc.htbhf.smartstub.model.v1.*;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
 import uk.gov.dhsc.htbhf.smartstub.service.v1.CardService;
 
 import javax.validation.Valid;
 
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_ATTRIBUTE;
+
 @RestController
 @RequestMapping("/v1/cards")
 @AllArgsConstructor
@@ -17,26 +20,29 @@ public class CardServicesController {
     private CardService cardService;
 
     @PostMapping
-    public CreateCardResponse createCard(@RequestBody @Valid CardRequestDTO cardRequestDTO) {
+    public CreateCardResponse createCard(@RequestBody @Valid CardRequestDTO cardRequestDTO,
+                                         @RequestAttribute(NAMESPACE_ATTRIBUTE) StubNamespace namespace) {
         log.debug("Received create card request: {}", cardRequestDTO);
-        CreateCardResponse createCardResponse = cardService.createCard(cardRequestDTO);
+        CreateCardResponse createCardResponse = cardService.createCard(cardRequestDTO, namespace);
         log.debug("Returning create card response: {}", createCardResponse);
         return createCardResponse;
     }
 
     @GetMapping(path = "/{cardId}/balance")
-    public CardBalanceResponse getCardBalance(@PathVariable("cardId") String cardId) {
+    public CardBalanceResponse getCardBalance(@PathVariable("cardId") String cardId,
+                                              @RequestAttribute(NAMESPACE_ATTRIBUTE) StubNamespace namespace) {
         log.debug("Received get card balance request for cardId: {}", cardId);
-        CardBalanceResponse cardBalanceResponse = cardService.getCardBalance(cardId);
+        CardBalanceResponse cardBalanceResponse = cardService.getCardBalance(cardId, namespace);
         log.debug("Returning card balance: {}", cardBalanceResponse);
         return cardBalanceResponse;
     }
 
     @PostMapping("/{cardId}/deposit")
     public DepositFundsResponse depositFunds(@PathVariable("cardId") String cardId,
-                                             @RequestBody @Valid DepositFundsRequestDTO depositFundsRequestDTO) {
+                                             @RequestBody @Valid DepositFundsRequestDTO depositFundsRequestDTO,
+                                             @RequestAttribute(NAMESPACE_ATTRIBUTE) StubNamespace namespace) {
         log.debug("Received deposit funds request for cardId: {}, {}", cardId, depositFundsRequestDTO);
-        DepositFundsResponse response = cardService.depositFunds(cardId, depositFundsRequestDTO);
+        DepositFundsResponse response = cardService.depositFunds(cardId, depositFundsRequestDTO, namespace);
         log.debug("Returning deposit funds response: {}", response);
         return response;
     }
@@ -5,7 +5,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.NearestPostcode;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.PostcodesIoResponse;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeService;
+
+import java.util.List;
 
 import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDataFactory.postcodeData;
 
@@ -19,8 +25,51 @@ import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDataFactory.postcod
 @Slf4j
 public class PostcodesController {
 
+    private PostcodeService postcodeService;
+
     @GetMapping("/{postcode}")
     public String getPostcodeData(@PathVariable("postcode") String postcode) {
         return postcodeData(postcode);
     }
+
+    /**
+     * Autocompletes the given partial postcode from the stub's dataset in the same way as
+     * api.postcodes.io/postcodes/{partial}/autocomplete. The limit defaults to 10.
+     *
+     * @param partialPostcode The start of the postcode
+     * @param limit           The maximum number of postcodes to return
+     * @return The matching postcodes in alphabetical order, or a null result if there are none
+     */
+    @GetMapping("/{partialPostcode}/autocomplete")
+    public PostcodesIoResponse<List<String>> autocompletePostcode(@PathVariable("partialPostcode") String partialPostcode,
+                                                                  @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        List<String> postcodes = postcodeService.autocompletePostcode(partialPostcode, limit);
+        return PostcodesIoResponse.<List<String>>builder()
+                .status(200)
+                .result(postcodes.isEmpty() ? null : postcodes)
+                .build();
+    }
+
+    /**
+     * Reverse geocodes the given coordinates to the nearest postcodes in the stub's dataset, in the same way as
+     * api.postcodes.io/postcodes?lon=&amp;lat=. The limit defaults to 10 and the radius to 100 metres.
+     *
+     * @param longitude      The longitude to search from
+     * @param latitude       The latitude to search from
+     * @param limit          The maximum number of postcodes to return
+     * @param radiusInMetres The maximum distance of any postcode returned
+     * @return The nearest postcodes, closest first, or a null result if there are none within the radius
+     */
+    @GetMapping(params = {"lon", "lat"})
+    public PostcodesIoResponse<List<NearestPostcode>> getNearestPostcodes(@RequestParam("lon") double longitude,
+                                                                          @RequestParam("lat") double latitude,
+                                                                          @RequestParam(name = "limit", defaultValue = "10") int limit,
+                                                                          @RequestParam(name = "radius", defaultValue = "100") int radiusInMetres) {
+        log.debug("Received nearest postcodes request for lon: {}, lat: {}, limit: {}, radius: {}", longitude, latitude, limit, radiusInMetres);
+        List<NearestPostcode> nearestPostcodes = postcodeService.findNearestPostcodes(longitude, latitude, limit, radiusInMetres);
+        return PostcodesIoResponse.<List<NearestPostcode>>builder()
+                .status(200)
+                .result(nearestPostcodes.isEmpty() ? null : nearestPostcodes)
+                .build();
+    }
 }
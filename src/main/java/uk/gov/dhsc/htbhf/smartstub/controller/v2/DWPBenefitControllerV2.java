@@ -8,6 +8,10 @@ import org.springframework.web.bind.annotation.RestController;
 import uk.gov.dhsc.htbhf.dwp.model.DWPEligibilityRequest;
 import uk.gov.dhsc.htbhf.dwp.model.IdentityAndEligibilityResponse;
 import uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixture;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixtures;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/v2/dwp/benefits")
@@ -16,6 +20,7 @@ import uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService;
 public class DWPBenefitControllerV2 {
 
     private IdentityAndEligibilityService identityAndEligibilityService;
+    private NinoFixtures ninoFixtures;
 
     /**
      * Determines the eligibility of the claimant from the given request details. The request
@@ -23,7 +28,7 @@ public class DWPBenefitControllerV2 {
      * The request object is validated, but due to having to use the argument resolver, this
      * is done manually in {@link DwpEligibilityRequestResolver} rather than using Spring's @Valid
      * annotation because this doesn't work on request parameters which are built using
-     * an argument resolver.
+     * an argument resolver. A fixture for the NINO in {@link NinoFixtures} takes precedence over the rules.
      *
      * @param request The valid request object built up by {@link DwpEligibilityRequestResolver}
      * @return The identity and eligibility response.
@@ -31,7 +36,10 @@ public class DWPBenefitControllerV2 {
     @GetMapping
     public IdentityAndEligibilityResponse determineEligibility(DWPEligibilityRequest request) {
         log.debug("Received DWP eligibility request: {}", request);
-        IdentityAndEligibilityResponse identityAndEligibilityResponse = identityAndEligibilityService.evaluateEligibility(request);
+        Optional<NinoFixture> fixture = ninoFixtures.find(request.getPerson().getNino());
+        IdentityAndEligibilityResponse identityAndEligibilityResponse = fixture.isPresent()
+                ? identityAndEligibilityService.respondWithFixture(request, fixture.get())
+                : identityAndEligibilityService.evaluateEligibility(request);
         log.debug("Returning identity and eligibility response: {}", identityAndEligibilityResponse);
         return identityAndEligibilityResponse;
     }
@@ -0,0 +1,151 @@
+package uk.gov.dhsc.htbhf.smartstub.factory.v1;
+
+import uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset.POSTCODE_WIDTH;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset.normalisePostcode;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset.packPostcode;
+
+/**
+ * Builds the {@link PostcodeDataset} used by the postcode endpoints, either by generating synthetic postcodes
+ * spread across Great Britain or by loading them from a CSV file of postcode, longitude and latitude.
+ */
+public class PostcodeDatasetFactory {
+
+    /**
+     * The postcode returned by {@link PostcodeDataFactory}, always included in generated datasets.
+     */
+    public static final String STUB_POSTCODE = "BS1 4TB";
+    public static final double STUB_LONGITUDE = -2.595721;
+    public static final double STUB_LATITUDE = 51.455841;
+
+    private static final String[] AREAS = {
+        "AB", "AL", "B", "BA", "BB", "BD", "BH", "BL", "BN", "BR", "BS", "BT", "CA", "CB", "CF", "CH", "CM", "CO", "CR", "CT",
+        "CV", "CW", "DA", "DD", "DE", "DG", "DH", "DL", "DN", "DT", "DY", "E", "EC", "EH", "EN", "EX", "FK", "FY", "G", "GL",
+        "GU", "HA", "HD", "HG", "HP", "HR", "HS", "HU", "HX", "IG", "IP", "IV", "KA", "KT", "KW", "KY", "L", "LA", "LD", "LE",
+        "LL", "LN", "LS", "LU", "M", "ME", "MK", "ML", "N", "NE", "NG", "NN", "NP", "NR", "NW", "OL", "OX", "PA", "PE", "PH",
+        "PL", "PO", "PR", "RG", "RH", "RM", "S", "SA", "SE", "SG", "SK", "SL", "SM", "SN", "SO", "SP", "SR", "SS", "ST", "SW",
+        "SY", "TA", "TD", "TF", "TN", "TQ", "TR", "TS", "TW", "UB", "W", "WA", "WC", "WD", "WF", "WN", "WR", "WS", "WV", "YO",
+        "ZE"
+    };
+    private static final char[] UNIT_LETTERS = "ABDEFGHJLNPQRSTUWXYZ".toCharArray();
+    private static final int DISTRICTS_PER_AREA = 20;
+    private static final int SECTORS_PER_DISTRICT = 10;
+    private static final int UNITS_PER_SECTOR = UNIT_LETTERS.length * UNIT_LETTERS.length;
+    private static final long CAPACITY = (long) AREAS.length * DISTRICTS_PER_AREA * SECTORS_PER_DISTRICT * UNITS_PER_SECTOR;
+    // A prime that doesn't divide CAPACITY, so stepping by it visits every postcode exactly once in a scattered order.
+    private static final long STRIDE = 1_000_003L;
+
+    private static final double MIN_LONGITUDE = -5.8;
+    private static final double MAX_LONGITUDE = 1.7;
+    private static final double MIN_LATITUDE = 50.0;
+    private static final double MAX_LATITUDE = 58.6;
+
+    /**
+     * Generates a dataset of unique, validly formatted postcodes with coordinates spread uniformly across
+     * Great Britain. The same size and seed always generate the same dataset.
+     *
+     * @param size The number of postcodes to generate
+     * @param seed The random seed for the coordinates
+     * @return The generated dataset
+     */
+    public static PostcodeDataset generatePostcodeDataset(int size, long seed) {
+        if (size < 1 || size > CAPACITY) {
+            throw new IllegalArgumentException("Postcode dataset size must be between 1 and " + CAPACITY + " but was " + size);
+        }
+        byte[] postcodes = new byte[size * POSTCODE_WIDTH];
+        double[] longitudes = new double[size];
+        double[] latitudes = new double[size];
+        packPostcode(STUB_POSTCODE, postcodes, 0);
+        longitudes[0] = STUB_LONGITUDE;
+        latitudes[0] = STUB_LATITUDE;
+
+        String stubPostcode = normalisePostcode(STUB_POSTCODE);
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder postcode = new StringBuilder(POSTCODE_WIDTH);
+        long sequence = 0;
+        for (int i = 1; i < size; sequence++) {
+            buildPostcode((sequence * STRIDE) % CAPACITY, postcode);
+            if (stubPostcode.contentEquals(postcode)) {
+                continue;
+            }
+            packPostcode(postcode.toString(), postcodes, i * POSTCODE_WIDTH);
+            longitudes[i] = MIN_LONGITUDE + random.nextDouble() * (MAX_LONGITUDE - MIN_LONGITUDE);
+            latitudes[i] = MIN_LATITUDE + random.nextDouble() * (MAX_LATITUDE - MIN_LATITUDE);
+            i++;
+        }
+        return new PostcodeDataset(postcodes, longitudes, latitudes);
+    }
+
+    /**
+     * Loads a dataset from a CSV file with lines in the format postcode,longitude,latitude. A header line
+     * and blank lines are skipped.
+     *
+     * @param csvFile The file to load
+     * @return The loaded dataset
+     */
+    public static PostcodeDataset loadPostcodeDataset(Path csvFile) {
+        int capacity = 1024;
+        byte[] postcodes = new byte[capacity * POSTCODE_WIDTH];
+        double[] longitudes = new double[capacity];
+        double[] latitudes = new double[capacity];
+        int size = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < 3 || !isNumeric(fields[1].trim())) {
+                    continue;
+                }
+                if (size == capacity) {
+                    capacity *= 2;
+                    postcodes = Arrays.copyOf(postcodes, capacity * POSTCODE_WIDTH);
+                    longitudes = Arrays.copyOf(longitudes, capacity);
+                    latitudes = Arrays.copyOf(latitudes, capacity);
+                }
+                packPostcode(fields[0], postcodes, size * POSTCODE_WIDTH);
+                longitudes[size] = Double.parseDouble(fields[1].trim());
+                latitudes[size] = Double.parseDouble(fields[2].trim());
+                size++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load postcode dataset from " + csvFile, e);
+        }
+        return new PostcodeDataset(Arrays.copyOf(postcodes, size * POSTCODE_WIDTH),
+                Arrays.copyOf(longitudes, size),
+                Arrays.copyOf(latitudes, size));
+    }
+
+    private static void buildPostcode(long value, StringBuilder postcode) {
+        int units = (int) (value % UNITS_PER_SECTOR);
+        long remaining = value / UNITS_PER_SECTOR;
+        int sector = (int) (remaining % SECTORS_PER_DISTRICT);
+        remaining /= SECTORS_PER_DISTRICT;
+        int district = (int) (remaining % DISTRICTS_PER_AREA) + 1;
+        int area = (int) (remaining / DISTRICTS_PER_AREA);
+        postcode.setLength(0);
+        postcode.append(AREAS[area])
+                .append(district)
+                .append(sector)
+                .append(UNIT_LETTERS[units / UNIT_LETTERS.length])
+                .append(UNIT_LETTERS[units % UNIT_LETTERS.length]);
+    }
+
+    private static boolean isNumeric(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
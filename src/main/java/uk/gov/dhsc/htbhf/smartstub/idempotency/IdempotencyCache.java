@@ -0,0 +1,121 @@
+package uk.gov.dhsc.htbhf.smartstub.idempotency;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the response to each create card and deposit request, so that a client retrying one after a timeout gets
+ * the original response back instead of a second card or deposit, as it would from the real card provider.
+ *
+ * <p>Responses are held in a Caffeine cache bounded to max-entries, which evicts with W-TinyLFU: keys that are retried
+ * are kept in preference to the many that never are, and a burst of new keys can't flush out the rest. Each key expires
+ * ttl-in-seconds after it was first handled. Concurrent requests with the same key wait for the first of them and all
+ * get its response, so a retry storm still creates one card. The cache holds a future of each response, which the first
+ * request completes once it has been handled, outside the cache's locks, so requests for other keys never wait for it.
+ * A request that fails isn't remembered, so the requests waiting for it, and its retries, are handled afresh. Hits,
+ * misses and evictions are published as the stub.idempotency cache metrics.
+ *
+ * <p>When disabled, as by default, every request is handled afresh, as are the warm-up's requests, which would
+ * otherwise fill the cache with keys no load test will retry.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final AsyncCache<IdempotencyKey, Object> responses;
+
+    public IdempotencyCache(@Value("${idempotency.enabled}") boolean enabled,
+                            @Value("${idempotency.max-entries}") long maxEntries,
+                            @Value("${idempotency.ttl-in-seconds}") long ttlInSeconds,
+                            MeterRegistry meterRegistry) {
+        if (enabled) {
+            responses = Caffeine.newBuilder()
+                    .maximumSize(maxEntries)
+                    .expireAfterWrite(Duration.ofSeconds(ttlInSeconds))
+                    .recordStats()
+                    .buildAsync();
+            CaffeineCacheMetrics.monitor(meterRegistry, responses.synchronous(), "stub.idempotency");
+        } else {
+            responses = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return responses != null;
+    }
+
+    /**
+     * Creates a card for the given claim, unless one has already been created for it in the namespace.
+     *
+     * @param namespace  The namespace the request was made in
+     * @param claimId    The claim ID from the request
+     * @param createCard Creates the card, called at most once per claim
+     * @return The response to the first request for the claim
+     */
+    public CreateCardResponse createCardOnce(StubNamespace namespace, String claimId, Supplier<CreateCardResponse> createCard) {
+        return (CreateCardResponse) once(namespace, new IdempotencyKey(namespace.getGeneration(), null, claimId), createCard);
+    }
+
+    /**
+     * Deposits funds to the given card, unless a deposit with the same reference has already been made to it in the
+     * namespace. The amount of a repeated deposit isn't compared with the original.
+     *
+     * @param namespace    The namespace the request was made in
+     * @param cardId       The card the deposit is for
+     * @param reference    The client's reference from the request
+     * @param depositFunds Makes the deposit, called at most once per reference
+     * @return The response to the first request with the reference
+     */
+    public DepositFundsResponse depositFundsOnce(StubNamespace namespace, String cardId, String reference,
+                                                 Supplier<DepositFundsResponse> depositFunds) {
+        return (DepositFundsResponse) once(namespace, new IdempotencyKey(namespace.getGeneration(), cardId, reference), depositFunds);
+    }
+
+    public long size() {
+        return responses == null ? 0 : responses.synchronous().estimatedSize();
+    }
+
+    private Object once(StubNamespace namespace, IdempotencyKey key, Supplier<?> handleRequest) {
+        if (responses == null || key.getKey() == null || WarmUpRequests.isWarmUp(namespace)) {
+            return handleRequest.get();
+        }
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Object> firstResponse = responses.get(key, (ignoredKey, ignoredExecutor) -> response);
+            if (firstResponse == response) {
+                return handle(key, response, handleRequest);
+            }
+            try {
+                return firstResponse.join();
+            } catch (CompletionException e) {
+                // The first request failed and its response has been dropped, so this one is handled afresh
+            }
+        }
+    }
+
+    // A failed response is dropped before the requests waiting for it are woken, so they don't find it again.
+    private Object handle(IdempotencyKey key, CompletableFuture<Object> response, Supplier<?> handleRequest) {
+        Object result;
+        try {
+            result = handleRequest.get();
+        } catch (RuntimeException | Error e) {
+            responses.asMap().remove(key, response);
+            response.completeExceptionally(e);
+            throw e;
+        }
+        response.complete(result);
+        return result;
+    }
+}
@@ -0,0 +1,16 @@
+package uk.gov.dhsc.htbhf.smartstub.idempotency;
+
+import lombok.Value;
+
+/**
+ * Identifies a request that should only take effect once: a create card request by its claim ID, or a deposit by the
+ * card and the client's reference. Keys include the generation of the namespace rather than its ID, so resetting a
+ * namespace forgets the requests made to it without touching the cache.
+ */
+@Value
+class IdempotencyKey {
+
+    private long namespaceGeneration;
+    private String cardId;
+    private String key;
+}
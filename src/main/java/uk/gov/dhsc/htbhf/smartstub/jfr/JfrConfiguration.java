@@ -0,0 +1,39 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Java Flight Recorder support: the jfr actuator endpoint, enabled with jfr.recording.enabled, and JVM event metrics,
+ * enabled with jfr.metrics.enabled.
+ */
+@Configuration
+public class JfrConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+    public JfrRecorder jfrRecorder(@Value("${jfr.directory}") String directory,
+                                   @Value("${jfr.recording.max-duration-in-seconds}") long maxDurationInSeconds) {
+        return new JfrRecorder(Paths.get(directory), Duration.ofSeconds(maxDurationInSeconds));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jfr.recording.enabled", havingValue = "true")
+    public JfrEndpoint jfrEndpoint(JfrRecorder jfrRecorder) {
+        return new JfrEndpoint(jfrRecorder);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jfr.metrics.enabled", havingValue = "true")
+    public JfrEventMetrics jfrEventMetrics(MeterRegistry meterRegistry,
+                                           @Value("${jfr.directory}") String directory,
+                                           @Value("${jfr.metrics.interval-in-seconds}") long intervalInSeconds) {
+        return new JfrEventMetrics(meterRegistry, Paths.get(directory), Duration.ofSeconds(intervalInSeconds));
+    }
+}
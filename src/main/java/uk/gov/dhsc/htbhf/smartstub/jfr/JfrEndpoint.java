@@ -0,0 +1,73 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Starts and stops Java Flight Recorder recordings on the running stub, and downloads the recording, for when a
+ * profiler can't be attached, e.g. on Cloud Foundry:
+ * <ul>
+ *     <li>POST /actuator/jfr with an optional profile (default or profile) and durationInSeconds starts a recording</li>
+ *     <li>DELETE /actuator/jfr stops it before its duration has passed</li>
+ *     <li>GET /actuator/jfr downloads the .jfr file once it has stopped, to open in JDK Mission Control</li>
+ * </ul>
+ */
+@WebEndpoint(id = "jfr")
+@AllArgsConstructor
+public class JfrEndpoint {
+
+    private static final String DEFAULT_PROFILE = "default";
+    private static final long DEFAULT_DURATION_IN_SECONDS = 60;
+    private static final int STATUS_CONFLICT = 409;
+
+    private final JfrRecorder jfrRecorder;
+
+    @WriteOperation
+    public WebEndpointResponse<JfrRecordingStatus> startRecording(@Nullable String profile, @Nullable Long durationInSeconds) {
+        if (jfrRecorder.isRunning()) {
+            return new WebEndpointResponse<>(jfrRecorder.getStatus().orElse(null), STATUS_CONFLICT);
+        }
+        long seconds = durationInSeconds == null ? DEFAULT_DURATION_IN_SECONDS : durationInSeconds;
+        if (seconds <= 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        try {
+            return new WebEndpointResponse<>(jfrRecorder.start(profile == null ? DEFAULT_PROFILE : profile, Duration.ofSeconds(seconds)));
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<JfrRecordingStatus> stopRecording() {
+        return jfrRecorder.stop()
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    /**
+     * Downloads the last recording.
+     *
+     * @return The .jfr file, 404 (Not Found) if no recording has been started, or 409 (Conflict) if it is still running
+     */
+    @ReadOperation
+    public WebEndpointResponse<Resource> downloadRecording() {
+        if (jfrRecorder.isRunning()) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        return jfrRecorder.getFinishedRecording()
+                .<WebEndpointResponse<Resource>>map(file -> new WebEndpointResponse<>(new FileSystemResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+}
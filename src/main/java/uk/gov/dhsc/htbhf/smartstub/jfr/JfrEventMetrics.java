@@ -0,0 +1,181 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+/**
+ * Feeds JVM events recorded by Java Flight Recorder into metrics, so that latency spikes caused by the JVM rather than
+ * the stub can be seen alongside the stub's own metrics:
+ * <ul>
+ *     <li>jvm.jfr.gc.pause: the total pause time of each garbage collection, tagged with the collector and cause</li>
+ *     <li>jvm.jfr.safepoint.sync: the time taken to bring every thread to each safepoint</li>
+ *     <li>jvm.jfr.safepoint.operation: the time spent in each operation run at a safepoint, tagged with the operation</li>
+ *     <li>jvm.jfr.allocated: the bytes allocated by all threads, whose rate is the allocation rate</li>
+ * </ul>
+ *
+ * <p>A recording of only these events runs continuously. The JRE the stub is deployed on (11) can't stream events as
+ * they are recorded, so every interval a copy of the recording is dumped to a temporary file and the events that ended
+ * since the last dump are read from it. The recording only keeps events for a few intervals, so the files stay small.
+ */
+@Slf4j
+public class JfrEventMetrics {
+
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+    private static final String SAFEPOINT_BEGIN = "jdk.SafepointBegin";
+    private static final String VM_OPERATION = "jdk.ExecuteVMOperation";
+    private static final String THREAD_ALLOCATION = "jdk.ThreadAllocationStatistics";
+
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+    private final Recording recording;
+    private final Counter allocated;
+    private final Map<Long, Long> allocatedByThread = new HashMap<>();
+    private final ScheduledExecutorService poller;
+    private Instant lastEventEnd = Instant.MIN;
+
+    public JfrEventMetrics(MeterRegistry meterRegistry, Path directory, Duration interval) {
+        this.meterRegistry = meterRegistry;
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create directory for JFR metrics " + directory, e);
+        }
+        this.allocated = Counter.builder("jvm.jfr.allocated").baseUnit("bytes").register(meterRegistry);
+        this.recording = new Recording();
+        recording.setName("smart-stub-metrics");
+        recording.enable(GARBAGE_COLLECTION);
+        recording.enable(SAFEPOINT_BEGIN).withThreshold(Duration.ZERO);
+        recording.enable(VM_OPERATION).withThreshold(Duration.ZERO);
+        recording.enable(THREAD_ALLOCATION).withPeriod(interval);
+        recording.setToDisk(true);
+        recording.setMaxAge(interval.multipliedBy(3));
+        recording.start();
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalInMillis = interval.toMillis();
+        poller.scheduleWithFixedDelay(this::pollSafely, intervalInMillis, intervalInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the events recorded since the last poll into the metrics.
+     *
+     * @throws IOException if the recording can't be dumped or read
+     */
+    synchronized void poll() throws IOException {
+        Path file = Files.createTempFile(directory, "smart-stub-metrics-", ".jfr");
+        try {
+            try (Recording copy = recording.copy(false)) {
+                copy.dump(file);
+            }
+            Instant newLastEventEnd = lastEventEnd;
+            Set<Long> allocatingThreadIds = new HashSet<>();
+            try (RecordingFile events = new RecordingFile(file)) {
+                while (events.hasMoreEvents()) {
+                    RecordedEvent event = events.readEvent();
+                    addAllocatingThreadId(event, allocatingThreadIds);
+                    if (event.getEndTime().isAfter(lastEventEnd)) {
+                        record(event);
+                        newLastEventEnd = event.getEndTime().isAfter(newLastEventEnd) ? event.getEndTime() : newLastEventEnd;
+                    }
+                }
+            }
+            lastEventEnd = newLastEventEnd;
+            // Every live thread has an allocation event in each dump, so threads without one have ended.
+            allocatedByThread.keySet().retainAll(allocatingThreadIds);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    synchronized boolean isTrackingThread(long threadId) {
+        return allocatedByThread.containsKey(threadId);
+    }
+
+    @PreDestroy
+    public void close() {
+        poller.shutdownNow();
+        recording.close();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read JFR events into metrics", e);
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case GARBAGE_COLLECTION:
+                Timer.builder("jvm.jfr.gc.pause")
+                        .tag("gc", event.getString("name"))
+                        .tag("cause", event.getString("cause"))
+                        .register(meterRegistry)
+                        .record(event.getDuration("sumOfPauses"));
+                break;
+            case SAFEPOINT_BEGIN:
+                Timer.builder("jvm.jfr.safepoint.sync").register(meterRegistry).record(event.getDuration());
+                break;
+            case VM_OPERATION:
+                if (event.getBoolean("safepoint")) {
+                    Timer.builder("jvm.jfr.safepoint.operation")
+                            .tag("operation", event.getString("operation"))
+                            .register(meterRegistry)
+                            .record(event.getDuration());
+                }
+                break;
+            case THREAD_ALLOCATION:
+                recordAllocation(event.getThread("thread"), event.getLong("allocated"));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void addAllocatingThreadId(RecordedEvent event, Set<Long> allocatingThreadIds) {
+        if (THREAD_ALLOCATION.equals(event.getEventType().getName())) {
+            RecordedThread thread = event.getThread("thread");
+            if (thread != null) {
+                allocatingThreadIds.add(thread.getJavaThreadId());
+            }
+        }
+    }
+
+    // Each event holds the total allocated by a thread since it started, so only the increase is counted.
+    private void recordAllocation(RecordedThread thread, long totalAllocated) {
+        if (thread == null) {
+            return;
+        }
+        Long previous = allocatedByThread.put(thread.getJavaThreadId(), totalAllocated);
+        long increase = totalAllocated - (previous == null ? 0 : previous);
+        if (increase > 0) {
+            allocated.increment(increase);
+        }
+    }
+}
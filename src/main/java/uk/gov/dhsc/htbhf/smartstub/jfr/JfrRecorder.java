@@ -0,0 +1,147 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+import javax.annotation.PreDestroy;
+
+/**
+ * Makes one Java Flight Recorder recording at a time on demand, with one of the JDK's recording profiles (default,
+ * with an overhead of around 1%, or profile, with more detail at around 2%), written to a temporary file when it
+ * stops. The file of the last recording is kept until the next one starts. The events recording the JVM's environment
+ * variables and system properties are left out, as they can hold credentials such as those in VCAP_SERVICES.
+ */
+@Slf4j
+public class JfrRecorder {
+
+    private static final String[] ENVIRONMENT_EVENTS = {"jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty"};
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private Recording recording;
+    private String profile;
+    private Path file;
+
+    public JfrRecorder(Path directory, Duration maxDuration) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Starts a recording, which stops itself once the duration has passed.
+     *
+     * @param profile  The name of the JDK recording profile, e.g. default or profile
+     * @param duration How long to record for, which is capped at the configured maximum
+     * @return The status of the new recording
+     * @throws IllegalStateException    if a recording is already running
+     * @throws IllegalArgumentException if there is no such profile
+     */
+    public synchronized JfrRecordingStatus start(String profile, Duration duration) {
+        if (isRunning()) {
+            throw new IllegalStateException("A JFR recording is already running");
+        }
+        Configuration configuration = getConfiguration(profile);
+        discardRecording();
+        try {
+            Files.createDirectories(directory);
+            file = Files.createTempFile(directory, "smart-stub-", ".jfr");
+            Recording newRecording = new Recording(configuration);
+            newRecording.setName("smart-stub-" + profile);
+            for (String environmentEvent : ENVIRONMENT_EVENTS) {
+                newRecording.disable(environmentEvent);
+            }
+            newRecording.setToDisk(true);
+            newRecording.setDestination(file);
+            newRecording.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+            newRecording.start();
+            recording = newRecording;
+            this.profile = profile;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start JFR recording in " + directory, e);
+        }
+        log.info("Started JFR recording with profile {} for {}", profile, recording.getDuration());
+        return getStatus().orElseThrow();
+    }
+
+    /**
+     * Stops the running recording early, writing what has been recorded so far to its file.
+     *
+     * @return The status of the recording, or empty if no recording has been started
+     */
+    public synchronized Optional<JfrRecordingStatus> stop() {
+        if (isRunning()) {
+            recording.stop();
+            log.info("Stopped JFR recording after {} bytes", recording.getSize());
+        }
+        return getStatus();
+    }
+
+    public synchronized Optional<JfrRecordingStatus> getStatus() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        return Optional.of(JfrRecordingStatus.builder()
+                .state(recording.getState().name())
+                .profile(profile)
+                .durationInSeconds(recording.getDuration().getSeconds())
+                .startTime(String.valueOf(recording.getStartTime()))
+                .sizeInBytes(isRunning() ? recording.getSize() : fileSize())
+                .build());
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null && (recording.getState() == RecordingState.DELAYED || recording.getState() == RecordingState.RUNNING);
+    }
+
+    /**
+     * @return The file of the last recording, or empty if none has been started or it is still running
+     */
+    public synchronized Optional<Path> getFinishedRecording() {
+        return recording == null || isRunning() ? Optional.empty() : Optional.of(file);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        discardRecording();
+    }
+
+    private static Configuration getConfiguration(String profile) {
+        try {
+            return Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("No JFR profile named " + profile, e);
+        }
+    }
+
+    private long fileSize() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void discardRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Unable to delete JFR recording {}", file, e);
+            }
+            file = null;
+        }
+    }
+}
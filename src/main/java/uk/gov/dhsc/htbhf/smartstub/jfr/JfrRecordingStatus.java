@@ -0,0 +1,31 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The state of the last Java Flight Recorder recording started through the jfr actuator endpoint.
+ */
+@Value
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class JfrRecordingStatus {
+
+    @JsonProperty("state")
+    private String state;
+
+    @JsonProperty("profile")
+    private String profile;
+
+    @JsonProperty("durationInSeconds")
+    private long durationInSeconds;
+
+    @JsonProperty("startTime")
+    private String startTime;
+
+    @JsonProperty("sizeInBytes")
+    private long sizeInBytes;
+}
@@ -0,0 +1,249 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+
+/**
+ * An append-only journal of every deposit accepted, for reconciling the deposits a load test made against those the
+ * stub received.
+ *
+ * <p>Request threads only add each deposit to a bounded queue, waiting if it is full. A single daemon thread takes
+ * deposits off the queue in batches of up to batch-size, formats the whole batch and appends it to one {@link JournalFile}
+ * for each {@link JournalFormat}, so the journal can be exported in either format by copying a file as it is. The files
+ * are written to a new directory each time the stub starts, and are kept when it stops. Deposits are timestamped with
+ * the {@link SimulationClock}.
+ *
+ * <p>The writer thread closes the files once it has written everything queued before the stub stopped. Exports wait
+ * for it to write the deposits recorded before them, and it wakes them up after each batch it writes.
+ *
+ * <p>The number of deposits queued and written are published as metrics, as is the number that could not be written.
+ */
+@Component
+@Slf4j
+public class DepositJournal {
+
+    private static final long EXPORT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long WRITER_POLL_MILLIS = 100;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final SimulationClock simulationClock;
+    private final BlockingQueue<DepositRecord> queue;
+    private final Map<JournalFormat, JournalFile> files = new EnumMap<>(JournalFormat.class);
+    private final AtomicLong recorded = new AtomicLong();
+    private final Counter failed;
+    private final Object writtenMonitor = new Object();
+    private final Thread writer;
+    private volatile long written;
+    private volatile boolean stopping;
+
+    public DepositJournal(@Value("${deposit-journal.enabled}") boolean enabled,
+                          @Value("${deposit-journal.directory}") String directory,
+                          @Value("${deposit-journal.segment-size-in-bytes}") int segmentSizeInBytes,
+                          @Value("${deposit-journal.queue-capacity}") int queueCapacity,
+                          @Value("${deposit-journal.batch-size}") int batchSize,
+                          SimulationClock simulationClock,
+                          MeterRegistry meterRegistry) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("deposit-journal.batch-size must be greater than zero");
+        }
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.simulationClock = simulationClock;
+        this.queue = new ArrayBlockingQueue<>(enabled ? queueCapacity : 1);
+        this.failed = meterRegistry.counter("stub.deposit-journal.failed");
+        Gauge.builder("stub.deposit-journal.queued", queue, BlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("stub.deposit-journal.written", this, DepositJournal::getWritten).register(meterRegistry);
+        if (enabled) {
+            Path journalDirectory = Files.createTempDirectory(Files.createDirectories(Paths.get(directory)), "deposit-journal-");
+            for (JournalFormat format : JournalFormat.values()) {
+                JournalFile file = new JournalFile(journalDirectory.resolve("deposits." + format.name().toLowerCase(Locale.UK)), segmentSizeInBytes);
+                StringBuilder header = new StringBuilder();
+                format.appendHeader(header);
+                file.append(header.toString().getBytes(StandardCharsets.UTF_8));
+                files.put(format, file);
+            }
+            writer = new Thread(this::writeDeposits, "deposit-journal");
+            writer.setDaemon(true);
+            writer.start();
+            log.info("Writing deposit journal to {}", journalDirectory);
+        } else {
+            writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Adds a deposit to the journal, timestamped with the simulation clock's current time. Waits if the queue of
+     * deposits to write is full, so the journal slows deposits down rather than losing them.
+     *
+     * @param namespace     The ID of the namespace the deposit was made in
+     * @param cardId        The card the deposit was made to
+     * @param amountInPence The amount deposited
+     * @param reference     The client's reference for the deposit
+     * @param referenceId   The reference ID returned for the deposit
+     */
+    public void record(String namespace, String cardId, int amountInPence, String reference, String referenceId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            queue.put(new DepositRecord(simulationClock.instant(), namespace, cardId, amountInPence, reference, referenceId));
+            recorded.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.increment();
+            log.warn("Interrupted adding deposit {} to the journal", referenceId);
+        }
+    }
+
+    /**
+     * Waits for every deposit recorded so far to be written, then gives the part of the journal file for the given
+     * format written up to that point.
+     *
+     * @param format The format to export
+     * @return The part of the journal to export, or empty if the journal is disabled
+     */
+    public Optional<JournalExport> export(JournalFormat format) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long target = recorded.get();
+        awaitWritten(target);
+        if (written < target) {
+            log.warn("Exporting deposit journal with {} of {} deposits written", written, target);
+        }
+        JournalFile file = files.get(format);
+        return Optional.of(new JournalExport(file.getPath(), file.getLength(), format));
+    }
+
+    private void awaitWritten(long target) {
+        long deadline = System.nanoTime() + EXPORT_TIMEOUT_NANOS;
+        synchronized (writtenMonitor) {
+            long remaining;
+            while (written < target && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(writtenMonitor, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells the writer thread to write any deposits still queued and close the journal files, and waits up to 10 seconds
+     * for it to finish. The writer thread isn't interrupted, as that would close the files' channels if it were part way
+     * through writing to them, but sees that the journal is stopping within {@value #WRITER_POLL_MILLIS}ms of waiting
+     * for a deposit. If it is still writing after 10 seconds the files are left for it to close, rather than closed
+     * underneath it.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        stopping = true;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            log.warn("Deposit journal writer still has {} deposits to write, leaving it to close the journal files", queue.size());
+        }
+    }
+
+    private void writeDeposits() {
+        List<DepositRecord> batch = new ArrayList<>(batchSize);
+        StringBuilder output = new StringBuilder();
+        try {
+            while (true) {
+                // Read before polling, so that a deposit queued before the journal started stopping is still written
+                boolean stop = stopping;
+                DepositRecord first = pollOrNull();
+                if (first == null) {
+                    if (stop) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch, output);
+                batch.clear();
+            }
+        } finally {
+            closeFiles();
+        }
+    }
+
+    private void closeFiles() {
+        for (JournalFile file : files.values()) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.warn("Unable to close deposit journal file {}", file.getPath(), e);
+            }
+        }
+    }
+
+    // Nothing interrupts the writer thread, and the interrupt isn't restored if something does, as the next write would
+    // then close the files' channels.
+    private DepositRecord pollOrNull() {
+        try {
+            return queue.poll(WRITER_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            log.warn("Deposit journal writer interrupted, carrying on");
+            return null;
+        }
+    }
+
+    private void write(List<DepositRecord> batch, StringBuilder output) {
+        try {
+            for (Map.Entry<JournalFormat, JournalFile> entry : files.entrySet()) {
+                output.setLength(0);
+                for (DepositRecord record : batch) {
+                    entry.getKey().appendRecord(output, record);
+                }
+                entry.getValue().append(output.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (UncheckedIOException e) {
+            failed.increment(batch.size());
+            log.error("Unable to write {} deposits to the journal", batch.size(), e);
+        }
+        // Only this thread updates written, so it doesn't need to be atomic
+        written += batch.size();
+        synchronized (writtenMonitor) {
+            writtenMonitor.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * A deposit accepted by the stub, as it is written to the {@link DepositJournal}.
+ */
+@Value
+@AllArgsConstructor
+public class DepositRecord {
+
+    private Instant timestamp;
+    private String namespace;
+    private String cardId;
+    private int amountInPence;
+    private String reference;
+    private String referenceId;
+}
@@ -0,0 +1,37 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * The part of a deposit journal file written when an export was requested: the first length bytes of the file at path.
+ */
+@Value
+public class JournalExport {
+
+    private Path path;
+    private long length;
+    private JournalFormat format;
+
+    /**
+     * Copies the exported bytes of the file to the given channel with {@link FileChannel#transferTo}, which copies
+     * straight from the page cache when the channel is a socket or file.
+     *
+     * @param target The channel to copy to
+     * @throws IOException if the file could not be read or the channel written
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, target);
+            }
+        }
+    }
+}
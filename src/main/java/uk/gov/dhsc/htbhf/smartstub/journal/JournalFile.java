@@ -0,0 +1,93 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An append-only file written through memory mapped segments. Only one segment is mapped for writing at a time, and when
+ * it is full the next one is mapped straight after it, so appending is a copy into memory with no system call except at
+ * the end of a segment. The file grows a whole segment at a time, so only the first {@link #getLength()} bytes have been
+ * written, and the rest of the last segment is zeros.
+ *
+ * <p>Appending must only be done by one thread. The length is published as each append completes, so any thread that
+ * reads it can then read that many bytes of the file, which the operating system serves from the same page cache the
+ * segments are mapped to.
+ */
+class JournalFile implements AutoCloseable {
+
+    private final Path path;
+    private final int segmentSizeInBytes;
+    private final FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private volatile long length;
+
+    JournalFile(Path path, int segmentSizeInBytes) throws IOException {
+        this.path = path;
+        this.segmentSizeInBytes = segmentSizeInBytes;
+        this.channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeInBytes);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Appends the given bytes, mapping as many new segments as they need.
+     *
+     * @param bytes The bytes to append
+     * @throws UncheckedIOException if a new segment could not be mapped
+     */
+    void append(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!segment.hasRemaining()) {
+                mapNextSegment();
+            }
+            int count = Math.min(segment.remaining(), bytes.length - offset);
+            segment.put(bytes, offset, count);
+            offset += count;
+        }
+        length = segmentStart + segment.position();
+    }
+
+    /**
+     * Writes the segment being appended to back to the file and truncates the unwritten end of it. Nothing can be
+     * appended afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.truncate(length);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void mapNextSegment() {
+        try {
+            long nextSegmentStart = segmentStart + segment.capacity();
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, nextSegmentStart, segmentSizeInBytes);
+            segmentStart = nextSegmentStart;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map a new segment of " + path, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+/**
+ * The formats the deposit journal is written in. Card IDs and references are sent by clients, so unlike test data they
+ * are escaped where either format needs it.
+ */
+public enum JournalFormat {
+
+    /**
+     * Comma separated values, with a header line of field names. Values containing a comma, quote or line break are
+     * quoted as described in RFC 4180.
+     */
+    CSV("text/csv") {
+        @Override
+        void appendHeader(StringBuilder output) {
+            output.append(String.join(",", FIELD_NAMES)).append('\n');
+        }
+
+        @Override
+        void appendRecord(StringBuilder output, DepositRecord record) {
+            output.append(record.getTimestamp()).append(',');
+            appendCsvValue(output, record.getNamespace());
+            output.append(',');
+            appendCsvValue(output, record.getCardId());
+            output.append(',').append(record.getAmountInPence()).append(',');
+            appendCsvValue(output, record.getReference());
+            output.append(',').append(record.getReferenceId()).append('\n');
+        }
+    },
+
+    /**
+     * Newline delimited JSON, one object per deposit.
+     */
+    NDJSON("application/x-ndjson") {
+        @Override
+        void appendHeader(StringBuilder output) {
+            // Each deposit names its own fields
+        }
+
+        @Override
+        void appendRecord(StringBuilder output, DepositRecord record) {
+            output.append("{\"timestamp\":\"").append(record.getTimestamp()).append("\",\"namespace\":");
+            appendJsonValue(output, record.getNamespace());
+            output.append(",\"cardId\":");
+            appendJsonValue(output, record.getCardId());
+            output.append(",\"amountInPence\":").append(record.getAmountInPence()).append(",\"reference\":");
+            appendJsonValue(output, record.getReference());
+            output.append(",\"referenceId\":\"").append(record.getReferenceId()).append("\"}\n");
+        }
+    };
+
+    static final String[] FIELD_NAMES = {"timestamp", "namespace", "cardId", "amountInPence", "reference", "referenceId"};
+
+    private final String contentType;
+
+    JournalFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    abstract void appendHeader(StringBuilder output);
+
+    abstract void appendRecord(StringBuilder output, DepositRecord record);
+
+    private static void appendCsvValue(StringBuilder output, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            output.append(value);
+            return;
+        }
+        output.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                output.append('"');
+            }
+            output.append(c);
+        }
+        output.append('"');
+    }
+
+    private static void appendJsonValue(StringBuilder output, String value) {
+        if (value == null) {
+            output.append("null");
+            return;
+        }
+        output.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                output.append('\\').append(c);
+            } else if (c < 0x20) {
+                output.append(String.format("\\u%04x", (int) c));
+            } else {
+                output.append(c);
+            }
+        }
+        output.append('"');
+    }
+}
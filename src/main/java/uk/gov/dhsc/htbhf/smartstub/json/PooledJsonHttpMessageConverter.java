@@ -0,0 +1,114 @@
+package uk.gov.dhsc.htbhf.smartstub.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link MappingJackson2HttpMessageConverter} that serializes each response into a buffer and {@link JsonGenerator}
+ * owned by the request thread and reused for every response it writes, instead of creating a new generator over the
+ * response stream each time. The whole body is then written to the response in one go, with its Content-Length.
+ *
+ * <p>Only plain UTF-8 responses declared as their own concrete type take this path, which covers all of the DWP and
+ * card responses. Anything needing a JSON view, filters or declared type information is passed to the standard
+ * converter, so the output is always byte-for-byte the same as the standard converter's. A thread's buffer is
+ * discarded rather than kept if a response makes it grow beyond {@link #MAX_RETAINED_BUFFER_SIZE}.
+ */
+public class PooledJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final int INITIAL_BUFFER_SIZE = 1024;
+    static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectWriter writer;
+    private final ThreadLocal<PooledGenerator> pooledGenerators;
+
+    public PooledJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.writer = objectMapper.writer();
+        this.pooledGenerators = ThreadLocal.withInitial(() -> new PooledGenerator(objectMapper));
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (!canUsePooledGenerator(object, type, outputMessage.getHeaders().getContentType())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        PooledGenerator pooled = pooledGenerators.get();
+        try {
+            pooled.write(writer, object);
+        } catch (IOException | RuntimeException e) {
+            // the generator may have been left part way through a value, so start afresh with a new one
+            pooledGenerators.remove();
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getMessage(), e);
+        }
+        ResettableByteArrayOutputStream buffer = pooled.getBuffer();
+        outputMessage.getHeaders().setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            pooledGenerators.remove();
+        }
+    }
+
+    // The standard converter only uses the declared type when it differs from the runtime type, e.g. for collections.
+    private static boolean canUsePooledGenerator(Object object, Type type, MediaType contentType) {
+        return object != null
+                && !(object instanceof MappingJacksonValue)
+                && (type == null || type == object.getClass())
+                && (contentType == null || contentType.getCharset() == null || StandardCharsets.UTF_8.equals(contentType.getCharset()));
+    }
+
+    /**
+     * A generator bound to a buffer, both reused for every value written by one thread.
+     */
+    static class PooledGenerator {
+
+        private final ResettableByteArrayOutputStream buffer = new ResettableByteArrayOutputStream();
+        private final JsonGenerator generator;
+
+        PooledGenerator(ObjectMapper objectMapper) {
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to create JSON generator", e);
+            }
+            // without this the generator would write a space between the values it writes, as if they were a stream
+            this.generator.setRootValueSeparator(null);
+        }
+
+        void write(ObjectWriter writer, Object value) throws IOException {
+            buffer.reset();
+            writer.writeValue(generator, value);
+            generator.flush();
+        }
+
+        ResettableByteArrayOutputStream getBuffer() {
+            return buffer;
+        }
+    }
+
+    /**
+     * A {@link ByteArrayOutputStream} that exposes its capacity. {@link #reset()} keeps the existing array.
+     */
+    static class ResettableByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ResettableByteArrayOutputStream() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+/**
+ * The endpoints whose latencies are written to the {@link LatencyLog}, each tagged with the same name as in the
+ * allocation budgets.
+ */
+public enum LatencyEndpoint {
+
+    DWP_BENEFITS("dwp.benefits"),
+    CARDS_CREATE("cards.create"),
+    CARDS_BALANCE("cards.balance"),
+    CARDS_DEPOSIT("cards.deposit"),
+    POSTCODES_LOOKUP("postcodes.lookup"),
+    POSTCODES_NEAREST("postcodes.nearest"),
+    POSTCODES_AUTOCOMPLETE("postcodes.autocomplete");
+
+    private static final String DWP_BENEFITS_PATH = "/v2/dwp/benefits";
+    private static final String CARDS_PATH = "/v1/cards";
+    private static final String POSTCODES_PATH = "/v1/postcodes";
+
+    private final String tag;
+
+    LatencyEndpoint(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Finds the endpoint a request is for from its path, without allocating.
+     *
+     * @param method The HTTP method of the request
+     * @param path   The path of the request
+     * @return The endpoint, or null if the request isn't for one of them
+     */
+    public static LatencyEndpoint find(String method, String path) {
+        if (path.equals(DWP_BENEFITS_PATH)) {
+            return DWP_BENEFITS;
+        }
+        if (path.startsWith(CARDS_PATH)) {
+            if (path.length() == CARDS_PATH.length()) {
+                return "POST".equals(method) ? CARDS_CREATE : null;
+            }
+            if (path.charAt(CARDS_PATH.length()) == '/') {
+                if (path.endsWith("/balance")) {
+                    return CARDS_BALANCE;
+                }
+                if (path.endsWith("/deposit")) {
+                    return CARDS_DEPOSIT;
+                }
+            }
+            return null;
+        }
+        if (path.startsWith(POSTCODES_PATH)) {
+            if (path.length() == POSTCODES_PATH.length()) {
+                return POSTCODES_NEAREST;
+            }
+            if (path.charAt(POSTCODES_PATH.length()) == '/' && path.length() > POSTCODES_PATH.length() + 1) {
+                return path.endsWith("/autocomplete") ? POSTCODES_AUTOCOMPLETE : POSTCODES_LOOKUP;
+            }
+        }
+        return null;
+    }
+}
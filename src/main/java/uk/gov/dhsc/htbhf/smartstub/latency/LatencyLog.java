@@ -0,0 +1,142 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+/**
+ * Records the latency of every request to each {@link LatencyEndpoint} in an HdrHistogram, and writes them to an
+ * HdrHistogram interval log every interval, so that the latencies of load test runs can be plotted and compared
+ * afterwards with HdrHistogram's own tools, e.g. HistogramLogProcessor or HdrHistogramVisualizer.
+ *
+ * <p>Each endpoint has its own {@link Recorder}, which requests record into without locking. Every interval a single
+ * thread swaps each recorder's histogram for an empty one and writes the full one to the log, compressed and tagged with
+ * the endpoint, so recording never waits for the log. Latencies are recorded in nanoseconds, so the log can be read with
+ * the tools' default output unit of milliseconds, and are capped at the highest trackable latency.
+ *
+ * <p>The log is written to a new file in the configured directory, named after the time the stub started, and is
+ * flushed after every interval. The last, part interval is written when the stub shuts down, once any interval being
+ * written has finished. The writing thread is never interrupted, as that could cut a histogram short.
+ */
+@Slf4j
+public class LatencyLog {
+
+    private static final LatencyEndpoint[] ENDPOINTS = LatencyEndpoint.values();
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Recorder[] recorders = new Recorder[ENDPOINTS.length];
+    private final Histogram[] intervalHistograms = new Histogram[ENDPOINTS.length];
+    private final long highestTrackableNanos;
+    private final Path file;
+    private final PrintStream output;
+    private final HistogramLogWriter writer;
+    private final ScheduledExecutorService flusher;
+    private boolean closed;
+
+    public LatencyLog(Path directory, Duration interval, Duration highestTrackableLatency, int significantDigits) {
+        this.highestTrackableNanos = highestTrackableLatency.toNanos();
+        for (LatencyEndpoint endpoint : ENDPOINTS) {
+            recorders[endpoint.ordinal()] = new Recorder(highestTrackableNanos, significantDigits);
+        }
+        Instant start = Instant.now();
+        try {
+            Files.createDirectories(directory);
+            file = directory.resolve(String.format("latency-%s-%d.hlog", FILE_TIMESTAMP.format(start), ProcessHandle.current().pid()));
+            output = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file)), false, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create latency log in " + directory, e);
+        }
+        writer = new HistogramLogWriter(output);
+        writer.outputComment("Latencies of the smart stub's endpoints in nanoseconds, tagged with the endpoint");
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(start.toEpochMilli());
+        writer.setBaseTime(start.toEpochMilli());
+        writer.outputLegend();
+        output.flush();
+        log.info("Writing latency log to {} every {}", file, interval);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalInMillis = interval.toMillis();
+        flusher.scheduleAtFixedRate(this::writeIntervalSafely, intervalInMillis, intervalInMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Records the latency of one request.
+     *
+     * @param endpoint     The endpoint the request was for
+     * @param latencyNanos How long the request took, in nanoseconds
+     */
+    public void record(LatencyEndpoint endpoint, long latencyNanos) {
+        recorders[endpoint.ordinal()].recordValue(Math.max(0, Math.min(latencyNanos, highestTrackableNanos)));
+    }
+
+    /**
+     * Writes the latencies recorded since the last interval to the log, one histogram per endpoint, and flushes it.
+     */
+    synchronized void writeInterval() {
+        if (closed) {
+            return;
+        }
+        for (LatencyEndpoint endpoint : ENDPOINTS) {
+            int i = endpoint.ordinal();
+            intervalHistograms[i] = recorders[i].getIntervalHistogram(intervalHistograms[i]);
+            intervalHistograms[i].setTag(endpoint.getTag());
+            writer.outputIntervalHistogram(intervalHistograms[i]);
+        }
+        output.flush();
+        if (output.checkError()) {
+            log.warn("Unable to write to latency log {}", file);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Latency log interval still being written after {}s, writing the last one anyway", CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            writeInterval();
+            closed = true;
+            output.close();
+        }
+    }
+
+    private void writeIntervalSafely() {
+        try {
+            writeInterval();
+        } catch (RuntimeException e) {
+            log.warn("Unable to write latency log interval", e);
+        }
+    }
+}
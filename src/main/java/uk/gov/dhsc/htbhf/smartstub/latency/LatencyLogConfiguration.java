@@ -0,0 +1,40 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Writes the latencies of the postcode, DWP and card endpoints to an HdrHistogram interval log, enabled with
+ * latency-log.enabled. The filter is registered just after the Server-Timing and slow drip filters, so it measures
+ * the time taken to produce each response, including any latency added by the runtime settings, but not a slow drip
+ * of the response afterwards. It supports async requests so that the slow drip filter can still start them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "latency-log.enabled", havingValue = "true")
+public class LatencyLogConfiguration {
+
+    @Bean
+    public LatencyLog latencyLog(@Value("${latency-log.directory}") String directory,
+                                 @Value("${latency-log.interval-in-seconds}") long intervalInSeconds,
+                                 @Value("${latency-log.highest-trackable-latency-in-millis}") long highestTrackableLatencyInMillis,
+                                 @Value("${latency-log.significant-digits}") int significantDigits) {
+        return new LatencyLog(Paths.get(directory), Duration.ofSeconds(intervalInSeconds),
+                Duration.ofMillis(highestTrackableLatencyInMillis), significantDigits);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LatencyLogFilter> latencyLogFilter(LatencyLog latencyLog) {
+        FilterRegistrationBean<LatencyLogFilter> registration = new FilterRegistrationBean<>(new LatencyLogFilter(latencyLog));
+        registration.addUrlPatterns("/v1/postcodes/*", "/v1/cards/*", "/v2/dwp/benefits");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
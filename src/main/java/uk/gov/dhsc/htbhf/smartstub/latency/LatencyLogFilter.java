@@ -0,0 +1,39 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records the time taken to handle each request to a {@link LatencyEndpoint} in the {@link LatencyLog}, including
+ * failed requests. Requests to other paths, and the warm-up's requests, are passed straight through.
+ */
+public class LatencyLogFilter extends OncePerRequestFilter {
+
+    private final LatencyLog latencyLog;
+
+    public LatencyLogFilter(LatencyLog latencyLog) {
+        this.latencyLog = latencyLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LatencyEndpoint endpoint = LatencyEndpoint.find(request.getMethod(), request.getRequestURI());
+        if (endpoint == null || WarmUpRequests.isWarmUp(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            latencyLog.record(endpoint, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package uk.gov.dhsc.htbhf.smartstub.model.v1;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class NearestPostcode {
+
+    @JsonProperty("postcode")
+    private String postcode;
+
+    @JsonProperty("longitude")
+    private Double longitude;
+
+    @JsonProperty("latitude")
+    private Double latitude;
+
+    @JsonProperty("distance")
+    private Double distance;
+}
@@ -0,0 +1,26 @@
+package uk.gov.dhsc.htbhf.smartstub.model.v1;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The envelope postcodes.io wraps around every result. A query with no matches has a null result.
+ *
+ * @param <T> The type of the result
+ */
+@Data
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class PostcodesIoResponse<T> {
+
+    @JsonProperty("status")
+    private Integer status;
+
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    @JsonProperty("result")
+    private T result;
+}
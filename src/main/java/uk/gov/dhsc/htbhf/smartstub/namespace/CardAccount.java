@@ -0,0 +1,54 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What a namespace knows about a card: whether it was created through the stub, and the deposits made to it and how
+ * much of them has settled. Updated without locking, as requests for the same card can arrive concurrently.
+ */
+public class CardAccount {
+
+    private final String cardId;
+    private volatile boolean created;
+    private final AtomicInteger deposits = new AtomicInteger();
+    private final AtomicLong depositedInPence = new AtomicLong();
+    private final AtomicLong settledInPence = new AtomicLong();
+
+    CardAccount(String cardId) {
+        this.cardId = cardId;
+    }
+
+    public String getCardId() {
+        return cardId;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public int getDeposits() {
+        return deposits.get();
+    }
+
+    public long getDepositedInPence() {
+        return depositedInPence.get();
+    }
+
+    public long getSettledInPence() {
+        return settledInPence.get();
+    }
+
+    public void settle(long amountInPence) {
+        settledInPence.addAndGet(amountInPence);
+    }
+
+    void markCreated() {
+        created = true;
+    }
+
+    void addDeposit(int amountInPence) {
+        deposits.incrementAndGet();
+        depositedInPence.addAndGet(amountInPence);
+    }
+}
@@ -0,0 +1,41 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * What a namespace knows about a card, as returned by the admin endpoint.
+ */
+@Value
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class CardAccountSummary {
+
+    @JsonProperty("cardId")
+    private String cardId;
+
+    @JsonProperty("created")
+    private boolean created;
+
+    @JsonProperty("deposits")
+    private int deposits;
+
+    @JsonProperty("depositedInPence")
+    private long depositedInPence;
+
+    @JsonProperty("settledInPence")
+    private long settledInPence;
+
+    public static CardAccountSummary of(CardAccount cardAccount) {
+        return CardAccountSummary.builder()
+                .cardId(cardAccount.getCardId())
+                .created(cardAccount.isCreated())
+                .deposits(cardAccount.getDeposits())
+                .depositedInPence(cardAccount.getDepositedInPence())
+                .settledInPence(cardAccount.getSettledInPence())
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import java.io.IOException;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Finds the namespace for each request from its X-Test-Run-Id header, or the default namespace if it has none, and
+ * makes it available to controllers as the {@link #NAMESPACE_ATTRIBUTE} request attribute. Requests with an invalid
+ * ID, or for the warm-up's namespace when they weren't sent by the warm-up, get a 400 (Bad Request) response, and
+ * requests for a new namespace when the maximum number already exist get a 503 (Service Unavailable) response.
+ */
+@Component
+@AllArgsConstructor
+public class NamespaceInterceptor implements HandlerInterceptor {
+
+    public static final String NAMESPACE_HEADER = "X-Test-Run-Id";
+    public static final String NAMESPACE_ATTRIBUTE = "uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE";
+
+    private final StubNamespaces stubNamespaces;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String id = request.getHeader(NAMESPACE_HEADER);
+        if (id == null) {
+            id = StubNamespaces.DEFAULT_NAMESPACE;
+        } else if (!StubNamespaces.isValidId(id)) {
+            response.sendError(BAD_REQUEST.value(), NAMESPACE_HEADER + " must be 1 to 64 letters, digits, '.', '_' or '-'");
+            return false;
+        } else if (WarmUpRequests.WARM_UP_NAMESPACE.equals(id) && !WarmUpRequests.isWarmUp(request)) {
+            response.sendError(BAD_REQUEST.value(), NAMESPACE_HEADER + " " + id + " is reserved for the stub's warm-up");
+            return false;
+        }
+        Optional<StubNamespace> namespace = stubNamespaces.getOrCreate(id);
+        if (namespace.isEmpty()) {
+            response.sendError(SERVICE_UNAVAILABLE.value(), "Too many namespaces, drop one through /admin/namespaces");
+            return false;
+        }
+        request.setAttribute(NAMESPACE_ATTRIBUTE, namespace.get());
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The state held for a namespace, as returned by the admin endpoint.
+ */
+@Value
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class NamespaceSummary {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("generation")
+    private long generation;
+
+    @JsonProperty("cardsCreated")
+    private long cardsCreated;
+
+    @JsonProperty("deposits")
+    private long deposits;
+
+    public static NamespaceSummary of(StubNamespace namespace) {
+        return NamespaceSummary.builder()
+                .id(namespace.getId())
+                .generation(namespace.getGeneration())
+                .cardsCreated(namespace.getCardsCreated())
+                .deposits(namespace.getDeposits())
+                .build();
+    }
+}
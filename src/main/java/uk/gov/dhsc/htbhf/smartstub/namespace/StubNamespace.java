@@ -0,0 +1,98 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state the stub holds for one namespace (test run), and one generation of it. Resetting a namespace doesn't
+ * clear this state: {@link StubNamespaces} replaces the whole object with an empty one of a later generation, and this
+ * one is reclaimed by the garbage collector once the last request still using it has finished.
+ *
+ * <p>A namespace that doesn't keep card accounts only counts the cards created and deposits made, so that it holds the
+ * same small amount of state however long it is used for.
+ */
+public class StubNamespace {
+
+    private final String id;
+    private final long generation;
+    private final boolean keepCardAccounts;
+    private final ConcurrentMap<String, CardAccount> cardAccounts = new ConcurrentHashMap<>();
+    private final AtomicLong cardsCreated = new AtomicLong();
+    private final AtomicLong deposits = new AtomicLong();
+
+    public StubNamespace(String id, long generation) {
+        this(id, generation, true);
+    }
+
+    public StubNamespace(String id, long generation, boolean keepCardAccounts) {
+        this.id = id;
+        this.generation = generation;
+        this.keepCardAccounts = keepCardAccounts;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return A number that increases every time a namespace is created or reset, so no two have the same generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    public boolean isKeepingCardAccounts() {
+        return keepCardAccounts;
+    }
+
+    public void recordCardCreated(String cardId) {
+        if (keepCardAccounts) {
+            cardAccounts.computeIfAbsent(cardId, CardAccount::new).markCreated();
+        }
+        cardsCreated.incrementAndGet();
+    }
+
+    /**
+     * Records that all the given cards were created, counting them with a single update so that many threads can record
+     * cards in bulk without contending for the count.
+     *
+     * @param cardIds The IDs of the cards created
+     */
+    public void recordCardsCreated(List<String> cardIds) {
+        if (keepCardAccounts) {
+            for (String cardId : cardIds) {
+                cardAccounts.computeIfAbsent(cardId, CardAccount::new).markCreated();
+            }
+        }
+        cardsCreated.addAndGet(cardIds.size());
+    }
+
+    /**
+     * Records a deposit to the given card.
+     *
+     * @param cardId        The ID of the card
+     * @param amountInPence The amount deposited
+     * @return The card's account, which isn't kept by the namespace if it doesn't keep card accounts
+     */
+    public CardAccount recordDeposit(String cardId, int amountInPence) {
+        CardAccount cardAccount = keepCardAccounts ? cardAccounts.computeIfAbsent(cardId, CardAccount::new) : new CardAccount(cardId);
+        cardAccount.addDeposit(amountInPence);
+        deposits.incrementAndGet();
+        return cardAccount;
+    }
+
+    public Optional<CardAccount> findCardAccount(String cardId) {
+        return Optional.ofNullable(cardAccounts.get(cardId));
+    }
+
+    public long getCardsCreated() {
+        return cardsCreated.get();
+    }
+
+    public long getDeposits() {
+        return deposits.get();
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Partitions the state the stub holds into namespaces, one per test run, so that runs against the same instance don't
+ * see each other's cards and deposits, and a run can start from a clean slate without restarting the stub.
+ *
+ * <p>Each namespace's state is held in a single {@link StubNamespace}. Dropping a namespace removes that one object
+ * from a concurrent map, which takes the same time however much state it holds and never blocks requests to this or any
+ * other namespace. The next request for the namespace creates an empty one of a later generation. Requests already
+ * under way finish with the generation they started with, and the old state is reclaimed by the garbage collector in
+ * the background once they have.
+ *
+ * <p>Requests without a namespace all share the {@value #DEFAULT_NAMESPACE} one, which may never be dropped, so it only
+ * keeps the state of each card when {@code namespaces.keep-default-card-accounts} is set, as it is when deposits are
+ * settled.
+ */
+@Component
+@Slf4j
+public class StubNamespaces {
+
+    public static final String DEFAULT_NAMESPACE = "default";
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final ConcurrentMap<String, StubNamespace> namespaces = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final int maxNamespaces;
+    private final boolean keepDefaultCardAccounts;
+
+    public StubNamespaces(@Value("${namespaces.max-namespaces}") int maxNamespaces,
+                          @Value("${namespaces.keep-default-card-accounts}") boolean keepDefaultCardAccounts) {
+        this.maxNamespaces = maxNamespaces;
+        this.keepDefaultCardAccounts = keepDefaultCardAccounts;
+    }
+
+    public static boolean isValidId(String id) {
+        return id != null && VALID_ID.matcher(id).matches();
+    }
+
+    /**
+     * Gets the namespace with the given ID, creating it if it doesn't exist.
+     *
+     * @param id The namespace ID, which must be valid
+     * @return The namespace, or empty if it doesn't exist and the maximum number of namespaces already do
+     */
+    public Optional<StubNamespace> getOrCreate(String id) {
+        StubNamespace namespace = namespaces.get(id);
+        if (namespace != null) {
+            return Optional.of(namespace);
+        }
+        if (namespaces.size() >= maxNamespaces) {
+            return Optional.empty();
+        }
+        return Optional.of(namespaces.computeIfAbsent(id, this::newNamespace));
+    }
+
+    public Optional<StubNamespace> find(String id) {
+        return Optional.ofNullable(namespaces.get(id));
+    }
+
+    public Collection<StubNamespace> getAll() {
+        return namespaces.values();
+    }
+
+    /**
+     * Drops all the state held for the given namespace. Takes constant time.
+     *
+     * @param id The namespace ID
+     * @return true if the namespace existed
+     */
+    public boolean drop(String id) {
+        StubNamespace dropped = namespaces.remove(id);
+        if (dropped != null) {
+            log.info("Dropped generation {} of namespace [{}]", dropped.getGeneration(), id);
+        }
+        return dropped != null;
+    }
+
+    private StubNamespace newNamespace(String id) {
+        boolean keepCardAccounts = keepDefaultCardAccounts || !DEFAULT_NAMESPACE.equals(id);
+        StubNamespace namespace = new StubNamespace(id, generations.incrementAndGet(), keepCardAccounts);
+        log.info("Created generation {} of namespace [{}]", namespace.getGeneration(), id);
+        return namespace;
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ * Holds a {@link ConcurrencyLimiter} permit for the duration of each request, rejecting requests that cannot get one
+ * with a 503 (Service Unavailable) response. The warm-up's requests don't take a permit.
+ */
+@Component
+@AllArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!concurrencyLimiter.isEnabled() || WarmUpRequests.isWarmUp(request)) {
+            return true;
+        }
+        if (concurrencyLimiter.tryAcquire()) {
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+        response.sendError(SERVICE_UNAVAILABLE.value(), "Concurrency limit exceeded");
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            concurrencyLimiter.release();
+        }
+    }
+}
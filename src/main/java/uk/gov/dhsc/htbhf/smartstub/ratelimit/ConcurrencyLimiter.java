@@ -0,0 +1,144 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Emulates an upstream service that only handles a limited number of requests at once. Up to max-in-flight requests
+ * are allowed to proceed, up to max-queued more wait for up to the queue timeout for one of them to finish, and any
+ * others are rejected straight away.
+ *
+ * <p>Permits are a single {@link AtomicInteger} taken by compare-and-set rather than a {@link java.util.concurrent.Semaphore},
+ * so the uncontended path never touches a lock or queue. Waiting threads park themselves on a lock-free queue, and are
+ * unparked when a permit is released. Permits are not handed out in order: a newly arrived request can take a permit
+ * ahead of a waiting one, which keeps throughput up at the cost of fairness, much as a real server's accept queue does.
+ *
+ * <p>The number of requests in flight and queued, and the number rejected, are published as metrics.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public ConcurrencyLimiter(@Value("${concurrency-limit.enabled}") boolean enabled,
+                              @Value("${concurrency-limit.max-in-flight}") int maxInFlight,
+                              @Value("${concurrency-limit.max-queued}") int maxQueued,
+                              @Value("${concurrency-limit.queue-timeout-in-millis}") long queueTimeoutInMillis,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutInMillis);
+        Gauge.builder("stub.concurrency.in-flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("stub.concurrency.queued", queued, AtomicInteger::get).register(meterRegistry);
+        this.queueFullRejections = meterRegistry.counter("stub.concurrency.rejected", "reason", "queue-full");
+        this.timeoutRejections = meterRegistry.counter("stub.concurrency.rejected", "reason", "timeout");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a permit, waiting for one if none are available and there is space in the queue.
+     * Every successful call must be matched by a call to {@link #release()}.
+     *
+     * @return true if a permit was taken, false if the request should be rejected
+     */
+    public boolean tryAcquire() {
+        if (tryAcquirePermit()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            queueFullRejections.increment();
+            log.debug("Rejecting request as {} requests are already queued", maxQueued);
+            return false;
+        }
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            return awaitPermit(current);
+        } finally {
+            waiters.remove(current);
+            queued.decrementAndGet();
+            signalNextWaiter();
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        signalNextWaiter();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getRejected() {
+        return (long) (queueFullRejections.count() + timeoutRejections.count());
+    }
+
+    // Checks for a free permit after joining the queue and before every park, so a release that happens between the
+    // failed attempt and parking is never missed: either this thread sees the permit, or the release sees this thread.
+    private boolean awaitPermit(Thread current) {
+        long deadline = System.nanoTime() + queueTimeoutNanos;
+        while (!tryAcquirePermit()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || Thread.interrupted()) {
+                if (remaining > 0) {
+                    current.interrupt();
+                }
+                timeoutRejections.increment();
+                log.debug("Rejecting request after waiting {}ms for one of {} requests in flight to finish",
+                        TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos), maxInFlight);
+                return false;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return true;
+    }
+
+    private boolean tryAcquirePermit() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void signalNextWaiter() {
+        if (inFlight.get() < maxInFlight) {
+            Thread next = waiters.peek();
+            if (next != null) {
+                LockSupport.unpark(next);
+            }
+        }
+    }
+}
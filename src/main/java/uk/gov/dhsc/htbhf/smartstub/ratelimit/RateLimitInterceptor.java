@@ -0,0 +1,56 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+/**
+ * Rejects requests that exceed the configured rate limits with a 429 (Too Many Requests) response, including a
+ * Retry-After header giving the number of whole seconds until the request would be allowed. The warm-up's requests
+ * are neither limited nor counted against the limits.
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiter rateLimiter;
+    private final String clientIdHeader;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                @Value("${rate-limit.client.id-header}") String clientIdHeader) {
+        this.rateLimiter = rateLimiter;
+        this.clientIdHeader = clientIdHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!rateLimiter.isEnabled() || WarmUpRequests.isWarmUp(request)) {
+            return true;
+        }
+        HandlerMethod handlerMethod = handler instanceof HandlerMethod ? (HandlerMethod) handler : null;
+        String clientId = request.getHeader(clientIdHeader);
+        long wait = rateLimiter.tryAcquire(handlerMethod == null ? null : handlerMethod.getMethod(), clientId);
+        if (wait == 0) {
+            return true;
+        }
+        long retryAfterSeconds = (wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        log.debug("Rate limit exceeded for {} {} from client [{}], retry after {}s",
+                request.getMethod(), request.getRequestURI(), clientId, retryAfterSeconds);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emulates the request quotas enforced by the real APIs, using a {@link TokenBucket} per client, per endpoint and
+ * across all requests. A request must get a token from every applicable bucket to be allowed; if any bucket rejects
+ * it, the tokens already taken from the others are returned so that rejected requests do not use up quota.
+ * A limit of zero requests per second disables that bucket.
+ *
+ * <p>Client buckets are keyed by the value of the configured client id header. To stop the number of buckets growing
+ * without bound, once max-clients buckets exist any new clients share a single overflow bucket.
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final int endpointRequestsPerSecond;
+    private final int endpointBurst;
+    private final int clientRequestsPerSecond;
+    private final int clientBurst;
+    private final int maxClients;
+    private final TokenBucket globalBucket;
+    private final TokenBucket overflowClientBucket;
+    private final Map<Method, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(@Value("${rate-limit.enabled}") boolean enabled,
+                       @Value("${rate-limit.global.requests-per-second}") int globalRequestsPerSecond,
+                       @Value("${rate-limit.global.burst}") int globalBurst,
+                       @Value("${rate-limit.endpoint.requests-per-second}") int endpointRequestsPerSecond,
+                       @Value("${rate-limit.endpoint.burst}") int endpointBurst,
+                       @Value("${rate-limit.client.requests-per-second}") int clientRequestsPerSecond,
+                       @Value("${rate-limit.client.burst}") int clientBurst,
+                       @Value("${rate-limit.client.max-clients}") int maxClients) {
+        this.enabled = enabled;
+        this.endpointRequestsPerSecond = endpointRequestsPerSecond;
+        this.endpointBurst = endpointBurst;
+        this.clientRequestsPerSecond = clientRequestsPerSecond;
+        this.clientBurst = clientBurst;
+        this.maxClients = maxClients;
+        long now = System.nanoTime();
+        this.globalBucket = bucketOrNull(globalRequestsPerSecond, globalBurst, now);
+        this.overflowClientBucket = bucketOrNull(clientRequestsPerSecond, clientBurst, now);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a token for the given request from each applicable bucket.
+     *
+     * @param endpoint The handler method the request is for, or null if it is not handled by a controller method
+     * @param clientId The id of the client making the request, or null if it has none
+     * @return Zero if the request is allowed, otherwise the number of nanoseconds until it would be
+     */
+    public long tryAcquire(Method endpoint, String clientId) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        TokenBucket clientBucket = clientBucket(clientId, now);
+        long wait = tryAcquire(clientBucket, now);
+        if (wait > 0) {
+            return wait;
+        }
+        TokenBucket endpointBucket = endpointBucket(endpoint, now);
+        wait = tryAcquire(endpointBucket, now);
+        if (wait > 0) {
+            release(clientBucket);
+            return wait;
+        }
+        wait = tryAcquire(globalBucket, now);
+        if (wait > 0) {
+            release(clientBucket);
+            release(endpointBucket);
+        }
+        return wait;
+    }
+
+    private TokenBucket clientBucket(String clientId, long now) {
+        if (clientId == null || clientRequestsPerSecond <= 0) {
+            return null;
+        }
+        TokenBucket bucket = clientBuckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (clientBuckets.size() >= maxClients) {
+            return overflowClientBucket;
+        }
+        return clientBuckets.computeIfAbsent(clientId, id -> new TokenBucket(clientRequestsPerSecond, clientBurst, now));
+    }
+
+    private TokenBucket endpointBucket(Method endpoint, long now) {
+        if (endpoint == null || endpointRequestsPerSecond <= 0) {
+            return null;
+        }
+        TokenBucket bucket = endpointBuckets.get(endpoint);
+        return bucket != null
+                ? bucket
+                : endpointBuckets.computeIfAbsent(endpoint, method -> new TokenBucket(endpointRequestsPerSecond, endpointBurst, now));
+    }
+
+    private static long tryAcquire(TokenBucket bucket, long now) {
+        return bucket == null ? 0 : bucket.tryAcquire(now);
+    }
+
+    private static void release(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    private static TokenBucket bucketOrNull(int requestsPerSecond, int burst, long now) {
+        return requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, burst, now) : null;
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket, implemented as the generic cell rate algorithm (GCRA). Rather than counting tokens and
+ * refilling them on a timer, the bucket holds a single value: the theoretical arrival time (TAT) at which it would be
+ * empty if requests kept arriving at exactly the permitted rate. A request is allowed if the TAT is no more than the
+ * burst tolerance ahead of now, and taking a token moves the TAT on by one emission interval. The whole state is one
+ * {@link AtomicLong} updated by compare-and-set, so acquiring a token never blocks and costs a handful of nanoseconds
+ * when uncontended.
+ *
+ * <p>All times are {@link System#nanoTime()} values, which are only ever compared by subtraction so that they remain
+ * correct if the clock wraps.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param requestsPerSecond The sustained rate at which tokens are added to the bucket
+     * @param burst             The capacity of the bucket, i.e. the number of requests allowed at once
+     * @param nowNanos          The current time from {@link System#nanoTime()}
+     */
+    public TokenBucket(int requestsPerSecond, int burst, long nowNanos) {
+        if (requestsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Requests per second and burst must both be greater than zero");
+        }
+        this.emissionIntervalNanos = NANOS_PER_SECOND / requestsPerSecond;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token from the bucket if there is one.
+     *
+     * @param nowNanos The current time from {@link System#nanoTime()}
+     * @return Zero if a token was taken, otherwise the number of nanoseconds until one will be available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            long aheadOfNow = start - nowNanos;
+            if (aheadOfNow > burstToleranceNanos) {
+                return aheadOfNow - burstToleranceNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire(long)}, used when a request that was allowed by this bucket is
+     * rejected by another one.
+     */
+    public void release() {
+        theoreticalArrivalTime.addAndGet(-emissionIntervalNanos);
+    }
+}
@@ -0,0 +1,93 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+/**
+ * Samples an index in proportion to a fixed set of weights in constant time, using Vose's alias method.
+ *
+ * <p>The table has one column per weight, each of which is split between its own index and one other, its alias. A sample
+ * picks a column uniformly at random, then its own index or its alias by comparing a second random number with the
+ * column's threshold. Both random numbers come from the two halves of one long, so a sample is two multiplications and
+ * a comparison, and allocates nothing.
+ */
+public final class AliasTable {
+
+    private static final long ALWAYS = 1L << 32;
+
+    private final int[] aliases;
+    private final long[] thresholds;
+
+    /**
+     * Builds the table for the given weights.
+     *
+     * @param weights The relative weight of each index, each zero or more, which needn't add up to anything in particular
+     * @throws IllegalArgumentException if there are no weights, any is negative or not finite, or they are all zero
+     */
+    public AliasTable(double[] weights) {
+        int columns = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be zero or more, not " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("At least one weight must be greater than zero");
+        }
+        aliases = new int[columns];
+        thresholds = new long[columns];
+
+        // Scale the weights so they average 1, then repeatedly fill a column below 1 from one above it
+        double[] scaled = new double[columns];
+        int[] small = new int[columns];
+        int[] large = new int[columns];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < columns; i++) {
+            scaled[i] = weights[i] * columns / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            thresholds[less] = (long) (scaled[less] * ALWAYS);
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is within rounding error of 1
+        while (largeCount > 0) {
+            fill(large[--largeCount]);
+        }
+        while (smallCount > 0) {
+            fill(small[--smallCount]);
+        }
+    }
+
+    public int size() {
+        return aliases.length;
+    }
+
+    /**
+     * Samples an index.
+     *
+     * @param randomBits 64 uniformly random bits
+     * @return An index, picked in proportion to its weight
+     */
+    public int sample(long randomBits) {
+        int column = (int) (((randomBits >>> 32) * aliases.length) >>> 32);
+        return (randomBits & 0xFFFFFFFFL) < thresholds[column] ? column : aliases[column];
+    }
+
+    private void fill(int column) {
+        thresholds[column] = ALWAYS;
+        aliases[column] = column;
+    }
+}
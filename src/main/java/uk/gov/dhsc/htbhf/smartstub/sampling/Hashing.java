@@ -0,0 +1,42 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+/**
+ * The stub's one non-cryptographic hash, for deriving values that must look random but always be the same for the same
+ * input, such as household identifiers, low card balances, sticky random outcomes and the seeds of test data blocks.
+ * Each use passes its own seed, so that the values derived from the same input for different uses are independent.
+ */
+public final class Hashing {
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private Hashing() {
+    }
+
+    /**
+     * A 64 bit FNV-1a style hash of the value, finished with the MurmurHash3 finalizer.
+     *
+     * @param value The value to hash
+     * @param seed  The seed, so that different uses of the hash are independent of each other
+     * @return The hash, of which every bit depends on every character
+     */
+    public static long hash(String value, long seed) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * MULTIPLIER;
+        }
+        return mix(hash ^ value.length());
+    }
+
+    /**
+     * The MurmurHash3 64 bit finalizer, so that every bit of the result depends on every bit of the value, and nearby
+     * values give unrelated results.
+     *
+     * @param value The value to mix
+     * @return The mixed value
+     */
+    public static long mix(long value) {
+        long mixed = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return mixed ^ (mixed >>> 33);
+    }
+}
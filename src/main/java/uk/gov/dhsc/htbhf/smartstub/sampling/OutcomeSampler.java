@@ -0,0 +1,72 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Samples an outcome for requests that don't trigger one themselves, from the percentage of requests that should get
+ * each. The rest of the requests, up to 100%, get no outcome, i.e. the happy path.
+ *
+ * @param <T> The type of outcome
+ */
+public final class OutcomeSampler<T> {
+
+    private static final double ALL_REQUESTS = 100;
+
+    // The first outcome is null, for the happy path
+    private final Object[] outcomes;
+    private final AliasTable table;
+
+    private OutcomeSampler(Object[] outcomes, AliasTable table) {
+        this.outcomes = outcomes;
+        this.table = table;
+    }
+
+    /**
+     * Creates a sampler for the given percentages.
+     *
+     * @param percentages The percentage of requests to get each outcome, which must add up to 100 or less
+     * @param <T>         The type of outcome
+     * @return The sampler
+     * @throws IllegalArgumentException if a percentage is negative or they add up to more than 100
+     */
+    public static <T> OutcomeSampler<T> of(Map<T, Double> percentages) {
+        Object[] outcomes = new Object[percentages.size() + 1];
+        double[] weights = new double[percentages.size() + 1];
+        int count = 1;
+        double total = 0;
+        for (Map.Entry<T, Double> percentage : percentages.entrySet()) {
+            if (!(percentage.getValue() >= 0)) {
+                throw new IllegalArgumentException("Outcome percentages must be zero or more, not " + percentage.getValue());
+            }
+            if (percentage.getValue() > 0) {
+                outcomes[count] = percentage.getKey();
+                weights[count++] = percentage.getValue();
+                total += percentage.getValue();
+            }
+        }
+        if (total > ALL_REQUESTS) {
+            throw new IllegalArgumentException("Outcome percentages must add up to 100 or less, not " + total);
+        }
+        weights[0] = ALL_REQUESTS - total;
+        return new OutcomeSampler<>(Arrays.copyOf(outcomes, count), new AliasTable(Arrays.copyOf(weights, count)));
+    }
+
+    /**
+     * @return true if every request gets the happy path, so there is no need to sample
+     */
+    public boolean isEmpty() {
+        return outcomes.length == 1;
+    }
+
+    /**
+     * Samples an outcome.
+     *
+     * @param randomBits 64 uniformly random bits, or a hash of something that should always get the same outcome
+     * @return The outcome, or null for the happy path
+     */
+    @SuppressWarnings("unchecked")
+    public T sample(long randomBits) {
+        return (T) outcomes[table.sample(randomBits)];
+    }
+}
@@ -0,0 +1,82 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+import org.springframework.stereotype.Component;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome;
+import uk.gov.dhsc.htbhf.smartstub.settings.RandomOutcomeSettings;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gives outcomes at random to requests that don't trigger one themselves, in the proportions of the current
+ * {@link RandomOutcomeSettings}. Each draw is a lookup in an {@link AliasTable}, so takes constant time however many
+ * outcomes there are and allocates nothing. As with the DWP rules, the tables are built once per settings snapshot and
+ * reused until the settings are replaced.
+ */
+@Component
+public class RandomOutcomes {
+
+    private static final long STICKY_SEED = 0x082EFA98EC4E6C89L;
+
+    private volatile Samplers samplers = new Samplers(RandomOutcomeSettings.NONE);
+
+    /**
+     * Samples an outcome for a DWP request whose NINO and surname don't trigger one.
+     *
+     * @param settings The random outcome settings read for the request
+     * @param nino     The NINO from the request
+     * @return The outcome, or null for the happy path
+     */
+    public RandomDwpOutcome sampleDwpOutcome(RandomOutcomeSettings settings, String nino) {
+        OutcomeSampler<RandomDwpOutcome> sampler = samplersFor(settings).dwp;
+        return sampler.isEmpty() ? null : sampler.sample(randomBits(settings, nino));
+    }
+
+    /**
+     * Samples a scenario for a card request whose first name doesn't trigger one.
+     *
+     * @param settings The random outcome settings read for the request
+     * @param claimId  The claim ID from the request
+     * @return The scenario, or null for the happy path
+     */
+    public FirstNameScenario sampleCardScenario(RandomOutcomeSettings settings, String claimId) {
+        OutcomeSampler<FirstNameScenario> sampler = samplersFor(settings).card;
+        return sampler.isEmpty() ? null : sampler.sample(randomBits(settings, claimId));
+    }
+
+    // Two requests that both see new settings may both build the tables, which is harmless as the results are identical.
+    private Samplers samplersFor(RandomOutcomeSettings settings) {
+        Samplers current = samplers;
+        if (current.settings != settings) {
+            current = new Samplers(settings);
+            samplers = current;
+        }
+        return current;
+    }
+
+    private static long randomBits(RandomOutcomeSettings settings, String key) {
+        return settings.getSticky() && key != null ? Hashing.hash(key, STICKY_SEED) : ThreadLocalRandom.current().nextLong();
+    }
+
+    private static final class Samplers {
+
+        private final RandomOutcomeSettings settings;
+        private final OutcomeSampler<RandomDwpOutcome> dwp;
+        private final OutcomeSampler<FirstNameScenario> card;
+
+        private Samplers(RandomOutcomeSettings settings) {
+            this.settings = settings;
+            this.dwp = OutcomeSampler.of(inOrder(RandomDwpOutcome.class, settings.getDwpPercentages()));
+            this.card = OutcomeSampler.of(inOrder(FirstNameScenario.class, settings.getCardPercentages()));
+        }
+
+        // Sticky outcomes depend on the order of the table's columns, so they are always in the order of the enum
+        private static <T extends Enum<T>> Map<T, Double> inOrder(Class<T> type, Map<T, Double> percentages) {
+            Map<T, Double> ordered = new EnumMap<>(type);
+            ordered.putAll(percentages);
+            return ordered;
+        }
+    }
+}
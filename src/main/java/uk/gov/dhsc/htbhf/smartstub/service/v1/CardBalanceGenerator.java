@@ -3,36 +3,40 @@ package uk.gov.dhsc.htbhf.smartstub.service.v1;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import uk.gov.dhsc.htbhf.smartstub.sampling.Hashing;
+import uk.gov.dhsc.htbhf.smartstub.settings.BalanceSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.function.IntSupplier;
 
-import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.*;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.BALANCE_ERROR;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.findScenarioMatchingCardIdPrefix;
 
+/**
+ * Generates the balance for a card from its card ID prefix, using the balances from the current stub settings.
+ * The low balance of default and payment error cards is generated according to the configured {@link LowBalanceMode}.
+ */
 @Slf4j
 @Component
 public class CardBalanceGenerator {
 
-    private final int maxLowBalanceInPence;
-    private final Map<FirstNameScenario, IntSupplier> scenarioBalanceMap;
-
-    public CardBalanceGenerator(@Value("${get-balance.max-low-balance-in-pence}") int maxLowBalanceInPence,
-                                @Value("${get-balance.partial-payment-balance-in-pence}") int partialPaymentBalanceInPence,
-                                @Value("${get-balance.high-balance-in-pence}") int highBalanceInPence) {
-        this.maxLowBalanceInPence = maxLowBalanceInPence;
-        this.scenarioBalanceMap = Map.of(
-                NO_TOP_UP, () -> highBalanceInPence,
-                PARTIAL, () -> partialPaymentBalanceInPence,
-                PAYMENT_ERROR, this::generateRandomLowBalance
-        );
+    private static final long LOW_BALANCE_SEED = 0xA4093822299F31D0L;
+
+    private final StubSettingsHolder stubSettingsHolder;
+    private final LowBalanceMode lowBalanceMode;
+
+    public CardBalanceGenerator(StubSettingsHolder stubSettingsHolder,
+                                @Value("${get-balance.low-balance-mode}") LowBalanceMode lowBalanceMode) {
+        this.stubSettingsHolder = stubSettingsHolder;
+        this.lowBalanceMode = lowBalanceMode;
     }
 
     public int generateBalanceForCardId(String cardId) {
+        BalanceSettings balances = stubSettingsHolder.get().getBalances();
         Optional<FirstNameScenario> scenarioMatchingCardIdPrefix = findScenarioMatchingCardIdPrefix(cardId);
         if (scenarioMatchingCardIdPrefix.isEmpty()) {
-            return generateRandomLowBalance();
+            return generateLowBalance(cardId, balances);
         }
         FirstNameScenario scenario = scenarioMatchingCardIdPrefix.get();
         if (scenario == BALANCE_ERROR) {
@@ -41,17 +45,33 @@ public class CardBalanceGenerator {
             log.info(message);
             throw new RuntimeException(message);
         }
-        return generateBalanceForScenario(scenario);
+        return generateBalanceForScenario(cardId, scenario, balances);
+    }
+
+    private int generateBalanceForScenario(String cardId, FirstNameScenario scenario, BalanceSettings balances) {
+        switch (scenario) {
+            case NO_TOP_UP:
+                return balances.getHighBalanceInPence();
+            case PARTIAL:
+                return balances.getPartialPaymentBalanceInPence();
+            case PAYMENT_ERROR:
+                return generateLowBalance(cardId, balances);
+            default:
+                throw new IllegalArgumentException("No balance response configured for FirstNameScenario: " + scenario);
+        }
     }
 
-    private int generateBalanceForScenario(FirstNameScenario scenario) {
-        if (!scenarioBalanceMap.containsKey(scenario)) {
-            throw new IllegalArgumentException("No balance response configured for FirstNameScenario: " + scenario);
+    private int generateLowBalance(String cardId, BalanceSettings balances) {
+        if (lowBalanceMode == LowBalanceMode.CARD_ID_HASH) {
+            return hashLowBalance(cardId, balances.getMaxLowBalanceInPence());
         }
-        return scenarioBalanceMap.get(scenario).getAsInt();
+        return ThreadLocalRandom.current().nextInt(0, balances.getMaxLowBalanceInPence());
     }
 
-    private Integer generateRandomLowBalance() {
-        return ThreadLocalRandom.current().nextInt(0, maxLowBalanceInPence);
+    // Scales the top 32 bits of the hash into [0, max) with a multiply and shift rather than a remainder, so every
+    // balance is equally likely to within max / 2^32.
+    private static int hashLowBalance(String cardId, int maxLowBalanceInPence) {
+        long hash = Hashing.hash(String.valueOf(cardId), LOW_BALANCE_SEED) >>> 32;
+        return (int) ((hash * maxLowBalanceInPence) >>> 32);
     }
 }
@@ -1,6 +1,7 @@
 package uk.gov.dhsc.htbhf.smartstub.service.v1;
 
 import java.util.Optional;
+import java.util.SplittableRandom;
 import java.util.UUID;
 
 import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.CARD_ERROR;
@@ -11,26 +12,35 @@ public class CardIdBuilder {
     private static final int DEFAULT_CARD_ID_PREFIX = 9;
 
     public static String buildCardIdForFirstName(String firstName) {
-        Optional<FirstNameScenario> optionalFirstNameScenario = findScenarioMatchingCardRequestFirstName(firstName);
-        if (optionalFirstNameScenario.isPresent()) {
-            FirstNameScenario firstNameScenario = optionalFirstNameScenario.get();
-            if (firstNameScenario == CARD_ERROR) {
-                throw new IllegalArgumentException("Cannot build card ID for card error scenario");
-            }
-            return buildCardIdForScenario(firstNameScenario);
-        }
-        return buildDefaultCardId();
+        return buildCardIdForScenario(findScenarioMatchingCardRequestFirstName(firstName));
     }
 
-    private static String buildDefaultCardId() {
-        return buildCardIdWithPrefix(DEFAULT_CARD_ID_PREFIX);
+    public static String buildCardIdForScenario(Optional<FirstNameScenario> optionalFirstNameScenario) {
+        return getPrefix(optionalFirstNameScenario) + "-" + UUID.randomUUID().toString();
     }
 
-    private static String buildCardIdForScenario(FirstNameScenario firstNameScenario) {
-        return buildCardIdWithPrefix(firstNameScenario.getCardIdPrefixToMatch());
+    /**
+     * Builds a card ID in the same way as {@link #buildCardIdForScenario(Optional)}, but with a version 4 UUID made from
+     * the given random number generator rather than a secure one, so the same seed always gives the same card IDs.
+     *
+     * @param optionalFirstNameScenario The scenario the card is for, or empty for the default prefix
+     * @param random                    The random number generator to make the UUID from
+     * @return The card ID
+     */
+    public static String buildCardIdForScenario(Optional<FirstNameScenario> optionalFirstNameScenario, SplittableRandom random) {
+        long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return getPrefix(optionalFirstNameScenario) + "-" + new UUID(mostSignificantBits, leastSignificantBits).toString();
     }
 
-    private static String buildCardIdWithPrefix(Integer prefix) {
-        return prefix + "-" + UUID.randomUUID().toString();
+    private static Integer getPrefix(Optional<FirstNameScenario> optionalFirstNameScenario) {
+        if (optionalFirstNameScenario.isPresent()) {
+            FirstNameScenario firstNameScenario = optionalFirstNameScenario.get();
+            if (firstNameScenario == CARD_ERROR) {
+                throw new IllegalArgumentException("Cannot build card ID for card error scenario");
+            }
+            return firstNameScenario.getCardIdPrefixToMatch();
+        }
+        return DEFAULT_CARD_ID_PREFIX;
     }
 }
@@ -3,18 +3,31 @@ package uk.gov.dhsc.htbhf.smartstub.service.v1;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import uk.gov.dhsc.htbhf.smartstub.idempotency.IdempotencyCache;
+import uk.gov.dhsc.htbhf.smartstub.journal.DepositJournal;
 import uk.gov.dhsc.htbhf.smartstub.model.v1.*;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccount;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+import uk.gov.dhsc.htbhf.smartstub.settlement.SettlementScheduler;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
 
 import java.util.Optional;
 import java.util.UUID;
 
-import static uk.gov.dhsc.htbhf.smartstub.service.v1.CardIdBuilder.buildCardIdForFirstName;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.CardIdBuilder.buildCardIdForScenario;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.CARD_ERROR;
 import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.PAYMENT_ERROR;
 import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.findScenarioMatchingCardIdPrefix;
 
 /**
  * This service is responsible for creating stub responses to card requests. The current stub responses are:
- * See README.md for details on mappings.
+ * See README.md for details on mappings. Card requests whose first name triggers no scenario are given one by
+ * {@link RandomOutcomes}, which is the happy path unless random outcomes are set. When the {@link IdempotencyCache}
+ * is enabled, a repeated create card or deposit request gets the original response and has no further effect.
+ * Deposits are recorded in the {@link DepositJournal}, except those made by the warm-up.
  */
 @Service
 @Slf4j
@@ -22,39 +35,81 @@ import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.findScena
 public class CardService {
 
     private final CardBalanceGenerator cardBalanceGenerator;
+    private final StubSettingsHolder stubSettingsHolder;
+    private final SettlementScheduler settlementScheduler;
+    private final DepositJournal depositJournal;
+    private final RandomOutcomes randomOutcomes;
+    private final IdempotencyCache idempotencyCache;
 
-    public CreateCardResponse createCard(CardRequestDTO cardRequestDTO) {
+    public CreateCardResponse createCard(CardRequestDTO cardRequestDTO, StubNamespace namespace) {
+        return idempotencyCache.createCardOnce(namespace, cardRequestDTO.getClaimId(), () -> createNewCard(cardRequestDTO, namespace));
+    }
+
+    private CreateCardResponse createNewCard(CardRequestDTO cardRequestDTO, StubNamespace namespace) {
         String firstName = cardRequestDTO.getFirstName();
-        if (FirstNameScenario.CARD_ERROR.matchesFirstName(firstName)) {
+        StubSettings settings = stubSettingsHolder.get();
+        Optional<FirstNameScenario> scenario = settings.findScenarioForFirstName(firstName);
+        if (scenario.isEmpty()) {
+            scenario = Optional.ofNullable(randomOutcomes.sampleCardScenario(settings.getRandomOutcomes(), cardRequestDTO.getClaimId()));
+        }
+        if (scenario.isPresent() && scenario.get() == CARD_ERROR) {
             String message = String.format("First name provided [%s] has been configured to trigger an Exception when creating a card", firstName);
             log.info(message);
             throw new RuntimeException(message);
         }
+        String cardId = buildCardIdForScenario(scenario);
+        namespace.recordCardCreated(cardId);
         return CreateCardResponse.builder()
-                .cardAccountId(buildCardIdForFirstName(cardRequestDTO.getFirstName()))
+                .cardAccountId(cardId)
                 .build();
     }
 
-    public CardBalanceResponse getCardBalance(String cardId) {
+    /**
+     * Generates the balance for the card's scenario. When deposit settlement is enabled, deposits made to the card in
+     * the given namespace are added to the ledger balance, and those that have settled to the available balance.
+     */
+    public CardBalanceResponse getCardBalance(String cardId, StubNamespace namespace) {
         int balance = cardBalanceGenerator.generateBalanceForCardId(cardId);
+        Optional<CardAccount> cardAccount = settlementScheduler.isEnabled() ? namespace.findCardAccount(cardId) : Optional.empty();
+        if (cardAccount.isEmpty()) {
+            return CardBalanceResponse.builder()
+                    .availableBalanceInPence(balance)
+                    .ledgerBalanceInPence(balance)
+                    .build();
+        }
         return CardBalanceResponse.builder()
-                .availableBalanceInPence(balance)
-                .ledgerBalanceInPence(balance)
+                .availableBalanceInPence(addToBalance(balance, cardAccount.get().getSettledInPence()))
+                .ledgerBalanceInPence(addToBalance(balance, cardAccount.get().getDepositedInPence()))
                 .build();
     }
 
-    public DepositFundsResponse depositFunds(String cardId, DepositFundsRequestDTO depositFundsRequestDTO) {
+    public DepositFundsResponse depositFunds(String cardId, DepositFundsRequestDTO depositFundsRequestDTO, StubNamespace namespace) {
+        return idempotencyCache.depositFundsOnce(namespace, cardId, depositFundsRequestDTO.getReference(),
+                () -> depositNewFunds(cardId, depositFundsRequestDTO, namespace));
+    }
+
+    private DepositFundsResponse depositNewFunds(String cardId, DepositFundsRequestDTO depositFundsRequestDTO, StubNamespace namespace) {
         if (isPaymentErrorScenario(cardId)) {
             String message = String.format("Card ID provided [%s] matches prefix [%s] that has been configured to trigger an Exception when trying to deposit "
                             + "funds to the card", cardId, PAYMENT_ERROR.getCardIdPrefixToMatch());
             log.info(message);
             throw new RuntimeException(message);
         }
+        CardAccount cardAccount = namespace.recordDeposit(cardId, depositFundsRequestDTO.getAmountInPence());
+        settlementScheduler.schedule(cardAccount, depositFundsRequestDTO.getAmountInPence());
+        String referenceId = UUID.randomUUID().toString();
+        if (!WarmUpRequests.isWarmUp(namespace)) {
+            depositJournal.record(namespace.getId(), cardId, depositFundsRequestDTO.getAmountInPence(), depositFundsRequestDTO.getReference(), referenceId);
+        }
         return DepositFundsResponse.builder()
-                .referenceId(UUID.randomUUID().toString())
+                .referenceId(referenceId)
                 .build();
     }
 
+    private static int addToBalance(int balance, long amountInPence) {
+        return (int) Math.min(Integer.MAX_VALUE, balance + amountInPence);
+    }
+
     private boolean isPaymentErrorScenario(String cardId) {
         Optional<FirstNameScenario> scenarioMatchingCardIdPrefix = findScenarioMatchingCardIdPrefix(cardId);
         return scenarioMatchingCardIdPrefix.isPresent() && scenarioMatchingCardIdPrefix.get() == PAYMENT_ERROR;
@@ -1,8 +1,10 @@
 package uk.gov.dhsc.htbhf.smartstub.service.v1;
 
 import org.springframework.stereotype.Service;
+import uk.gov.dhsc.htbhf.smartstub.sampling.Hashing;
 
 import java.util.Base64;
+import java.util.UUID;
 
 /**
  * Generates household identifiers for DWP based on the NINO provided.
@@ -12,12 +14,28 @@ public class IdentifierService {
 
     public static final String DWP_DELIMITER = "-";
 
+    private static final long HIGH_BITS_SEED = 0x243F6A8885A308D3L;
+    private static final long LOW_BITS_SEED = 0x13198A2E03707344L;
+
     private final Base64.Encoder encoder = Base64.getEncoder();
 
     public String getDWPHouseholdIdentifier(String nino) {
         return encodeIdentifier(nino + DWP_DELIMITER);
     }
 
+    /**
+     * Generates a household identifier in the same UUID format as a random one, but always the same for a given NINO.
+     * The identifier is built from two 64 bit hashes of the NINO with different seeds, so it costs a couple of
+     * multiplications per character rather than a cryptographic hash.
+     *
+     * @param nino The NINO to generate the identifier from
+     * @return The household identifier
+     */
+    public String getHashedHouseholdIdentifier(String nino) {
+        String value = String.valueOf(nino);
+        return new UUID(Hashing.hash(value, HIGH_BITS_SEED), Hashing.hash(value, LOW_BITS_SEED)).toString();
+    }
+
     private String encodeIdentifier(String valueToEncode) {
         return encoder.encodeToString(valueToEncode.getBytes());
     }
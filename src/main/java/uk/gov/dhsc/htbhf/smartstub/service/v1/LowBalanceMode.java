@@ -0,0 +1,17 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+/**
+ * How the low balance of a default or payment error card is generated, see CardBalanceGenerator.
+ */
+public enum LowBalanceMode {
+
+    /**
+     * A new random balance every time the balance is requested.
+     */
+    RANDOM,
+
+    /**
+     * A balance derived from a hash of the card ID, so every request for a card's balance gets the same balance.
+     */
+    CARD_ID_HASH
+}
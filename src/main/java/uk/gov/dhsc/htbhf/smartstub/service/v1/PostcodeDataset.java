@@ -0,0 +1,118 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the postcodes known to the stub in packed primitive arrays so that millions of entries can be held
+ * without allocating an object per postcode. Each postcode is stored in its normalised form (upper case, no space)
+ * as a fixed width run of ASCII bytes, padded with zeros, alongside its longitude and latitude.
+ */
+public class PostcodeDataset {
+
+    /**
+     * The longest normalised UK postcode, e.g. SW1A1AA.
+     */
+    public static final int POSTCODE_WIDTH = 7;
+    private static final int INCODE_LENGTH = 3;
+
+    private final byte[] postcodes;
+    private final double[] longitudes;
+    private final double[] latitudes;
+    private final int size;
+
+    public PostcodeDataset(byte[] postcodes, double[] longitudes, double[] latitudes) {
+        if (postcodes.length != longitudes.length * POSTCODE_WIDTH || longitudes.length != latitudes.length) {
+            throw new IllegalArgumentException("Postcode, longitude and latitude arrays must describe the same number of entries");
+        }
+        this.postcodes = postcodes;
+        this.longitudes = longitudes;
+        this.latitudes = latitudes;
+        this.size = longitudes.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    /**
+     * Gets the postcode at the given index formatted as it would be returned by postcodes.io, e.g. BS1 4TB.
+     *
+     * @param index The index of the entry
+     * @return The formatted postcode
+     */
+    public String getPostcode(int index) {
+        return formatPostcode(postcodes, index * POSTCODE_WIDTH);
+    }
+
+    /**
+     * Copies the packed bytes of the postcode at the given index into the destination array.
+     *
+     * @param index       The index of the entry
+     * @param destination The array to copy into
+     * @param offset      The offset in the destination array to copy to
+     */
+    public void copyPostcode(int index, byte[] destination, int offset) {
+        System.arraycopy(postcodes, index * POSTCODE_WIDTH, destination, offset, POSTCODE_WIDTH);
+    }
+
+    /**
+     * Normalises the given postcode by removing whitespace and converting to upper case.
+     *
+     * @param postcode The postcode to normalise
+     * @return The normalised postcode
+     */
+    public static String normalisePostcode(String postcode) {
+        StringBuilder normalised = new StringBuilder(postcode.length());
+        for (int i = 0; i < postcode.length(); i++) {
+            char c = postcode.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalised.append(Character.toUpperCase(c));
+            }
+        }
+        return normalised.toString();
+    }
+
+    /**
+     * Writes the normalised form of the given postcode into the packed array at the given offset.
+     *
+     * @param postcode    The postcode to write
+     * @param destination The packed array
+     * @param offset      The offset of the entry in the packed array
+     */
+    public static void packPostcode(String postcode, byte[] destination, int offset) {
+        byte[] bytes = normalisePostcode(postcode).getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > POSTCODE_WIDTH) {
+            throw new IllegalArgumentException("Postcode [" + postcode + "] is longer than " + POSTCODE_WIDTH + " characters");
+        }
+        System.arraycopy(bytes, 0, destination, offset, bytes.length);
+    }
+
+    /**
+     * Formats the packed postcode at the given offset, inserting a space before the three character incode.
+     *
+     * @param packed The packed array
+     * @param offset The offset of the entry in the packed array
+     * @return The formatted postcode
+     */
+    public static String formatPostcode(byte[] packed, int offset) {
+        int length = 0;
+        while (length < POSTCODE_WIDTH && packed[offset + length] != 0) {
+            length++;
+        }
+        if (length <= INCODE_LENGTH) {
+            return new String(packed, offset, length, StandardCharsets.US_ASCII);
+        }
+        int outcodeLength = length - INCODE_LENGTH;
+        return new String(packed, offset, outcodeLength, StandardCharsets.US_ASCII)
+                + " "
+                + new String(packed, offset + outcodeLength, INCODE_LENGTH, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,103 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset.POSTCODE_WIDTH;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset.formatPostcode;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset.normalisePostcode;
+
+/**
+ * A sorted, packed index of every postcode in a {@link PostcodeDataset}, used for autocomplete.
+ *
+ * <p>A normalised postcode is at most seven ASCII characters, so each one is packed big-endian into the low 56 bits
+ * of a long, padded with zero bytes. Numeric order of the packed keys is then the same as alphabetical order of the
+ * postcodes, and all postcodes sharing a prefix form one contiguous run of the sorted array. Finding the first N
+ * matches for a prefix is a binary search for the start of the run followed by reading the next N keys, so no
+ * postcodes outside the result are ever visited. The whole index costs 8 bytes per postcode.
+ */
+public class PostcodePrefixIndex {
+
+    private static final int BITS_PER_CHARACTER = 8;
+
+    private final long[] keys;
+
+    public PostcodePrefixIndex(PostcodeDataset dataset) {
+        keys = new long[dataset.size()];
+        byte[] postcode = new byte[POSTCODE_WIDTH];
+        for (int i = 0; i < keys.length; i++) {
+            dataset.copyPostcode(i, postcode, 0);
+            keys[i] = pack(postcode);
+        }
+        Arrays.sort(keys);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Finds the first postcodes in alphabetical order that start with the given partial postcode. Spaces and case
+     * are ignored, as they are by postcodes.io.
+     *
+     * @param partialPostcode The start of the postcode
+     * @param limit           The maximum number of postcodes to return
+     * @return The matching postcodes formatted with a space before the incode, e.g. BS1 4TB
+     */
+    public List<String> findPostcodesStartingWith(String partialPostcode, int limit) {
+        String prefix = normalisePostcode(partialPostcode);
+        if (prefix.length() > POSTCODE_WIDTH || limit <= 0) {
+            return List.of();
+        }
+        long lowestKey = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c == 0 || c > Byte.MAX_VALUE) {
+                return List.of();
+            }
+            lowestKey |= (long) c << shift(i);
+        }
+        long highestKey = lowestKey | ((1L << shift(prefix.length() - 1)) - 1);
+
+        List<String> postcodes = new ArrayList<>(Math.min(limit, keys.length));
+        byte[] postcode = new byte[POSTCODE_WIDTH];
+        for (int i = lowerBound(lowestKey); i < keys.length && keys[i] <= highestKey && postcodes.size() < limit; i++) {
+            unpack(keys[i], postcode);
+            postcodes.add(formatPostcode(postcode, 0));
+        }
+        return postcodes;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long pack(byte[] postcode) {
+        long key = 0;
+        for (int i = 0; i < POSTCODE_WIDTH; i++) {
+            key |= (long) (postcode[i] & 0xFF) << shift(i);
+        }
+        return key;
+    }
+
+    private static void unpack(long key, byte[] postcode) {
+        for (int i = 0; i < POSTCODE_WIDTH; i++) {
+            postcode[i] = (byte) (key >>> shift(i));
+        }
+    }
+
+    private static int shift(int position) {
+        return (POSTCODE_WIDTH - 1 - position) * BITS_PER_CHARACTER;
+    }
+}
@@ -0,0 +1,84 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.NearestPostcode;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.generatePostcodeDataset;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.loadPostcodeDataset;
+
+/**
+ * Holds the stub's postcode dataset and answers queries against it. The dataset is loaded from the configured
+ * CSV file if there is one, otherwise it is generated from the configured size and seed.
+ */
+@Service
+@Slf4j
+public class PostcodeService {
+
+    private final PostcodeDataset dataset;
+    private final PostcodeSpatialIndex spatialIndex;
+    private final PostcodePrefixIndex prefixIndex;
+    private final int maxLimit;
+    private final int maxRadiusInMetres;
+
+    public PostcodeService(@Value("${postcodes.dataset.file:}") String datasetFile,
+                           @Value("${postcodes.dataset.size}") int datasetSize,
+                           @Value("${postcodes.dataset.seed}") long datasetSeed,
+                           @Value("${postcodes.max-limit}") int maxLimit,
+                           @Value("${postcodes.nearest.max-radius-in-metres}") int maxRadiusInMetres) {
+        long start = System.nanoTime();
+        this.dataset = StringUtils.isEmpty(datasetFile)
+                ? generatePostcodeDataset(datasetSize, datasetSeed)
+                : loadPostcodeDataset(Paths.get(datasetFile));
+        this.spatialIndex = new PostcodeSpatialIndex(dataset);
+        this.prefixIndex = new PostcodePrefixIndex(dataset);
+        this.maxLimit = maxLimit;
+        this.maxRadiusInMetres = maxRadiusInMetres;
+        log.info("Indexed {} postcodes in {}ms", dataset.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Finds the postcodes nearest to the given coordinates, closest first. As with postcodes.io, the limit
+     * and radius are capped at their configured maximums.
+     *
+     * @param longitude      The longitude to search from
+     * @param latitude       The latitude to search from
+     * @param limit          The maximum number of postcodes to return
+     * @param radiusInMetres The maximum distance of any postcode returned
+     * @return The nearest postcodes, which will be empty if there are none within the radius
+     */
+    public List<NearestPostcode> findNearestPostcodes(double longitude, double latitude, int limit, int radiusInMetres) {
+        int cappedLimit = Math.max(0, Math.min(limit, maxLimit));
+        int cappedRadius = Math.max(0, Math.min(radiusInMetres, maxRadiusInMetres));
+        PostcodeSpatialIndex.Neighbours neighbours = spatialIndex.findNearest(longitude, latitude, cappedLimit, cappedRadius);
+        List<NearestPostcode> nearestPostcodes = new ArrayList<>(neighbours.size());
+        for (int n = 0; n < neighbours.size(); n++) {
+            int index = neighbours.getIndex(n);
+            nearestPostcodes.add(NearestPostcode.builder()
+                    .postcode(dataset.getPostcode(index))
+                    .longitude(dataset.getLongitude(index))
+                    .latitude(dataset.getLatitude(index))
+                    .distance(neighbours.getDistanceInMetres(n))
+                    .build());
+        }
+        return nearestPostcodes;
+    }
+
+    /**
+     * Finds the first postcodes in alphabetical order starting with the given partial postcode. As with
+     * postcodes.io, the limit is capped at its configured maximum.
+     *
+     * @param partialPostcode The start of the postcode, ignoring spaces and case
+     * @param limit           The maximum number of postcodes to return
+     * @return The matching postcodes, which will be empty if there are none
+     */
+    public List<String> autocompletePostcode(String partialPostcode, int limit) {
+        return prefixIndex.findPostcodesStartingWith(partialPostcode, Math.min(limit, maxLimit));
+    }
+}
@@ -0,0 +1,269 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+/**
+ * A static k-d tree over the coordinates of a {@link PostcodeDataset}, used for nearest postcode lookups.
+ *
+ * <p>Each coordinate is converted to a point on the unit sphere, so the straight line (chord) distance between
+ * two points increases with the great circle distance between them. This lets the tree use plain euclidean
+ * distances for pruning while still returning results ordered by distance on the earth's surface.
+ *
+ * <p>The tree is implicit: the points are held in a single packed array, reordered so that the node for any range
+ * is the point in the middle of that range and its children are the two halves either side, split on x, y and z in
+ * turn. No node objects are allocated, so the index costs 28 bytes per postcode.
+ */
+public class PostcodeSpatialIndex {
+
+    /**
+     * Mean radius of the earth in metres, as used by postcodes.io.
+     */
+    public static final double EARTH_RADIUS_IN_METRES = 6_371_000;
+    private static final int DIMENSIONS = 3;
+
+    private final double[] points;
+    private final int[] indices;
+    private final int size;
+
+    public PostcodeSpatialIndex(PostcodeDataset dataset) {
+        this.size = dataset.size();
+        this.points = new double[size * DIMENSIONS];
+        this.indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            double longitude = Math.toRadians(dataset.getLongitude(i));
+            double latitude = Math.toRadians(dataset.getLatitude(i));
+            double cosLatitude = Math.cos(latitude);
+            points[i * DIMENSIONS] = cosLatitude * Math.cos(longitude);
+            points[i * DIMENSIONS + 1] = cosLatitude * Math.sin(longitude);
+            points[i * DIMENSIONS + 2] = Math.sin(latitude);
+            indices[i] = i;
+        }
+        build(0, size, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the postcodes nearest to the given coordinates, ordered by distance.
+     *
+     * @param longitude      The longitude to search from
+     * @param latitude       The latitude to search from
+     * @param limit          The maximum number of postcodes to return
+     * @param radiusInMetres The maximum distance of any postcode returned
+     * @return The nearest postcodes, closest first
+     */
+    public Neighbours findNearest(double longitude, double latitude, int limit, double radiusInMetres) {
+        double longitudeRadians = Math.toRadians(longitude);
+        double latitudeRadians = Math.toRadians(latitude);
+        double cosLatitude = Math.cos(latitudeRadians);
+        double chord = 2 * Math.sin(Math.min(radiusInMetres / EARTH_RADIUS_IN_METRES, Math.PI) / 2);
+        Neighbours neighbours = new Neighbours(limit, chord * chord);
+        if (limit == 0) {
+            return neighbours;
+        }
+        search(0, size, 0,
+                cosLatitude * Math.cos(longitudeRadians),
+                cosLatitude * Math.sin(longitudeRadians),
+                Math.sin(latitudeRadians),
+                neighbours);
+        neighbours.sort();
+        return neighbours;
+    }
+
+    private void search(int from, int to, int axis, double x, double y, double z, Neighbours neighbours) {
+        while (from < to) {
+            int node = (from + to) >>> 1;
+            int offset = node * DIMENSIONS;
+            double dx = x - points[offset];
+            double dy = y - points[offset + 1];
+            double dz = z - points[offset + 2];
+            neighbours.offer(indices[node], dx * dx + dy * dy + dz * dz);
+
+            double split = axis == 0 ? dx : axis == 1 ? dy : dz;
+            int nextAxis = axis == DIMENSIONS - 1 ? 0 : axis + 1;
+            if (split < 0) {
+                search(from, node, nextAxis, x, y, z, neighbours);
+                if (split * split >= neighbours.bound()) {
+                    return;
+                }
+                from = node + 1;
+            } else {
+                search(node + 1, to, nextAxis, x, y, z, neighbours);
+                if (split * split >= neighbours.bound()) {
+                    return;
+                }
+                to = node;
+            }
+            axis = nextAxis;
+        }
+    }
+
+    private void build(int from, int to, int axis) {
+        while (to - from > 1) {
+            int node = (from + to) >>> 1;
+            select(from, to - 1, node, axis);
+            int nextAxis = axis == DIMENSIONS - 1 ? 0 : axis + 1;
+            build(from, node, nextAxis);
+            from = node + 1;
+            axis = nextAxis;
+        }
+    }
+
+    // Quickselect: partially sorts [left, right] on the given axis so that the k'th point is in its sorted position.
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            int middle = (left + right) >>> 1;
+            if (value(middle, axis) < value(left, axis)) {
+                swap(middle, left);
+            }
+            if (value(right, axis) < value(left, axis)) {
+                swap(right, left);
+            }
+            if (value(right, axis) < value(middle, axis)) {
+                swap(right, middle);
+            }
+            double pivot = value(middle, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (value(i, axis) < pivot) {
+                    i++;
+                }
+                while (value(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double value(int point, int axis) {
+        return points[point * DIMENSIONS + axis];
+    }
+
+    private void swap(int a, int b) {
+        int offsetA = a * DIMENSIONS;
+        int offsetB = b * DIMENSIONS;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double point = points[offsetA + d];
+            points[offsetA + d] = points[offsetB + d];
+            points[offsetB + d] = point;
+        }
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+    }
+
+    /**
+     * The result of a nearest neighbour search, held as a bounded max-heap of dataset indices keyed on the
+     * squared chord distance until the search completes, then sorted closest first.
+     */
+    public static class Neighbours {
+
+        private final int[] indices;
+        private final double[] chordsSquared;
+        private final double maxChordSquared;
+        private int count;
+
+        Neighbours(int limit, double maxChordSquared) {
+            this.indices = new int[limit];
+            this.chordsSquared = new double[limit];
+            this.maxChordSquared = maxChordSquared;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Gets the index in the dataset of the n'th nearest postcode.
+         *
+         * @param n The position in the results, starting from 0 for the nearest
+         * @return The index of the postcode in the dataset
+         */
+        public int getIndex(int n) {
+            return indices[n];
+        }
+
+        /**
+         * Gets the great circle distance to the n'th nearest postcode.
+         *
+         * @param n The position in the results, starting from 0 for the nearest
+         * @return The distance in metres
+         */
+        public double getDistanceInMetres(int n) {
+            return 2 * EARTH_RADIUS_IN_METRES * Math.asin(Math.min(1, Math.sqrt(chordsSquared[n]) / 2));
+        }
+
+        double bound() {
+            return count == indices.length ? chordsSquared[0] : maxChordSquared;
+        }
+
+        void offer(int index, double chordSquared) {
+            if (chordSquared > maxChordSquared) {
+                return;
+            }
+            if (count < indices.length) {
+                siftUp(count++, index, chordSquared);
+            } else if (chordSquared < chordsSquared[0]) {
+                siftDown(0, count, index, chordSquared);
+            }
+        }
+
+        // Heap sort in place, leaving the arrays in ascending order of distance.
+        void sort() {
+            for (int end = count - 1; end > 0; end--) {
+                int index = indices[end];
+                double chordSquared = chordsSquared[end];
+                indices[end] = indices[0];
+                chordsSquared[end] = chordsSquared[0];
+                siftDown(0, end, index, chordSquared);
+            }
+        }
+
+        private void siftUp(int position, int index, double chordSquared) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (chordsSquared[parent] >= chordSquared) {
+                    break;
+                }
+                indices[position] = indices[parent];
+                chordsSquared[position] = chordsSquared[parent];
+                position = parent;
+            }
+            indices[position] = index;
+            chordsSquared[position] = chordSquared;
+        }
+
+        private void siftDown(int position, int heapSize, int index, double chordSquared) {
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && chordsSquared[child + 1] > chordsSquared[child]) {
+                    child++;
+                }
+                if (chordsSquared[child] <= chordSquared) {
+                    break;
+                }
+                indices[position] = indices[child];
+                chordsSquared[position] = chordsSquared[child];
+                position = child;
+            }
+            indices[position] = index;
+            chordsSquared[position] = chordSquared;
+        }
+    }
+}
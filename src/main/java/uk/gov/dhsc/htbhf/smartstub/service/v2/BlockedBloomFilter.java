@@ -0,0 +1,89 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+/**
+ * A Bloom filter of long keys, split into blocks of 512 bits (one cache line). A key's bits are all set in one block,
+ * so checking a key reads a single cache line however large the filter is. At 10 bits per key around 1% of keys that
+ * were never added are reported as possibly present; keys that were added always are.
+ */
+public class BlockedBloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+    private static final int BITS_PER_POSITION = 9;
+    private static final int POSITION_MASK = BITS_PER_BLOCK - 1;
+    private static final int HASHES = 6;
+    private static final long SECOND_HASH_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final long[] words;
+    private final int blockMask;
+
+    /**
+     * Creates an empty filter with room for the given number of keys.
+     *
+     * @param expectedKeys The number of keys that will be added
+     */
+    public BlockedBloomFilter(long expectedKeys) {
+        long blocks = Math.max(1, (expectedKeys * BITS_PER_KEY + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK);
+        if (blocks > 1 << 26) {
+            throw new IllegalArgumentException("Too many keys for a Bloom filter: " + expectedKeys);
+        }
+        int blockCount = Integer.highestOneBit((int) blocks);
+        blockCount = blockCount < blocks ? blockCount << 1 : blockCount;
+        this.words = new long[blockCount * WORDS_PER_BLOCK];
+        this.blockMask = blockCount - 1;
+    }
+
+    /**
+     * Wraps the words of a filter previously returned by {@link #getWords()}.
+     *
+     * @param words The words, of which there must be a power of two number of blocks
+     */
+    public BlockedBloomFilter(long[] words) {
+        int blockCount = words.length / WORDS_PER_BLOCK;
+        if (blockCount == 0 || words.length % WORDS_PER_BLOCK != 0 || Integer.bitCount(blockCount) != 1) {
+            throw new IllegalArgumentException("A Bloom filter must have a power of two number of " + WORDS_PER_BLOCK + " word blocks");
+        }
+        this.words = words;
+        this.blockMask = blockCount - 1;
+    }
+
+    public void add(long key) {
+        int block = block(key);
+        long positions = mix(key + SECOND_HASH_INCREMENT);
+        for (int i = 0; i < HASHES; i++) {
+            int position = (int) (positions >>> (i * BITS_PER_POSITION)) & POSITION_MASK;
+            words[block + (position >>> 6)] |= 1L << position;
+        }
+    }
+
+    public boolean mightContain(long key) {
+        int block = block(key);
+        long positions = mix(key + SECOND_HASH_INCREMENT);
+        for (int i = 0; i < HASHES; i++) {
+            int position = (int) (positions >>> (i * BITS_PER_POSITION)) & POSITION_MASK;
+            if ((words[block + (position >>> 6)] & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The words holding the filter's bits, which are not copied
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    private int block(long key) {
+        return ((int) mix(key) & blockMask) * WORDS_PER_BLOCK;
+    }
+
+    // The SplitMix64 finalizer, so that keys differing in a single bit land in unrelated blocks and positions.
+    private static long mix(long value) {
+        long z = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
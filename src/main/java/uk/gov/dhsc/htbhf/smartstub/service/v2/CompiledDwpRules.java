@@ -0,0 +1,160 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.NinoOutcome.ELIGIBILITY_NOT_CONFIRMED;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.NinoOutcome.IDENTITY_NOT_MATCHED;
+
+/**
+ * A {@link DwpRuleTable} combined with the surnames from one {@link StubSettings} snapshot, compiled into a form that
+ * can be evaluated for each request without branching on individual rules or allocating.
+ *
+ * <p>The NINO rules become one 128 entry table per position that any rule checks, holding the {@link NinoOutcome}
+ * flags triggered by each ASCII character in that position. Evaluating them ORs together one entry per position, and
+ * the result indexes straight into tables of identity and eligibility outcomes. The surname rules become a
+ * {@link PerfectHashMap} from surname to the complete set of verification outcomes for it.
+ *
+ * <p>Surnames in the settings take precedence over those in the rule table, so the surnames that trigger each outcome
+ * can still be changed at runtime through /admin/settings.
+ */
+public final class CompiledDwpRules {
+
+    private static final int ASCII_CHARACTERS = 128;
+    private static final int OUTCOME_COMBINATIONS = 4;
+    private static final IdentityOutcome[] IDENTITY_OUTCOMES = new IdentityOutcome[OUTCOME_COMBINATIONS];
+    private static final EligibilityOutcome[] ELIGIBILITY_OUTCOMES = new EligibilityOutcome[OUTCOME_COMBINATIONS];
+
+    static {
+        for (int flags = 0; flags < OUTCOME_COMBINATIONS; flags++) {
+            boolean identityNotMatched = (flags & IDENTITY_NOT_MATCHED.getFlag()) != 0;
+            boolean eligibilityNotConfirmed = (flags & ELIGIBILITY_NOT_CONFIRMED.getFlag()) != 0;
+            IDENTITY_OUTCOMES[flags] = identityNotMatched ? IdentityOutcome.NOT_MATCHED : IdentityOutcome.MATCHED;
+            ELIGIBILITY_OUTCOMES[flags] = identityNotMatched ? EligibilityOutcome.NOT_SET
+                    : eligibilityNotConfirmed ? EligibilityOutcome.NOT_CONFIRMED : EligibilityOutcome.CONFIRMED;
+        }
+    }
+
+    private final StubSettings settings;
+    private final int[] positions;
+    private final byte[][] outcomesByCharacter;
+    private final PerfectHashMap<SurnameRule> surnameRules;
+
+    private CompiledDwpRules(StubSettings settings, int[] positions, byte[][] outcomesByCharacter, PerfectHashMap<SurnameRule> surnameRules) {
+        this.settings = settings;
+        this.positions = positions;
+        this.outcomesByCharacter = outcomesByCharacter;
+        this.surnameRules = surnameRules;
+    }
+
+    /**
+     * Compiles the given rule table with the surnames from the given settings.
+     *
+     * @param ruleTable The rule table
+     * @param settings  The settings snapshot
+     * @return The compiled rules
+     * @throws IllegalArgumentException if a NINO rule has a negative position or a character that is not ASCII
+     */
+    public static CompiledDwpRules compile(DwpRuleTable ruleTable, StubSettings settings) {
+        Map<Integer, byte[]> tablesByPosition = new TreeMap<>();
+        List<NinoRule> ninoRules = ruleTable.getNinoRules() == null ? List.of() : ruleTable.getNinoRules();
+        for (NinoRule rule : ninoRules) {
+            if (rule.getPosition() < 0 || rule.getOutcome() == null || rule.getCharacters() == null) {
+                throw new IllegalArgumentException("NINO rule must have a position of at least 0, characters and an outcome: " + rule);
+            }
+            byte[] table = tablesByPosition.computeIfAbsent(rule.getPosition(), position -> new byte[ASCII_CHARACTERS]);
+            for (char character : rule.getCharacters().toCharArray()) {
+                if (character == 0 || character >= ASCII_CHARACTERS) {
+                    throw new IllegalArgumentException("NINO rule characters must be ASCII: " + rule);
+                }
+                table[character] |= rule.getOutcome().getFlag();
+            }
+        }
+        int[] positions = tablesByPosition.keySet().stream().mapToInt(Integer::intValue).toArray();
+        byte[][] outcomesByCharacter = tablesByPosition.values().toArray(new byte[0][]);
+        return new CompiledDwpRules(settings, positions, outcomesByCharacter, PerfectHashMap.of(combineSurnameRules(ruleTable, settings)));
+    }
+
+    public StubSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Evaluates the NINO rules against the given NINO.
+     *
+     * @param nino The NINO from the request
+     * @return The {@link NinoOutcome} flags triggered, to pass to {@link #getIdentityOutcome(int)} and
+     *         {@link #getEligibilityOutcome(int)}
+     */
+    public int evaluateNino(String nino) {
+        int flags = 0;
+        int length = nino.length();
+        for (int i = 0; i < positions.length; i++) {
+            int position = positions[i];
+            char character = position < length ? nino.charAt(position) : 0;
+            flags |= character < ASCII_CHARACTERS ? outcomesByCharacter[i][character] : 0;
+        }
+        return flags;
+    }
+
+    public IdentityOutcome getIdentityOutcome(int ninoFlags) {
+        return IDENTITY_OUTCOMES[ninoFlags];
+    }
+
+    public EligibilityOutcome getEligibilityOutcome(int ninoFlags) {
+        return ELIGIBILITY_OUTCOMES[ninoFlags];
+    }
+
+    /**
+     * Gets the verification outcomes for the given surname.
+     *
+     * @param surname The surname from the request, which may be null
+     * @return The outcomes, with MATCHED for any the surname does not trigger
+     */
+    public SurnameRule getSurnameRule(String surname) {
+        return surnameRules.getOrDefault(surname, SurnameRule.ALL_MATCHED);
+    }
+
+    /**
+     * Checks whether the given surname triggers verification outcomes, even if they are all MATCHED.
+     *
+     * @param surname The surname from the request, which may be null
+     * @return true if there is a rule for the surname
+     */
+    public boolean hasSurnameRule(String surname) {
+        return surnameRules.getOrDefault(surname, null) != null;
+    }
+
+    private static Map<String, SurnameRule> combineSurnameRules(DwpRuleTable ruleTable, StubSettings settings) {
+        Map<String, SurnameRule> rules = new HashMap<>();
+        if (ruleTable.getSurnameRules() != null) {
+            ruleTable.getSurnameRules().forEach((surname, rule) -> rules.put(surname, rule.withDefaults()));
+        }
+        settings.getSurnameVerificationOutcomes().forEach((surname, outcomes) -> rules.put(surname,
+                rules.getOrDefault(surname, SurnameRule.ALL_MATCHED).toBuilder()
+                        .mobile(outcomes.getMobileOutcome())
+                        .email(outcomes.getEmailOutcome())
+                        .build()));
+        String addressLine1NotMatchedSurname = settings.getAddressLine1NotMatchedSurname();
+        if (addressLine1NotMatchedSurname != null) {
+            rules.put(addressLine1NotMatchedSurname, rules.getOrDefault(addressLine1NotMatchedSurname, SurnameRule.ALL_MATCHED).toBuilder()
+                    .addressLine1(VerificationOutcome.NOT_MATCHED)
+                    .build());
+        }
+        // As before, a surname that triggers both address outcomes only fails address line 1.
+        String postcodeNotMatchedSurname = settings.getPostcodeNotMatchedSurname();
+        if (postcodeNotMatchedSurname != null && !postcodeNotMatchedSurname.equals(addressLine1NotMatchedSurname)) {
+            rules.put(postcodeNotMatchedSurname, rules.getOrDefault(postcodeNotMatchedSurname, SurnameRule.ALL_MATCHED).toBuilder()
+                    .postcode(VerificationOutcome.NOT_MATCHED)
+                    .build());
+        }
+        return rules;
+    }
+}
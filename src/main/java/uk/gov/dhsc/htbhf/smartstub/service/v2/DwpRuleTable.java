@@ -0,0 +1,26 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rules deciding the outcome of v2 DWP requests, as read from the YAML rule table (dwp-rules.yml by default).
+ * The table is compiled into {@link CompiledDwpRules} before it is used.
+ */
+@Value
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class DwpRuleTable {
+
+    @JsonProperty("ninoRules")
+    private List<NinoRule> ninoRules;
+
+    @JsonProperty("surnameRules")
+    private Map<String, SurnameRule> surnameRules;
+}
@@ -0,0 +1,84 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Loads the {@link DwpRuleTable} from YAML and compiles it with the initial {@link StubSettings} at startup, so that
+ * invalid rules stop the stub from starting. The rules are compiled once per settings snapshot: the last compiled
+ * rules are reused until the settings are replaced, so only the first request after a change pays for compiling them.
+ */
+@Component
+@Slf4j
+public class DwpRules {
+
+    public static final String DEFAULT_RULES_FILE = "dwp-rules.yml";
+
+    private final DwpRuleTable ruleTable;
+    private volatile CompiledDwpRules compiledRules;
+
+    public DwpRules(@Value("${dwp.rules-file}") Resource rulesFile, StubSettingsHolder stubSettingsHolder) {
+        this.ruleTable = load(rulesFile);
+        this.compiledRules = CompiledDwpRules.compile(ruleTable, stubSettingsHolder.get());
+        log.info("Loaded {} NINO rules and {} surname rules from {}", size(ruleTable.getNinoRules()), size(ruleTable.getSurnameRules()), rulesFile);
+    }
+
+    /**
+     * Loads the rules the stub is shipped with.
+     *
+     * @param stubSettingsHolder The holder of the settings to compile the rules with
+     * @return The default rules
+     */
+    public static DwpRules defaultRules(StubSettingsHolder stubSettingsHolder) {
+        return new DwpRules(new ClassPathResource(DEFAULT_RULES_FILE), stubSettingsHolder);
+    }
+
+    public DwpRuleTable getRuleTable() {
+        return ruleTable;
+    }
+
+    /**
+     * Gets the rules compiled with the given settings, compiling them if they were last compiled with other settings.
+     * Two requests that both see new settings may both compile them, which is harmless as the results are identical.
+     *
+     * @param settings The settings snapshot read for the request
+     * @return The compiled rules
+     */
+    public CompiledDwpRules compiledFor(StubSettings settings) {
+        CompiledDwpRules rules = compiledRules;
+        if (rules.getSettings() != settings) {
+            rules = CompiledDwpRules.compile(ruleTable, settings);
+            compiledRules = rules;
+        }
+        return rules;
+    }
+
+    private static DwpRuleTable load(Resource rulesFile) {
+        try (InputStream inputStream = rulesFile.getInputStream()) {
+            return new ObjectMapper(new YAMLFactory()).readValue(inputStream, DwpRuleTable.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read DWP rules from " + rulesFile, e);
+        }
+    }
+
+    private static int size(Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+
+    private static int size(Map<?, ?> map) {
+        return map == null ? 0 : map.size();
+    }
+}
@@ -0,0 +1,22 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+/**
+ * How the household identifier in an eligible identity and eligibility response is generated.
+ */
+public enum HouseholdIdentifierMode {
+
+    /**
+     * A new random UUID for every response, so identical requests never get identical responses.
+     */
+    RANDOM,
+
+    /**
+     * A UUID derived from a hash of the NINO, so identical requests get identical responses.
+     */
+    NINO_HASH,
+
+    /**
+     * The Base64 encoded NINO followed by a delimiter, see IdentifierService.getDWPHouseholdIdentifier.
+     */
+    NINO_BASE64
+}
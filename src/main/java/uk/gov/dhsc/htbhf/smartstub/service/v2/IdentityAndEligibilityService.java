@@ -2,27 +2,39 @@ package uk.gov.dhsc.htbhf.smartstub.service.v2;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import uk.gov.dhsc.htbhf.dwp.model.*;
 import uk.gov.dhsc.htbhf.eligibility.model.testhelper.ChildDobGenerator;
-
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.IdentifierService;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static java.util.Collections.emptyList;
 
 /**
  * Component responsible for determining the identity and eligibility response for a request based
- * in the NINO and Surname provided.
+ * in the NINO and Surname provided. The outcomes are decided by the {@link DwpRules} compiled with the current
+ * {@link StubSettings}, whose trigger surnames and exception NINO default to the constants below. The household
+ * identifier of an eligible response is generated according to the configured {@link HouseholdIdentifierMode}, and
+ * children's dates of birth are relative to the date of the {@link SimulationClock}. Requests whose NINO and surname
+ * trigger no outcome are given one by {@link RandomOutcomes}, which is the happy path unless random outcomes are set.
  */
 @Slf4j
 @Component
 public class IdentityAndEligibilityService {
 
     public static final String EXCEPTION_NINO = "XX999999D";
-    private static final char NOT_MATCHED_CHAR = 'X';
-    private static final char ELIGIBILITY_NOT_CONFIRMED_CHAR = 'X';
-    private static final int IDENTITY_STATUS_POSITION = 0;
-    private static final int ELIGIBILITY_STATUS_POSITION = 1;
 
     public static final String ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME = "AddressLineOneNotMatched";
     public static final String POSTCODE_NOT_MATCHED_SURNAME = "PostcodeNotMatched";
@@ -34,6 +46,27 @@ public class IdentityAndEligibilityService {
     public static final String MOBILE_AND_EMAIL_NOT_MATCHED_SURNAME = "MobileAndEmailNotMatched";
     private static final String NO_HOUSEHOLD_IDENTIFIER_PROVIDED = "";
 
+    private final StubSettingsHolder stubSettingsHolder;
+    private final DwpRules dwpRules;
+    private final IdentifierService identifierService;
+    private final HouseholdIdentifierMode householdIdentifierMode;
+    private final SimulationClock simulationClock;
+    private final RandomOutcomes randomOutcomes;
+
+    public IdentityAndEligibilityService(StubSettingsHolder stubSettingsHolder,
+                                         DwpRules dwpRules,
+                                         IdentifierService identifierService,
+                                         @Value("${dwp.household-identifier-mode}") HouseholdIdentifierMode householdIdentifierMode,
+                                         SimulationClock simulationClock,
+                                         RandomOutcomes randomOutcomes) {
+        this.stubSettingsHolder = stubSettingsHolder;
+        this.dwpRules = dwpRules;
+        this.identifierService = identifierService;
+        this.householdIdentifierMode = householdIdentifierMode;
+        this.simulationClock = simulationClock;
+        this.randomOutcomes = randomOutcomes;
+    }
+
     /**
      * Full details of the rules used to determine the response can be found in the README.md file.
      *
@@ -42,94 +75,119 @@ public class IdentityAndEligibilityService {
      */
     public IdentityAndEligibilityResponse evaluateEligibility(DWPEligibilityRequest request) {
 
+        StubSettings settings = stubSettingsHolder.get();
         String nino = request.getPerson().getNino();
-        if (EXCEPTION_NINO.equals(nino)) {
-            String message = "NINO provided (" + EXCEPTION_NINO + ") has been configured to trigger an Exception";
+        if (nino != null && nino.equals(settings.getExceptionNino())) {
+            String message = "NINO provided (" + nino + ") has been configured to trigger an Exception";
             log.info(message);
             throw new IllegalArgumentException(message);
         }
-        IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder = setupDefaultBuilder();
-        IdentityOutcome identityStatus = setIdentityStatus(nino, builder);
-        EligibilityOutcome eligibilityStatus = setEligibilityStatus(nino, identityStatus, builder);
+        CompiledDwpRules rules = dwpRules.compiledFor(settings);
+        String surname = request.getPerson().getSurname();
+        int ninoOutcomes = rules.evaluateNino(nino);
+        SurnameRule surnameRule = rules.getSurnameRule(surname);
+        if (ninoOutcomes == 0 && !rules.hasSurnameRule(surname)) {
+            RandomDwpOutcome randomOutcome = randomOutcomes.sampleDwpOutcome(settings.getRandomOutcomes(), nino);
+            if (randomOutcome != null) {
+                ninoOutcomes = randomOutcome.getNinoFlags();
+                surnameRule = randomOutcome.getSurnameRule();
+            }
+        }
+        IdentityOutcome identityStatus = rules.getIdentityOutcome(ninoOutcomes);
+        EligibilityOutcome eligibilityStatus = rules.getEligibilityOutcome(ninoOutcomes);
+        IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder = setupDefaultBuilder()
+                .identityStatus(identityStatus)
+                .eligibilityStatus(eligibilityStatus);
 
         if (IdentityOutcome.NOT_MATCHED == identityStatus || EligibilityOutcome.NOT_CONFIRMED == eligibilityStatus) {
             return builder.build();
         }
 
-        String surname = request.getPerson().getSurname();
-        setAddressVerificationOutcomes(surname, builder);
+        builder.addressLine1Match(surnameRule.getAddressLine1());
+        builder.postcodeMatch(surnameRule.getPostcode());
 
-        builder.householdIdentifier(UUID.randomUUID().toString());
+        builder.householdIdentifier(generateHouseholdIdentifier(nino));
         builder.qualifyingBenefits(QualifyingBenefits.UNIVERSAL_CREDIT);
-        setEmailAndMobileVerificationOutcomes(builder, request.getPerson());
+        setEmailAndMobileVerificationOutcomes(builder, request.getPerson(), surnameRule);
         setDobOfChildrenUnder4(builder, nino);
         setPregnantChildDOBMatch(builder, request.getPerson());
         return builder.build();
     }
 
+    /**
+     * Builds the response given by a fixture. As with the rules, a response that is matched and confirmed has a
+     * household identifier and children's dates of birth, and mobile and email outcomes of NOT_SUPPLIED when they
+     * weren't supplied.
+     *
+     * @param request The request to respond to
+     * @param fixture The fixture for the request's NINO
+     * @return The response
+     */
+    public IdentityAndEligibilityResponse respondWithFixture(DWPEligibilityRequest request, NinoFixture fixture) {
+        IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder = setupDefaultBuilder()
+                .identityStatus(fixture.getIdentityStatus())
+                .eligibilityStatus(fixture.getEligibilityStatus());
+        Optional.ofNullable(fixture.getQualifyingBenefits()).ifPresent(builder::qualifyingBenefits);
+        Optional.ofNullable(fixture.getAddressLine1Match()).ifPresent(builder::addressLine1Match);
+        Optional.ofNullable(fixture.getPostcodeMatch()).ifPresent(builder::postcodeMatch);
+        Optional.ofNullable(fixture.getMobilePhoneMatch()).ifPresent(builder::mobilePhoneMatch);
+        Optional.ofNullable(fixture.getEmailAddressMatch()).ifPresent(builder::emailAddressMatch);
+        if (!fixture.isIdentityMatchedAndEligibilityConfirmed()) {
+            return builder.build();
+        }
+        PersonDTO person = request.getPerson();
+        builder.householdIdentifier(generateHouseholdIdentifier(person.getNino()));
+        if (StringUtils.isEmpty(person.getMobilePhoneNumber())) {
+            builder.mobilePhoneMatch(VerificationOutcome.NOT_SUPPLIED);
+        }
+        if (StringUtils.isEmpty(person.getEmailAddress())) {
+            builder.emailAddressMatch(VerificationOutcome.NOT_SUPPLIED);
+        }
+        setDobOfChildrenUnder4(builder, person.getNino());
+        setPregnantChildDOBMatch(builder, person);
+        return builder.build();
+    }
+
+    private String generateHouseholdIdentifier(String nino) {
+        switch (householdIdentifierMode) {
+            case NINO_HASH:
+                return identifierService.getHashedHouseholdIdentifier(nino);
+            case NINO_BASE64:
+                return identifierService.getDWPHouseholdIdentifier(nino);
+            default:
+                return UUID.randomUUID().toString();
+        }
+    }
+
     private void setPregnantChildDOBMatch(IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder, PersonDTO person) {
         if (person.getPregnantDependentDob() == null) {
             builder.pregnantChildDOBMatch(VerificationOutcome.NOT_SUPPLIED);
         }
     }
 
+    // ChildDobGenerator gives the first day of a month a number of months before the system date, so its dates are moved
+    // by the number of months between the system date and the simulated date.
     private void setDobOfChildrenUnder4(IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder, String nino) {
-        builder.dobOfChildrenUnder4(ChildDobGenerator.createDatesOfBirthForChildren(nino));
+        List<LocalDate> datesOfBirth = ChildDobGenerator.createDatesOfBirthForChildren(nino);
+        long monthsAhead = ChronoUnit.MONTHS.between(YearMonth.now(), YearMonth.now(simulationClock));
+        if (monthsAhead != 0) {
+            List<LocalDate> simulatedDatesOfBirth = new ArrayList<>(datesOfBirth.size());
+            datesOfBirth.forEach(dateOfBirth -> simulatedDatesOfBirth.add(dateOfBirth.plusMonths(monthsAhead)));
+            datesOfBirth = simulatedDatesOfBirth;
+        }
+        builder.dobOfChildrenUnder4(datesOfBirth);
     }
 
-    private void setEmailAndMobileVerificationOutcomes(IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder, PersonDTO person) {
-        VerificationOutcomeForSurname verificationOutcomeForSurname = VerificationOutcomeForSurname.getVerificationOutcomesForSurname(person.getSurname());
+    private void setEmailAndMobileVerificationOutcomes(IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder, PersonDTO person,
+                                                       SurnameRule surnameRule) {
         VerificationOutcome mobileVerificationOutcome = StringUtils.isEmpty(person.getMobilePhoneNumber())
-                ? VerificationOutcome.NOT_SUPPLIED : verificationOutcomeForSurname.getMobileOutcome();
+                ? VerificationOutcome.NOT_SUPPLIED : surnameRule.getMobile();
         builder.mobilePhoneMatch(mobileVerificationOutcome);
         VerificationOutcome emailVerificationOutcome = StringUtils.isEmpty(person.getEmailAddress())
-                ? VerificationOutcome.NOT_SUPPLIED : verificationOutcomeForSurname.getEmailOutcome();
+                ? VerificationOutcome.NOT_SUPPLIED : surnameRule.getEmail();
         builder.emailAddressMatch(emailVerificationOutcome);
     }
 
-    private void setAddressVerificationOutcomes(String surname, IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder) {
-        if (isAddressLine1NotMatchedSurname(surname)) {
-            builder.addressLine1Match(VerificationOutcome.NOT_MATCHED);
-            builder.postcodeMatch(VerificationOutcome.MATCHED);
-        } else if (isPostcodeNotMatchedSurname(surname)) {
-            builder.addressLine1Match(VerificationOutcome.MATCHED);
-            builder.postcodeMatch(VerificationOutcome.NOT_MATCHED);
-        } else {
-            builder.addressLine1Match(VerificationOutcome.MATCHED);
-            builder.postcodeMatch(VerificationOutcome.MATCHED);
-        }
-    }
-
-    private boolean isAddressLine1NotMatchedSurname(String surname) {
-        return ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME.equals(surname);
-    }
-
-    private boolean isPostcodeNotMatchedSurname(String surname) {
-        return POSTCODE_NOT_MATCHED_SURNAME.equals(surname);
-    }
-
-    private EligibilityOutcome setEligibilityStatus(String nino, IdentityOutcome identityStatus,
-                                                    IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder) {
-        EligibilityOutcome eligibilityStatus = determineEligibilityStatus(identityStatus, nino);
-        builder.eligibilityStatus(eligibilityStatus);
-        return eligibilityStatus;
-    }
-
-    private EligibilityOutcome determineEligibilityStatus(IdentityOutcome identityStatus, String nino) {
-        if (identityStatus == IdentityOutcome.NOT_MATCHED) {
-            return EligibilityOutcome.NOT_SET;
-        }
-        return (nino.charAt(ELIGIBILITY_STATUS_POSITION) == ELIGIBILITY_NOT_CONFIRMED_CHAR)
-                ? EligibilityOutcome.NOT_CONFIRMED : EligibilityOutcome.CONFIRMED;
-    }
-
-    private IdentityOutcome setIdentityStatus(String nino, IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder builder) {
-        IdentityOutcome identityStatus = (nino.charAt(IDENTITY_STATUS_POSITION) == NOT_MATCHED_CHAR)
-                ? IdentityOutcome.NOT_MATCHED : IdentityOutcome.MATCHED;
-        builder.identityStatus(identityStatus);
-        return identityStatus;
-    }
-
     private IdentityAndEligibilityResponse.IdentityAndEligibilityResponseBuilder setupDefaultBuilder() {
         return IdentityAndEligibilityResponse.builder()
                 .addressLine1Match(VerificationOutcome.NOT_SET)
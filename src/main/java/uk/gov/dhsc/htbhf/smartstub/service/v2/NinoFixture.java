@@ -0,0 +1,31 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.QualifyingBenefits;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+
+/**
+ * The response given for a specific NINO by a {@link NinoFixtureIndex}, in place of the outcome of the
+ * {@link DwpRules}. The identity and eligibility outcomes are always given; any other outcome not given is NOT_SET.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class NinoFixture {
+
+    private IdentityOutcome identityStatus;
+    private EligibilityOutcome eligibilityStatus;
+    private QualifyingBenefits qualifyingBenefits;
+    private VerificationOutcome addressLine1Match;
+    private VerificationOutcome postcodeMatch;
+    private VerificationOutcome mobilePhoneMatch;
+    private VerificationOutcome emailAddressMatch;
+
+    public boolean isIdentityMatchedAndEligibilityConfirmed() {
+        return identityStatus == IdentityOutcome.MATCHED && eligibilityStatus == EligibilityOutcome.CONFIRMED;
+    }
+}
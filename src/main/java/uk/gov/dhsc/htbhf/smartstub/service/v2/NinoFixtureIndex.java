@@ -0,0 +1,330 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.QualifyingBenefits;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An index of {@link NinoFixture}s by NINO, compiled from a CSV file into a binary file that is memory-mapped, so
+ * millions of fixtures can be served without holding an object per NINO on the heap.
+ *
+ * <p>Each NINO of up to nine letters and digits is packed into a 47 bit key as a base 37 number, so numeric order of
+ * the keys is the same as alphabetical order of the NINOs. Few NINOs have a distinct fixture, so each distinct fixture
+ * is stored once, and each entry of the index is a single long holding the key in its top bits and the number of its
+ * fixture in the bottom 16. The sorted entries are binary searched in place in the mapped file.
+ *
+ * <p>Most NINOs requested have no fixture, so a {@link BlockedBloomFilter} of the keys is held on the heap and checked
+ * first: a NINO without a fixture is usually rejected after reading a single cache line, without touching the file.
+ *
+ * <p>The file holds a header of magic number, version, fixture count, Bloom filter word count and entry count, then
+ * the fixtures (one byte per outcome, holding its ordinal plus one, or zero if not set), the Bloom filter's words and
+ * the entries, all big-endian and eight byte aligned.
+ */
+public final class NinoFixtureIndex {
+
+    private static final int MAGIC = 0x4E494E4F;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int MAX_NINO_LENGTH = 9;
+    private static final int RADIX = 37;
+    private static final int FIXTURE_BITS = 16;
+    private static final int MAX_FIXTURES = 1 << FIXTURE_BITS;
+    // A mapped file can't be larger than 2GB, and each entry needs eight bytes plus about one for the Bloom filter.
+    private static final int MAX_ENTRIES = 200_000_000;
+    private static final int OUTCOMES = 7;
+    private static final long NO_KEY = -1;
+    private static final NinoFixtureIndex EMPTY = new NinoFixtureIndex(new NinoFixture[0], null, LongBuffer.allocate(0));
+
+    private final NinoFixture[] fixtures;
+    private final BlockedBloomFilter bloomFilter;
+    private final LongBuffer entries;
+    private final int size;
+
+    private NinoFixtureIndex(NinoFixture[] fixtures, BlockedBloomFilter bloomFilter, LongBuffer entries) {
+        this.fixtures = fixtures;
+        this.bloomFilter = bloomFilter;
+        this.entries = entries;
+        this.size = entries.limit();
+    }
+
+    public static NinoFixtureIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles the fixtures in a CSV file into an index file, then maps it. The CSV file has lines in the format
+     * nino,identityStatus,eligibilityStatus,qualifyingBenefits,addressLine1Match,postcodeMatch,mobilePhoneMatch,emailAddressMatch
+     * where each outcome is the name of one of its values. Outcomes other than identity and eligibility can be blank if
+     * not set, and trailing blank outcomes can be left out. A header line starting with nino, blank lines and lines starting with # are skipped.
+     *
+     * @param csvFile   The fixtures to compile
+     * @param indexFile The file to write the index to, which is replaced if it exists
+     * @return The index
+     * @throws IllegalArgumentException if a line is invalid or a NINO has more than one fixture
+     */
+    public static NinoFixtureIndex build(Path csvFile, Path indexFile) {
+        Map<NinoFixture, Integer> fixtureNumbers = new HashMap<>();
+        List<NinoFixture> fixtures = new ArrayList<>();
+        long[] entries = new long[1024];
+        int size = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || lineNumber == 1 && line.regionMatches(true, 0, "nino", 0, 4)) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                long key = packNino(fields[0].trim());
+                if (key == NO_KEY || fields.length > OUTCOMES + 1) {
+                    throw new IllegalArgumentException("Invalid NINO fixture on line " + lineNumber + " of " + csvFile + ": " + line);
+                }
+                NinoFixture fixture = parseFixture(fields, lineNumber, csvFile);
+                Integer fixtureNumber = fixtureNumbers.get(fixture);
+                if (fixtureNumber == null) {
+                    if (fixtures.size() == MAX_FIXTURES) {
+                        throw new IllegalArgumentException("More than " + MAX_FIXTURES + " distinct NINO fixtures in " + csvFile);
+                    }
+                    fixtureNumber = fixtures.size();
+                    fixtureNumbers.put(fixture, fixtureNumber);
+                    fixtures.add(fixture);
+                }
+                if (size == entries.length) {
+                    if (size == MAX_ENTRIES) {
+                        throw new IllegalArgumentException("More than " + MAX_ENTRIES + " NINO fixtures in " + csvFile);
+                    }
+                    entries = Arrays.copyOf(entries, (int) Math.min(MAX_ENTRIES, 2L * size));
+                }
+                entries[size++] = key << FIXTURE_BITS | fixtureNumber;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read NINO fixtures from " + csvFile, e);
+        }
+        Arrays.sort(entries, 0, size);
+        BlockedBloomFilter bloomFilter = new BlockedBloomFilter(size);
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && (entries[i] >>> FIXTURE_BITS) == (entries[i - 1] >>> FIXTURE_BITS)) {
+                throw new IllegalArgumentException("More than one fixture for NINO " + unpackNino(entries[i] >>> FIXTURE_BITS) + " in " + csvFile);
+            }
+            bloomFilter.add(entries[i] >>> FIXTURE_BITS);
+        }
+        write(indexFile, fixtures, bloomFilter, entries, size);
+        return open(indexFile);
+    }
+
+    /**
+     * Maps an index file written by {@link #build(Path, Path)}. The mapping remains valid after the file is deleted.
+     *
+     * @param indexFile The index file
+     * @return The index
+     */
+    public static NinoFixtureIndex open(Path indexFile) {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalArgumentException(indexFile + " is not a NINO fixture index");
+            }
+            int fixtureCount = buffer.getInt(8);
+            int bloomFilterWords = buffer.getInt(12);
+            long entryCount = buffer.getLong(16);
+            long bloomFilterOffset = HEADER_BYTES + (long) fixtureCount * Long.BYTES;
+            long entriesOffset = bloomFilterOffset + (long) bloomFilterWords * Long.BYTES;
+            if (entriesOffset + entryCount * Long.BYTES != buffer.limit()) {
+                throw new IllegalArgumentException(indexFile + " is truncated");
+            }
+            NinoFixture[] fixtures = new NinoFixture[fixtureCount];
+            for (int i = 0; i < fixtureCount; i++) {
+                fixtures[i] = readFixture(buffer, HEADER_BYTES + i * Long.BYTES);
+            }
+            long[] bloomFilterWordArray = new long[bloomFilterWords];
+            buffer.position((int) bloomFilterOffset);
+            buffer.asLongBuffer().get(bloomFilterWordArray);
+            buffer.position((int) entriesOffset);
+            return new NinoFixtureIndex(fixtures, new BlockedBloomFilter(bloomFilterWordArray), buffer.asLongBuffer());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to map NINO fixture index " + indexFile, e);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getDistinctFixtures() {
+        return fixtures.length;
+    }
+
+    /**
+     * Finds the fixture for the given NINO. Doesn't allocate unless a fixture is found.
+     *
+     * @param nino The NINO, ignoring case
+     * @return The fixture, or empty if there is none
+     */
+    public Optional<NinoFixture> find(String nino) {
+        if (size == 0) {
+            return Optional.empty();
+        }
+        long key = packNino(nino);
+        if (key == NO_KEY || !bloomFilter.mightContain(key)) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long entry = entries.get(middle);
+            long entryKey = entry >>> FIXTURE_BITS;
+            if (entryKey < key) {
+                low = middle + 1;
+            } else if (entryKey > key) {
+                high = middle - 1;
+            } else {
+                return Optional.of(fixtures[(int) entry & (MAX_FIXTURES - 1)]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Packs a NINO of up to nine letters and digits into a base 37 number, in which each character is a digit from 1
+     * to 36 and shorter NINOs are padded with zeros.
+     *
+     * @param nino The NINO, ignoring case
+     * @return The key, or -1 if the NINO can't be packed
+     */
+    static long packNino(String nino) {
+        if (nino == null || nino.isEmpty() || nino.length() > MAX_NINO_LENGTH) {
+            return NO_KEY;
+        }
+        long key = 0;
+        for (int i = 0; i < MAX_NINO_LENGTH; i++) {
+            int digit = i < nino.length() ? digit(nino.charAt(i)) : 0;
+            if (digit < 0) {
+                return NO_KEY;
+            }
+            key = key * RADIX + digit;
+        }
+        return key;
+    }
+
+    private static String unpackNino(long key) {
+        char[] nino = new char[MAX_NINO_LENGTH];
+        for (int i = MAX_NINO_LENGTH - 1; i >= 0; i--) {
+            int digit = (int) (key % RADIX);
+            key /= RADIX;
+            nino[i] = digit == 0 ? ' ' : digit <= 10 ? (char) ('0' + digit - 1) : (char) ('A' + digit - 11);
+        }
+        return new String(nino).trim();
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 11;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 11;
+        }
+        return -1;
+    }
+
+    private static NinoFixture parseFixture(String[] fields, int lineNumber, Path csvFile) {
+        if (fields.length < 3 || fields[1].isBlank() || fields[2].isBlank()) {
+            throw new IllegalArgumentException("Missing identity or eligibility outcome on line " + lineNumber + " of " + csvFile);
+        }
+        try {
+            return NinoFixture.builder()
+                    .identityStatus(parseOutcome(IdentityOutcome.class, fields, 1))
+                    .eligibilityStatus(parseOutcome(EligibilityOutcome.class, fields, 2))
+                    .qualifyingBenefits(parseOutcome(QualifyingBenefits.class, fields, 3))
+                    .addressLine1Match(parseOutcome(VerificationOutcome.class, fields, 4))
+                    .postcodeMatch(parseOutcome(VerificationOutcome.class, fields, 5))
+                    .mobilePhoneMatch(parseOutcome(VerificationOutcome.class, fields, 6))
+                    .emailAddressMatch(parseOutcome(VerificationOutcome.class, fields, 7))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid outcome on line " + lineNumber + " of " + csvFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseOutcome(Class<E> type, String[] fields, int field) {
+        String value = field < fields.length ? fields[field].trim() : "";
+        return value.isEmpty() ? null : Enum.valueOf(type, value);
+    }
+
+    private static void write(Path indexFile, List<NinoFixture> fixtures, BlockedBloomFilter bloomFilter, long[] entries, int size) {
+        long[] bloomFilterWords = bloomFilter.getWords();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile), 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(fixtures.size());
+            output.writeInt(bloomFilterWords.length);
+            output.writeLong(size);
+            for (NinoFixture fixture : fixtures) {
+                writeFixture(output, fixture);
+            }
+            for (long word : bloomFilterWords) {
+                output.writeLong(word);
+            }
+            for (int i = 0; i < size; i++) {
+                output.writeLong(entries[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write NINO fixture index " + indexFile, e);
+        }
+    }
+
+    private static void writeFixture(DataOutputStream output, NinoFixture fixture) throws IOException {
+        output.writeByte(ordinal(fixture.getIdentityStatus()));
+        output.writeByte(ordinal(fixture.getEligibilityStatus()));
+        output.writeByte(ordinal(fixture.getQualifyingBenefits()));
+        output.writeByte(ordinal(fixture.getAddressLine1Match()));
+        output.writeByte(ordinal(fixture.getPostcodeMatch()));
+        output.writeByte(ordinal(fixture.getMobilePhoneMatch()));
+        output.writeByte(ordinal(fixture.getEmailAddressMatch()));
+        output.writeByte(0);
+    }
+
+    private static NinoFixture readFixture(ByteBuffer buffer, int offset) {
+        return NinoFixture.builder()
+                .identityStatus(value(IdentityOutcome.values(), buffer.get(offset)))
+                .eligibilityStatus(value(EligibilityOutcome.values(), buffer.get(offset + 1)))
+                .qualifyingBenefits(value(QualifyingBenefits.values(), buffer.get(offset + 2)))
+                .addressLine1Match(value(VerificationOutcome.values(), buffer.get(offset + 3)))
+                .postcodeMatch(value(VerificationOutcome.values(), buffer.get(offset + 4)))
+                .mobilePhoneMatch(value(VerificationOutcome.values(), buffer.get(offset + 5)))
+                .emailAddressMatch(value(VerificationOutcome.values(), buffer.get(offset + 6)))
+                .build();
+    }
+
+    private static int ordinal(Enum<?> outcome) {
+        return outcome == null ? 0 : outcome.ordinal() + 1;
+    }
+
+    private static <E> E value(E[] values, byte ordinalPlusOne) {
+        return ordinalPlusOne == 0 ? null : values[ordinalPlusOne - 1];
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import javax.annotation.PreDestroy;
+
+/**
+ * Holds the {@link NinoFixtureIndex} compiled from the configured fixtures file, if there is one, into a new index
+ * file in the configured directory.
+ *
+ * <p>The index can be rebuilt from the file while requests are being served. The new index is compiled into a new
+ * file and replaces the old one in a single write, so every request sees either the old fixtures or the new ones. The
+ * old file is then deleted, which on Linux leaves it mapped until the old index is garbage collected.
+ */
+@Component
+@Slf4j
+public class NinoFixtures {
+
+    private static final String INDEX_FILE_PREFIX = "nino-fixtures-";
+    private static final String INDEX_FILE_SUFFIX = ".idx";
+
+    private final Path fixturesFile;
+    private final Path indexDirectory;
+    private volatile NinoFixtureIndex index = NinoFixtureIndex.empty();
+    private Path indexFile;
+
+    public NinoFixtures(@Value("${dwp.fixtures.file:}") String fixturesFile,
+                        @Value("${dwp.fixtures.index-directory:${java.io.tmpdir}}") String indexDirectory) {
+        this.fixturesFile = StringUtils.isEmpty(fixturesFile) ? null : Paths.get(fixturesFile);
+        this.indexDirectory = Paths.get(indexDirectory);
+        rebuild();
+    }
+
+    /**
+     * Finds the fixture for the given NINO.
+     *
+     * @param nino The NINO from the request
+     * @return The fixture, or empty if there is none
+     */
+    public Optional<NinoFixture> find(String nino) {
+        return index.find(nino);
+    }
+
+    public NinoFixtureIndex getIndex() {
+        return index;
+    }
+
+    public Optional<Path> getFixturesFile() {
+        return Optional.ofNullable(fixturesFile);
+    }
+
+    /**
+     * Compiles the fixtures file into a new index and starts using it. If the file can't be compiled, the current
+     * fixtures continue to be used.
+     *
+     * @return The new index
+     */
+    public synchronized NinoFixtureIndex rebuild() {
+        if (fixturesFile == null) {
+            return index;
+        }
+        long start = System.nanoTime();
+        Path newIndexFile = createIndexFile();
+        try {
+            index = NinoFixtureIndex.build(fixturesFile, newIndexFile);
+        } catch (RuntimeException e) {
+            deleteIndexFile(newIndexFile);
+            throw e;
+        }
+        deleteIndexFile(indexFile);
+        indexFile = newIndexFile;
+        log.info("Indexed {} NINO fixtures from {} in {}ms", index.size(), fixturesFile, (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    @PreDestroy
+    public synchronized void deleteIndex() {
+        deleteIndexFile(indexFile);
+        indexFile = null;
+    }
+
+    private Path createIndexFile() {
+        try {
+            Files.createDirectories(indexDirectory);
+            return Files.createTempFile(indexDirectory, INDEX_FILE_PREFIX, INDEX_FILE_SUFFIX);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create NINO fixture index file in " + indexDirectory, e);
+        }
+    }
+
+    private static void deleteIndexFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete NINO fixture index file {}, deleting it on exit instead", file, e);
+            file.toFile().deleteOnExit();
+        }
+    }
+}
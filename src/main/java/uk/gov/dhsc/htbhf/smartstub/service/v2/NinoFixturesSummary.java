@@ -0,0 +1,34 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The NINO fixtures in use, as returned by the admin endpoint.
+ */
+@Value
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class NinoFixturesSummary {
+
+    @JsonProperty("file")
+    private String file;
+
+    @JsonProperty("ninos")
+    private int ninos;
+
+    @JsonProperty("distinctFixtures")
+    private int distinctFixtures;
+
+    public static NinoFixturesSummary of(NinoFixtures ninoFixtures) {
+        NinoFixtureIndex index = ninoFixtures.getIndex();
+        return NinoFixturesSummary.builder()
+                .file(ninoFixtures.getFixturesFile().map(Object::toString).orElse(null))
+                .ninos(index.size())
+                .distinctFixtures(index.getDistinctFixtures())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+/**
+ * The outcomes a {@link NinoRule} can trigger. Each is a single bit, so the outcomes triggered by a NINO can be
+ * combined into one int and used directly as an index into tables of responses.
+ */
+public enum NinoOutcome {
+
+    IDENTITY_NOT_MATCHED(1),
+    ELIGIBILITY_NOT_CONFIRMED(2);
+
+    private final int flag;
+
+    NinoOutcome(int flag) {
+        this.flag = flag;
+    }
+
+    int getFlag() {
+        return flag;
+    }
+}
@@ -0,0 +1,26 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A rule from the {@link DwpRuleTable} that triggers an outcome when the character at the given (zero based) position
+ * of the NINO is any one of the given characters.
+ */
+@Value
+@Builder
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class NinoRule {
+
+    @JsonProperty("position")
+    private int position;
+
+    @JsonProperty("characters")
+    private String characters;
+
+    @JsonProperty("outcome")
+    private NinoOutcome outcome;
+}
@@ -0,0 +1,135 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * An immutable map from strings to values, built once for a fixed set of keys so that every key has a slot of its own.
+ *
+ * <p>A key's slot is the top bits of its (cached) {@link String#hashCode()} multiplied by a seed. Building the map
+ * tries seeds for a few table sizes until one puts every key in a different slot, so a lookup is a multiply, a shift,
+ * and a single {@link String#equals(Object)} against the one key that can be in that slot, with no probing and no
+ * allocation. Keys whose hash codes are identical can never be separated by a seed, so any key that still shares a slot
+ * with another is kept in a small overflow map that is only consulted when the slot holds a different key.
+ *
+ * @param <V> The type of the values
+ */
+public final class PerfectHashMap<V> {
+
+    private static final int SEEDS_PER_TABLE_SIZE = 64;
+    private static final int TABLE_SIZES_TO_TRY = 4;
+    private static final long SEED_GENERATOR_SEED = 0x5EEDL;
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int seed;
+    private final int shift;
+    private final Map<String, V> overflow;
+
+    private PerfectHashMap(String[] keys, Object[] values, int seed, int shift, Map<String, V> overflow) {
+        this.keys = keys;
+        this.values = values;
+        this.seed = seed;
+        this.shift = shift;
+        this.overflow = overflow;
+    }
+
+    /**
+     * Builds a map holding the given entries.
+     *
+     * @param entries The entries, which are copied
+     * @param <V>     The type of the values
+     * @return The map
+     */
+    public static <V> PerfectHashMap<V> of(Map<String, V> entries) {
+        String[] entryKeys = entries.keySet().toArray(new String[0]);
+        int[] hashCodes = new int[entryKeys.length];
+        for (int i = 0; i < entryKeys.length; i++) {
+            hashCodes[i] = entryKeys[i].hashCode();
+        }
+
+        // A table at least twice the number of keys, and never less than two slots so the shift is always under 32.
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, entryKeys.length * 2 - 1)));
+        SplittableRandom seeds = new SplittableRandom(SEED_GENERATOR_SEED);
+        int bestSeed = 1;
+        int bestBits = bits;
+        int bestCollisions = Integer.MAX_VALUE;
+        for (int size = 0; size < TABLE_SIZES_TO_TRY && bestCollisions > 0; size++, bits++) {
+            for (int attempt = 0; attempt < SEEDS_PER_TABLE_SIZE && bestCollisions > 0; attempt++) {
+                int candidate = seeds.nextInt() | 1;
+                int collisions = countCollisions(hashCodes, candidate, 32 - bits);
+                if (collisions < bestCollisions) {
+                    bestSeed = candidate;
+                    bestBits = bits;
+                    bestCollisions = collisions;
+                }
+            }
+        }
+
+        int shift = 32 - bestBits;
+        String[] keys = new String[1 << bestBits];
+        Object[] values = new Object[keys.length];
+        Map<String, V> overflow = new HashMap<>();
+        for (int i = 0; i < entryKeys.length; i++) {
+            int slot = slot(hashCodes[i], bestSeed, shift);
+            if (keys[slot] == null) {
+                keys[slot] = entryKeys[i];
+                values[slot] = entries.get(entryKeys[i]);
+            } else {
+                overflow.put(entryKeys[i], entries.get(entryKeys[i]));
+            }
+        }
+        return new PerfectHashMap<>(keys, values, bestSeed, shift, overflow.isEmpty() ? null : Map.copyOf(overflow));
+    }
+
+    /**
+     * Gets the value for the given key.
+     *
+     * @param key          The key, which may be null
+     * @param defaultValue The value to return if there is no entry for the key
+     * @return The value for the key, or the default value
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(String key, V defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        int slot = slot(key.hashCode(), seed, shift);
+        if (key.equals(keys[slot])) {
+            return (V) values[slot];
+        }
+        return overflow == null ? defaultValue : overflow.getOrDefault(key, defaultValue);
+    }
+
+    public int size() {
+        int size = overflow == null ? 0 : overflow.size();
+        for (String key : keys) {
+            if (key != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    boolean isPerfect() {
+        return overflow == null;
+    }
+
+    private static int countCollisions(int[] hashCodes, int seed, int shift) {
+        boolean[] used = new boolean[1 << (32 - shift)];
+        int collisions = 0;
+        for (int hashCode : hashCodes) {
+            int slot = slot(hashCode, seed, shift);
+            if (used[slot]) {
+                collisions++;
+            }
+            used[slot] = true;
+        }
+        return collisions;
+    }
+
+    private static int slot(int hashCode, int seed, int shift) {
+        return (hashCode * seed) >>> shift;
+    }
+}
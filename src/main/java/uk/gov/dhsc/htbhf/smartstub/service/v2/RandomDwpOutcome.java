@@ -0,0 +1,51 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+
+import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.MATCHED;
+import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.NOT_HELD;
+import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.NOT_MATCHED;
+
+/**
+ * The outcomes that can be given at random to DWP requests whose NINO and surname don't trigger any, each the same as
+ * one that a NINO rule or surname triggers.
+ */
+public enum RandomDwpOutcome {
+
+    IDENTITY_NOT_MATCHED(NinoOutcome.IDENTITY_NOT_MATCHED.getFlag(), SurnameRule.ALL_MATCHED),
+    ELIGIBILITY_NOT_CONFIRMED(NinoOutcome.ELIGIBILITY_NOT_CONFIRMED.getFlag(), SurnameRule.ALL_MATCHED),
+    ADDRESS_LINE_1_NOT_MATCHED(NOT_MATCHED, MATCHED, MATCHED, MATCHED),
+    POSTCODE_NOT_MATCHED(MATCHED, NOT_MATCHED, MATCHED, MATCHED),
+    MOBILE_NOT_HELD(MATCHED, MATCHED, NOT_HELD, MATCHED),
+    EMAIL_NOT_HELD(MATCHED, MATCHED, MATCHED, NOT_HELD),
+    MOBILE_AND_EMAIL_NOT_HELD(MATCHED, MATCHED, NOT_HELD, NOT_HELD),
+    MOBILE_NOT_MATCHED(MATCHED, MATCHED, NOT_MATCHED, MATCHED),
+    EMAIL_NOT_MATCHED(MATCHED, MATCHED, MATCHED, NOT_MATCHED),
+    MOBILE_AND_EMAIL_NOT_MATCHED(MATCHED, MATCHED, NOT_MATCHED, NOT_MATCHED);
+
+    private final int ninoFlags;
+    private final SurnameRule surnameRule;
+
+    RandomDwpOutcome(int ninoFlags, SurnameRule surnameRule) {
+        this.ninoFlags = ninoFlags;
+        this.surnameRule = surnameRule;
+    }
+
+    RandomDwpOutcome(VerificationOutcome addressLine1, VerificationOutcome postcode, VerificationOutcome mobile, VerificationOutcome email) {
+        this(0, new SurnameRule(addressLine1, postcode, mobile, email));
+    }
+
+    /**
+     * @return The {@link NinoOutcome} flags the outcome gives, as though triggered by the NINO
+     */
+    int getNinoFlags() {
+        return ninoFlags;
+    }
+
+    /**
+     * @return The verification outcomes the outcome gives, as though triggered by the surname
+     */
+    SurnameRule getSurnameRule() {
+        return surnameRule;
+    }
+}
@@ -0,0 +1,45 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+
+/**
+ * The verification outcomes returned for a surname from the {@link DwpRuleTable}. Any outcome not given is MATCHED.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class SurnameRule {
+
+    public static final SurnameRule ALL_MATCHED = new SurnameRule(VerificationOutcome.MATCHED, VerificationOutcome.MATCHED,
+            VerificationOutcome.MATCHED, VerificationOutcome.MATCHED);
+
+    @JsonProperty("addressLine1")
+    private VerificationOutcome addressLine1;
+
+    @JsonProperty("postcode")
+    private VerificationOutcome postcode;
+
+    @JsonProperty("mobile")
+    private VerificationOutcome mobile;
+
+    @JsonProperty("email")
+    private VerificationOutcome email;
+
+    /**
+     * Copies this rule with MATCHED in place of any outcome not given, so the copy can be used without null checks.
+     *
+     * @return The completed copy
+     */
+    SurnameRule withDefaults() {
+        return new SurnameRule(orMatched(addressLine1), orMatched(postcode), orMatched(mobile), orMatched(email));
+    }
+
+    private static VerificationOutcome orMatched(VerificationOutcome outcome) {
+        return outcome == null ? VerificationOutcome.MATCHED : outcome;
+    }
+}
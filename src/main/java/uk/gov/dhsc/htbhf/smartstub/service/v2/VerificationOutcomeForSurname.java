@@ -4,7 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.MATCHED;
 import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.NOT_HELD;
@@ -23,6 +24,14 @@ public enum VerificationOutcomeForSurname {
     MOBILE_AND_EMAIL_NOT_MATCHED(MOBILE_AND_EMAIL_NOT_MATCHED_SURNAME, NOT_MATCHED, NOT_MATCHED),
     DEFAULT("", MATCHED, MATCHED);
 
+    private static final Map<String, VerificationOutcomeForSurname> BY_SURNAME = new HashMap<>();
+
+    static {
+        for (VerificationOutcomeForSurname outcome : values()) {
+            BY_SURNAME.put(outcome.getSurname(), outcome);
+        }
+    }
+
     private String surname;
     private VerificationOutcome mobileOutcome;
     private VerificationOutcome emailOutcome;
@@ -34,10 +43,7 @@ public enum VerificationOutcomeForSurname {
      * @return The outcome for both mobile and email.
      */
     public static VerificationOutcomeForSurname getVerificationOutcomesForSurname(String surname) {
-        return Arrays.stream(VerificationOutcomeForSurname.values())
-                .filter(verificationOutcomeForSurname -> verificationOutcomeForSurname.getSurname().equals(surname))
-                .findFirst()
-                .orElse(DEFAULT);
+        return surname == null ? DEFAULT : BY_SURNAME.getOrDefault(surname, DEFAULT);
     }
 
 }
@@ -0,0 +1,34 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The balances returned by the card balance endpoint, see CardBalanceGenerator.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class BalanceSettings {
+
+    @NotNull
+    @Min(1)
+    @JsonProperty("maxLowBalanceInPence")
+    private Integer maxLowBalanceInPence;
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("partialPaymentBalanceInPence")
+    private Integer partialPaymentBalanceInPence;
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("highBalanceInPence")
+    private Integer highBalanceInPence;
+}
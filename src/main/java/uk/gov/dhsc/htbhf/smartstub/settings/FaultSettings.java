@@ -0,0 +1,34 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The proportion of DWP and card requests that fail with the given error status, regardless of their content.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class FaultSettings {
+
+    public static final FaultSettings NONE = new FaultSettings(0.0, 500);
+
+    @NotNull
+    @Min(0)
+    @Max(100)
+    @JsonProperty("errorPercentage")
+    private Double errorPercentage;
+
+    @NotNull
+    @Min(400)
+    @Max(599)
+    @JsonProperty("errorStatus")
+    private Integer errorStatus;
+}
@@ -0,0 +1,50 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the current {@link LatencySettings} and {@link FaultSettings} to a request before it is handled: the request
+ * is delayed, then fails with the configured error status in the configured percentage of cases.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class LatencyAndFaultInterceptor implements HandlerInterceptor {
+
+    private final StubSettingsHolder stubSettingsHolder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        StubSettings settings = stubSettingsHolder.get();
+        delay(settings.getLatency());
+        FaultSettings faults = settings.getFaults();
+        if (faults.getErrorPercentage() > 0 && ThreadLocalRandom.current().nextDouble(100) < faults.getErrorPercentage()) {
+            log.debug("Injecting {} response for {} {}", faults.getErrorStatus(), request.getMethod(), request.getRequestURI());
+            response.sendError(faults.getErrorStatus(), "Injected fault");
+            return false;
+        }
+        return true;
+    }
+
+    private void delay(LatencySettings latency) {
+        long delayInMillis = latency.getFixedDelayInMillis();
+        if (latency.getMaxRandomDelayInMillis() > 0) {
+            delayInMillis += ThreadLocalRandom.current().nextInt(latency.getMaxRandomDelayInMillis() + 1);
+        }
+        if (delayInMillis > 0) {
+            try {
+                Thread.sleep(delayInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
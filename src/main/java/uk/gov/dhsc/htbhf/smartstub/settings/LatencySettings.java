@@ -0,0 +1,32 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The delay added to every DWP and card request, made up of a fixed delay plus a uniformly distributed random delay
+ * of up to the given number of milliseconds.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class LatencySettings {
+
+    public static final LatencySettings NONE = new LatencySettings(0, 0);
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("fixedDelayInMillis")
+    private Integer fixedDelayInMillis;
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("maxRandomDelayInMillis")
+    private Integer maxRandomDelayInMillis;
+}
@@ -0,0 +1,58 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome;
+
+import java.util.Map;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The percentage of DWP and card requests that don't trigger an outcome themselves which are given each outcome at
+ * random instead, e.g. 8% IDENTITY_NOT_MATCHED. The rest get the happy path, as they would without these settings. When
+ * sticky, the outcome is picked from a hash of the DWP request's NINO or the card request's claim ID rather than at
+ * random, so the same claimant always gets the same outcome.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class RandomOutcomeSettings {
+
+    public static final RandomOutcomeSettings NONE = new RandomOutcomeSettings(Map.of(), Map.of(), false);
+
+    @NotNull
+    @JsonProperty("dwpPercentages")
+    private Map<@NotNull RandomDwpOutcome, @NotNull @DecimalMin("0") Double> dwpPercentages;
+
+    @NotNull
+    @JsonProperty("cardPercentages")
+    private Map<@NotNull FirstNameScenario, @NotNull @DecimalMin("0") Double> cardPercentages;
+
+    @NotNull
+    @JsonProperty("sticky")
+    private Boolean sticky;
+
+    @JsonIgnore
+    @AssertTrue(message = "dwpPercentages and cardPercentages must each add up to 100 or less")
+    public boolean isEachTotalAtMostOneHundred() {
+        return total(dwpPercentages) <= 100 && total(cardPercentages) <= 100;
+    }
+
+    private static double total(Map<?, Double> percentages) {
+        if (percentages == null) {
+            return 0;
+        }
+        double total = 0;
+        for (Double percentage : percentages.values()) {
+            total += percentage == null ? 0 : percentage;
+        }
+        return total;
+    }
+}
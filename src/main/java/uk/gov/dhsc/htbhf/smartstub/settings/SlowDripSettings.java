@@ -0,0 +1,37 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The rate at which the bodies of postcode, DWP and card responses are written, in chunks of the given size, with a
+ * stall of the given number of milliseconds half way through the body. A rate of zero writes responses as normal.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class SlowDripSettings {
+
+    public static final SlowDripSettings NONE = new SlowDripSettings(0, 64, 0);
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("bytesPerSecond")
+    private Integer bytesPerSecond;
+
+    @NotNull
+    @Min(1)
+    @JsonProperty("chunkSizeInBytes")
+    private Integer chunkSizeInBytes;
+
+    @NotNull
+    @Min(0)
+    @JsonProperty("stallInMillis")
+    private Integer stallInMillis;
+}
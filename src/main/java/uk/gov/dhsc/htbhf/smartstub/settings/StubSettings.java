@@ -0,0 +1,140 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.VerificationOutcomeForSurname;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService.ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService.EXCEPTION_NINO;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService.POSTCODE_NOT_MATCHED_SURNAME;
+
+/**
+ * An immutable snapshot of everything about the stub's behaviour that can be changed at runtime: the balances it
+ * returns, which names trigger which scenarios, the outcomes given at random to other requests, and the latency, faults
+ * and slow drip added to requests. Each request reads a single snapshot from {@link StubSettingsHolder}, so it always sees
+ * a consistent set of settings even if they are replaced part way through.
+ *
+ * <p>First names are matched ignoring case, as they always have been, so they are held in lower case.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor(onConstructor_ = {@JsonCreator})
+public class StubSettings {
+
+    @NotNull
+    @Valid
+    @JsonProperty("balances")
+    private BalanceSettings balances;
+
+    @NotNull
+    @JsonProperty("firstNameScenarios")
+    private Map<@NotNull String, @NotNull FirstNameScenario> firstNameScenarios;
+
+    @NotNull
+    @JsonProperty("surnameVerificationOutcomes")
+    private Map<@NotNull String, @NotNull VerificationOutcomeForSurname> surnameVerificationOutcomes;
+
+    @JsonProperty("addressLine1NotMatchedSurname")
+    private String addressLine1NotMatchedSurname;
+
+    @JsonProperty("postcodeNotMatchedSurname")
+    private String postcodeNotMatchedSurname;
+
+    @JsonProperty("exceptionNino")
+    private String exceptionNino;
+
+    @NotNull
+    @Valid
+    @JsonProperty("latency")
+    private LatencySettings latency;
+
+    @NotNull
+    @Valid
+    @JsonProperty("faults")
+    private FaultSettings faults;
+
+    @NotNull
+    @Valid
+    @JsonProperty("slowDrip")
+    private SlowDripSettings slowDrip;
+
+    @NotNull
+    @Valid
+    @JsonProperty("randomOutcomes")
+    private RandomOutcomeSettings randomOutcomes;
+
+    /**
+     * Creates the settings the stub has always had, with the given balances, no random outcomes and no added latency,
+     * faults or slow drip.
+     *
+     * @param balances The balances to return
+     * @return The default settings
+     */
+    public static StubSettings defaultSettings(BalanceSettings balances) {
+        Map<String, FirstNameScenario> firstNameScenarios = new HashMap<>();
+        for (FirstNameScenario scenario : FirstNameScenario.values()) {
+            firstNameScenarios.put(scenario.getNameToMatch(), scenario);
+        }
+        Map<String, VerificationOutcomeForSurname> surnameVerificationOutcomes = new HashMap<>();
+        for (VerificationOutcomeForSurname outcome : VerificationOutcomeForSurname.values()) {
+            if (outcome != VerificationOutcomeForSurname.DEFAULT) {
+                surnameVerificationOutcomes.put(outcome.getSurname(), outcome);
+            }
+        }
+        return new StubSettings(balances, firstNameScenarios, surnameVerificationOutcomes, ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME,
+                POSTCODE_NOT_MATCHED_SURNAME, EXCEPTION_NINO, LatencySettings.NONE, FaultSettings.NONE, SlowDripSettings.NONE,
+                RandomOutcomeSettings.NONE).immutableCopy();
+    }
+
+    /**
+     * Finds the card scenario triggered by the given first name, ignoring case.
+     *
+     * @param firstName The first name from the card request
+     * @return The matching scenario, or empty if the first name does not trigger one
+     */
+    public Optional<FirstNameScenario> findScenarioForFirstName(String firstName) {
+        return firstName == null ? Optional.empty() : Optional.ofNullable(firstNameScenarios.get(firstName.toLowerCase(Locale.UK)));
+    }
+
+    /**
+     * Gets the mobile and email verification outcomes for the given surname.
+     *
+     * @param surname The surname from the DWP request
+     * @return The matching outcomes, or {@link VerificationOutcomeForSurname#DEFAULT} if the surname does not trigger any
+     */
+    public VerificationOutcomeForSurname getVerificationOutcomesForSurname(String surname) {
+        return surname == null
+                ? VerificationOutcomeForSurname.DEFAULT
+                : surnameVerificationOutcomes.getOrDefault(surname, VerificationOutcomeForSurname.DEFAULT);
+    }
+
+    /**
+     * Copies these settings with unmodifiable maps and lower case first names, so that the snapshot cannot be changed
+     * after it has been published.
+     *
+     * @return The immutable copy
+     */
+    StubSettings immutableCopy() {
+        Map<String, FirstNameScenario> lowerCaseFirstNames = new HashMap<>();
+        firstNameScenarios.forEach((firstName, scenario) -> lowerCaseFirstNames.put(firstName.toLowerCase(Locale.UK), scenario));
+        return toBuilder()
+                .firstNameScenarios(Map.copyOf(lowerCaseFirstNames))
+                .surnameVerificationOutcomes(Map.copyOf(surnameVerificationOutcomes))
+                .randomOutcomes(randomOutcomes.toBuilder()
+                        .dwpPercentages(Map.copyOf(randomOutcomes.getDwpPercentages()))
+                        .cardPercentages(Map.copyOf(randomOutcomes.getCardPercentages()))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the current {@link StubSettings} snapshot. Snapshots are immutable and replaced whole through a single volatile
+ * reference, so request threads read the settings without any locking and a new snapshot takes effect for the next
+ * request that reads it. Components should read the snapshot once per request and use that copy throughout, rather
+ * than calling {@link #get()} repeatedly, so that they never mix settings from two snapshots.
+ */
+@Component
+@Slf4j
+public class StubSettingsHolder {
+
+    private final StubSettings initialSettings;
+    private volatile StubSettings settings;
+
+    public StubSettingsHolder(@Value("${get-balance.max-low-balance-in-pence}") int maxLowBalanceInPence,
+                              @Value("${get-balance.partial-payment-balance-in-pence}") int partialPaymentBalanceInPence,
+                              @Value("${get-balance.high-balance-in-pence}") int highBalanceInPence) {
+        this.initialSettings = StubSettings.defaultSettings(BalanceSettings.builder()
+                .maxLowBalanceInPence(maxLowBalanceInPence)
+                .partialPaymentBalanceInPence(partialPaymentBalanceInPence)
+                .highBalanceInPence(highBalanceInPence)
+                .build());
+        this.settings = initialSettings;
+    }
+
+    public StubSettings get() {
+        return settings;
+    }
+
+    /**
+     * Replaces the current settings with the given ones.
+     *
+     * @param newSettings The settings to use from the next request onwards
+     * @return The settings now in use
+     */
+    public StubSettings update(StubSettings newSettings) {
+        StubSettings snapshot = newSettings.immutableCopy();
+        settings = snapshot;
+        log.info("Stub settings updated to {}", snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Restores the settings the stub was started with.
+     *
+     * @return The settings now in use
+     */
+    public StubSettings reset() {
+        settings = initialSettings;
+        log.info("Stub settings reset to {}", initialSettings);
+        return initialSettings;
+    }
+}
@@ -0,0 +1,120 @@
+package uk.gov.dhsc.htbhf.smartstub.settlement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccount;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+
+/**
+ * Settles deposits after a delay, as the real card provider does: a deposit is added to a card's ledger balance
+ * straight away, but only to its available balance once it has settled.
+ *
+ * <p>Pending settlements are held in a {@link TimerWheel}, so scheduling and settling each take constant time however
+ * many are pending. A single daemon thread advances the wheel every tick, settling every deposit whose delay has
+ * passed. Each settlement is rounded up to a whole number of ticks, so settles up to one tick late. Ticks are counted in
+ * the time of the {@link SimulationClock}, so deposits settle sooner when it runs faster and not at all when it is frozen.
+ *
+ * <p>When settlement is disabled, or max-pending settlements are already waiting, deposits are settled immediately.
+ * The number of settlements pending is published as a metric.
+ */
+@Component
+@Slf4j
+public class SettlementScheduler {
+
+    private static final TimerWheel.ExpiryHandler<CardAccount> SETTLE = CardAccount::settle;
+
+    private final boolean enabled;
+    private final long delayInTicks;
+    private final long tickInNanos;
+    private final int maxPending;
+    private final SimulationClock simulationClock;
+    private final long startNanos;
+    private final TimerWheel<CardAccount> wheel = new TimerWheel<>();
+    private final Counter settledImmediately;
+    private final ScheduledExecutorService ticker;
+
+    public SettlementScheduler(@Value("${card-settlement.enabled}") boolean enabled,
+                               @Value("${card-settlement.delay-in-millis}") long delayInMillis,
+                               @Value("${card-settlement.tick-in-millis}") long tickInMillis,
+                               @Value("${card-settlement.max-pending}") int maxPending,
+                               SimulationClock simulationClock,
+                               MeterRegistry meterRegistry) {
+        if (tickInMillis <= 0) {
+            throw new IllegalArgumentException("card-settlement.tick-in-millis must be greater than zero");
+        }
+        this.enabled = enabled;
+        this.delayInTicks = (delayInMillis + tickInMillis - 1) / tickInMillis;
+        this.tickInNanos = TimeUnit.MILLISECONDS.toNanos(tickInMillis);
+        this.maxPending = maxPending;
+        this.simulationClock = simulationClock;
+        this.startNanos = simulationClock.nanoTime();
+        Gauge.builder("stub.settlement.pending", this, SettlementScheduler::getPending).register(meterRegistry);
+        this.settledImmediately = meterRegistry.counter("stub.settlement.settled-immediately");
+        if (enabled) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "settlement");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::settleDueDeposits, tickInMillis, tickInMillis, TimeUnit.MILLISECONDS);
+        } else {
+            ticker = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schedules the given deposit to be settled once the settlement delay has passed.
+     *
+     * @param cardAccount   The card the deposit was made to
+     * @param amountInPence The amount deposited
+     */
+    public void schedule(CardAccount cardAccount, long amountInPence) {
+        if (enabled) {
+            synchronized (wheel) {
+                if (wheel.getPending() < maxPending) {
+                    wheel.schedule(currentTick() + delayInTicks - wheel.getCurrentTick(), cardAccount, amountInPence);
+                    return;
+                }
+            }
+            settledImmediately.increment();
+            log.debug("Settling deposit to card {} immediately as {} settlements are already pending", cardAccount.getCardId(), maxPending);
+        }
+        cardAccount.settle(amountInPence);
+    }
+
+    public int getPending() {
+        synchronized (wheel) {
+            return wheel.getPending();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void settleDueDeposits() {
+        synchronized (wheel) {
+            wheel.advanceTo(currentTick(), SETTLE);
+        }
+    }
+
+    private long currentTick() {
+        return (simulationClock.nanoTime() - startNanos) / tickInNanos;
+    }
+}
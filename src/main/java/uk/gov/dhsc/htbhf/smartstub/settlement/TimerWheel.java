@@ -0,0 +1,188 @@
+package uk.gov.dhsc.htbhf.smartstub.settlement;
+
+import java.util.Arrays;
+
+/**
+ * A hashed hierarchical timer wheel, holding timers that each expire at a given tick with a target object and a long
+ * value. Scheduling a timer and expiring it both take constant time however many timers are pending.
+ *
+ * <p>There are four levels of 256 slots. Level 0 has a slot for each of the next 256 ticks, level 1 a slot for each of
+ * the following 256 runs of 256 ticks, and so on, so 2^32 ticks are covered in all. A timer is put in the lowest level
+ * whose span includes its deadline. Each time the current tick crosses the boundary of a slot in a higher level, that
+ * slot's timers are moved down to the level below, where they are placed more precisely, so every timer is moved at
+ * most three times before it expires. Advancing skips straight to the next tick with a slot to expire or cascade, so
+ * a long advance over a sparse wheel, as after the simulation clock jumps, takes at most one step per timer and level
+ * rather than one per tick.
+ *
+ * <p>Timers are held in parallel arrays rather than as objects, linked into their slots by index, and the entries of
+ * expired timers are reused, so scheduling allocates nothing once the arrays have grown to the number of timers
+ * pending. Each pending timer costs 24 bytes plus its target. Instances are not thread safe.
+ *
+ * @param <T> The type of the timer targets
+ */
+public class TimerWheel<T> {
+
+    /**
+     * Called for each timer as it expires.
+     *
+     * @param <T> The type of the timer targets
+     */
+    @FunctionalInterface
+    public interface ExpiryHandler<T> {
+        void expire(T target, long value);
+    }
+
+    private static final int LEVELS = 4;
+    private static final int BITS_PER_LEVEL = 8;
+    private static final int SLOTS_PER_LEVEL = 1 << BITS_PER_LEVEL;
+    private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+    private static final long MAX_DELAY_IN_TICKS = (1L << (LEVELS * BITS_PER_LEVEL)) - 1;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int[] slotHeads = new int[LEVELS * SLOTS_PER_LEVEL];
+    private long[] deadlines;
+    private long[] values;
+    private Object[] targets;
+    private int[] nextEntries;
+    private int freeHead = NONE;
+    private int used;
+    private int pending;
+    private long currentTick;
+
+    public TimerWheel() {
+        Arrays.fill(slotHeads, NONE);
+        deadlines = new long[INITIAL_CAPACITY];
+        values = new long[INITIAL_CAPACITY];
+        targets = new Object[INITIAL_CAPACITY];
+        nextEntries = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Schedules a timer to expire the given number of ticks from now.
+     *
+     * @param delayInTicks The delay, of which values under 1 are treated as 1 and values over 2^32 - 1 as 2^32 - 1
+     * @param target       The target to pass to the expiry handler
+     * @param value        The value to pass to the expiry handler
+     */
+    public void schedule(long delayInTicks, T target, long value) {
+        int entry = allocateEntry();
+        deadlines[entry] = currentTick + Math.max(1, Math.min(delayInTicks, MAX_DELAY_IN_TICKS));
+        values[entry] = value;
+        targets[entry] = target;
+        place(entry);
+        pending++;
+    }
+
+    /**
+     * Advances the current tick to the given tick, expiring every timer whose deadline has been reached in the order
+     * of their deadlines.
+     *
+     * @param tick    The tick to advance to, which is ignored if it is not after the current tick
+     * @param handler The handler to call for each timer that expires
+     * @return The number of timers that expired
+     */
+    public int advanceTo(long tick, ExpiryHandler<? super T> handler) {
+        int expired = 0;
+        while (currentTick < tick) {
+            currentTick = pending == 0 ? tick : Math.min(tick, nextEventTick());
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * BITS_PER_LEVEL)) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >>> (level * BITS_PER_LEVEL)) & SLOT_MASK);
+                }
+            }
+            expired += expireSlot((int) currentTick & SLOT_MASK, handler);
+        }
+        return expired;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Finds the first tick after the current one at which a slot holding timers is expired or cascaded. Slots are only
+     * expired or cascaded in order within the span of the level above, so the first occupied slot at the lowest level
+     * with one left in its span comes first. The top level has no level above, so its slots wrap round.
+     */
+    private long nextEventTick() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS_PER_LEVEL;
+            long slotIndex = currentTick >>> shift;
+            int slotInLevel = (int) slotIndex & SLOT_MASK;
+            int slotsToSearch = level == LEVELS - 1 ? SLOTS_PER_LEVEL : SLOT_MASK - slotInLevel;
+            for (int distance = 1; distance <= slotsToSearch; distance++) {
+                if (slotHeads[level * SLOTS_PER_LEVEL + ((slotInLevel + distance) & SLOT_MASK)] != NONE) {
+                    return (slotIndex + distance) << shift;
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void place(int entry) {
+        long deadline = deadlines[entry];
+        int level = 0;
+        while (level < LEVELS - 1 && (deadline >>> ((level + 1) * BITS_PER_LEVEL)) != (currentTick >>> ((level + 1) * BITS_PER_LEVEL))) {
+            level++;
+        }
+        int slot = level * SLOTS_PER_LEVEL + ((int) (deadline >>> (level * BITS_PER_LEVEL)) & SLOT_MASK);
+        nextEntries[entry] = slotHeads[slot];
+        slotHeads[slot] = entry;
+    }
+
+    private void cascade(int level, int slotInLevel) {
+        int slot = level * SLOTS_PER_LEVEL + slotInLevel;
+        int entry = slotHeads[slot];
+        slotHeads[slot] = NONE;
+        while (entry != NONE) {
+            int next = nextEntries[entry];
+            place(entry);
+            entry = next;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int expireSlot(int slot, ExpiryHandler<? super T> handler) {
+        int entry = slotHeads[slot];
+        slotHeads[slot] = NONE;
+        int expired = 0;
+        while (entry != NONE) {
+            int next = nextEntries[entry];
+            T target = (T) targets[entry];
+            long value = values[entry];
+            freeEntry(entry);
+            pending--;
+            expired++;
+            handler.expire(target, value);
+            entry = next;
+        }
+        return expired;
+    }
+
+    private int allocateEntry() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = nextEntries[entry];
+            return entry;
+        }
+        if (used == deadlines.length) {
+            int capacity = deadlines.length * 2;
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            values = Arrays.copyOf(values, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            nextEntries = Arrays.copyOf(nextEntries, capacity);
+        }
+        return used++;
+    }
+
+    private void freeEntry(int entry) {
+        targets[entry] = null;
+        nextEntries[entry] = freeHead;
+        freeHead = entry;
+    }
+}
@@ -0,0 +1,27 @@
+package uk.gov.dhsc.htbhf.smartstub.slowdrip;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+/**
+ * Registers the {@link SlowDripFilter} for the postcode, DWP and card endpoints. It does nothing until slow drip is
+ * turned on through the runtime settings. It comes straight after the Server-Timing filter, which has the highest
+ * precedence, so that the request metrics and the ETag of DWP responses are recorded inside it, before the request goes
+ * into async mode, and the order of the two doesn't depend on the order the beans are registered in.
+ */
+@Configuration
+public class SlowDripConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<SlowDripFilter> slowDripFilter(StubSettingsHolder stubSettingsHolder, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SlowDripFilter> registration = new FilterRegistrationBean<>(new SlowDripFilter(stubSettingsHolder, meterRegistry));
+        registration.addUrlPatterns("/v1/postcodes/*", "/v1/cards/*", "/v2/dwp/benefits");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
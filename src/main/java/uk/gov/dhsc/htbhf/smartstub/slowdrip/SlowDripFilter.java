@@ -0,0 +1,77 @@
+package uk.gov.dhsc.htbhf.smartstub.slowdrip;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import uk.gov.dhsc.htbhf.smartstub.settings.SlowDripSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Trickles response bodies out at the rate given by the current {@link SlowDripSettings}, as a struggling upstream API
+ * would, to catch clients whose read timeouts only cover the time to the first byte.
+ *
+ * <p>The body is buffered while the request is handled as normal, then the request is put into async mode and the body
+ * is written by a {@link SlowDripWriter} using the servlet container's non-blocking I/O. The request thread goes back to
+ * the pool as soon as the body has been buffered, and a single scheduler thread paces every slow response, so thousands
+ * of them can be in progress without using up the container's threads. Responses that are already committed, such as
+ * injected faults, and those without a body are written as normal.
+ */
+public class SlowDripFilter extends OncePerRequestFilter {
+
+    private final StubSettingsHolder stubSettingsHolder;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger inProgress = new AtomicInteger();
+
+    public SlowDripFilter(StubSettingsHolder stubSettingsHolder, MeterRegistry meterRegistry) {
+        this.stubSettingsHolder = stubSettingsHolder;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-drip");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("stub.slow-drip.in-progress", inProgress, AtomicInteger::get)
+                .description("The number of responses currently being slowly written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SlowDripSettings slowDrip = stubSettingsHolder.get().getSlowDrip();
+        if (slowDrip.getBytesPerSecond() == 0 || !request.isAsyncSupported()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (response.isCommitted() || responseWrapper.getContentSize() == 0) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = responseWrapper.getContentAsByteArray();
+        response.setContentLength(body.length);
+        AsyncContext asyncContext = request.startAsync(request, response);
+        // The writer completes the request, however long that takes, or as soon as the client goes away.
+        asyncContext.setTimeout(0);
+        ServletOutputStream outputStream = response.getOutputStream();
+        inProgress.incrementAndGet();
+        outputStream.setWriteListener(new SlowDripWriter(asyncContext, outputStream, body, slowDrip, scheduler, inProgress::decrementAndGet));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
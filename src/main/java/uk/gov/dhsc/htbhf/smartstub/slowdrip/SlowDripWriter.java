@@ -0,0 +1,117 @@
+package uk.gov.dhsc.htbhf.smartstub.slowdrip;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.gov.dhsc.htbhf.smartstub.settings.SlowDripSettings;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+/**
+ * Writes a buffered response body to a non-blocking output stream one chunk at a time, flushing each chunk and waiting
+ * until the configured rate allows the next one, with the configured stall once half the body has been written. The
+ * container calls {@link #onWritePossible()} whenever the stream can take more, and the scheduler runs this writer when
+ * the next chunk is due, so no thread is held while waiting for either. Both only ever write while the stream is ready,
+ * as the servlet specification requires, and the request is completed once the whole body has been written.
+ */
+@Slf4j
+class SlowDripWriter implements WriteListener, Runnable {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream outputStream;
+    private final byte[] body;
+    private final long bytesPerSecond;
+    private final int chunkSizeInBytes;
+    private final long stallNanos;
+    private final int stallPosition;
+    private final ScheduledExecutorService scheduler;
+    private final Runnable onFinished;
+    private int position;
+    private long nextChunkNanos;
+    private boolean finished;
+
+    SlowDripWriter(AsyncContext asyncContext, ServletOutputStream outputStream, byte[] body, SlowDripSettings slowDrip,
+                   ScheduledExecutorService scheduler, Runnable onFinished) {
+        this.asyncContext = asyncContext;
+        this.outputStream = outputStream;
+        this.body = body;
+        this.bytesPerSecond = slowDrip.getBytesPerSecond();
+        this.chunkSizeInBytes = slowDrip.getChunkSizeInBytes();
+        this.stallNanos = slowDrip.getStallInMillis() * NANOS_PER_MILLI;
+        this.stallPosition = body.length / 2;
+        this.scheduler = scheduler;
+        this.onFinished = onFinished;
+        this.nextChunkNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        writeChunks();
+    }
+
+    @Override
+    public synchronized void run() {
+        try {
+            writeChunks();
+        } catch (IOException | RuntimeException e) {
+            onError(e);
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        log.debug("Abandoned slow drip response after {} of {} bytes: {}", position, body.length, throwable.toString());
+        finish();
+    }
+
+    private void writeChunks() throws IOException {
+        while (!finished && outputStream.isReady()) {
+            if (position == body.length) {
+                finish();
+                return;
+            }
+            long nowNanos = System.nanoTime();
+            if (nextChunkNanos > nowNanos) {
+                try {
+                    scheduler.schedule(this, nextChunkNanos - nowNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // The stub is shutting down, so write the rest of the body straight away.
+                    nextChunkNanos = nowNanos;
+                    continue;
+                }
+                return;
+            }
+            int length = Math.min(chunkSizeInBytes, body.length - position);
+            // The chunk before the stall ends at the stall, so the stall comes at the same point whatever the chunk size.
+            if (position < stallPosition && position + length > stallPosition) {
+                length = stallPosition - position;
+            }
+            outputStream.write(body, position, length);
+            position += length;
+            // Paced from when this chunk was due rather than when it was written, so scheduling delays don't lower the rate.
+            nextChunkNanos += length * NANOS_PER_SECOND / bytesPerSecond;
+            if (position == stallPosition) {
+                nextChunkNanos += stallNanos;
+            }
+            // If the stream can't take any more yet, the container flushes the chunk and calls onWritePossible when it's done.
+            if (outputStream.isReady()) {
+                outputStream.flush();
+            }
+        }
+    }
+
+    private void finish() {
+        if (!finished) {
+            finished = true;
+            onFinished.run();
+            asyncContext.complete();
+        }
+    }
+}
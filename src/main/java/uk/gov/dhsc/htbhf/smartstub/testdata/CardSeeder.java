@@ -0,0 +1,109 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.CardIdBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static uk.gov.dhsc.htbhf.smartstub.testdata.TestDataWriter.blockSeed;
+
+/**
+ * Creates cards in a namespace in bulk, as though each had been created through the card endpoint, and writes their IDs.
+ *
+ * <p>Cards are created in blocks of {@link #BLOCK_SIZE} as tasks on a {@link ForkJoinPool}, whose idle threads steal
+ * blocks from busy ones, and each block is written as soon as it and every block before it are done. Nothing is shared
+ * between blocks except the namespace's concurrent map of cards, and each block updates the namespace's count of cards
+ * created once, so the rate of seeding grows with the number of threads. As with {@link TestDataWriter}, at most a fixed
+ * number of blocks are created ahead of the one being written, and each block has its own random number generator, so the
+ * same seed and mix always give the same card IDs.
+ */
+public class CardSeeder {
+
+    static final int BLOCK_SIZE = 4096;
+    static final String HEADER = "cardId\n";
+    private static final int BYTES_PER_CARD_ID = 39;
+
+    private final ForkJoinPool pool;
+    private final int maxBlocksAhead;
+
+    public CardSeeder(ForkJoinPool pool) {
+        this.pool = pool;
+        this.maxBlocksAhead = pool.getParallelism() * 2;
+    }
+
+    /**
+     * Creates the given number of cards and writes their IDs, one per line after a header line. The output stream is
+     * flushed but not closed.
+     *
+     * @param output    The stream to write to
+     * @param namespace The namespace to create the cards in
+     * @param mix       The scenarios to pick the card ID prefix of each card from, which must not include CARD_ERROR
+     * @param count     The number of cards
+     * @param seed      The seed the card IDs are generated from
+     * @throws IOException if the card IDs could not be written
+     */
+    public void seed(OutputStream output, StubNamespace namespace, ScenarioMix mix, long count, long seed) throws IOException {
+        output.write(HEADER.getBytes(StandardCharsets.UTF_8));
+        long blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        Deque<ForkJoinTask<byte[]>> pendingBlocks = new ArrayDeque<>(maxBlocksAhead);
+        long nextBlock = 0;
+        try {
+            while (nextBlock < blocks && pendingBlocks.size() < maxBlocksAhead) {
+                pendingBlocks.add(submitBlock(namespace, mix, count, seed, nextBlock++));
+            }
+            while (!pendingBlocks.isEmpty()) {
+                byte[] block = await(pendingBlocks.removeFirst());
+                if (nextBlock < blocks) {
+                    pendingBlocks.add(submitBlock(namespace, mix, count, seed, nextBlock++));
+                }
+                output.write(block);
+            }
+            output.flush();
+        } finally {
+            pendingBlocks.forEach(pendingBlock -> pendingBlock.cancel(true));
+        }
+    }
+
+    private ForkJoinTask<byte[]> submitBlock(StubNamespace namespace, ScenarioMix mix, long count, long seed, long block) {
+        return pool.submit(() -> {
+            long firstCard = block * BLOCK_SIZE;
+            int cards = (int) Math.min(BLOCK_SIZE, count - firstCard);
+            SplittableRandom random = new SplittableRandom(blockSeed(seed, block));
+            List<String> cardIds = new ArrayList<>(cards);
+            StringBuilder output = new StringBuilder(cards * BYTES_PER_CARD_ID);
+            for (int i = 0; i < cards; i++) {
+                String cardId = CardIdBuilder.buildCardIdForScenario(Optional.ofNullable(mix.pick(random).getFirstNameScenario()), random);
+                cardIds.add(cardId);
+                output.append(cardId).append('\n');
+            }
+            namespace.recordCardsCreated(cardIds);
+            return output.toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private static byte[] await(ForkJoinTask<byte[]> block) throws IOException {
+        try {
+            return block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while seeding cards");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to seed cards", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import javax.annotation.PreDestroy;
+
+/**
+ * Seeds namespaces with cards that already exist at the start of a test run, on a fork/join pool with a daemon thread for
+ * each processor, shared by all requests to seed cards. Each request may seed at most max-seeded-cards cards, so that one
+ * request can't fill the heap.
+ */
+@Service
+@Slf4j
+public class CardSeedingService {
+
+    private final ForkJoinPool pool;
+    private final CardSeeder seeder;
+    private final long maxCount;
+
+    public CardSeedingService(@Value("${namespaces.max-seeded-cards}") long maxCount) {
+        this.maxCount = maxCount;
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), CardSeedingService::newWorkerThread, null, false);
+        this.seeder = new CardSeeder(pool);
+    }
+
+    /**
+     * Checks that the given mix can be used to seed cards, before anything is written. CARD_ERROR is left out of the mix,
+     * as it never creates a card.
+     *
+     * @param mix The scenario mix
+     * @return The mix to seed cards with
+     * @throws IllegalArgumentException if the mix has no scenario other than CARD_ERROR
+     */
+    public ScenarioMix createCardMix(ScenarioMix mix) {
+        return mix.without(DataScenario.CARD_ERROR);
+    }
+
+    /**
+     * Checks that the given number of cards can be seeded, before anything is written.
+     *
+     * @param count The number of cards to seed
+     * @throws IllegalArgumentException if the count is negative or more than the maximum
+     */
+    public void checkCount(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative");
+        }
+        if (count > maxCount) {
+            throw new IllegalArgumentException("Count must not be more than " + maxCount);
+        }
+    }
+
+    public void seed(OutputStream output, StubNamespace namespace, ScenarioMix cardMix, long count, long seed) throws IOException {
+        long start = System.nanoTime();
+        seeder.seed(output, namespace, cardMix, count, seed);
+        log.info("Seeded {} cards in namespace [{}] in {}ms", count, namespace.getId(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("card-seeding-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.VerificationOutcomeForSurname;
+
+/**
+ * The scenarios that generated test data can be made to trigger, each combining the NINO, surname and first name
+ * rules of the DWP and card endpoints. Every scenario other than IDENTITY_NOT_MATCHED, ELIGIBILITY_NOT_CONFIRMED and
+ * EXCEPTION is eligible, and those that don't fix the number of children have between none and two.
+ */
+public enum DataScenario {
+
+    ELIGIBLE_NO_CHILDREN(0, null, null),
+    ELIGIBLE_ONE_CHILD(1, null, null),
+    ELIGIBLE_TWO_CHILDREN(2, null, null),
+    ELIGIBLE_THREE_CHILDREN(3, null, null),
+    IDENTITY_NOT_MATCHED(0, null, null),
+    ELIGIBILITY_NOT_CONFIRMED(0, null, null),
+    EXCEPTION(0, null, null),
+    ADDRESS_LINE_1_NOT_MATCHED(DataScenario.ANY_CHILDREN, null, null),
+    POSTCODE_NOT_MATCHED(DataScenario.ANY_CHILDREN, null, null),
+    MOBILE_NOT_HELD(DataScenario.ANY_CHILDREN, VerificationOutcomeForSurname.MOBILE_NOT_HELD, null),
+    EMAIL_NOT_HELD(DataScenario.ANY_CHILDREN, VerificationOutcomeForSurname.EMAIL_NOT_HELD, null),
+    MOBILE_AND_EMAIL_NOT_HELD(DataScenario.ANY_CHILDREN, VerificationOutcomeForSurname.MOBILE_AND_EMAIL_NOT_HELD, null),
+    MOBILE_NOT_MATCHED(DataScenario.ANY_CHILDREN, VerificationOutcomeForSurname.MOBILE_NOT_MATCHED, null),
+    EMAIL_NOT_MATCHED(DataScenario.ANY_CHILDREN, VerificationOutcomeForSurname.EMAIL_NOT_MATCHED, null),
+    MOBILE_AND_EMAIL_NOT_MATCHED(DataScenario.ANY_CHILDREN, VerificationOutcomeForSurname.MOBILE_AND_EMAIL_NOT_MATCHED, null),
+    CARD_ERROR(DataScenario.ANY_CHILDREN, null, FirstNameScenario.CARD_ERROR),
+    NO_TOP_UP(DataScenario.ANY_CHILDREN, null, FirstNameScenario.NO_TOP_UP),
+    PARTIAL(DataScenario.ANY_CHILDREN, null, FirstNameScenario.PARTIAL),
+    BALANCE_ERROR(DataScenario.ANY_CHILDREN, null, FirstNameScenario.BALANCE_ERROR),
+    PAYMENT_ERROR(DataScenario.ANY_CHILDREN, null, FirstNameScenario.PAYMENT_ERROR);
+
+    static final int ANY_CHILDREN = -1;
+
+    private final int childrenUnder4;
+    private final VerificationOutcomeForSurname surnameOutcome;
+    private final FirstNameScenario firstNameScenario;
+
+    DataScenario(int childrenUnder4, VerificationOutcomeForSurname surnameOutcome, FirstNameScenario firstNameScenario) {
+        this.childrenUnder4 = childrenUnder4;
+        this.surnameOutcome = surnameOutcome;
+        this.firstNameScenario = firstNameScenario;
+    }
+
+    /**
+     * @return The number of children under 4 encoded in the NINO, or {@link #ANY_CHILDREN} if it can be anything
+     */
+    int getChildrenUnder4() {
+        return childrenUnder4;
+    }
+
+    /**
+     * @return The mobile and email outcomes the surname must trigger, or null if the surname must not trigger any
+     */
+    VerificationOutcomeForSurname getSurnameOutcome() {
+        return surnameOutcome;
+    }
+
+    /**
+     * @return The card scenario the first name must trigger, or null if the first name must not trigger any
+     */
+    FirstNameScenario getFirstNameScenario() {
+        return firstNameScenario;
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The proportion of generated records that trigger each {@link DataScenario}, e.g. ELIGIBLE_ONE_CHILD:70,
+ * IDENTITY_NOT_MATCHED:5,CARD_ERROR:2. The weights are relative, so needn't add up to 100, and may have decimal places.
+ */
+public class ScenarioMix {
+
+    public static final String DEFAULT_MIX = "ELIGIBLE_ONE_CHILD:40,ELIGIBLE_TWO_CHILDREN:20,ELIGIBLE_NO_CHILDREN:10,"
+            + "ELIGIBLE_THREE_CHILDREN:5,IDENTITY_NOT_MATCHED:5,ELIGIBILITY_NOT_CONFIRMED:5,ADDRESS_LINE_1_NOT_MATCHED:2,"
+            + "POSTCODE_NOT_MATCHED:2,MOBILE_NOT_HELD:2,EMAIL_NOT_HELD:2,MOBILE_NOT_MATCHED:1,EMAIL_NOT_MATCHED:1,"
+            + "CARD_ERROR:2,NO_TOP_UP:1,PARTIAL:1,BALANCE_ERROR:0.5,PAYMENT_ERROR:0.5";
+
+    private final List<DataScenario> scenarios;
+    private final double[] cumulativeWeights;
+    private final double totalWeight;
+
+    public ScenarioMix(Map<DataScenario, Double> weights) {
+        this.scenarios = new ArrayList<>(weights.size());
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        for (Map.Entry<DataScenario, Double> weight : weights.entrySet()) {
+            if (!(weight.getValue() >= 0) || weight.getValue().isInfinite()) {
+                throw new IllegalArgumentException("Weight for " + weight.getKey() + " must be a positive number or zero");
+            }
+            total += weight.getValue();
+            cumulativeWeights[scenarios.size()] = total;
+            scenarios.add(weight.getKey());
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one scenario must have a weight greater than zero");
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Parses a mix in the format SCENARIO:weight,SCENARIO:weight. Scenario names are not case sensitive.
+     *
+     * @param mix The mix to parse
+     * @return The scenario mix
+     */
+    public static ScenarioMix parse(String mix) {
+        Map<DataScenario, Double> weights = new LinkedHashMap<>();
+        for (String weight : mix.split(",")) {
+            String[] nameAndWeight = weight.trim().split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Scenario weight [" + weight + "] is not in the format SCENARIO:weight");
+            }
+            DataScenario scenario;
+            double value;
+            try {
+                scenario = DataScenario.valueOf(nameAndWeight[0].trim().toUpperCase(Locale.UK));
+                value = Double.parseDouble(nameAndWeight[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Scenario weight [" + weight + "] is not a known scenario and a number", e);
+            }
+            weights.merge(scenario, value, Double::sum);
+        }
+        return new ScenarioMix(weights);
+    }
+
+    /**
+     * Gives the same mix without the given scenario, with the remaining scenarios in the same proportions.
+     *
+     * @param excluded The scenario to leave out
+     * @return The mix without the scenario
+     * @throws IllegalArgumentException if no other scenario has a weight greater than zero
+     */
+    public ScenarioMix without(DataScenario excluded) {
+        Map<DataScenario, Double> weights = new LinkedHashMap<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            if (scenarios.get(i) != excluded) {
+                weights.put(scenarios.get(i), cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]));
+            }
+        }
+        return new ScenarioMix(weights);
+    }
+
+    public DataScenario pick(SplittableRandom random) {
+        double target = random.nextDouble() * totalWeight;
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return scenarios.get(low);
+    }
+
+    public List<DataScenario> getScenarios() {
+        return scenarios;
+    }
+}
@@ -0,0 +1,77 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+/**
+ * The formats test data can be written in. Every generated value is made up of letters, digits, spaces and the
+ * characters + - . @, so none of them needs escaping in either format.
+ */
+public enum TestDataFormat {
+
+    /**
+     * Comma separated values, with a header line of field names.
+     */
+    CSV("text/csv") {
+        @Override
+        void appendHeader(StringBuilder output) {
+            for (int i = 0; i < FIELD_NAMES.length; i++) {
+                if (i > 0) {
+                    output.append(',');
+                }
+                output.append(FIELD_NAMES[i]);
+            }
+            output.append('\n');
+        }
+
+        @Override
+        void appendRecord(StringBuilder output, String[] values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    output.append(',');
+                }
+                output.append(values[i]);
+            }
+            output.append('\n');
+        }
+    },
+
+    /**
+     * Newline delimited JSON, one object per record.
+     */
+    NDJSON("application/x-ndjson") {
+        @Override
+        void appendHeader(StringBuilder output) {
+            // Each record names its own fields
+        }
+
+        @Override
+        void appendRecord(StringBuilder output, String[] values) {
+            output.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    output.append(',');
+                }
+                output.append('"').append(FIELD_NAMES[i]).append("\":\"").append(values[i]).append('"');
+            }
+            output.append("}\n");
+        }
+    };
+
+    /**
+     * The fields of each record. Those sent to the DWP endpoint have the names of the request headers.
+     */
+    static final String[] FIELD_NAMES = {"scenario", "nino", "firstName", "surname", "dateOfBirth", "addressLine1",
+            "townOrCity", "postcode", "emailAddress", "mobilePhoneNumber"};
+
+    private final String contentType;
+
+    TestDataFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    abstract void appendHeader(StringBuilder output);
+
+    abstract void appendRecord(StringBuilder output, String[] values);
+}
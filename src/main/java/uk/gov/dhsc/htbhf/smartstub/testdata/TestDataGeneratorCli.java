@@ -0,0 +1,73 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import uk.gov.dhsc.htbhf.smartstub.settings.BalanceSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates test data from the command line, for the stub's default settings, without starting the stub. Run with
+ * e.g. ./gradlew generateTestData --args='--count=1000000 --format=ndjson --output=test-data.ndjson'. The arguments are
+ * --count (default 1000), --seed (default 42), --mix (default {@link ScenarioMix#DEFAULT_MIX}), --format (csv or ndjson,
+ * default csv) and --output (default standard output).
+ */
+public final class TestDataGeneratorCli {
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private TestDataGeneratorCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long count = 1000;
+        long seed = 42;
+        String mix = ScenarioMix.DEFAULT_MIX;
+        TestDataFormat format = TestDataFormat.CSV;
+        String outputFile = null;
+        for (String arg : args) {
+            String[] nameAndValue = arg.split("=", 2);
+            if (nameAndValue.length != 2 || !nameAndValue[0].startsWith("--")) {
+                throw new IllegalArgumentException("Argument [" + arg + "] is not in the format --name=value");
+            }
+            String value = nameAndValue[1];
+            switch (nameAndValue[0]) {
+                case "--count":
+                    count = Long.parseLong(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--mix":
+                    mix = value;
+                    break;
+                case "--format":
+                    format = TestDataFormat.valueOf(value.toUpperCase(Locale.UK));
+                    break;
+                case "--output":
+                    outputFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument [" + arg + "]");
+            }
+        }
+
+        ScenarioMix scenarioMix = ScenarioMix.parse(mix);
+        StubSettings settings = StubSettings.defaultSettings(BalanceSettings.builder().build());
+        TestDataRecordGenerator generator = new TestDataRecordGenerator(settings, scenarioMix);
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try (OutputStream output = new BufferedOutputStream(
+                outputFile == null ? System.out : Files.newOutputStream(Paths.get(outputFile)), OUTPUT_BUFFER_SIZE)) {
+            new TestDataWriter(executor, parallelism).write(output, generator, scenarioMix, format, count, seed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
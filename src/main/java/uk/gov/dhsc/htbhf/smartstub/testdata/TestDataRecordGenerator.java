@@ -0,0 +1,144 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.VerificationOutcomeForSurname;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a single test data record that triggers a given {@link DataScenario} with the given {@link StubSettings},
+ * so that records still trigger their scenarios after the names that trigger them have been changed at runtime.
+ * Names, addresses and the digits of the NINO not used by the stub's rules are random.
+ * Instances hold no mutable state, so can be shared between threads.
+ */
+public class TestDataRecordGenerator {
+
+    // Letters allowed at the start of a NINO, excluding X which triggers the stub's not matched scenarios.
+    private static final char[] NINO_FIRST_LETTERS = "ABCEGHJKLMNOPRSTWYZ".toCharArray();
+    private static final char[] NINO_SECOND_LETTERS = "ABCEGHJKLMNPRSTWYZ".toCharArray();
+    private static final char[] NINO_SUFFIXES = "ABCD".toCharArray();
+    private static final char NOT_MATCHED_CHAR = 'X';
+    private static final int MAX_ANY_CHILDREN = 2;
+    private static final String[] FIRST_NAMES = {"Lisa", "Marge", "Maude", "Edna", "Luann", "Sarah", "Manjula", "Helen",
+            "Agnes", "Patty", "Selma", "Ruth", "Bernice", "Lurleen", "Amber", "Cookie"};
+    private static final String[] SURNAMES = {"Simpson", "Flanders", "Krabappel", "VanHouten", "Wiggum", "Nahasapeemapetilon",
+            "Lovejoy", "Skinner", "Bouvier", "Powers", "Hibbert", "Lumpkin", "Muntz", "Szyslak", "Terwilliger", "Kwan"};
+    private static final String[] STREETS = {"Evergreen Terrace", "Main Street", "Station Road", "Church Lane", "Park Avenue",
+            "High Street", "Mill Lane", "Victoria Road"};
+    private static final String[] TOWNS = {"Springfield", "Bristol", "London", "Manchester", "Edinburgh", "Cardiff", "Leeds", "Birmingham"};
+    private static final String[] POSTCODES = {"BS1 4TB", "AA1 1AA", "SW1A 1AA", "M1 1AE", "EH1 1YZ", "CF10 1EP", "LS1 4DY", "B33 8TH"};
+    private static final LocalDate EARLIEST_DATE_OF_BIRTH = LocalDate.of(1970, 1, 1);
+    private static final int DATE_OF_BIRTH_RANGE_IN_DAYS = 30 * 365;
+
+    private final StubSettings settings;
+    private final Map<DataScenario, String> surnames = new EnumMap<>(DataScenario.class);
+    private final Map<DataScenario, String> firstNames = new EnumMap<>(DataScenario.class);
+
+    /**
+     * Creates a generator for the scenarios in the given mix.
+     *
+     * @param settings The settings the records will be sent to the stub with
+     * @param mix      The scenarios the records will trigger
+     * @throws IllegalArgumentException if nothing triggers one of the scenarios with these settings
+     */
+    public TestDataRecordGenerator(StubSettings settings, ScenarioMix mix) {
+        this.settings = settings;
+        for (DataScenario scenario : mix.getScenarios()) {
+            if (scenario == DataScenario.EXCEPTION && settings.getExceptionNino() == null) {
+                throw new IllegalArgumentException("No NINO triggers " + scenario + " with the current settings");
+            } else if (scenario == DataScenario.ADDRESS_LINE_1_NOT_MATCHED) {
+                surnames.put(scenario, requireSurname(settings.getAddressLine1NotMatchedSurname(), scenario));
+            } else if (scenario == DataScenario.POSTCODE_NOT_MATCHED) {
+                surnames.put(scenario, requireSurname(settings.getPostcodeNotMatchedSurname(), scenario));
+            } else if (scenario.getSurnameOutcome() != null) {
+                surnames.put(scenario, findSurname(scenario.getSurnameOutcome()));
+            }
+            if (scenario.getFirstNameScenario() != null) {
+                firstNames.put(scenario, findFirstName(scenario.getFirstNameScenario()));
+            }
+        }
+    }
+
+    /**
+     * Generates the values of a record, in the order of {@link TestDataFormat#FIELD_NAMES}.
+     *
+     * @param scenario The scenario the record should trigger
+     * @param random   The source of randomness, which makes the record reproducible
+     * @return The values
+     */
+    public String[] generateRecord(DataScenario scenario, SplittableRandom random) {
+        String firstName = firstNames.getOrDefault(scenario, pick(FIRST_NAMES, random));
+        String surname = surnames.getOrDefault(scenario, pick(SURNAMES, random));
+        return new String[]{
+                scenario.name(),
+                nino(scenario, random),
+                firstName,
+                surname,
+                EARLIEST_DATE_OF_BIRTH.plusDays(random.nextInt(DATE_OF_BIRTH_RANGE_IN_DAYS)).toString(),
+                (1 + random.nextInt(999)) + " " + pick(STREETS, random),
+                pick(TOWNS, random),
+                pick(POSTCODES, random),
+                firstName.toLowerCase(Locale.UK) + "." + surname.toLowerCase(Locale.UK) + random.nextInt(100_000) + "@example.com",
+                "+4477009" + (10_000 + random.nextInt(90_000))
+        };
+    }
+
+    private String nino(DataScenario scenario, SplittableRandom random) {
+        if (scenario == DataScenario.EXCEPTION) {
+            return settings.getExceptionNino();
+        }
+        StringBuilder nino = new StringBuilder(9);
+        nino.append(scenario == DataScenario.IDENTITY_NOT_MATCHED ? NOT_MATCHED_CHAR : pick(NINO_FIRST_LETTERS, random));
+        nino.append(scenario == DataScenario.ELIGIBILITY_NOT_CONFIRMED ? NOT_MATCHED_CHAR : pick(NINO_SECOND_LETTERS, random));
+        // The first digit is the number of children under 1 and the second the number under 4, including those under 1.
+        int childrenUnder4 = scenario.getChildrenUnder4() == DataScenario.ANY_CHILDREN
+                ? random.nextInt(MAX_ANY_CHILDREN + 1)
+                : scenario.getChildrenUnder4();
+        nino.append(random.nextInt(childrenUnder4 + 1)).append(childrenUnder4);
+        for (int i = 0; i < 4; i++) {
+            nino.append(random.nextInt(10));
+        }
+        return nino.append(pick(NINO_SUFFIXES, random)).toString();
+    }
+
+    private static String requireSurname(String surname, DataScenario scenario) {
+        if (surname == null) {
+            throw new IllegalArgumentException("No surname triggers " + scenario + " with the current settings");
+        }
+        return surname;
+    }
+
+    private String findSurname(VerificationOutcomeForSurname outcome) {
+        for (Map.Entry<String, VerificationOutcomeForSurname> surname : settings.getSurnameVerificationOutcomes().entrySet()) {
+            if (surname.getValue() == outcome) {
+                return surname.getKey();
+            }
+        }
+        throw new IllegalArgumentException("No surname triggers " + outcome + " with the current settings");
+    }
+
+    private String findFirstName(FirstNameScenario scenario) {
+        if (settings.findScenarioForFirstName(scenario.getNameToMatch()).orElse(null) == scenario) {
+            return scenario.getNameToMatch();
+        }
+        for (Map.Entry<String, FirstNameScenario> firstName : settings.getFirstNameScenarios().entrySet()) {
+            if (firstName.getValue() == scenario) {
+                return firstName.getKey();
+            }
+        }
+        throw new IllegalArgumentException("No first name triggers " + scenario + " with the current settings");
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static char pick(char[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
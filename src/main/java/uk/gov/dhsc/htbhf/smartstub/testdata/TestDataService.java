@@ -0,0 +1,60 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import org.springframework.stereotype.Service;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+
+/**
+ * Generates test data for the stub's current settings, on a pool of daemon threads shared by all requests for test data.
+ */
+@Service
+public class TestDataService {
+
+    private final StubSettingsHolder stubSettingsHolder;
+    private final ExecutorService executor;
+    private final TestDataWriter writer;
+
+    public TestDataService(StubSettingsHolder stubSettingsHolder) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        this.stubSettingsHolder = stubSettingsHolder;
+        this.executor = Executors.newFixedThreadPool(parallelism, daemonThreadFactory());
+        this.writer = new TestDataWriter(executor, parallelism);
+    }
+
+    /**
+     * Checks that the given mix can be generated with the current settings, before anything is written.
+     *
+     * @param mix The scenario mix
+     * @return A generator for the mix
+     * @throws IllegalArgumentException if nothing triggers one of the scenarios in the mix
+     */
+    public TestDataRecordGenerator createGenerator(ScenarioMix mix) {
+        return new TestDataRecordGenerator(stubSettingsHolder.get(), mix);
+    }
+
+    public void write(OutputStream output, TestDataRecordGenerator generator, ScenarioMix mix, TestDataFormat format,
+                      long count, long seed) throws IOException {
+        writer.write(output, generator, mix, format, count, seed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "test-data-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
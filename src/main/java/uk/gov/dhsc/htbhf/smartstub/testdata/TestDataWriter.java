@@ -0,0 +1,116 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import uk.gov.dhsc.htbhf.smartstub.sampling.Hashing;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Writes a stream of generated test data records.
+ *
+ * <p>Records are generated in blocks of {@link #BLOCK_SIZE}, in parallel on the given executor, and each block is
+ * written as soon as it and every block before it are ready. At most a fixed number of blocks are generated ahead of the
+ * one being written, so memory use doesn't grow with the number of records and a slow reader slows generation down
+ * rather than filling the heap. Each block has its own random number generator, seeded from the overall seed and the
+ * block's position, so the output depends only on the seed and not on how many threads generated it or in what order.
+ */
+public class TestDataWriter {
+
+    static final int BLOCK_SIZE = 4096;
+    private static final int BYTES_PER_RECORD = 200;
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private final ExecutorService executor;
+    private final int maxBlocksAhead;
+
+    /**
+     * Creates a writer that generates blocks on the given executor.
+     *
+     * @param executor    The executor to generate blocks on
+     * @param parallelism The number of threads the executor has, which with one block being written gives the number of
+     *                    blocks to generate ahead
+     */
+    public TestDataWriter(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.maxBlocksAhead = parallelism + 1;
+    }
+
+    /**
+     * Writes the given number of records. The output stream is flushed but not closed.
+     *
+     * @param output    The stream to write to
+     * @param generator Generates each record
+     * @param mix       The scenarios to pick from for each record
+     * @param format    The format to write the records in
+     * @param count     The number of records
+     * @param seed      The seed the records are generated from
+     * @throws IOException if the records could not be written
+     */
+    public void write(OutputStream output, TestDataRecordGenerator generator, ScenarioMix mix, TestDataFormat format,
+                      long count, long seed) throws IOException {
+        StringBuilder header = new StringBuilder();
+        format.appendHeader(header);
+        output.write(header.toString().getBytes(StandardCharsets.UTF_8));
+
+        long blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>(maxBlocksAhead);
+        long nextBlock = 0;
+        try {
+            while (nextBlock < blocks && pendingBlocks.size() < maxBlocksAhead) {
+                pendingBlocks.add(submitBlock(generator, mix, format, count, seed, nextBlock++));
+            }
+            while (!pendingBlocks.isEmpty()) {
+                byte[] block = await(pendingBlocks.removeFirst());
+                if (nextBlock < blocks) {
+                    pendingBlocks.add(submitBlock(generator, mix, format, count, seed, nextBlock++));
+                }
+                output.write(block);
+            }
+            output.flush();
+        } finally {
+            pendingBlocks.forEach(pendingBlock -> pendingBlock.cancel(true));
+        }
+    }
+
+    private Future<byte[]> submitBlock(TestDataRecordGenerator generator, ScenarioMix mix, TestDataFormat format,
+                                       long count, long seed, long block) {
+        return executor.submit(() -> {
+            long firstRecord = block * BLOCK_SIZE;
+            int records = (int) Math.min(BLOCK_SIZE, count - firstRecord);
+            SplittableRandom random = new SplittableRandom(blockSeed(seed, block));
+            StringBuilder output = new StringBuilder(records * BYTES_PER_RECORD);
+            for (int i = 0; i < records; i++) {
+                format.appendRecord(output, generator.generateRecord(mix.pick(random), random));
+            }
+            return output.toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private static byte[] await(Future<byte[]> block) throws IOException {
+        try {
+            return block.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating test data");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to generate test data", e.getCause());
+        }
+    }
+
+    // Mixes the block number into the seed with the MurmurHash3 finalizer, so that neighbouring blocks get unrelated
+    // sequences rather than overlapping ones, as SplittableRandoms with nearby seeds would give.
+    static long blockSeed(long seed, long block) {
+        return Hashing.mix(seed + (block + 1) * SEED_INCREMENT);
+    }
+}
@@ -0,0 +1,55 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.BIND;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.VALIDATE;
+
+/**
+ * Delegates to the validators of a data binder, marking the end of the {@link RequestPhase#BIND} phase before they
+ * run and the end of the {@link RequestPhase#VALIDATE} phase after.
+ */
+class PhaseTimingValidator implements SmartValidator {
+
+    private final Validator[] delegates;
+
+    PhaseTimingValidator(Validator... delegates) {
+        this.delegates = delegates;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        for (Validator delegate : delegates) {
+            if (delegate.supports(clazz)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        RequestTimings timings = RequestTimings.current();
+        timings.mark(BIND);
+        for (Validator delegate : delegates) {
+            delegate.validate(target, errors);
+        }
+        timings.mark(VALIDATE);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        RequestTimings timings = RequestTimings.current();
+        timings.mark(BIND);
+        for (Validator delegate : delegates) {
+            if (delegate instanceof SmartValidator) {
+                ((SmartValidator) delegate).validate(target, errors, validationHints);
+            } else {
+                delegate.validate(target, errors);
+            }
+        }
+        timings.mark(VALIDATE);
+    }
+}
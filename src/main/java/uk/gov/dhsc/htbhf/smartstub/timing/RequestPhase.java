@@ -0,0 +1,57 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+/**
+ * The phases of a request that are timed and reported in the Server-Timing header, in the order they happen.
+ */
+public enum RequestPhase {
+
+    /**
+     * From the time in the X-Request-Start header, set by a load balancer or client, until the stub starts handling
+     * the request. Covers the network and any time spent in Tomcat's accept and worker queues.
+     */
+    QUEUE("queue"),
+
+    /**
+     * Servlet filters and handler interceptors, including any rate limiting, concurrency queueing and injected latency.
+     */
+    INTERCEPT("intercept"),
+
+    /**
+     * Building the request object from the request headers or body.
+     */
+    BIND("bind"),
+
+    /**
+     * Bean validation of the request object.
+     */
+    VALIDATE("validate"),
+
+    /**
+     * The controller and service logic.
+     */
+    SERVICE("service"),
+
+    /**
+     * Serializing and writing the response body.
+     */
+    SERIALIZE("serialize"),
+
+    /**
+     * The whole request, from the stub starting to handle it until the Server-Timing header is written. Doesn't include
+     * queue time.
+     */
+    TOTAL("total");
+
+    private final String metricName;
+
+    RequestPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * @return The name of the phase in the Server-Timing header and phase histogram tag
+     */
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,135 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.QUEUE;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.TOTAL;
+
+/**
+ * The time spent in each {@link RequestPhase} of the request being handled by the current thread.
+ *
+ * <p>Each thread has one instance, reused for every request it handles, so timing a request allocates nothing but the
+ * header value. The end of each phase is marked with {@link #mark(RequestPhase)}, and the phase is given the time since
+ * the previous mark, so marks must be made in the order the phases happen. A phase that is never marked, such as
+ * validation of a request with no body, is left out, and its time goes to the next phase that is marked.
+ *
+ * <p>Marks made while no request is being timed, for instance when Server-Timing is disabled, are ignored.
+ */
+public final class RequestTimings {
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = ThreadLocal.withInitial(RequestTimings::new);
+    private static final long NANOS_PER_MICRO = 1_000;
+    private static final int MICROS_PER_MILLI = 1_000;
+
+    private final long[] durations = new long[PHASES.length];
+    private final StringBuilder header = new StringBuilder(128);
+    private int markedPhases;
+    private long startNanos;
+    private long lastMarkNanos;
+    private boolean active;
+
+    private RequestTimings() {
+    }
+
+    /**
+     * @return The timings for the current thread, which are only active between {@link #start} and {@link #finish}
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts timing a new request, discarding the timings of the previous one.
+     *
+     * @param nowNanos   The value of {@link System#nanoTime()} when the request started
+     * @param queueNanos The time the request was queued before it started, or a negative value if not known
+     */
+    public void start(long nowNanos, long queueNanos) {
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = 0;
+        }
+        markedPhases = 0;
+        startNanos = nowNanos;
+        lastMarkNanos = nowNanos;
+        active = true;
+        if (queueNanos >= 0) {
+            durations[QUEUE.ordinal()] = queueNanos;
+            markedPhases = bit(QUEUE);
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Marks the end of the given phase, which is given all the time since the previous mark.
+     *
+     * @param phase The phase that has just finished
+     */
+    public void mark(RequestPhase phase) {
+        if (active) {
+            long now = System.nanoTime();
+            durations[phase.ordinal()] += now - lastMarkNanos;
+            lastMarkNanos = now;
+            markedPhases |= bit(phase);
+        }
+    }
+
+    public boolean isMarked(RequestPhase phase) {
+        return (markedPhases & bit(phase)) != 0;
+    }
+
+    /**
+     * @param phase The phase
+     * @return The time spent in the phase in nanoseconds, or zero if it has not been marked
+     */
+    public long getDurationNanos(RequestPhase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Sets the total time for the request so far.
+     *
+     * @param nowNanos The value of {@link System#nanoTime()} now
+     */
+    public void markTotal(long nowNanos) {
+        durations[TOTAL.ordinal()] = nowNanos - startNanos;
+        markedPhases |= bit(TOTAL);
+    }
+
+    /**
+     * Formats the marked phases as a Server-Timing header value, e.g. "bind;dur=0.042, service;dur=1.250, total;dur=1.415",
+     * with durations in milliseconds to the nearest microsecond.
+     *
+     * @return The header value
+     */
+    public String toServerTimingHeader() {
+        header.setLength(0);
+        for (RequestPhase phase : PHASES) {
+            if (isMarked(phase)) {
+                if (header.length() > 0) {
+                    header.append(", ");
+                }
+                long micros = durations[phase.ordinal()] / NANOS_PER_MICRO;
+                long fraction = micros % MICROS_PER_MILLI;
+                header.append(phase.getMetricName()).append(";dur=").append(micros / MICROS_PER_MILLI).append('.');
+                if (fraction < 100) {
+                    header.append(fraction < 10 ? "00" : "0");
+                }
+                header.append(fraction);
+            }
+        }
+        return header.toString();
+    }
+
+    /**
+     * Stops timing the current request. Later marks are ignored until the next request is started.
+     */
+    public void finish() {
+        active = false;
+    }
+
+    private static int bit(RequestPhase phase) {
+        return 1 << phase.ordinal();
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.SERVICE;
+
+/**
+ * Marks the phases of a request that happen inside Spring MVC. Binding ends and validation starts when the request
+ * object is first validated, which is found by wrapping the validators of every data binder created while a request is
+ * being timed, and the service phase ends when the response body is about to be written, including the body returned
+ * by an exception handler.
+ */
+@ControllerAdvice
+public class ServerTimingControllerAdvice implements ResponseBodyAdvice<Object> {
+
+    @InitBinder
+    public void timeValidation(WebDataBinder binder) {
+        List<Validator> validators = binder.getValidators();
+        if (!validators.isEmpty() && RequestTimings.current().isActive()) {
+            binder.replaceValidators(new PhaseTimingValidator(validators.toArray(new Validator[0])));
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings.current().mark(SERVICE);
+        return body;
+    }
+}
@@ -0,0 +1,117 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.TOTAL;
+
+/**
+ * Times each phase of every request using the current thread's {@link RequestTimings}, adds them to the response as a
+ * Server-Timing header, and records them in a stub.request.phase timer per phase so that their distributions can be
+ * seen through the metrics endpoint. The warm-up's requests get the header but aren't recorded, so that the
+ * distributions only cover load test traffic.
+ *
+ * <p>The header is added just before the response is committed, which is when the response is first flushed, so it
+ * covers serialization of the body. Bodies too large for the servlet container's response buffer are committed while
+ * they are being written, before the header can be added, though their timings are still recorded in the metrics.
+ *
+ * <p>If the request has an X-Request-Start header, in any of the formats used by common load balancers, the time since
+ * then is reported as queue time. This relies on the clocks of the stub and whatever set the header being in step.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    public static final String REQUEST_START_HEADER = "X-Request-Start";
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    private static final long MICROS_PER_MILLI = 1_000;
+    private static final long NANOS_PER_MICRO = 1_000;
+    // Epoch times in microseconds have 16 digits and in milliseconds 13 digits.
+    private static final long MIN_EPOCH_MICROS = 1_000_000_000_000_000L;
+    private static final long MIN_EPOCH_MILLIS = 1_000_000_000_000L;
+
+    private final Timer[] phaseTimers = new Timer[PHASES.length];
+
+    public ServerTimingFilter(MeterRegistry meterRegistry) {
+        for (RequestPhase phase : PHASES) {
+            phaseTimers[phase.ordinal()] = Timer.builder("stub.request.phase")
+                    .description("Time spent in each phase of handling a request")
+                    .tag("phase", phase.getMetricName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        RequestTimings timings = RequestTimings.current();
+        timings.start(startNanos, getQueueNanos(request.getHeader(REQUEST_START_HEADER), System.currentTimeMillis()));
+        ServerTimingResponseWrapper responseWrapper = new ServerTimingResponseWrapper(response, timings);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            responseWrapper.addServerTimingHeader();
+        } finally {
+            timings.finish();
+            if (!WarmUpRequests.isWarmUp(request)) {
+                recordPhases(timings);
+            }
+        }
+    }
+
+    private void recordPhases(RequestTimings timings) {
+        if (!timings.isMarked(TOTAL)) {
+            timings.markTotal(System.nanoTime());
+        }
+        for (RequestPhase phase : PHASES) {
+            if (timings.isMarked(phase)) {
+                phaseTimers[phase.ordinal()].record(timings.getDurationNanos(phase), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Works out how long a request has been queued from its X-Request-Start header, which may be the time since the
+     * epoch in seconds with a fractional part, or in whole milliseconds or microseconds, optionally prefixed with "t=".
+     *
+     * @param requestStart The value of the header
+     * @param nowMillis    The current time in milliseconds since the epoch
+     * @return The queue time in nanoseconds, zero if the start time is in the future, or -1 if the header is missing or invalid
+     */
+    static long getQueueNanos(String requestStart, long nowMillis) {
+        if (StringUtils.isEmpty(requestStart)) {
+            return -1;
+        }
+        String value = requestStart.startsWith("t=") ? requestStart.substring(2) : requestStart;
+        long startMicros;
+        try {
+            if (value.indexOf('.') >= 0) {
+                startMicros = (long) (Double.parseDouble(value) * MICROS_PER_SECOND);
+            } else {
+                long time = Long.parseLong(value);
+                if (time >= MIN_EPOCH_MICROS) {
+                    startMicros = time;
+                } else if (time >= MIN_EPOCH_MILLIS) {
+                    startMicros = time * MICROS_PER_MILLI;
+                } else {
+                    startMicros = time * MICROS_PER_SECOND;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        return Math.max(0, nowMillis * MICROS_PER_MILLI - startMicros) * NANOS_PER_MICRO;
+    }
+}
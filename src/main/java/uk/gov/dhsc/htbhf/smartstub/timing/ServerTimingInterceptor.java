@@ -0,0 +1,22 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.INTERCEPT;
+
+/**
+ * Marks the end of the {@link RequestPhase#INTERCEPT} phase. Must be registered after every other interceptor.
+ */
+@Component
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimings.current().mark(INTERCEPT);
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.SERIALIZE;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.SERVICE;
+import static uk.gov.dhsc.htbhf.smartstub.timing.ServerTimingFilter.SERVER_TIMING_HEADER;
+
+/**
+ * Adds the Server-Timing header to the response the first time it is flushed, which is the last point before the
+ * headers are sent, and so the closest the header can get to covering the whole request. This is the same whether the
+ * body is written through the output stream, as by the JSON converters, or the writer, as by error pages.
+ */
+class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final RequestTimings timings;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean headerAdded;
+
+    ServerTimingResponseWrapper(HttpServletResponse response, RequestTimings timings) {
+        super(response);
+        this.timings = timings;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new ServerTimingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new ServerTimingWriter(super.getWriter());
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        addServerTimingHeader();
+        super.flushBuffer();
+    }
+
+    /**
+     * Adds the Server-Timing header, unless it has already been added or the response has already been committed.
+     * If the response body has been written, the time since the service phase ended is given to serialization.
+     */
+    void addServerTimingHeader() {
+        if (headerAdded || !timings.isActive()) {
+            return;
+        }
+        headerAdded = true;
+        if (timings.isMarked(SERVICE)) {
+            timings.mark(SERIALIZE);
+        }
+        timings.markTotal(System.nanoTime());
+        if (!isCommitted()) {
+            setHeader(SERVER_TIMING_HEADER, timings.toServerTimingHeader());
+        }
+    }
+
+    private class ServerTimingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        ServerTimingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            addServerTimingHeader();
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            addServerTimingHeader();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+
+    private class ServerTimingWriter extends PrintWriter {
+
+        ServerTimingWriter(PrintWriter delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void flush() {
+            addServerTimingHeader();
+            super.flush();
+        }
+
+        @Override
+        public void close() {
+            addServerTimingHeader();
+            super.close();
+        }
+    }
+}
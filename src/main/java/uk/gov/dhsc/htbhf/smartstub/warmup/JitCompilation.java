@@ -0,0 +1,48 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Reads how much work the JIT compiler has done, to tell when warming up has stopped triggering new compilation.
+ */
+@Slf4j
+public final class JitCompilation {
+
+    private static final String DIAGNOSTIC_COMMAND_MBEAN = "com.sun.management:type=DiagnosticCommand";
+    private static final String CODE_LIST_OPERATION = "compilerCodelist";
+
+    private JitCompilation() {
+    }
+
+    /**
+     * @return The total time the JIT compiler threads have spent compiling, or -1 if the JVM doesn't report it
+     */
+    public static long getTotalCompilationTimeMillis() {
+        CompilationMXBean compilationMXBean = ManagementFactory.getCompilationMXBean();
+        return compilationMXBean != null && compilationMXBean.isCompilationTimeMonitoringSupported()
+                ? compilationMXBean.getTotalCompilationTime()
+                : -1;
+    }
+
+    /**
+     * Counts the compiled methods in the code cache, using the same diagnostic command as jcmd Compiler.codelist.
+     * This lists every compiled method, so takes a few milliseconds and should not be called on a request path.
+     *
+     * @return The number of compiled methods, or -1 if the JVM doesn't support the diagnostic command
+     */
+    public static int countCompiledMethods() {
+        try {
+            String codeList = (String) ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(DIAGNOSTIC_COMMAND_MBEAN),
+                    CODE_LIST_OPERATION, new Object[]{null}, new String[]{String[].class.getName()});
+            return (int) codeList.lines().filter(line -> !line.isBlank()).count();
+        } catch (JMException | RuntimeException e) {
+            log.debug("Unable to list compiled methods", e);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespaces;
+import uk.gov.dhsc.htbhf.smartstub.testdata.DataScenario;
+import uk.gov.dhsc.htbhf.smartstub.testdata.ScenarioMix;
+import uk.gov.dhsc.htbhf.smartstub.testdata.TestDataService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests.WARM_UP_NAMESPACE;
+
+/**
+ * Warms up the JIT compiler once the stub has started, so that load tests don't spend their first minute measuring
+ * interpreted code. Requests for every scenario are sent through the stub's own HTTP port in batches, until a batch
+ * triggers less than the configured amount of JIT compilation (once the minimum number of iterations have been run),
+ * or the maximum number of iterations or duration is reached. {@link WarmUpHealthIndicator} reports the stub as DOWN
+ * until then, so the platform doesn't route traffic to it while it is still cold.
+ */
+@Slf4j
+public class WarmUp implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final long SEED = 42;
+
+    private final TestDataService testDataService;
+    private final StubNamespaces stubNamespaces;
+    private final ObjectMapper objectMapper;
+    private final SimulationClock simulationClock;
+    private final int minIterations;
+    private final int maxIterations;
+    private final int batchSize;
+    private final long settledCompilationMillisPerBatch;
+    private final long maxDurationInMillis;
+    private final AtomicInteger iterationsCompleted = new AtomicInteger();
+    private volatile WarmUpReport report;
+
+    public WarmUp(TestDataService testDataService, StubNamespaces stubNamespaces, ObjectMapper objectMapper, SimulationClock simulationClock,
+                  int minIterations, int maxIterations, int batchSize, long settledCompilationMillisPerBatch, long maxDurationInMillis) {
+        this.testDataService = testDataService;
+        this.stubNamespaces = stubNamespaces;
+        this.objectMapper = objectMapper;
+        this.simulationClock = simulationClock;
+        this.minIterations = minIterations;
+        this.maxIterations = maxIterations;
+        this.batchSize = Math.max(1, batchSize);
+        this.settledCompilationMillisPerBatch = settledCompilationMillisPerBatch;
+        this.maxDurationInMillis = maxDurationInMillis;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        if (port == null) {
+            log.info("Not warming up as there is no server port to send requests to");
+            report = WarmUpReport.builder().build();
+            return;
+        }
+        Thread thread = new Thread(() -> run(URI.create("http://localhost:" + port)), "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return The report of the finished warm-up, or null if it is still running
+     */
+    public WarmUpReport getReport() {
+        return report;
+    }
+
+    public int getIterationsCompleted() {
+        return iterationsCompleted.get();
+    }
+
+    void run(URI baseUri) {
+        long start = System.nanoTime();
+        long compilationTimeBefore = JitCompilation.getTotalCompilationTimeMillis();
+        int compiledMethodsBefore = JitCompilation.countCompiledMethods();
+        log.info("Warming up with at least {} and at most {} iterations of every scenario", minIterations, maxIterations);
+
+        long requests = 0;
+        boolean settled = false;
+        try {
+            ScenarioMix everyScenario = everyScenario();
+            WarmUpRequests warmUpRequests = new WarmUpRequests(baseUri, testDataService.createGenerator(everyScenario),
+                    everyScenario.getScenarios(), objectMapper, simulationClock);
+            SplittableRandom random = new SplittableRandom(SEED);
+            long batchCompilationTimeBefore = compilationTimeBefore;
+            while (iterationsCompleted.get() < maxIterations && elapsedMillis(start) < maxDurationInMillis && !settled) {
+                requests += warmUpRequests.sendAll(random);
+                int iterations = iterationsCompleted.incrementAndGet();
+                if (iterations % batchSize == 0) {
+                    long compilationTime = JitCompilation.getTotalCompilationTimeMillis();
+                    settled = iterations >= minIterations && compilationTime - batchCompilationTimeBefore <= settledCompilationMillisPerBatch;
+                    batchCompilationTimeBefore = compilationTime;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm-up stopped early", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Warm-up interrupted");
+        } finally {
+            stubNamespaces.drop(WARM_UP_NAMESPACE);
+            report = WarmUpReport.builder()
+                    .iterations(iterationsCompleted.get())
+                    .requests(requests)
+                    .durationInMillis(elapsedMillis(start))
+                    .compilationTimeInMillis(JitCompilation.getTotalCompilationTimeMillis() - compilationTimeBefore)
+                    .compiledMethodsBefore(compiledMethodsBefore)
+                    .compiledMethodsAfter(JitCompilation.countCompiledMethods())
+                    .compilationSettled(settled)
+                    .build();
+            log.info("Warm-up finished: {}", report);
+        }
+    }
+
+    private static ScenarioMix everyScenario() {
+        Map<DataScenario, Double> weights = new EnumMap<>(DataScenario.class);
+        for (DataScenario scenario : DataScenario.values()) {
+            weights.put(scenario, 1.0);
+        }
+        return new ScenarioMix(weights);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,38 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespaces;
+import uk.gov.dhsc.htbhf.smartstub.testdata.TestDataService;
+
+/**
+ * Warms the stub up after it starts, enabled with warm-up.enabled. While it is warming up the warmUp health indicator
+ * reports DOWN, taking /actuator/health and the readiness health group with it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "warm-up.enabled", havingValue = "true")
+public class WarmUpConfiguration {
+
+    @Bean
+    public WarmUp warmUp(TestDataService testDataService,
+                         StubNamespaces stubNamespaces,
+                         ObjectMapper objectMapper,
+                         SimulationClock simulationClock,
+                         @Value("${warm-up.min-iterations}") int minIterations,
+                         @Value("${warm-up.max-iterations}") int maxIterations,
+                         @Value("${warm-up.batch-size}") int batchSize,
+                         @Value("${warm-up.settled-compilation-millis-per-batch}") long settledCompilationMillisPerBatch,
+                         @Value("${warm-up.max-duration-in-seconds}") long maxDurationInSeconds) {
+        return new WarmUp(testDataService, stubNamespaces, objectMapper, simulationClock, minIterations, maxIterations, batchSize,
+                settledCompilationMillisPerBatch, maxDurationInSeconds * 1000);
+    }
+
+    @Bean
+    public WarmUpHealthIndicator warmUpHealthIndicator(WarmUp warmUp) {
+        return new WarmUpHealthIndicator(warmUp);
+    }
+}
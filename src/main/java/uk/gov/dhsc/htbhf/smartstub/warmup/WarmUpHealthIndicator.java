@@ -0,0 +1,35 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Reports DOWN while the stub is warming up, and UP with a summary of the warm-up once it has finished. As this is
+ * part of /actuator/health, which the platform checks before routing traffic to the stub, no traffic reaches a cold stub.
+ */
+@AllArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUp warmUp;
+
+    @Override
+    public Health health() {
+        WarmUpReport report = warmUp.getReport();
+        if (report == null) {
+            return Health.down()
+                    .withDetail("status", "warming up")
+                    .withDetail("iterations", warmUp.getIterationsCompleted())
+                    .build();
+        }
+        return Health.up()
+                .withDetail("iterations", report.getIterations())
+                .withDetail("requests", report.getRequests())
+                .withDetail("durationInMillis", report.getDurationInMillis())
+                .withDetail("compilationTimeInMillis", report.getCompilationTimeInMillis())
+                .withDetail("compiledMethodsBefore", report.getCompiledMethodsBefore())
+                .withDetail("compiledMethodsAfter", report.getCompiledMethodsAfter())
+                .withDetail("compilationSettled", report.isCompilationSettled())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * What the startup warm-up did, reported by the warm-up health indicator once it has finished.
+ */
+@Value
+@Builder
+public class WarmUpReport {
+
+    private int iterations;
+    private long requests;
+    private long durationInMillis;
+    private long compilationTimeInMillis;
+    private int compiledMethodsBefore;
+    private int compiledMethodsAfter;
+    private boolean compilationSettled;
+}
@@ -0,0 +1,187 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.AddressDTO;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CardRequestDTO;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsRequestDTO;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.testdata.DataScenario;
+import uk.gov.dhsc.htbhf.smartstub.testdata.TestDataRecordGenerator;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import javax.servlet.http.HttpServletRequest;
+
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+
+/**
+ * Sends the stub one request of each kind for every {@link DataScenario}, over HTTP so that each request goes through
+ * Tomcat, the filters and interceptors, argument binding and validation, the services and JSON serialization, exactly
+ * as a load test's would. The request details come from the same generator as the load test data, so every scenario's
+ * code path is compiled. All the requests are made in the warm-up namespace, so card requests leave no state behind
+ * once it is dropped. They also carry a token generated at random when the stub starts, which is how the stub tells
+ * them apart from load test traffic, the only traffic its metrics, limits, journal and logs are for. A client can't
+ * send the token, so it can't get around those by claiming to be the warm-up.
+ */
+public class WarmUpRequests {
+
+    public static final String WARM_UP_NAMESPACE = "warm-up";
+    public static final String WARM_UP_TOKEN_HEADER = "X-Warm-Up-Token";
+
+    private static final String TOKEN = new BigInteger(128, new SecureRandom()).toString(16);
+
+    // The fields of a test data record, in the order of TestDataFormat.FIELD_NAMES
+    private static final int NINO = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int SURNAME = 3;
+    private static final int DATE_OF_BIRTH = 4;
+    private static final int ADDRESS_LINE_1 = 5;
+    private static final int TOWN_OR_CITY = 6;
+    private static final int POSTCODE = 7;
+    private static final int EMAIL_ADDRESS = 8;
+    private static final int MOBILE_PHONE_NUMBER = 9;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final int HTTP_OK = 200;
+    private static final String UC_MONTHLY_INCOME_THRESHOLD = "40800";
+
+    private final URI baseUri;
+    private final TestDataRecordGenerator generator;
+    private final List<DataScenario> scenarios;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final HttpClient client;
+
+    /**
+     * @param request A request to the stub
+     * @return true if the request was sent by the warm-up, so shouldn't be counted or recorded as load test traffic
+     */
+    public static boolean isWarmUp(HttpServletRequest request) {
+        return TOKEN.equals(request.getHeader(WARM_UP_TOKEN_HEADER));
+    }
+
+    /**
+     * Only requests sent by the warm-up get into its namespace, as NamespaceInterceptor rejects any others.
+     *
+     * @param namespace The namespace of a request
+     * @return true if it is the namespace of the warm-up's requests
+     */
+    public static boolean isWarmUp(StubNamespace namespace) {
+        return WARM_UP_NAMESPACE.equals(namespace.getId());
+    }
+
+    /**
+     * @return The token that marks a request as sent by the warm-up, which must never be given to a client
+     */
+    public static String getToken() {
+        return TOKEN;
+    }
+
+    public WarmUpRequests(URI baseUri, TestDataRecordGenerator generator, List<DataScenario> scenarios, ObjectMapper objectMapper, Clock clock) {
+        this.baseUri = baseUri;
+        this.generator = generator;
+        this.scenarios = scenarios;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    /**
+     * Sends the requests for one record of every scenario. Any response is fine, including the errors that some
+     * scenarios are meant to trigger, as all that matters is that the code producing it runs.
+     *
+     * @param random The source of randomness for the records
+     * @return The number of requests sent
+     * @throws IOException          if the stub could not be reached
+     * @throws InterruptedException if the thread was interrupted while waiting for a response
+     */
+    public int sendAll(SplittableRandom random) throws IOException, InterruptedException {
+        int requests = 0;
+        for (DataScenario scenario : scenarios) {
+            String[] record = generator.generateRecord(scenario, random);
+            send(eligibilityRequest(record));
+            requests++;
+            HttpResponse<String> createCardResponse = send(postJson("/v1/cards", createCardRequest(record, random)));
+            requests++;
+            if (createCardResponse.statusCode() == HTTP_OK) {
+                String cardId = objectMapper.readValue(createCardResponse.body(), CreateCardResponse.class).getCardAccountId();
+                send(request("/v1/cards/" + cardId + "/balance").GET().build());
+                send(postJson("/v1/cards/" + cardId + "/deposit", depositFundsRequest(random)));
+                requests += 2;
+            }
+            send(request("/v1/postcodes/" + record[POSTCODE].replace(" ", "")).GET().build());
+            send(request("/v1/postcodes?lon=" + (-5.5 + random.nextDouble() * 7) + "&lat=" + (50.2 + random.nextDouble() * 8)
+                    + "&limit=10&radius=2000").GET().build());
+            send(request("/v1/postcodes/" + record[POSTCODE].substring(0, 2) + "/autocomplete").GET().build());
+            requests += 3;
+        }
+        return requests;
+    }
+
+    private HttpRequest eligibilityRequest(String[] record) {
+        return request("/v2/dwp/benefits")
+                .header("surname", record[SURNAME])
+                .header("nino", record[NINO])
+                .header("dateOfBirth", record[DATE_OF_BIRTH])
+                .header("addressLine1", record[ADDRESS_LINE_1])
+                .header("postcode", record[POSTCODE])
+                .header("emailAddress", record[EMAIL_ADDRESS])
+                .header("mobilePhoneNumber", record[MOBILE_PHONE_NUMBER])
+                .header("eligibilityEndDate", LocalDate.now(clock).plusDays(28).toString())
+                .header("ucMonthlyIncomeThreshold", UC_MONTHLY_INCOME_THRESHOLD)
+                .GET()
+                .build();
+    }
+
+    private CardRequestDTO createCardRequest(String[] record, SplittableRandom random) {
+        return CardRequestDTO.builder()
+                .firstName(record[FIRST_NAME])
+                .lastName(record[SURNAME])
+                .address(AddressDTO.builder()
+                        .addressLine1(record[ADDRESS_LINE_1])
+                        .townOrCity(record[TOWN_OR_CITY])
+                        .postcode(record[POSTCODE])
+                        .build())
+                .dateOfBirth(LocalDate.parse(record[DATE_OF_BIRTH]))
+                .email(record[EMAIL_ADDRESS])
+                .mobile(record[MOBILE_PHONE_NUMBER])
+                .claimId(Long.toHexString(random.nextLong()))
+                .build();
+    }
+
+    private DepositFundsRequestDTO depositFundsRequest(SplittableRandom random) {
+        return DepositFundsRequestDTO.builder()
+                .amountInPence(1240)
+                .reference(Long.toHexString(random.nextLong()))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest postJson(String path, Object body) throws IOException {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header(NAMESPACE_HEADER, WARM_UP_NAMESPACE)
+                .header(WARM_UP_TOKEN_HEADER, TOKEN)
+                .timeout(TIMEOUT);
+    }
+}
@@ -0,0 +1,149 @@
+package uk.gov.dhsc.htbhf.smartstub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.gov.dhsc.htbhf.dwp.testhelper.HttpRequestTestDataFactory.aValidEligibilityHttpEntity;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.CardRequestDTOTestDataFactory.aValidCardRequest;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.DepositFundsRequestDTOTestDataFactory.aValidDepositFundsRequest;
+
+/**
+ * Checks that no endpoint allocates more memory per request than its budget in allocation-budgets.properties, to catch
+ * changes that add garbage, and so GC pauses, to every request. Each endpoint is warmed up so that the JIT has compiled
+ * (and escape analysis has removed allocations from) the hot paths, then called repeatedly through MockMvc, which runs the
+ * whole request in the test thread so that the thread's allocation counter sees all of it.
+ * Run with {@code ./gradlew test --tests '*AllocationBudgetTest' -PrecordAllocationBudgets} to measure the budgets
+ * instead of checking them: the measured figures plus {@value #MARGIN_IN_PERCENT}% are written to
+ * build/allocation-budgets.properties, ready to be checked in.
+ */
+@SpringBootTest(properties = "logging.level.uk.gov.dhsc=info")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class AllocationBudgetTest {
+
+    private static final String BUDGETS_FILE = "/allocation-budgets.properties";
+    private static final int WARM_UP_REQUESTS = 5_000;
+    private static final int MEASURED_REQUESTS = 2_000;
+    private static final int MARGIN_IN_PERCENT = 10;
+    private static final long ROUND_UP_TO_BYTES = 1_000;
+    private static final Path RECORDED_BUDGETS_FILE = Paths.get("build", "allocation-budgets.properties");
+    private static final boolean RECORDING = Boolean.getBoolean("recordAllocationBudgets");
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN
+            = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Properties budgets = new Properties();
+    private final Map<String, Long> measuredBudgets = new TreeMap<>();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void loadBudgets() throws IOException {
+        try (InputStream inputStream = AllocationBudgetTest.class.getResourceAsStream(BUDGETS_FILE)) {
+            budgets.load(inputStream);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void shouldNotAllocateMoreThanBudgetPerRequest(String endpoint, RequestBuilder request) throws Exception {
+        //Given
+        assumeTrue(THREAD_MX_BEAN.isThreadAllocatedMemorySupported(), "Thread allocation measurement is not supported by this JVM");
+        THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+        assertThat(budgets).as("No allocation budget in %s for %s", BUDGETS_FILE, endpoint).containsKey(endpoint);
+        long budget = Long.parseLong(budgets.getProperty(endpoint));
+        performRequests(request, WARM_UP_REQUESTS);
+
+        //When
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        performRequests(request, MEASURED_REQUESTS);
+        long bytesPerRequest = (THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocatedBefore) / MEASURED_REQUESTS;
+
+        //Then
+        log.info("{} allocated {} bytes per request, budget {}", endpoint, bytesPerRequest, budget);
+        if (RECORDING) {
+            measuredBudgets.put(endpoint, withMargin(bytesPerRequest));
+            return;
+        }
+        assertThat(bytesPerRequest)
+                .as("Bytes allocated per request by %s, see %s", endpoint, BUDGETS_FILE)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    @AfterAll
+    void writeMeasuredBudgets() throws IOException {
+        if (!RECORDING || measuredBudgets.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(RECORDED_BUDGETS_FILE.getParent());
+        try (Writer writer = Files.newBufferedWriter(RECORDED_BUDGETS_FILE)) {
+            writer.write(String.format("# Measured by AllocationBudgetTest on Java %s (%s), plus %d%%%n",
+                    System.getProperty("java.version"), System.getProperty("java.vm.name"), MARGIN_IN_PERCENT));
+            for (Map.Entry<String, Long> budget : measuredBudgets.entrySet()) {
+                writer.write(budget.getKey() + "=" + budget.getValue() + System.lineSeparator());
+            }
+        }
+        log.info("Wrote measured allocation budgets to {}", RECORDED_BUDGETS_FILE.toAbsolutePath());
+    }
+
+    private static long withMargin(long bytesPerRequest) {
+        long withMargin = bytesPerRequest * (100 + MARGIN_IN_PERCENT) / 100;
+        return (withMargin / ROUND_UP_TO_BYTES + 1) * ROUND_UP_TO_BYTES;
+    }
+
+    private void performRequests(RequestBuilder request, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(request).andExpect(status().isOk());
+        }
+    }
+
+    private Stream<Arguments> endpoints() throws IOException {
+        return Stream.of(
+                Arguments.of("dwp.benefits", get("/v2/dwp/benefits").headers(aValidEligibilityHttpEntity().getHeaders())),
+                Arguments.of("cards.create", post("/v1/cards").contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aValidCardRequest()))),
+                Arguments.of("cards.balance", get("/v1/cards/9-allocation/balance")),
+                Arguments.of("cards.deposit", post("/v1/cards/9-allocation/deposit").contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aValidDepositFundsRequest()))),
+                Arguments.of("postcodes.lookup", get("/v1/postcodes/bs14tb")),
+                Arguments.of("postcodes.nearest", get("/v1/postcodes").param("lon", "-2.595721").param("lat", "51.455841")
+                        .param("limit", "10").param("radius", "2000")),
+                Arguments.of("postcodes.autocomplete", get("/v1/postcodes/BS1 4/autocomplete"))
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.dhsc.htbhf.smartstub.clock;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class SimulationClockTest {
+
+    private static final Instant SIMULATED_TIME = Instant.parse("2030-06-15T12:00:00Z");
+
+    private final SimulationClock clock = new SimulationClock();
+
+    @Test
+    void shouldStartAtSystemTimeRunningAtNormalSpeed() {
+        //When
+        Instant before = Instant.now();
+        Instant time = clock.instant();
+        Instant after = Instant.now();
+
+        //Then
+        assertThat(time).isBetween(before.minusMillis(1), after.plusMillis(1));
+        assertThat(clock.getSpeed()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStayAtSetTimeWhenFrozen() throws InterruptedException {
+        //Given
+        clock.set(SIMULATED_TIME, 0);
+
+        //When
+        Thread.sleep(20);
+
+        //Then
+        assertThat(clock.instant()).isEqualTo(SIMULATED_TIME);
+        assertThat(clock.millis()).isEqualTo(SIMULATED_TIME.toEpochMilli());
+        assertThat(clock.withZone(ZoneOffset.UTC).instant()).isEqualTo(SIMULATED_TIME);
+        assertThat(LocalDate.now(clock.withZone(ZoneOffset.UTC))).isEqualTo(LocalDate.of(2030, 6, 15));
+    }
+
+    @Test
+    void shouldRunAtGivenMultipleOfNormalSpeed() throws InterruptedException {
+        //Given
+        long start = System.nanoTime();
+        clock.set(SIMULATED_TIME, 10_000);
+
+        //When
+        Thread.sleep(50);
+
+        //Then
+        Duration simulatedElapsed = Duration.between(SIMULATED_TIME, clock.instant());
+        long maxElapsedNanos = System.nanoTime() - start;
+        assertThat(simulatedElapsed).isBetween(Duration.ofMillis(50 * 10_000), Duration.ofNanos(maxElapsedNanos * 10_000));
+    }
+
+    @Test
+    void shouldStopAtEndOfRangeRatherThanOverflow() throws InterruptedException {
+        //Given
+        Instant nearEndOfRange = Instant.parse("2262-04-11T00:00:00Z");
+        clock.set(nearEndOfRange, 100_000);
+
+        //When
+        Thread.sleep(1_000);
+
+        //Then
+        assertThat(clock.instant()).isAfter(nearEndOfRange);
+        assertThat(clock.millis()).isGreaterThan(nearEndOfRange.toEpochMilli());
+    }
+
+    @Test
+    void shouldCarryOnFromCurrentTimeWhenOnlySpeedIsSet() throws InterruptedException {
+        //Given
+        clock.set(SIMULATED_TIME, 0);
+
+        //When
+        clock.set(null, 2);
+        Thread.sleep(20);
+
+        //Then
+        assertThat(clock.instant()).isAfterOrEqualTo(SIMULATED_TIME.plusMillis(40));
+        assertThat(clock.getSpeed()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepNanoTimeMonotonicWhenTimeIsSetBack() {
+        //Given
+        long before = clock.nanoTime();
+
+        //When
+        clock.set(Instant.parse("2000-01-01T00:00:00Z"), 1);
+
+        //Then
+        assertThat(clock.nanoTime()).isGreaterThanOrEqualTo(before);
+        assertThat(clock.instant()).isBefore(Instant.parse("2000-01-02T00:00:00Z"));
+    }
+
+    @Test
+    void shouldResetToSystemTime() {
+        //Given
+        clock.set(SIMULATED_TIME, 100);
+
+        //When
+        clock.reset();
+
+        //Then
+        assertThat(Duration.between(Instant.now(), clock.instant()).abs()).isLessThan(Duration.ofSeconds(1));
+        assertThat(clock.getSpeed()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectNegativeSpeed() {
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> clock.set(SIMULATED_TIME, -1), IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessage("The speed of the clock must be zero or more, not -1.0");
+        assertThat(clock.getSpeed()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,97 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsRequestDTO;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccountSummary;
+import uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceSummary;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespaces;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CardSeedingControllerIntegrationTest {
+
+    private static final String NAMESPACE = "seeded-run";
+    private static final String ENDPOINT = "/admin/namespaces/" + NAMESPACE + "/cards";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private StubNamespaces stubNamespaces;
+
+    @AfterEach
+    void dropNamespace() {
+        stubNamespaces.drop(NAMESPACE);
+    }
+
+    @Test
+    void shouldSeedCardsThatCanBeUsed() {
+        //When
+        ResponseEntity<String> response = restTemplate.postForEntity(ENDPOINT + "?count=10000&seed=3", null, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("text/csv");
+        List<String> cardIds = response.getBody().lines().skip(1).collect(toList());
+        assertThat(cardIds).hasSize(10000).doesNotHaveDuplicates();
+        NamespaceSummary namespace = restTemplate.getForObject("/admin/namespaces/" + NAMESPACE, NamespaceSummary.class);
+        assertThat(namespace.getCardsCreated()).isEqualTo(10000);
+
+        String cardId = cardIds.stream().filter(id -> id.startsWith("9-")).findFirst().orElseThrow();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NAMESPACE_HEADER, NAMESPACE);
+        DepositFundsRequestDTO deposit = DepositFundsRequestDTO.builder().amountInPence(1240).reference("seeded").build();
+        ResponseEntity<DepositFundsResponse> depositResponse = restTemplate.exchange("/v1/cards/" + cardId + "/deposit", HttpMethod.POST,
+                new HttpEntity<>(deposit, headers), DepositFundsResponse.class);
+        assertThat(depositResponse.getStatusCode()).isEqualTo(OK);
+        CardAccountSummary cardAccount = restTemplate.getForObject("/admin/namespaces/" + NAMESPACE + "/cards/" + cardId, CardAccountSummary.class);
+        assertThat(cardAccount.isCreated()).isTrue();
+        assertThat(cardAccount.getDeposits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectMixWithOnlyCardErrors() {
+        //When
+        ResponseEntity<String> response = restTemplate.postForEntity(ENDPOINT + "?mix=CARD_ERROR:1", null, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(stubNamespaces.find(NAMESPACE)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectCountOverMaximum() {
+        //When
+        ResponseEntity<String> response = restTemplate.postForEntity(ENDPOINT + "?count=5000001", null, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("Count must not be more than 5000000");
+        assertThat(stubNamespaces.find(NAMESPACE)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectInvalidNamespace() {
+        //When
+        ResponseEntity<String> response = restTemplate.postForEntity("/admin/namespaces/not valid!/cards", null, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+}
@@ -0,0 +1,92 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsRequestDTO;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "deposit-journal.enabled=true",
+        "deposit-journal.segment-size-in-bytes=4096"
+})
+class DepositJournalControllerIntegrationTest {
+
+    private static final String ENDPOINT = "/admin/deposits";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldExportEveryDepositAsCsv() {
+        //Given
+        int deposits = 600;
+        List<String> referenceIds = new ArrayList<>();
+        for (int i = 0; i < deposits; i++) {
+            referenceIds.add(deposit("journal-csv", "1-card" + i, i, "Payment " + i).getReferenceId());
+        }
+
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity(ENDPOINT, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("text/csv");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(response.getBody().length());
+        assertThat(response.getBody().lines()).first().isEqualTo("timestamp,namespace,cardId,amountInPence,reference,referenceId");
+        List<String> lines = response.getBody().lines().filter(line -> line.contains(",journal-csv,")).collect(toList());
+        assertThat(lines).hasSize(deposits);
+        for (int i = 0; i < deposits; i++) {
+            assertThat(lines.get(i)).endsWith(",journal-csv,1-card" + i + "," + i + ",Payment " + i + "," + referenceIds.get(i));
+        }
+    }
+
+    @Test
+    void shouldExportDepositsAsNdjson() {
+        //Given
+        String referenceId = deposit("journal-ndjson", "1-card", 1860, "Payment, \"quoted\"").getReferenceId();
+
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity(ENDPOINT + "?format=ndjson", String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(response.getBody().lines().filter(line -> line.contains("\"namespace\":\"journal-ndjson\"")))
+                .hasSize(1)
+                .allMatch(line -> line.endsWith(",\"namespace\":\"journal-ndjson\",\"cardId\":\"1-card\",\"amountInPence\":1860,"
+                        + "\"reference\":\"Payment, \\\"quoted\\\"\",\"referenceId\":\"" + referenceId + "\"}"));
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity(ENDPOINT + "?format=xml", String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    private DepositFundsResponse deposit(String namespace, String cardId, int amountInPence, String reference) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NAMESPACE_HEADER, namespace);
+        DepositFundsRequestDTO request = DepositFundsRequestDTO.builder().amountInPence(amountInPence).reference(reference).build();
+        ResponseEntity<DepositFundsResponse> response = restTemplate.postForEntity("/v1/cards/" + cardId + "/deposit",
+                new HttpEntity<>(request, headers), DepositFundsResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        return response.getBody();
+    }
+}
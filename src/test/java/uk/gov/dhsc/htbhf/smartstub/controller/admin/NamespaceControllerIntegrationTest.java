@@ -0,0 +1,120 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccountSummary;
+import uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceSummary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.CardRequestDTOTestDataFactory.aValidCardRequest;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.DepositFundsRequestDTOTestDataFactory.aValidDepositFundsRequest;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class NamespaceControllerIntegrationTest {
+
+    private static final String ENDPOINT = "/admin/namespaces";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterEach
+    void dropNamespaces() {
+        restTemplate.delete(ENDPOINT + "/run-1");
+        restTemplate.delete(ENDPOINT + "/run-2");
+    }
+
+    @Test
+    void shouldKeepCardsOfEachTestRunSeparate() {
+        //Given
+        String cardId = createCard("run-1");
+        deposit("run-1", cardId);
+
+        //When
+        ResponseEntity<NamespaceSummary> first = restTemplate.getForEntity(ENDPOINT + "/run-1", NamespaceSummary.class);
+        ResponseEntity<CardAccountSummary> card = restTemplate.getForEntity(ENDPOINT + "/run-1/cards/" + cardId, CardAccountSummary.class);
+        createCard("run-2");
+        ResponseEntity<NamespaceSummary> second = restTemplate.getForEntity(ENDPOINT + "/run-2", NamespaceSummary.class);
+
+        //Then
+        assertThat(first.getStatusCode()).isEqualTo(OK);
+        assertThat(first.getBody().getCardsCreated()).isEqualTo(1);
+        assertThat(first.getBody().getDeposits()).isEqualTo(1);
+        assertThat(card.getStatusCode()).isEqualTo(OK);
+        assertThat(card.getBody().isCreated()).isTrue();
+        assertThat(card.getBody().getDepositedInPence()).isEqualTo((long) aValidDepositFundsRequest().getAmountInPence());
+        assertThat(second.getBody().getCardsCreated()).isEqualTo(1);
+        assertThat(second.getBody().getDeposits()).isZero();
+    }
+
+    @Test
+    void shouldStartNamespaceAfreshAfterDrop() {
+        //Given
+        String cardId = createCard("run-1");
+        long generation = restTemplate.getForObject(ENDPOINT + "/run-1", NamespaceSummary.class).getGeneration();
+
+        //When
+        ResponseEntity<Void> dropped = restTemplate.exchange(ENDPOINT + "/run-1", HttpMethod.DELETE, null, Void.class);
+        ResponseEntity<NamespaceSummary> afterDrop = restTemplate.getForEntity(ENDPOINT + "/run-1", NamespaceSummary.class);
+        createCard("run-1");
+        NamespaceSummary recreated = restTemplate.getForObject(ENDPOINT + "/run-1", NamespaceSummary.class);
+        ResponseEntity<CardAccountSummary> oldCard = restTemplate.getForEntity(ENDPOINT + "/run-1/cards/" + cardId, CardAccountSummary.class);
+
+        //Then
+        assertThat(dropped.getStatusCode()).isEqualTo(NO_CONTENT);
+        assertThat(afterDrop.getStatusCode()).isEqualTo(NOT_FOUND);
+        assertThat(recreated.getGeneration()).isGreaterThan(generation);
+        assertThat(recreated.getCardsCreated()).isEqualTo(1);
+        assertThat(oldCard.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenDroppingUnknownNamespace() {
+        //When
+        ResponseEntity<Void> response = restTemplate.exchange(ENDPOINT + "/unknown", HttpMethod.DELETE, null, Void.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    void shouldRejectInvalidTestRunId() {
+        //When
+        ResponseEntity<String> response = restTemplate.postForEntity("/v1/cards", withTestRunId("not valid!", aValidCardRequest()), String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    private String createCard(String testRunId) {
+        ResponseEntity<CreateCardResponse> response
+                = restTemplate.postForEntity("/v1/cards", withTestRunId(testRunId, aValidCardRequest()), CreateCardResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        return response.getBody().getCardAccountId();
+    }
+
+    private void deposit(String testRunId, String cardId) {
+        ResponseEntity<DepositFundsResponse> response = restTemplate.postForEntity("/v1/cards/" + cardId + "/deposit",
+                withTestRunId(testRunId, aValidDepositFundsRequest()), DepositFundsResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+    }
+
+    private static <T> HttpEntity<T> withTestRunId(String testRunId, T body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(NAMESPACE_HEADER, testRunId);
+        return new HttpEntity<>(body, headers);
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityAndEligibilityResponse;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClockSettings;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.TestConstants.SIMPSON_SURNAME;
+import static uk.gov.dhsc.htbhf.dwp.testhelper.HttpRequestTestDataFactory.anEligibilityHttpEntityWithNinoAndSurname;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SimulationClockControllerIntegrationTest {
+
+    private static final String ENDPOINT = "/admin/clock";
+    private static final Instant SIMULATED_TIME = Instant.parse("2030-06-15T12:00:00Z");
+    private static final String ONE_CHILD_UNDER_ONE_AND_ONE_UNDER_FOUR_NINO = "MC129999A";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterEach
+    void resetClock() {
+        restTemplate.delete(ENDPOINT);
+    }
+
+    @Test
+    void shouldGetSystemTimeByDefault() {
+        //When
+        ResponseEntity<SimulationClockSettings> response = restTemplate.getForEntity(ENDPOINT, SimulationClockSettings.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(Duration.between(Instant.now(), response.getBody().getTime()).abs()).isLessThan(Duration.ofSeconds(5));
+        assertThat(response.getBody().getSpeed()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFreezeClockAtGivenTime() {
+        //When
+        ResponseEntity<SimulationClockSettings> response = put(new SimulationClockSettings(SIMULATED_TIME, 0.0));
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isEqualTo(new SimulationClockSettings(SIMULATED_TIME, 0.0));
+        assertThat(restTemplate.getForObject(ENDPOINT, SimulationClockSettings.class).getTime()).isEqualTo(SIMULATED_TIME);
+    }
+
+    @Test
+    void shouldGiveChildrenDatesOfBirthRelativeToSimulatedDate() {
+        //Given
+        put(new SimulationClockSettings(SIMULATED_TIME, 0.0));
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> response = restTemplate.exchange("/v2/dwp/benefits", HttpMethod.GET,
+                anEligibilityHttpEntityWithNinoAndSurname(ONE_CHILD_UNDER_ONE_AND_ONE_UNDER_FOUR_NINO, SIMPSON_SURNAME), IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getDobOfChildrenUnder4()).containsExactlyInAnyOrder(LocalDate.of(2029, 12, 1), LocalDate.of(2027, 6, 1));
+    }
+
+    @Test
+    void shouldRejectNegativeSpeed() {
+        //When
+        ResponseEntity<String> response = restTemplate.exchange(ENDPOINT, HttpMethod.PUT,
+                new HttpEntity<>(new SimulationClockSettings(SIMULATED_TIME, -1.0)), String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(restTemplate.getForObject(ENDPOINT, SimulationClockSettings.class).getSpeed()).isEqualTo(1);
+    }
+
+    private ResponseEntity<SimulationClockSettings> put(SimulationClockSettings settings) {
+        return restTemplate.exchange(ENDPOINT, HttpMethod.PUT, new HttpEntity<>(settings), SimulationClockSettings.class);
+    }
+}
@@ -0,0 +1,138 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CardBalanceResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.settings.BalanceSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.FaultSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.RandomOutcomeSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.CardRequestDTOTestDataFactory.aCardRequestWithFirstName;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.NO_TOP_UP;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.PARTIAL;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome.IDENTITY_NOT_MATCHED;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome.MOBILE_NOT_HELD;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StubSettingsControllerIntegrationTest {
+
+    private static final String ENDPOINT = "/admin/settings";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterEach
+    void resetSettings() {
+        restTemplate.delete(ENDPOINT);
+    }
+
+    @Test
+    void shouldGetCurrentSettings() {
+        //When
+        ResponseEntity<StubSettings> response = restTemplate.getForEntity(ENDPOINT, StubSettings.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getBalances()).isEqualTo(new BalanceSettings(1239, 1860, 100000));
+        assertThat(response.getBody().getFirstNameScenarios()).containsEntry("notopup", NO_TOP_UP);
+    }
+
+    @Test
+    void shouldApplyNewBalancesAndScenariosToNextRequest() {
+        //Given
+        StubSettings settings = restTemplate.getForObject(ENDPOINT, StubSettings.class).toBuilder()
+                .balances(new BalanceSettings(100, 200, 5000))
+                .firstNameScenarios(Map.of("Bart", NO_TOP_UP))
+                .build();
+
+        //When
+        ResponseEntity<StubSettings> response = put(settings);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        CreateCardResponse createCardResponse = restTemplate.postForObject("/v1/cards", aCardRequestWithFirstName("Bart"), CreateCardResponse.class);
+        assertThat(createCardResponse.getCardAccountId()).startsWith("1-");
+        CardBalanceResponse balance = restTemplate.getForObject("/v1/cards/" + createCardResponse.getCardAccountId() + "/balance",
+                CardBalanceResponse.class);
+        assertThat(balance.getAvailableBalanceInPence()).isEqualTo(5000);
+    }
+
+    @Test
+    void shouldInjectFaults() {
+        //Given
+        StubSettings settings = restTemplate.getForObject(ENDPOINT, StubSettings.class).toBuilder()
+                .faults(new FaultSettings(100.0, 503))
+                .build();
+        put(settings);
+
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity("/v1/cards/9-abc/balance", String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings() {
+        //Given
+        StubSettings settings = restTemplate.getForObject(ENDPOINT, StubSettings.class).toBuilder()
+                .faults(new FaultSettings(150.0, 503))
+                .build();
+
+        //When
+        ResponseEntity<String> response = restTemplate.exchange(ENDPOINT, HttpMethod.PUT, new HttpEntity<>(settings), String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(restTemplate.getForObject(ENDPOINT, StubSettings.class).getFaults()).isEqualTo(FaultSettings.NONE);
+    }
+
+    @Test
+    void shouldRejectRandomOutcomesAddingUpToMoreThanOneHundred() {
+        //Given
+        StubSettings settings = restTemplate.getForObject(ENDPOINT, StubSettings.class).toBuilder()
+                .randomOutcomes(new RandomOutcomeSettings(Map.of(IDENTITY_NOT_MATCHED, 60.0, MOBILE_NOT_HELD, 50.0), Map.of(PARTIAL, 5.0), false))
+                .build();
+
+        //When
+        ResponseEntity<String> response = restTemplate.exchange(ENDPOINT, HttpMethod.PUT, new HttpEntity<>(settings), String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(restTemplate.getForObject(ENDPOINT, StubSettings.class).getRandomOutcomes()).isEqualTo(RandomOutcomeSettings.NONE);
+    }
+
+    @Test
+    void shouldResetToStartupSettings() {
+        //Given
+        StubSettings settings = restTemplate.getForObject(ENDPOINT, StubSettings.class).toBuilder()
+                .balances(new BalanceSettings(1, 2, 3))
+                .build();
+        put(settings);
+
+        //When
+        ResponseEntity<StubSettings> response = restTemplate.exchange(ENDPOINT, HttpMethod.DELETE, null, StubSettings.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getBalances()).isEqualTo(new BalanceSettings(1239, 1860, 100000));
+    }
+
+    private ResponseEntity<StubSettings> put(StubSettings settings) {
+        return restTemplate.exchange(ENDPOINT, HttpMethod.PUT, new HttpEntity<>(settings), StubSettings.class);
+    }
+}
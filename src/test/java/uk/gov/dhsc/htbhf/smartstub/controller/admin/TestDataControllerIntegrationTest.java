@@ -0,0 +1,61 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.admin;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TestDataControllerIntegrationTest {
+
+    private static final String ENDPOINT = "/admin/test-data";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldStreamReproducibleCsvRecords() {
+        //Given
+        String query = ENDPOINT + "?count=10000&seed=7&mix=ELIGIBLE_ONE_CHILD:70,IDENTITY_NOT_MATCHED:5,CARD_ERROR:2";
+
+        //When
+        ResponseEntity<String> first = restTemplate.getForEntity(query, String.class);
+        ResponseEntity<String> second = restTemplate.getForEntity(query, String.class);
+
+        //Then
+        assertThat(first.getStatusCode()).isEqualTo(OK);
+        assertThat(first.getHeaders().getContentType().toString()).startsWith("text/csv");
+        assertThat(first.getBody().lines()).hasSize(10001)
+                .first().isEqualTo("scenario,nino,firstName,surname,dateOfBirth,addressLine1,townOrCity,postcode,emailAddress,mobilePhoneNumber");
+        assertThat(first.getBody().lines().skip(1))
+                .allMatch(line -> line.startsWith("ELIGIBLE_ONE_CHILD,") || line.startsWith("IDENTITY_NOT_MATCHED,X")
+                        || line.startsWith("CARD_ERROR,"));
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+    }
+
+    @Test
+    void shouldStreamNdjsonRecords() {
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity(ENDPOINT + "?count=3&format=ndjson&mix=PARTIAL:1", String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(response.getBody().lines()).hasSize(3)
+                .allMatch(line -> line.startsWith("{\"scenario\":\"PARTIAL\",") && line.contains("\"firstName\":\"Partial\""));
+    }
+
+    @Test
+    void shouldRejectUnknownScenario() {
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity(ENDPOINT + "?mix=NOT_A_SCENARIO:1", String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+}
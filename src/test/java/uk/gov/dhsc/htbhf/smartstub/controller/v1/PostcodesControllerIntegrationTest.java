@@ -4,9 +4,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.NearestPostcode;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.PostcodesIoResponse;
 
 import java.net.URI;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpStatus.OK;
@@ -16,6 +21,12 @@ import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDataFactory.postcod
 public class PostcodesControllerIntegrationTest {
 
     private static final URI ENDPOINT = URI.create("/v1/postcodes/");
+    private static final ParameterizedTypeReference<PostcodesIoResponse<List<NearestPostcode>>> NEAREST_POSTCODES_TYPE
+            = new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<PostcodesIoResponse<List<String>>> AUTOCOMPLETE_TYPE
+            = new ParameterizedTypeReference<>() {
+            };
 
     @Autowired
     private TestRestTemplate restTemplate;
@@ -29,4 +40,57 @@ public class PostcodesControllerIntegrationTest {
         assertThat(addressDataResponse.getStatusCode()).isEqualTo(OK);
         assertThat(addressDataResponse.getBody()).isEqualTo(postcodeData(postcode));
     }
+
+    @Test
+    void shouldGetNearestPostcodes() {
+        String query = "/v1/postcodes?lon=-2.595721&lat=51.455841&limit=3&radius=2000";
+
+        ResponseEntity<PostcodesIoResponse<List<NearestPostcode>>> response
+                = restTemplate.exchange(query, HttpMethod.GET, null, NEAREST_POSTCODES_TYPE);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getStatus()).isEqualTo(200);
+        List<NearestPostcode> result = response.getBody().getResult();
+        assertThat(result).isNotEmpty().hasSizeLessThanOrEqualTo(3);
+        assertThat(result.get(0).getPostcode()).isEqualTo("BS1 4TB");
+        assertThat(result.get(0).getDistance()).isZero();
+        assertThat(result).isSortedAccordingTo((first, second) -> Double.compare(first.getDistance(), second.getDistance()));
+    }
+
+    @Test
+    void shouldReturnNullResultWhenNoPostcodesWithinRadius() {
+        String query = "/v1/postcodes?lon=-30.0&lat=10.0";
+
+        ResponseEntity<PostcodesIoResponse<List<NearestPostcode>>> response
+                = restTemplate.exchange(query, HttpMethod.GET, null, NEAREST_POSTCODES_TYPE);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getStatus()).isEqualTo(200);
+        assertThat(response.getBody().getResult()).isNull();
+    }
+
+    @Test
+    void shouldAutocompletePostcode() {
+        String query = "/v1/postcodes/BS1 4/autocomplete?limit=20";
+
+        ResponseEntity<PostcodesIoResponse<List<String>>> response = restTemplate.exchange(query, HttpMethod.GET, null, AUTOCOMPLETE_TYPE);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getStatus()).isEqualTo(200);
+        assertThat(response.getBody().getResult())
+                .isNotEmpty()
+                .hasSizeLessThanOrEqualTo(20)
+                .allMatch(postcode -> postcode.replace(" ", "").startsWith("BS14"))
+                .isSortedAccordingTo((first, second) -> first.replace(" ", "").compareTo(second.replace(" ", "")));
+    }
+
+    @Test
+    void shouldReturnNullResultWhenNoPostcodesMatchPartialPostcode() {
+        String query = "/v1/postcodes/QQ1/autocomplete";
+
+        ResponseEntity<PostcodesIoResponse<List<String>>> response = restTemplate.exchange(query, HttpMethod.GET, null, AUTOCOMPLETE_TYPE);
+
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody().getResult()).isNull();
+    }
 }
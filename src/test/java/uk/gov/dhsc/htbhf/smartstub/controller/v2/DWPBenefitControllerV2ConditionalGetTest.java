@@ -0,0 +1,83 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.v2;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityAndEligibilityResponse;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.TestConstants.HOMER_NINO;
+import static uk.gov.dhsc.htbhf.TestConstants.SIMPSON_SURNAME;
+import static uk.gov.dhsc.htbhf.dwp.testhelper.HttpRequestTestDataFactory.anEligibilityHttpEntityWithNinoAndSurname;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "dwp.household-identifier-mode=NINO_HASH")
+class DWPBenefitControllerV2ConditionalGetTest {
+
+    private static final URI ENDPOINT = URI.create("/v2/dwp/benefits");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldReturnIdenticalResponsesForIdenticalRequests() {
+        //Given
+        HttpEntity request = anEligibilityHttpEntityWithNinoAndSurname(HOMER_NINO, SIMPSON_SURNAME);
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> first = restTemplate.exchange(ENDPOINT, HttpMethod.GET, request,
+                IdentityAndEligibilityResponse.class);
+        ResponseEntity<IdentityAndEligibilityResponse> second = restTemplate.exchange(ENDPOINT, HttpMethod.GET, request,
+                IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getBody().getHouseholdIdentifier()).isNotBlank();
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(first.getHeaders().getETag()).isNotBlank();
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() {
+        //Given
+        HttpEntity request = anEligibilityHttpEntityWithNinoAndSurname(HOMER_NINO, SIMPSON_SURNAME);
+        String eTag = restTemplate.exchange(ENDPOINT, HttpMethod.GET, request, String.class).getHeaders().getETag();
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.setIfNoneMatch(eTag);
+
+        //When
+        ResponseEntity<String> responseEntity = restTemplate.exchange(ENDPOINT, HttpMethod.GET, new HttpEntity<>(request.getBody(), headers),
+                String.class);
+
+        //Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(responseEntity.getBody()).isNull();
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo(eTag);
+    }
+
+    @Test
+    void shouldReturnFullResponseWhenETagDoesNotMatch() {
+        //Given
+        HttpEntity request = anEligibilityHttpEntityWithNinoAndSurname(HOMER_NINO, SIMPSON_SURNAME);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.setIfNoneMatch("\"0123456789abcdef\"");
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> responseEntity = restTemplate.exchange(ENDPOINT, HttpMethod.GET,
+                new HttpEntity<>(request.getBody(), headers), IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody().getHouseholdIdentifier()).isNotBlank();
+    }
+}
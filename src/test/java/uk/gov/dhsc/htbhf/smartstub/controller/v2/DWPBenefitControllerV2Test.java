@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -43,6 +44,9 @@ class DWPBenefitControllerV2Test {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Test
     void shouldReturnOkResponseWithAllMatchResponse() {
         //Given
@@ -58,6 +62,21 @@ class DWPBenefitControllerV2Test {
         assertIsEqualIgnoringHouseholdIdentifier(responseEntity.getBody(), expected);
     }
 
+    @Test
+    void shouldNotAddETagWhenHouseholdIdentifierIsRandom() {
+        //Given
+        HttpEntity request = aValidEligibilityHttpEntity();
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> responseEntity = restTemplate.exchange(ENDPOINT,
+                HttpMethod.GET, request, IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(applicationContext.containsBean("eligibilityEtagFilter")).isFalse();
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getETag()).isNull();
+    }
+
     @Test
     void shouldReturnOkResponseWithIdentityStatusNotMatchedResponse() {
         //Given - making sure we test that the NINO is used from the request
@@ -0,0 +1,101 @@
+package uk.gov.dhsc.htbhf.smartstub.controller.v2;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityAndEligibilityResponse;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.QualifyingBenefits;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.NinoFixturesSummary;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.TestConstants.SIMPSON_SURNAME;
+import static uk.gov.dhsc.htbhf.dwp.testhelper.HttpRequestTestDataFactory.anEligibilityHttpEntityWithNinoAndSurname;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "dwp.fixtures.file=src/test/resources/nino-fixtures.csv")
+class NinoFixturesIntegrationTest {
+
+    private static final URI ENDPOINT = URI.create("/v2/dwp/benefits");
+    private static final URI ADMIN_ENDPOINT = URI.create("/admin/nino-fixtures");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldReturnFixtureInPlaceOfRuleOutcome() {
+        //Given
+        HttpEntity request = anEligibilityHttpEntityWithNinoAndSurname("AB123456C", SIMPSON_SURNAME);
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> responseEntity = restTemplate.exchange(ENDPOINT,
+                HttpMethod.GET, request, IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        IdentityAndEligibilityResponse response = responseEntity.getBody();
+        assertThat(response.getIdentityStatus()).isEqualTo(IdentityOutcome.MATCHED);
+        assertThat(response.getEligibilityStatus()).isEqualTo(EligibilityOutcome.NOT_CONFIRMED);
+        assertThat(response.getQualifyingBenefits()).isEqualTo(QualifyingBenefits.NOT_SET);
+        assertThat(response.getAddressLine1Match()).isEqualTo(VerificationOutcome.NOT_SET);
+        assertThat(response.getHouseholdIdentifier()).isEmpty();
+        assertThat(response.getDobOfChildrenUnder4()).isEmpty();
+    }
+
+    @Test
+    void shouldReturnVerificationOutcomesFromFixtureForMatchedAndConfirmedNino() {
+        //Given
+        HttpEntity request = anEligibilityHttpEntityWithNinoAndSurname("MA123456C", SIMPSON_SURNAME);
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> responseEntity = restTemplate.exchange(ENDPOINT,
+                HttpMethod.GET, request, IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        IdentityAndEligibilityResponse response = responseEntity.getBody();
+        assertThat(response.getIdentityStatus()).isEqualTo(IdentityOutcome.MATCHED);
+        assertThat(response.getEligibilityStatus()).isEqualTo(EligibilityOutcome.CONFIRMED);
+        assertThat(response.getQualifyingBenefits()).isEqualTo(QualifyingBenefits.UNIVERSAL_CREDIT);
+        assertThat(response.getAddressLine1Match()).isEqualTo(VerificationOutcome.NOT_MATCHED);
+        assertThat(response.getPostcodeMatch()).isEqualTo(VerificationOutcome.MATCHED);
+        assertThat(response.getMobilePhoneMatch()).isEqualTo(VerificationOutcome.NOT_HELD);
+        assertThat(response.getEmailAddressMatch()).isEqualTo(VerificationOutcome.MATCHED);
+        assertThat(response.getHouseholdIdentifier()).isNotBlank();
+    }
+
+    @Test
+    void shouldUseRulesForNinoWithoutFixture() {
+        //Given
+        HttpEntity request = anEligibilityHttpEntityWithNinoAndSurname("XA123456D", SIMPSON_SURNAME);
+
+        //When
+        ResponseEntity<IdentityAndEligibilityResponse> responseEntity = restTemplate.exchange(ENDPOINT,
+                HttpMethod.GET, request, IdentityAndEligibilityResponse.class);
+
+        //Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody().getIdentityStatus()).isEqualTo(IdentityOutcome.NOT_MATCHED);
+    }
+
+    @Test
+    void shouldRebuildFixtures() {
+        //When
+        ResponseEntity<NinoFixturesSummary> response = restTemplate.postForEntity(ADMIN_ENDPOINT + "/rebuild", null, NinoFixturesSummary.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getFile()).isEqualTo("src/test/resources/nino-fixtures.csv");
+        assertThat(response.getBody().getNinos()).isEqualTo(2);
+        assertThat(response.getBody().getDistinctFixtures()).isEqualTo(2);
+        assertThat(restTemplate.getForObject(ADMIN_ENDPOINT, NinoFixturesSummary.class)).isEqualTo(response.getBody());
+    }
+}
@@ -0,0 +1,65 @@
+package uk.gov.dhsc.htbhf.smartstub.factory.v1;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeDataset;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.generatePostcodeDataset;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.loadPostcodeDataset;
+
+class PostcodeDatasetFactoryTest {
+
+    @Test
+    void shouldGenerateUniqueValidPostcodes() {
+        //When
+        PostcodeDataset dataset = generatePostcodeDataset(50_000, 1);
+        //Then
+        assertThat(dataset.size()).isEqualTo(50_000);
+        assertThat(dataset.getPostcode(0)).isEqualTo("BS1 4TB");
+        Set<String> postcodes = new HashSet<>();
+        for (int i = 0; i < dataset.size(); i++) {
+            String postcode = dataset.getPostcode(i);
+            assertThat(postcode).matches("^[A-Z]{1,2}[0-9]{1,2} [0-9][A-Z]{2}$");
+            assertThat(dataset.getLongitude(i)).isBetween(-6.0, 2.0);
+            assertThat(dataset.getLatitude(i)).isBetween(49.9, 58.7);
+            postcodes.add(postcode);
+        }
+        assertThat(postcodes).hasSize(dataset.size());
+    }
+
+    @Test
+    void shouldGenerateSameDatasetForSameSeed() {
+        //When
+        PostcodeDataset first = generatePostcodeDataset(1000, 7);
+        PostcodeDataset second = generatePostcodeDataset(1000, 7);
+        //Then
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(second.getPostcode(i)).isEqualTo(first.getPostcode(i));
+            assertThat(second.getLongitude(i)).isEqualTo(first.getLongitude(i));
+            assertThat(second.getLatitude(i)).isEqualTo(first.getLatitude(i));
+        }
+    }
+
+    @Test
+    void shouldLoadDatasetFromCsv() throws IOException {
+        //Given
+        Path csv = Files.createTempFile("postcodes", ".csv");
+        csv.toFile().deleteOnExit();
+        Files.write(csv, List.of("postcode,longitude,latitude", "bs1 4tb,-2.595721,51.455841", "", "SW1A1AA,-0.141588,51.501009"));
+        //When
+        PostcodeDataset dataset = loadPostcodeDataset(csv);
+        //Then
+        assertThat(dataset.size()).isEqualTo(2);
+        assertThat(dataset.getPostcode(0)).isEqualTo("BS1 4TB");
+        assertThat(dataset.getPostcode(1)).isEqualTo("SW1A 1AA");
+        assertThat(dataset.getLongitude(1)).isEqualTo(-0.141588);
+        assertThat(dataset.getLatitude(1)).isEqualTo(51.501009);
+    }
+}
@@ -0,0 +1,257 @@
+package uk.gov.dhsc.htbhf.smartstub.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@Slf4j
+class IdempotencyCacheTest {
+
+    // The heap retained by each entry, excluding the claim IDs and responses, which are allocated before the measurement
+    // starts. Measured by this test at 163 to 175 bytes on Java 11.0.21 (OpenJDK 64-Bit Server VM, G1, compressed oops),
+    // plus 10%. That agrees with the object graph: a 56 byte Caffeine node, a 32 byte key, a 24 byte future and a 32 byte
+    // map node, plus around 20 bytes of the map's table and the frequency sketch.
+    private static final long BUDGET_IN_BYTES_PER_ENTRY = 192;
+    private static final int MEASURED_ENTRIES = 100_000;
+    private static final int MAX_GCS = 10;
+
+    private final IdempotencyCache cache = new IdempotencyCache(true, 1000, 60, new SimpleMeterRegistry());
+    private final StubNamespace namespace = new StubNamespace("test", 1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void shouldReturnOriginalResponseToRepeatedCreateCard() {
+        //When
+        CreateCardResponse first = cache.createCardOnce(namespace, "claim-1", this::newCard);
+        CreateCardResponse second = cache.createCardOnce(namespace, "claim-1", this::newCard);
+        CreateCardResponse otherClaim = cache.createCardOnce(namespace, "claim-2", this::newCard);
+
+        //Then
+        assertThat(second).isSameAs(first);
+        assertThat(otherClaim).isNotEqualTo(first);
+        assertThat(calls).hasValue(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReturnOriginalResponseToRepeatedDepositToSameCard() {
+        //When
+        DepositFundsResponse first = cache.depositFundsOnce(namespace, "9-card", "ref-1", this::newDeposit);
+        DepositFundsResponse second = cache.depositFundsOnce(namespace, "9-card", "ref-1", this::newDeposit);
+        DepositFundsResponse otherCard = cache.depositFundsOnce(namespace, "9-other-card", "ref-1", this::newDeposit);
+
+        //Then
+        assertThat(second).isSameAs(first);
+        assertThat(otherCard).isNotEqualTo(first);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void shouldForgetRequestsWhenNamespaceIsReset() {
+        //Given
+        StubNamespace resetNamespace = new StubNamespace("test", 2);
+        CreateCardResponse first = cache.createCardOnce(namespace, "claim-1", this::newCard);
+
+        //When
+        CreateCardResponse afterReset = cache.createCardOnce(resetNamespace, "claim-1", this::newCard);
+
+        //Then
+        assertThat(afterReset).isNotEqualTo(first);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotRememberFailedRequests() {
+        //Given
+        RuntimeException thrown = catchThrowableOfType(() -> cache.createCardOnce(namespace, "claim-1", () -> {
+            throw new RuntimeException("Card error");
+        }), RuntimeException.class);
+
+        //When
+        CreateCardResponse retry = cache.createCardOnce(namespace, "claim-1", this::newCard);
+
+        //Then
+        assertThat(thrown).hasMessage("Card error");
+        assertThat(retry).isNotNull();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void shouldCreateOneCardForConcurrentRetries() throws Exception {
+        //Given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CreateCardResponse>> responses = new ArrayList<>();
+
+        //When
+        for (int i = 0; i < threads; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return cache.createCardOnce(namespace, "claim-1", this::newCard);
+            }));
+        }
+        start.countDown();
+
+        //Then
+        CreateCardResponse first = responses.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<CreateCardResponse> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(calls).hasValue(1);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldNotBlockOtherKeysWhileHandlingRequest() throws Exception {
+        //Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<CreateCardResponse> slowResponse = executor.submit(() -> cache.createCardOnce(namespace, "claim-1", () -> {
+            handling.countDown();
+            awaitQuietly(finish);
+            return newCard();
+        }));
+        handling.await(10, TimeUnit.SECONDS);
+
+        //When
+        CreateCardResponse otherClaim = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> cache.createCardOnce(namespace, "claim-2", this::newCard));
+
+        //Then
+        assertThat(otherClaim).isNotNull();
+        assertThat(slowResponse.isDone()).isFalse();
+        finish.countDown();
+        assertThat(slowResponse.get(10, TimeUnit.SECONDS)).isNotEqualTo(otherClaim);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldHandleWaitingRequestAfreshWhenFirstFails() throws Exception {
+        //Given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        Future<CreateCardResponse> failingResponse = executor.submit(() -> cache.createCardOnce(namespace, "claim-1", () -> {
+            handling.countDown();
+            awaitQuietly(fail);
+            throw new RuntimeException("Card error");
+        }));
+        handling.await(10, TimeUnit.SECONDS);
+
+        //When
+        Future<CreateCardResponse> waitingResponse = executor.submit(() -> cache.createCardOnce(namespace, "claim-1", this::newCard));
+        // Give the second request time to start waiting for the first
+        Thread.sleep(100);
+        fail.countDown();
+
+        //Then
+        assertThat(waitingResponse.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(catchThrowableOfType(() -> failingResponse.get(10, TimeUnit.SECONDS), ExecutionException.class))
+                .hasMessageContaining("Card error");
+        assertThat(calls).hasValue(1);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldHandleEveryRequestWhenDisabled() {
+        //Given
+        IdempotencyCache disabledCache = new IdempotencyCache(false, 1000, 60, new SimpleMeterRegistry());
+
+        //When
+        CreateCardResponse first = disabledCache.createCardOnce(namespace, "claim-1", this::newCard);
+        CreateCardResponse second = disabledCache.createCardOnce(namespace, "claim-1", this::newCard);
+
+        //Then
+        assertThat(disabledCache.isEnabled()).isFalse();
+        assertThat(second).isNotEqualTo(first);
+        assertThat(calls).hasValue(2);
+        assertThat(disabledCache.size()).isZero();
+    }
+
+    @Test
+    void shouldRetainNoMoreThanBudgetPerEntry() throws Exception {
+        //Given
+        IdempotencyCache largeCache = new IdempotencyCache(true, MEASURED_ENTRIES, 60, new SimpleMeterRegistry());
+        String[] claimIds = new String[MEASURED_ENTRIES];
+        for (int i = 0; i < MEASURED_ENTRIES; i++) {
+            claimIds[i] = UUID.randomUUID().toString();
+        }
+        CreateCardResponse response = newCard();
+        long usedBefore = usedHeapAfterGc();
+
+        //When
+        for (String claimId : claimIds) {
+            largeCache.createCardOnce(namespace, claimId, () -> response);
+        }
+        long usedAfter = usedHeapAfterGc();
+
+        //Then
+        long bytesPerEntry = (usedAfter - usedBefore) / MEASURED_ENTRIES;
+        log.info("Idempotency cache retained {} bytes per entry, budget {}", bytesPerEntry, BUDGET_IN_BYTES_PER_ENTRY);
+        assertThat(largeCache.size()).isEqualTo(MEASURED_ENTRIES);
+        assertThat(claimIds).hasSize(MEASURED_ENTRIES);
+        assertThat(bytesPerEntry).isLessThanOrEqualTo(BUDGET_IN_BYTES_PER_ENTRY);
+    }
+
+    // Runs GCs until the heap in use stops shrinking, so the figure is what is reachable rather than garbage yet to be
+    // collected. The cache's maintenance runs asynchronously, so this also gives it time to finish.
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_GCS; i++) {
+            System.gc();
+            Thread.sleep(100);
+            long usedAfterGc = memoryMXBean.getHeapMemoryUsage().getUsed();
+            if (usedAfterGc >= used) {
+                return Math.min(used, usedAfterGc);
+            }
+            used = usedAfterGc;
+        }
+        return used;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CreateCardResponse newCard() {
+        calls.incrementAndGet();
+        return CreateCardResponse.builder()
+                .cardAccountId(UUID.randomUUID().toString())
+                .build();
+    }
+
+    private DepositFundsResponse newDeposit() {
+        calls.incrementAndGet();
+        return DepositFundsResponse.builder()
+                .referenceId(UUID.randomUUID().toString())
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.dhsc.htbhf.smartstub.idempotency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CardRequestDTO;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsRequestDTO;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceSummary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.CardRequestDTOTestDataFactory.aValidCardRequest;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.DepositFundsRequestDTOTestDataFactory.aValidDepositFundsRequest;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "idempotency.enabled=true")
+class IdempotencyIntegrationTest {
+
+    private static final String NAMESPACES_ENDPOINT = "/admin/namespaces";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterEach
+    void dropNamespaces() {
+        restTemplate.delete(NAMESPACES_ENDPOINT + "/retry-run");
+        restTemplate.delete(NAMESPACES_ENDPOINT + "/other-run");
+    }
+
+    @Test
+    void shouldReturnOriginalResponsesToRetriedRequests() {
+        //Given
+        CardRequestDTO cardRequest = aValidCardRequest();
+        DepositFundsRequestDTO depositRequest = aValidDepositFundsRequest();
+
+        //When
+        ResponseEntity<CreateCardResponse> card = createCard("retry-run", cardRequest);
+        ResponseEntity<CreateCardResponse> retriedCard = createCard("retry-run", cardRequest);
+        String cardId = card.getBody().getCardAccountId();
+        ResponseEntity<DepositFundsResponse> deposit = deposit("retry-run", cardId, depositRequest);
+        ResponseEntity<DepositFundsResponse> retriedDeposit = deposit("retry-run", cardId, depositRequest);
+        NamespaceSummary summary = restTemplate.getForObject(NAMESPACES_ENDPOINT + "/retry-run", NamespaceSummary.class);
+
+        //Then
+        assertThat(card.getStatusCode()).isEqualTo(OK);
+        assertThat(retriedCard.getStatusCode()).isEqualTo(OK);
+        assertThat(retriedCard.getBody()).isEqualTo(card.getBody());
+        assertThat(deposit.getStatusCode()).isEqualTo(OK);
+        assertThat(retriedDeposit.getBody()).isEqualTo(deposit.getBody());
+        assertThat(summary.getCardsCreated()).isEqualTo(1);
+        assertThat(summary.getDeposits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepRequestsOfEachTestRunSeparate() {
+        //Given
+        CardRequestDTO cardRequest = aValidCardRequest();
+
+        //When
+        ResponseEntity<CreateCardResponse> card = createCard("retry-run", cardRequest);
+        ResponseEntity<CreateCardResponse> otherRunCard = createCard("other-run", cardRequest);
+
+        //Then
+        assertThat(otherRunCard.getStatusCode()).isEqualTo(OK);
+        assertThat(otherRunCard.getBody()).isNotEqualTo(card.getBody());
+    }
+
+    private ResponseEntity<CreateCardResponse> createCard(String namespace, CardRequestDTO cardRequest) {
+        return restTemplate.exchange("/v1/cards", HttpMethod.POST, new HttpEntity<>(cardRequest, namespaceHeader(namespace)), CreateCardResponse.class);
+    }
+
+    private ResponseEntity<DepositFundsResponse> deposit(String namespace, String cardId, DepositFundsRequestDTO depositRequest) {
+        return restTemplate.exchange("/v1/cards/" + cardId + "/deposit", HttpMethod.POST, new HttpEntity<>(depositRequest, namespaceHeader(namespace)),
+                DepositFundsResponse.class);
+    }
+
+    private static HttpHeaders namespaceHeader(String namespace) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(NAMESPACE_HEADER, namespace);
+        return headers;
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.OK;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jfr.recording.enabled=true",
+        "management.endpoints.web.exposure.include=health,info,metrics,jfr"
+})
+class JfrEndpointIntegrationTest {
+
+    private static final String ENDPOINT = "/actuator/jfr";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JfrRecorder jfrRecorder;
+
+    @AfterEach
+    void stopRecording() {
+        jfrRecorder.stop();
+    }
+
+    @Test
+    void shouldStartStopAndDownloadRecording() {
+        //Given
+        ResponseEntity<JsonNode> started = restTemplate.postForEntity(ENDPOINT, Map.of("profile", "default", "durationInSeconds", 30), JsonNode.class);
+        ResponseEntity<byte[]> downloadWhileRunning = restTemplate.getForEntity(ENDPOINT, byte[].class);
+        ResponseEntity<JsonNode> startedAgain = restTemplate.postForEntity(ENDPOINT, Map.of(), JsonNode.class);
+
+        //When
+        restTemplate.delete(ENDPOINT);
+        ResponseEntity<byte[]> download = restTemplate.getForEntity(ENDPOINT, byte[].class);
+
+        //Then
+        assertThat(started.getStatusCode()).isEqualTo(OK);
+        assertThat(started.getBody().path("state").asText()).isEqualTo("RUNNING");
+        assertThat(started.getBody().path("profile").asText()).isEqualTo("default");
+        assertThat(started.getBody().path("durationInSeconds").asLong()).isEqualTo(30);
+        assertThat(downloadWhileRunning.getStatusCode()).isEqualTo(CONFLICT);
+        assertThat(startedAgain.getStatusCode()).isEqualTo(CONFLICT);
+        assertThat(download.getStatusCode()).isEqualTo(OK);
+        assertThat(new String(download.getBody(), 0, 3)).isEqualTo("FLR");
+    }
+
+    @Test
+    void shouldRejectUnknownProfile() {
+        //When
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(ENDPOINT, Map.of("profile", "everything"), JsonNode.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(jfrRecorder.isRunning()).isFalse();
+    }
+}
@@ -0,0 +1,104 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JfrEventMetrics metrics = new JfrEventMetrics(meterRegistry, Paths.get(System.getProperty("java.io.tmpdir")), Duration.ofMillis(200));
+
+    @AfterEach
+    void close() {
+        metrics.close();
+    }
+
+    @Test
+    void shouldRecordGarbageCollectionPausesAndSafepoints() throws IOException {
+        //Given
+        System.gc();
+
+        //When
+        metrics.poll();
+
+        //Then
+        assertThat(meterRegistry.find("jvm.jfr.gc.pause").timers()).isNotEmpty();
+        assertThat(meterRegistry.find("jvm.jfr.safepoint.sync").timer()).isNotNull();
+        assertThat(meterRegistry.find("jvm.jfr.safepoint.operation").timers()).isNotEmpty();
+    }
+
+    @Test
+    void shouldNotRecordSameEventTwice() throws IOException {
+        //Given
+        System.gc();
+        metrics.poll();
+        long collections = countGarbageCollections();
+
+        //When
+        metrics.poll();
+
+        //Then
+        assertThat(countGarbageCollections()).isEqualTo(collections);
+    }
+
+    @Test
+    void shouldCountBytesAllocated() throws IOException, InterruptedException {
+        //Given
+        List<byte[]> allocations = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            allocations.add(new byte[10_000]);
+        }
+        // Allocation statistics are only recorded once every interval
+        Thread.sleep(500);
+
+        //When
+        metrics.poll();
+
+        //Then
+        assertThat(allocations).hasSize(1000);
+        assertThat(meterRegistry.get("jvm.jfr.allocated").counter().count()).isGreaterThan(10_000_000);
+    }
+
+    @Test
+    void shouldStopTrackingAllocationOfThreadsThatHaveEnded() throws IOException, InterruptedException {
+        //Given
+        Thread thread = new Thread(() -> sleep(500));
+        thread.start();
+        Thread.sleep(400);
+        metrics.poll();
+        boolean trackedWhileRunning = metrics.isTrackingThread(thread.getId());
+        thread.join();
+        // The recording only keeps events for three intervals
+        Thread.sleep(1000);
+
+        //When
+        metrics.poll();
+
+        //Then
+        assertThat(trackedWhileRunning).isTrue();
+        assertThat(metrics.isTrackingThread(thread.getId())).isFalse();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long countGarbageCollections() {
+        return meterRegistry.find("jvm.jfr.gc.pause").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
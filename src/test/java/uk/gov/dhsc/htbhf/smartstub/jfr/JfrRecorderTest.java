@@ -0,0 +1,111 @@
+package uk.gov.dhsc.htbhf.smartstub.jfr;
+
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class JfrRecorderTest {
+
+    private final JfrRecorder recorder = new JfrRecorder(Paths.get(System.getProperty("java.io.tmpdir")), Duration.ofMinutes(1));
+
+    @AfterEach
+    void close() {
+        recorder.close();
+    }
+
+    @Test
+    void shouldRecordUntilStopped() throws IOException {
+        //Given
+        recorder.start("default", Duration.ofMinutes(5));
+
+        //When
+        JfrRecordingStatus status = recorder.stop().orElseThrow();
+
+        //Then
+        // A recording with a destination is closed once it has been written to it
+        assertThat(status.getState()).isEqualTo("CLOSED");
+        assertThat(status.getProfile()).isEqualTo("default");
+        assertThat(status.getDurationInSeconds()).isEqualTo(60);
+        Path file = recorder.getFinishedRecording().orElseThrow();
+        assertThat(new String(Files.readAllBytes(file), 0, 3, "US-ASCII")).isEqualTo("FLR");
+        assertThat(status.getSizeInBytes()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void shouldNotRecordEnvironmentVariablesOrSystemProperties() throws IOException {
+        //Given
+        recorder.start("default", Duration.ofMinutes(1));
+
+        //When
+        recorder.stop();
+
+        //Then
+        Path file = recorder.getFinishedRecording().orElseThrow();
+        assertThat(RecordingFile.readAllEvents(file))
+                .extracting(event -> event.getEventType().getName())
+                .isNotEmpty()
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+    }
+
+    @Test
+    void shouldStopWhenDurationHasPassed() throws InterruptedException {
+        //Given
+        recorder.start("profile", Duration.ofSeconds(1));
+        long start = System.nanoTime();
+
+        //When
+        while (recorder.isRunning() && System.nanoTime() - start < 10_000_000_000L) {
+            Thread.sleep(50);
+        }
+
+        //Then
+        assertThat(recorder.isRunning()).isFalse();
+        assertThat(recorder.getFinishedRecording()).isPresent();
+    }
+
+    @Test
+    void shouldNotStartSecondRecordingWhileRunning() {
+        //Given
+        recorder.start("default", Duration.ofMinutes(1));
+
+        //When
+        IllegalStateException thrown = catchThrowableOfType(() -> recorder.start("default", Duration.ofMinutes(1)), IllegalStateException.class);
+
+        //Then
+        assertThat(thrown).hasMessage("A JFR recording is already running");
+        assertThat(recorder.getFinishedRecording()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectUnknownProfile() {
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> recorder.start("everything", Duration.ofMinutes(1)), IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessage("No JFR profile named everything");
+        assertThat(recorder.getStatus()).isEmpty();
+    }
+
+    @Test
+    void shouldDeletePreviousRecordingWhenStartingAnother() {
+        //Given
+        recorder.start("default", Duration.ofMinutes(1));
+        recorder.stop();
+        Path first = recorder.getFinishedRecording().orElseThrow();
+
+        //When
+        recorder.start("default", Duration.ofMinutes(1));
+
+        //Then
+        assertThat(first).doesNotExist();
+    }
+}
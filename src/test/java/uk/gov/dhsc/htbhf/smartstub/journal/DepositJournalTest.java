@@ -0,0 +1,164 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DepositJournalTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SimulationClock simulationClock = new SimulationClock();
+    private final Path directory = Files.createTempDirectory("deposit-journal-test");
+    private DepositJournal journal;
+
+    DepositJournalTest() throws IOException {
+    }
+
+    @AfterEach
+    void deleteJournal() throws Exception {
+        journal.shutdown();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void shouldExportDepositsAsCsv() throws Exception {
+        //Given
+        journal = new DepositJournal(true, directory.toString(), 1024, 100, 10, simulationClock, meterRegistry);
+        simulationClock.set(Instant.parse("2030-06-15T12:00:00Z"), 0);
+
+        //When
+        journal.record("run-1", "1-abc", 1240, "first", "ref-1");
+        journal.record("run-1", "2-def", 310, "has, a \"quote\"", "ref-2");
+
+        //Then
+        assertThat(export(JournalFormat.CSV)).containsExactly(
+                "timestamp,namespace,cardId,amountInPence,reference,referenceId",
+                "2030-06-15T12:00:00Z,run-1,1-abc,1240,first,ref-1",
+                "2030-06-15T12:00:00Z,run-1,2-def,310,\"has, a \"\"quote\"\"\",ref-2");
+    }
+
+    @Test
+    void shouldExportDepositsAsNdjson() throws Exception {
+        //Given
+        journal = new DepositJournal(true, directory.toString(), 1024, 100, 10, simulationClock, meterRegistry);
+        simulationClock.set(Instant.parse("2030-06-15T12:00:00Z"), 0);
+
+        //When
+        journal.record("run-1", "1-abc", 1240, "a \"quoted\"\nreference", "ref-1");
+
+        //Then
+        assertThat(export(JournalFormat.NDJSON)).containsExactly(
+                "{\"timestamp\":\"2030-06-15T12:00:00Z\",\"namespace\":\"run-1\",\"cardId\":\"1-abc\",\"amountInPence\":1240,"
+                        + "\"reference\":\"a \\\"quoted\\\"\\u000areference\",\"referenceId\":\"ref-1\"}");
+    }
+
+    @Test
+    void shouldExportEveryDepositRecordedConcurrently() throws Exception {
+        //Given
+        journal = new DepositJournal(true, directory.toString(), 4096, 64, 16, simulationClock, meterRegistry);
+        int threads = 4;
+        int depositsPerThread = 5000;
+        Thread[] recorders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            String namespace = "run-" + t;
+            recorders[t] = new Thread(() -> {
+                for (int i = 0; i < depositsPerThread; i++) {
+                    journal.record(namespace, "1-" + i, i, "reference", namespace + "-" + i);
+                }
+            });
+        }
+
+        //When
+        for (Thread recorder : recorders) {
+            recorder.start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        //Then
+        List<String> lines = export(JournalFormat.CSV);
+        assertThat(lines).hasSize(threads * depositsPerThread + 1);
+        assertThat(lines.stream().skip(1).map(line -> line.substring(line.lastIndexOf(',') + 1)).distinct()).hasSize(threads * depositsPerThread);
+        for (int t = 0; t < threads; t++) {
+            String suffix = ",run-" + t + "-" + (depositsPerThread - 1);
+            assertThat(lines).anyMatch(line -> line.endsWith(suffix));
+        }
+        assertThat(meterRegistry.get("stub.deposit-journal.written").functionCounter().count()).isEqualTo(threads * depositsPerThread);
+        assertThat(meterRegistry.get("stub.deposit-journal.failed").counter().count()).isZero();
+    }
+
+    @Test
+    void shouldKeepJournalWhenShutDown() throws Exception {
+        //Given
+        journal = new DepositJournal(true, directory.toString(), 1024, 100, 10, simulationClock, meterRegistry);
+        journal.record("run-1", "1-abc", 1240, "first", "ref-1");
+        Path file = journal.export(JournalFormat.NDJSON).orElseThrow().getPath();
+
+        //When
+        journal.shutdown();
+
+        //Then
+        assertThat(Files.readAllLines(file)).hasSize(1).allMatch(line -> line.endsWith("\"referenceId\":\"ref-1\"}"));
+    }
+
+    @Test
+    void shouldWriteEveryQueuedDepositWhenShutDownWhileWriting() throws Exception {
+        //Given
+        journal = new DepositJournal(true, directory.toString(), 1024, 10_000, 10, simulationClock, meterRegistry);
+        Path file = journal.export(JournalFormat.NDJSON).orElseThrow().getPath();
+        for (int i = 0; i < 10_000; i++) {
+            journal.record("run-1", "1-abc", 1240, "deposit-" + i, "ref-" + i);
+        }
+
+        //When
+        journal.shutdown();
+
+        //Then
+        assertThat(journal.getWritten()).isEqualTo(10_000);
+        assertThat(meterRegistry.get("stub.deposit-journal.failed").counter().count()).isZero();
+        assertThat(Files.readAllLines(file)).hasSize(10_000);
+    }
+
+    @Test
+    void shouldNotRecordWhenDisabled() throws Exception {
+        //Given
+        journal = new DepositJournal(false, directory.toString(), 1024, 100, 10, simulationClock, meterRegistry);
+
+        //When
+        journal.record("run-1", "1-abc", 1240, "first", "ref-1");
+
+        //Then
+        assertThat(journal.export(JournalFormat.CSV)).isEmpty();
+        assertThat(journal.getWritten()).isZero();
+        try (Stream<Path> paths = Files.list(directory)) {
+            assertThat(paths).isEmpty();
+        }
+    }
+
+    private List<String> export(JournalFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        journal.export(format).orElseThrow().transferTo(Channels.newChannel(output));
+        return output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+}
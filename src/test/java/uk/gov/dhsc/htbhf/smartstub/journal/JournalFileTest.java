@@ -0,0 +1,68 @@
+package uk.gov.dhsc.htbhf.smartstub.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalFileTest {
+
+    private final Path path = Files.createTempFile("journal-file-test", ".csv");
+
+    JournalFileTest() throws IOException {
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void shouldAppendAcrossSegments() throws IOException {
+        //Given
+        JournalFile file = new JournalFile(path, 16);
+        StringBuilder expected = new StringBuilder();
+
+        //When
+        for (int i = 0; i < 20; i++) {
+            String line = "line " + i + "\n";
+            file.append(line.getBytes(StandardCharsets.UTF_8));
+            expected.append(line);
+        }
+
+        //Then
+        assertThat(file.getLength()).isEqualTo(expected.length());
+        assertThat(Files.size(path)).isGreaterThan(expected.length());
+        assertThat(exported(file)).isEqualTo(expected.toString());
+        file.close();
+        assertThat(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void shouldAppendMoreThanOneSegmentAtOnce() throws IOException {
+        //Given
+        JournalFile file = new JournalFile(path, 8);
+        String text = "more than three segments of text";
+
+        //When
+        file.append(text.getBytes(StandardCharsets.UTF_8));
+
+        //Then
+        assertThat(file.getLength()).isEqualTo(text.length());
+        assertThat(exported(file)).isEqualTo(text);
+        file.close();
+    }
+
+    private String exported(JournalFile file) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new JournalExport(file.getPath(), file.getLength(), JournalFormat.CSV).transferTo(Channels.newChannel(output));
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
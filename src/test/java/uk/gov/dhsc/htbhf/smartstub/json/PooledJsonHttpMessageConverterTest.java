@@ -0,0 +1,133 @@
+package uk.gov.dhsc.htbhf.smartstub.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CardBalanceResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.DepositFundsResponse;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.NearestPostcode;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.PostcodesIoResponse;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.IdentifierService;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.DwpRules;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.dwp.testhelper.DWPEligibilityRequestTestDataFactory.aValidDWPEligibilityRequest;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.HouseholdIdentifierMode.RANDOM;
+
+@SpringBootTest
+class PooledJsonHttpMessageConverterTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MappingJackson2HttpMessageConverter standardConverter;
+    private PooledJsonHttpMessageConverter pooledConverter;
+
+    @BeforeEach
+    void createConverters() {
+        standardConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        ObjectMapper afterburnerMapper = objectMapper.copy();
+        HighThroughputJsonConfiguration.registerAfterburner(afterburnerMapper);
+        pooledConverter = new PooledJsonHttpMessageConverter(afterburnerMapper);
+    }
+
+    @ParameterizedTest
+    @MethodSource("responses")
+    void shouldWriteSameJsonAsStandardConverter(Object response) throws IOException {
+        //When
+        MockHttpOutputMessage standard = write(standardConverter, response, response.getClass());
+        MockHttpOutputMessage pooled = write(pooledConverter, response, response.getClass());
+
+        //Then
+        assertThat(pooled.getBodyAsBytes()).isEqualTo(standard.getBodyAsBytes());
+        assertThat(pooled.getHeaders().getContentLength()).isEqualTo(standard.getBodyAsBytes().length);
+    }
+
+    @Test
+    void shouldWriteEachResponseSeparatelyWhenReusingGenerator() throws IOException {
+        //Given
+        CardBalanceResponse first = CardBalanceResponse.builder().availableBalanceInPence(1).ledgerBalanceInPence(1).build();
+        CardBalanceResponse second = CardBalanceResponse.builder().availableBalanceInPence(2).ledgerBalanceInPence(2).build();
+
+        //When
+        MockHttpOutputMessage firstOutput = write(pooledConverter, first, CardBalanceResponse.class);
+        MockHttpOutputMessage secondOutput = write(pooledConverter, second, CardBalanceResponse.class);
+
+        //Then
+        assertThat(firstOutput.getBodyAsString()).isEqualTo("{\"availableBalanceInPence\":1,\"ledgerBalanceInPence\":1}");
+        assertThat(secondOutput.getBodyAsString()).isEqualTo("{\"availableBalanceInPence\":2,\"ledgerBalanceInPence\":2}");
+    }
+
+    @Test
+    void shouldWriteSameJsonAsStandardConverterForLargeResponses() throws IOException {
+        //Given
+        DepositFundsResponse response = DepositFundsResponse.builder()
+                .referenceId("x".repeat(PooledJsonHttpMessageConverter.MAX_RETAINED_BUFFER_SIZE * 2))
+                .build();
+
+        //When
+        MockHttpOutputMessage standard = write(standardConverter, response, DepositFundsResponse.class);
+        MockHttpOutputMessage pooled = write(pooledConverter, response, DepositFundsResponse.class);
+        MockHttpOutputMessage afterLargeResponse = write(pooledConverter, response, DepositFundsResponse.class);
+
+        //Then
+        assertThat(pooled.getBodyAsBytes()).isEqualTo(standard.getBodyAsBytes());
+        assertThat(afterLargeResponse.getBodyAsBytes()).isEqualTo(standard.getBodyAsBytes());
+    }
+
+    @Test
+    void shouldUseStandardConverterForGenericTypes() throws Exception {
+        //Given
+        PostcodesIoResponse<List<NearestPostcode>> response = PostcodesIoResponse.<List<NearestPostcode>>builder()
+                .status(200)
+                .result(List.of(NearestPostcode.builder().postcode("BS1 4TB").longitude(-2.5).latitude(51.4).distance(0.0).build()))
+                .build();
+        Type type = getClass().getDeclaredField("genericResponse").getGenericType();
+
+        //When
+        MockHttpOutputMessage standard = write(standardConverter, response, type);
+        MockHttpOutputMessage pooled = write(pooledConverter, response, type);
+
+        //Then
+        assertThat(pooled.getBodyAsBytes()).isEqualTo(standard.getBodyAsBytes());
+        assertThat(pooled.getHeaders().getContentLength()).isEqualTo(-1);
+    }
+
+    @SuppressWarnings("unused")
+    private PostcodesIoResponse<List<NearestPostcode>> genericResponse;
+
+    private static Stream<Object> responses() {
+        StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+        return Stream.of(
+                new IdentityAndEligibilityService(stubSettingsHolder, DwpRules.defaultRules(stubSettingsHolder), new IdentifierService(), RANDOM,
+                        new SimulationClock(), new RandomOutcomes())
+                        .evaluateEligibility(aValidDWPEligibilityRequest()),
+                CreateCardResponse.builder().cardAccountId("9-7c9e6679-7425-40de-944b-e07fc1f90ae7").build(),
+                CardBalanceResponse.builder().availableBalanceInPence(1239).ledgerBalanceInPence(1239).build(),
+                DepositFundsResponse.builder().referenceId("0f8fad5b-d9cb-469f-a165-70867728950e").build()
+        );
+    }
+
+    private static MockHttpOutputMessage write(MappingJackson2HttpMessageConverter converter, Object response, Type type) throws IOException {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(response, type, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage;
+    }
+}
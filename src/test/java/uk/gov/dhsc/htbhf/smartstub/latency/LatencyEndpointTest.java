@@ -0,0 +1,37 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyEndpointTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "POST, /v2/dwp/benefits, DWP_BENEFITS",
+            "POST, /v1/cards, CARDS_CREATE",
+            "GET, /v1/cards/9-abc/balance, CARDS_BALANCE",
+            "POST, /v1/cards/9-abc/deposit, CARDS_DEPOSIT",
+            "GET, /v1/postcodes/BS14TB, POSTCODES_LOOKUP",
+            "GET, /v1/postcodes, POSTCODES_NEAREST",
+            "GET, /v1/postcodes/BS1 4/autocomplete, POSTCODES_AUTOCOMPLETE"
+    })
+    void shouldFindEndpointForRequest(String method, String path, LatencyEndpoint expectedEndpoint) {
+        assertThat(LatencyEndpoint.find(method, path)).isEqualTo(expectedEndpoint);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "GET, /v1/cards",
+            "GET, /v1/cards/9-abc",
+            "GET, /v1/cardsx/balance",
+            "GET, /v1/postcodes/",
+            "GET, /v1/postcodesx",
+            "GET, /admin/settings",
+            "GET, /actuator/health"
+    })
+    void shouldNotFindEndpointForOtherRequests(String method, String path) {
+        assertThat(LatencyEndpoint.find(method, path)).isNull();
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import uk.gov.dhsc.htbhf.smartstub.model.v1.CreateCardResponse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.smartstub.helper.v1.CardRequestDTOTestDataFactory.aValidCardRequest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "latency-log.enabled=true")
+class LatencyLogIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private LatencyLog latencyLog;
+
+    @Test
+    void shouldWriteLatenciesOfEachEndpointToLog() throws IOException {
+        //Given
+        latencyLog.writeInterval();
+        ResponseEntity<CreateCardResponse> card = restTemplate.postForEntity("/v1/cards", aValidCardRequest(), CreateCardResponse.class);
+        restTemplate.getForEntity("/v1/cards/" + card.getBody().getCardAccountId() + "/balance", String.class);
+        restTemplate.getForEntity("/v1/postcodes/BS14TB", String.class);
+        restTemplate.getForEntity("/admin/settings", String.class);
+
+        //When
+        latencyLog.writeInterval();
+
+        //Then
+        assertThat(card.getStatusCode()).isEqualTo(OK);
+        Map<String, Long> countsInLastInterval = readCountsInLastInterval();
+        assertThat(countsInLastInterval).containsEntry("cards.create", 1L)
+                .containsEntry("cards.balance", 1L)
+                .containsEntry("postcodes.lookup", 1L)
+                .containsEntry("dwp.benefits", 0L)
+                .hasSize(LatencyEndpoint.values().length);
+    }
+
+    private Map<String, Long> readCountsInLastInterval() throws IOException {
+        Map<String, Long> counts = new HashMap<>();
+        HistogramLogReader reader = new HistogramLogReader(latencyLog.getFile().toFile());
+        try {
+            EncodableHistogram encodedHistogram;
+            while ((encodedHistogram = reader.nextIntervalHistogram()) != null) {
+                Histogram histogram = (Histogram) encodedHistogram;
+                counts.put(histogram.getTag(), histogram.getTotalCount());
+            }
+        } finally {
+            reader.close();
+        }
+        return counts;
+    }
+}
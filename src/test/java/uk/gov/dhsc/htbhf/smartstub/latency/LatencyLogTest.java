@@ -0,0 +1,129 @@
+package uk.gov.dhsc.htbhf.smartstub.latency;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static uk.gov.dhsc.htbhf.smartstub.latency.LatencyEndpoint.CARDS_CREATE;
+import static uk.gov.dhsc.htbhf.smartstub.latency.LatencyEndpoint.DWP_BENEFITS;
+
+class LatencyLogTest {
+
+    private final Path directory = Files.createTempDirectory("latency-log-test");
+    private final LatencyLog latencyLog = new LatencyLog(directory, Duration.ofHours(1), Duration.ofSeconds(10), 3);
+
+    LatencyLogTest() throws IOException {
+    }
+
+    @AfterEach
+    void deleteLog() throws IOException {
+        latencyLog.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void shouldWriteIntervalHistogramTaggedWithEachEndpoint() throws IOException {
+        //Given
+        for (int i = 1; i <= 100; i++) {
+            latencyLog.record(DWP_BENEFITS, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        latencyLog.record(CARDS_CREATE, TimeUnit.MILLISECONDS.toNanos(5));
+
+        //When
+        latencyLog.writeInterval();
+
+        //Then
+        List<Histogram> histograms = readLog();
+        assertThat(histograms).extracting(Histogram::getTag)
+                .containsExactly(tagsOfEveryEndpoint());
+        Histogram dwp = histograms.get(DWP_BENEFITS.ordinal());
+        assertThat(dwp.getTotalCount()).isEqualTo(100);
+        assertThat((double) dwp.getValueAtPercentile(99)).isCloseTo(TimeUnit.MILLISECONDS.toNanos(99), within(100_000.0));
+        assertThat(histograms.get(CARDS_CREATE.ordinal()).getTotalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStartEachIntervalEmpty() throws IOException {
+        //Given
+        latencyLog.record(CARDS_CREATE, 1000);
+        latencyLog.writeInterval();
+
+        //When
+        latencyLog.writeInterval();
+
+        //Then
+        List<Histogram> histograms = readLog();
+        assertThat(histograms).hasSize(2 * LatencyEndpoint.values().length);
+        assertThat(histograms.get(CARDS_CREATE.ordinal()).getTotalCount()).isEqualTo(1);
+        assertThat(histograms.get(LatencyEndpoint.values().length + CARDS_CREATE.ordinal()).getTotalCount()).isZero();
+    }
+
+    @Test
+    void shouldCapLatenciesAtHighestTrackable() throws IOException {
+        //Given
+        latencyLog.record(CARDS_CREATE, TimeUnit.MINUTES.toNanos(5));
+        latencyLog.record(CARDS_CREATE, -1);
+
+        //When
+        latencyLog.writeInterval();
+
+        //Then
+        Histogram cards = readLog().get(CARDS_CREATE.ordinal());
+        assertThat(cards.getTotalCount()).isEqualTo(2);
+        assertThat(cards.getMaxValue()).isEqualTo(cards.highestEquivalentValue(TimeUnit.SECONDS.toNanos(10)));
+        assertThat(cards.getMinValue()).isZero();
+    }
+
+    @Test
+    void shouldWriteLastIntervalWhenClosed() throws IOException {
+        //Given
+        latencyLog.record(DWP_BENEFITS, 1000);
+
+        //When
+        latencyLog.close();
+        latencyLog.record(DWP_BENEFITS, 1000);
+        latencyLog.writeInterval();
+
+        //Then
+        List<Histogram> histograms = readLog();
+        assertThat(histograms).hasSize(LatencyEndpoint.values().length);
+        assertThat(histograms.get(DWP_BENEFITS.ordinal()).getTotalCount()).isEqualTo(1);
+    }
+
+    private List<Histogram> readLog() throws IOException {
+        List<Histogram> histograms = new ArrayList<>();
+        HistogramLogReader reader = new HistogramLogReader(latencyLog.getFile().toFile());
+        try {
+            EncodableHistogram histogram;
+            while ((histogram = reader.nextIntervalHistogram()) != null) {
+                histograms.add((Histogram) histogram);
+            }
+        } finally {
+            reader.close();
+        }
+        return histograms;
+    }
+
+    private static String[] tagsOfEveryEndpoint() {
+        return Stream.of(LatencyEndpoint.values()).map(LatencyEndpoint::getTag).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,80 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_ATTRIBUTE;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+import static uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests.WARM_UP_NAMESPACE;
+import static uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests.WARM_UP_TOKEN_HEADER;
+
+class NamespaceInterceptorTest {
+
+    private final StubNamespaces stubNamespaces = new StubNamespaces(2, false);
+    private final NamespaceInterceptor interceptor = new NamespaceInterceptor(stubNamespaces);
+
+    @Test
+    void shouldRejectWarmUpNamespaceWithoutToken() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(NAMESPACE_HEADER, WARM_UP_NAMESPACE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //When
+        boolean allowed = interceptor.preHandle(request, response, null);
+
+        //Then
+        assertThat(allowed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(stubNamespaces.find(WARM_UP_NAMESPACE)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectWarmUpNamespaceWithWrongToken() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(NAMESPACE_HEADER, WARM_UP_NAMESPACE);
+        request.addHeader(WARM_UP_TOKEN_HEADER, "not-the-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //When
+        boolean allowed = interceptor.preHandle(request, response, null);
+
+        //Then
+        assertThat(allowed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    void shouldAllowWarmUpNamespaceWithToken() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(NAMESPACE_HEADER, WARM_UP_NAMESPACE);
+        request.addHeader(WARM_UP_TOKEN_HEADER, WarmUpRequests.getToken());
+
+        //When
+        boolean allowed = interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        //Then
+        assertThat(allowed).isTrue();
+        assertThat(((StubNamespace) request.getAttribute(NAMESPACE_ATTRIBUTE)).getId()).isEqualTo(WARM_UP_NAMESPACE);
+    }
+
+    @Test
+    void shouldRejectInvalidNamespaceId() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(NAMESPACE_HEADER, "run 1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //When
+        boolean allowed = interceptor.preHandle(request, response, null);
+
+        //Then
+        assertThat(allowed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+}
@@ -0,0 +1,129 @@
+package uk.gov.dhsc.htbhf.smartstub.namespace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubNamespacesTest {
+
+    private final StubNamespaces stubNamespaces = new StubNamespaces(2, false);
+
+    @Test
+    void shouldReturnSameNamespaceForSameId() {
+        //When
+        StubNamespace first = stubNamespaces.getOrCreate("run-1").get();
+        StubNamespace second = stubNamespaces.getOrCreate("run-1").get();
+
+        //Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getId()).isEqualTo("run-1");
+    }
+
+    @Test
+    void shouldKeepStateOfEachNamespaceSeparate() {
+        //Given
+        StubNamespace first = stubNamespaces.getOrCreate("run-1").get();
+        StubNamespace second = stubNamespaces.getOrCreate("run-2").get();
+
+        //When
+        first.recordCardCreated("9-card");
+        first.recordDeposit("9-card", 1240);
+
+        //Then
+        assertThat(first.getCardsCreated()).isEqualTo(1);
+        assertThat(first.getDeposits()).isEqualTo(1);
+        assertThat(first.findCardAccount("9-card")).get().extracting(CardAccount::getDepositedInPence).isEqualTo(1240L);
+        assertThat(second.getCardsCreated()).isZero();
+        assertThat(second.findCardAccount("9-card")).isEmpty();
+    }
+
+    @Test
+    void shouldStartAnEmptyNamespaceOfLaterGenerationAfterDrop() {
+        //Given
+        StubNamespace dropped = stubNamespaces.getOrCreate("run-1").get();
+        dropped.recordCardCreated("9-card");
+
+        //When
+        boolean existed = stubNamespaces.drop("run-1");
+        StubNamespace recreated = stubNamespaces.getOrCreate("run-1").get();
+
+        //Then
+        assertThat(existed).isTrue();
+        assertThat(recreated).isNotSameAs(dropped);
+        assertThat(recreated.getGeneration()).isGreaterThan(dropped.getGeneration());
+        assertThat(recreated.getCardsCreated()).isZero();
+        assertThat(recreated.findCardAccount("9-card")).isEmpty();
+    }
+
+    @Test
+    void shouldNotDropNamespaceThatDoesNotExist() {
+        //When
+        boolean existed = stubNamespaces.drop("run-1");
+
+        //Then
+        assertThat(existed).isFalse();
+    }
+
+    @Test
+    void shouldNotCreateMoreThanMaximumNamespaces() {
+        //Given
+        stubNamespaces.getOrCreate("run-1");
+        stubNamespaces.getOrCreate("run-2");
+
+        //When
+        boolean thirdCreated = stubNamespaces.getOrCreate("run-3").isPresent();
+        boolean existingFound = stubNamespaces.getOrCreate("run-1").isPresent();
+        stubNamespaces.drop("run-2");
+        boolean thirdCreatedAfterDrop = stubNamespaces.getOrCreate("run-3").isPresent();
+
+        //Then
+        assertThat(thirdCreated).isFalse();
+        assertThat(existingFound).isTrue();
+        assertThat(thirdCreatedAfterDrop).isTrue();
+        assertThat(stubNamespaces.getAll()).extracting(StubNamespace::getId).containsExactlyInAnyOrder("run-1", "run-3");
+    }
+
+    @Test
+    void shouldOnlyCountCardsAndDepositsInDefaultNamespace() {
+        //Given
+        StubNamespace defaultNamespace = stubNamespaces.getOrCreate(StubNamespaces.DEFAULT_NAMESPACE).get();
+
+        //When
+        defaultNamespace.recordCardCreated("9-card");
+        CardAccount cardAccount = defaultNamespace.recordDeposit("9-card", 1240);
+
+        //Then
+        assertThat(defaultNamespace.isKeepingCardAccounts()).isFalse();
+        assertThat(defaultNamespace.getCardsCreated()).isEqualTo(1);
+        assertThat(defaultNamespace.getDeposits()).isEqualTo(1);
+        assertThat(cardAccount.getDepositedInPence()).isEqualTo(1240L);
+        assertThat(defaultNamespace.findCardAccount("9-card")).isEmpty();
+    }
+
+    @Test
+    void shouldKeepCardAccountsInDefaultNamespaceWhenConfigured() {
+        //Given
+        StubNamespaces keepingNamespaces = new StubNamespaces(2, true);
+        StubNamespace defaultNamespace = keepingNamespaces.getOrCreate(StubNamespaces.DEFAULT_NAMESPACE).get();
+
+        //When
+        defaultNamespace.recordDeposit("9-card", 1240);
+
+        //Then
+        assertThat(defaultNamespace.findCardAccount("9-card")).get().extracting(CardAccount::getDepositedInPence).isEqualTo(1240L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"default", "run-1", "LOAD_TEST.2019-10-21"})
+    void shouldAcceptValidIds(String id) {
+        assertThat(StubNamespaces.isValidId(id)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "run 1", "run/1", "ünïcode", "12345678901234567890123456789012345678901234567890123456789012345"})
+    void shouldRejectInvalidIds(String id) {
+        assertThat(StubNamespaces.isValidId(id)).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static uk.gov.dhsc.htbhf.smartstub.namespace.NamespaceInterceptor.NAMESPACE_HEADER;
+import static uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests.WARM_UP_NAMESPACE;
+import static uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests.WARM_UP_TOKEN_HEADER;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 1, 0, 0, new SimpleMeterRegistry());
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(limiter);
+
+    @Test
+    void shouldRejectWithServiceUnavailableWhenLimitReached() throws Exception {
+        //Given
+        MockHttpServletRequest firstRequest = new MockHttpServletRequest();
+        MockHttpServletRequest secondRequest = new MockHttpServletRequest();
+        MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+
+        //When
+        boolean firstAllowed = interceptor.preHandle(firstRequest, new MockHttpServletResponse(), null);
+        boolean secondAllowed = interceptor.preHandle(secondRequest, secondResponse, null);
+
+        //Then
+        assertThat(firstAllowed).isTrue();
+        assertThat(secondAllowed).isFalse();
+        assertThat(secondResponse.getStatus()).isEqualTo(SERVICE_UNAVAILABLE.value());
+    }
+
+    @Test
+    void shouldNotTakePermitForWarmUpRequest() throws Exception {
+        //Given
+        MockHttpServletRequest warmUpRequest = new MockHttpServletRequest();
+        warmUpRequest.addHeader(NAMESPACE_HEADER, WARM_UP_NAMESPACE);
+        warmUpRequest.addHeader(WARM_UP_TOKEN_HEADER, WarmUpRequests.getToken());
+
+        //When
+        boolean warmUpAllowed = interceptor.preHandle(warmUpRequest, new MockHttpServletResponse(), null);
+
+        //Then
+        assertThat(warmUpAllowed).isTrue();
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    void shouldTakePermitForRequestOnlyClaimingToBeWarmUp() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(NAMESPACE_HEADER, WARM_UP_NAMESPACE);
+        request.addHeader(WARM_UP_TOKEN_HEADER, "not-the-token");
+
+        //When
+        boolean allowed = interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        //Then
+        assertThat(allowed).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleasePermitWhenRequestCompletes() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+
+        //When
+        interceptor.afterCompletion(request, response, null, null);
+
+        //Then
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    void shouldNotReleasePermitTwice() throws Exception {
+        //Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+
+        //When
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        //Then
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,155 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldAllowUpToMaxInFlight() {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 2, 0, 0, meterRegistry);
+
+        //When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        //Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+        assertThat(meterRegistry.get("stub.concurrency.rejected").tag("reason", "queue-full").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAllowRequestAgainOnceReleased() {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 1, 0, 0, meterRegistry);
+        limiter.tryAcquire();
+
+        //When
+        limiter.release();
+
+        //Then
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldRejectQueuedRequestAfterTimeout() {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 1, 1, 50, meterRegistry);
+        limiter.tryAcquire();
+        long start = System.nanoTime();
+
+        //When
+        boolean acquired = limiter.tryAcquire();
+
+        //Then
+        assertThat(acquired).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(limiter.getQueued()).isZero();
+        assertThat(meterRegistry.get("stub.concurrency.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveReleasedPermitToQueuedRequest() throws Exception {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 1, 1, 10_000, meterRegistry);
+        limiter.tryAcquire();
+        CompletableFuture<Boolean> queuedRequest = CompletableFuture.supplyAsync(limiter::tryAcquire);
+        awaitQueued(limiter, 1);
+
+        //When
+        limiter.release();
+
+        //Then
+        assertThat(queuedRequest.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueued()).isZero();
+    }
+
+    @Test
+    void shouldPublishInFlightAndQueuedGauges() throws Exception {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 1, 1, 10_000, meterRegistry);
+        limiter.tryAcquire();
+
+        //When
+        CompletableFuture<Boolean> queuedRequest = CompletableFuture.supplyAsync(limiter::tryAcquire);
+        awaitQueued(limiter, 1);
+
+        //Then
+        assertThat(meterRegistry.get("stub.concurrency.in-flight").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("stub.concurrency.queued").gauge().value()).isEqualTo(1);
+        limiter.release();
+        queuedRequest.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldNeverExceedMaxInFlightUnderContention() throws Exception {
+        //Given
+        int maxInFlight = 4;
+        int threads = 32;
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, maxInFlight, threads, 10_000, meterRegistry);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger highest = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //When
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    if (limiter.tryAcquire()) {
+                        highest.accumulateAndGet(current.incrementAndGet(), Math::max);
+                        Thread.yield();
+                        current.decrementAndGet();
+                        limiter.release();
+                        completed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //Then
+        assertThat(highest.get()).isLessThanOrEqualTo(maxInFlight);
+        assertThat(completed.get()).isEqualTo(threads * 200);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getQueued()).isZero();
+    }
+
+    private static void awaitQueued(ConcurrencyLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(limiter.getQueued()).isEqualTo(expected);
+    }
+}
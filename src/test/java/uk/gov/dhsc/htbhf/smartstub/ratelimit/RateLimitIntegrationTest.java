@@ -0,0 +1,69 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.global.requests-per-second=0",
+        "rate-limit.endpoint.requests-per-second=0",
+        "rate-limit.client.requests-per-second=1",
+        "rate-limit.client.burst=2"
+})
+class RateLimitIntegrationTest {
+
+    private static final String BALANCE_ENDPOINT = "/v1/cards/9-rate-limit/balance";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldReturnTooManyRequestsWithRetryAfterWhenClientExceedsLimit() {
+        //Given
+        HttpEntity<Void> request = requestFromClient("rate-limited-client");
+
+        //When
+        ResponseEntity<String> first = restTemplate.exchange(BALANCE_ENDPOINT, HttpMethod.GET, request, String.class);
+        ResponseEntity<String> second = restTemplate.exchange(BALANCE_ENDPOINT, HttpMethod.GET, request, String.class);
+        ResponseEntity<String> third = restTemplate.exchange(BALANCE_ENDPOINT, HttpMethod.GET, request, String.class);
+        ResponseEntity<String> otherClient
+                = restTemplate.exchange(BALANCE_ENDPOINT, HttpMethod.GET, requestFromClient("other-client"), String.class);
+
+        //Then
+        assertThat(first.getStatusCode()).isEqualTo(OK);
+        assertThat(second.getStatusCode()).isEqualTo(OK);
+        assertThat(third.getStatusCode()).isEqualTo(TOO_MANY_REQUESTS);
+        assertThat(third.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(otherClient.getStatusCode()).isEqualTo(OK);
+    }
+
+    @Test
+    void shouldNotLimitEndpointsOutsideDwpAndCardServices() {
+        //Given
+        HttpEntity<Void> request = requestFromClient("postcode-client");
+
+        //When
+        for (int i = 0; i < 5; i++) {
+            ResponseEntity<String> response = restTemplate.exchange("/v1/postcodes/AA11AA", HttpMethod.GET, request, String.class);
+
+            //Then
+            assertThat(response.getStatusCode()).isEqualTo(OK);
+        }
+    }
+
+    private static HttpEntity<Void> requestFromClient(String clientId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Client-Id", clientId);
+        return new HttpEntity<>(headers);
+    }
+}
@@ -0,0 +1,115 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final int UNLIMITED = 0;
+
+    private final Method balanceEndpoint = method("hashCode");
+    private final Method depositEndpoint = method("toString");
+
+    @Test
+    void shouldAllowEverythingWhenDisabled() {
+        //Given
+        RateLimiter rateLimiter = new RateLimiter(false, 1, 1, 1, 1, 1, 1, 10);
+
+        //When
+        for (int i = 0; i < 10; i++) {
+            //Then
+            assertThat(rateLimiter.tryAcquire(balanceEndpoint, "client")).isZero();
+        }
+    }
+
+    @Test
+    void shouldLimitEachClientSeparately() {
+        //Given
+        RateLimiter rateLimiter = new RateLimiter(true, UNLIMITED, 1, UNLIMITED, 1, 1, 2, 10);
+
+        //When
+        long first = rateLimiter.tryAcquire(balanceEndpoint, "client-a");
+        long second = rateLimiter.tryAcquire(balanceEndpoint, "client-a");
+        long third = rateLimiter.tryAcquire(balanceEndpoint, "client-a");
+        long otherClient = rateLimiter.tryAcquire(balanceEndpoint, "client-b");
+
+        //Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isPositive();
+        assertThat(otherClient).isZero();
+    }
+
+    @Test
+    void shouldLimitEachEndpointSeparately() {
+        //Given
+        RateLimiter rateLimiter = new RateLimiter(true, UNLIMITED, 1, 1, 1, UNLIMITED, 1, 10);
+
+        //When
+        long first = rateLimiter.tryAcquire(balanceEndpoint, null);
+        long second = rateLimiter.tryAcquire(balanceEndpoint, null);
+        long otherEndpoint = rateLimiter.tryAcquire(depositEndpoint, null);
+
+        //Then
+        assertThat(first).isZero();
+        assertThat(second).isPositive();
+        assertThat(otherEndpoint).isZero();
+    }
+
+    @Test
+    void shouldLimitAllRequestsGlobally() {
+        //Given
+        RateLimiter rateLimiter = new RateLimiter(true, 1, 2, UNLIMITED, 1, UNLIMITED, 1, 10);
+
+        //When
+        long first = rateLimiter.tryAcquire(balanceEndpoint, "client-a");
+        long second = rateLimiter.tryAcquire(depositEndpoint, "client-b");
+        long third = rateLimiter.tryAcquire(balanceEndpoint, "client-c");
+
+        //Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isPositive();
+    }
+
+    @Test
+    void shouldNotUseClientQuotaForRequestsRejectedByEndpointLimit() {
+        //Given
+        RateLimiter rateLimiter = new RateLimiter(true, UNLIMITED, 1, 1, 1, 1, 1, 10);
+        rateLimiter.tryAcquire(balanceEndpoint, "client-a");
+
+        //When
+        long rejected = rateLimiter.tryAcquire(balanceEndpoint, "client-b");
+        long otherEndpoint = rateLimiter.tryAcquire(depositEndpoint, "client-b");
+
+        //Then
+        assertThat(rejected).isPositive();
+        assertThat(otherEndpoint).isZero();
+    }
+
+    @Test
+    void shouldShareOverflowBucketOnceMaxClientsReached() {
+        //Given
+        RateLimiter rateLimiter = new RateLimiter(true, UNLIMITED, 1, UNLIMITED, 1, 1, 1, 1);
+        rateLimiter.tryAcquire(balanceEndpoint, "client-a");
+
+        //When
+        long firstOverflowClient = rateLimiter.tryAcquire(balanceEndpoint, "client-b");
+        long secondOverflowClient = rateLimiter.tryAcquire(balanceEndpoint, "client-c");
+
+        //Then
+        assertThat(firstOverflowClient).isZero();
+        assertThat(secondOverflowClient).isPositive();
+    }
+
+    private static Method method(String name) {
+        try {
+            return Object.class.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
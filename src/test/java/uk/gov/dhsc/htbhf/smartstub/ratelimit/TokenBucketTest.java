@@ -0,0 +1,124 @@
+package uk.gov.dhsc.htbhf.smartstub.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class TokenBucketTest {
+
+    private static final long NOW = 1_000_000_000L;
+    private static final long TEN_MILLIS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void shouldAllowBurstThenRejectUntilNextTokenIsAdded() {
+        //Given
+        TokenBucket bucket = new TokenBucket(100, 3, NOW);
+
+        //When
+        long first = bucket.tryAcquire(NOW);
+        long second = bucket.tryAcquire(NOW);
+        long third = bucket.tryAcquire(NOW);
+        long fourth = bucket.tryAcquire(NOW);
+
+        //Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isZero();
+        assertThat(fourth).isEqualTo(TEN_MILLIS);
+        assertThat(bucket.tryAcquire(NOW + TEN_MILLIS - 1)).isEqualTo(1);
+        assertThat(bucket.tryAcquire(NOW + TEN_MILLIS)).isZero();
+    }
+
+    @Test
+    void shouldRefillToBurstButNoFurtherWhenIdle() {
+        //Given
+        TokenBucket bucket = new TokenBucket(100, 2, NOW);
+        bucket.tryAcquire(NOW);
+        bucket.tryAcquire(NOW);
+        long muchLater = NOW + TimeUnit.SECONDS.toNanos(60);
+
+        //When
+        long first = bucket.tryAcquire(muchLater);
+        long second = bucket.tryAcquire(muchLater);
+        long third = bucket.tryAcquire(muchLater);
+
+        //Then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(TEN_MILLIS);
+    }
+
+    @Test
+    void shouldReturnReleasedToken() {
+        //Given
+        TokenBucket bucket = new TokenBucket(100, 1, NOW);
+        bucket.tryAcquire(NOW);
+
+        //When
+        bucket.release();
+
+        //Then
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+    }
+
+    @Test
+    void shouldWorkAcrossNanoTimeWrapping() {
+        //Given
+        long beforeWrap = Long.MAX_VALUE - TEN_MILLIS / 2;
+        TokenBucket bucket = new TokenBucket(100, 1, beforeWrap);
+        bucket.tryAcquire(beforeWrap);
+
+        //When
+        long justBeforeToken = bucket.tryAcquire(beforeWrap + TEN_MILLIS - 1);
+        long atToken = bucket.tryAcquire(beforeWrap + TEN_MILLIS);
+
+        //Then
+        assertThat(justBeforeToken).isEqualTo(1);
+        assertThat(atToken).isZero();
+    }
+
+    @Test
+    void shouldNeverHandOutMoreThanBurstUnderContention() throws InterruptedException {
+        //Given
+        int threads = 32;
+        TokenBucket bucket = new TokenBucket(1, 1000, NOW);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        //When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    if (bucket.tryAcquire(NOW) == 0) {
+                        acquired.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //Then
+        assertThat(acquired.get()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldRejectZeroRate() {
+        //When
+        Throwable thrown = catchThrowable(() -> new TokenBucket(0, 1, NOW));
+
+        //Then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+}
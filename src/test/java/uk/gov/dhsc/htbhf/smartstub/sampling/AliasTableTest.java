@@ -0,0 +1,56 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.within;
+
+class AliasTableTest {
+
+    private static final int SAMPLES = 1_000_000;
+
+    @Test
+    void shouldSampleInProportionToWeights() {
+        //Given
+        double[] weights = {70, 20, 0, 7.5, 2.5};
+        AliasTable table = new AliasTable(weights);
+        SplittableRandom random = new SplittableRandom(42);
+
+        //When
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random.nextLong())]++;
+        }
+
+        //Then
+        assertThat(table.size()).isEqualTo(5);
+        assertThat(counts[0] / (double) SAMPLES).isCloseTo(0.7, within(0.005));
+        assertThat(counts[1] / (double) SAMPLES).isCloseTo(0.2, within(0.005));
+        assertThat(counts[2]).isZero();
+        assertThat(counts[3] / (double) SAMPLES).isCloseTo(0.075, within(0.005));
+        assertThat(counts[4] / (double) SAMPLES).isCloseTo(0.025, within(0.005));
+    }
+
+    @Test
+    void shouldAlwaysSampleOnlyWeight() {
+        //Given
+        AliasTable table = new AliasTable(new double[]{0, 3, 0});
+
+        //Then
+        assertThat(table.sample(0L)).isEqualTo(1);
+        assertThat(table.sample(-1L)).isEqualTo(1);
+        assertThat(table.sample(0x7FFFFFFF_00000000L)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectInvalidWeights() {
+        assertThat(catchThrowableOfType(() -> new AliasTable(new double[0]), IllegalArgumentException.class)).isNotNull();
+        assertThat(catchThrowableOfType(() -> new AliasTable(new double[]{0, 0}), IllegalArgumentException.class)).isNotNull();
+        assertThat(catchThrowableOfType(() -> new AliasTable(new double[]{1, -1}), IllegalArgumentException.class))
+                .hasMessage("Weights must be zero or more, not -1.0");
+        assertThat(catchThrowableOfType(() -> new AliasTable(new double[]{1, Double.NaN}), IllegalArgumentException.class)).isNotNull();
+    }
+}
@@ -0,0 +1,42 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashingTest {
+
+    private static final long SEED = 0x243F6A8885A308D3L;
+
+    @Test
+    void shouldGiveSameHashForSameValueAndSeed() {
+        assertThat(Hashing.hash("QQ123456C", SEED)).isEqualTo(Hashing.hash("QQ123456C", SEED));
+    }
+
+    @Test
+    void shouldGiveIndependentHashesForDifferentSeeds() {
+        assertThat(Hashing.hash("QQ123456C", SEED)).isNotEqualTo(Hashing.hash("QQ123456C", SEED + 1));
+    }
+
+    @Test
+    void shouldGiveUnrelatedHashesForSimilarValues() {
+        //Given
+        Set<Long> topBytes = new HashSet<>();
+
+        //When
+        for (int i = 0; i < 1000; i++) {
+            topBytes.add(Hashing.hash(String.format("QQ%06dC", i), SEED) >>> 56);
+        }
+
+        //Then
+        assertThat(topBytes).hasSizeGreaterThan(200);
+    }
+
+    @Test
+    void shouldMixNearbyValuesApart() {
+        assertThat(Long.bitCount(Hashing.mix(1) ^ Hashing.mix(2))).isBetween(16, 48);
+    }
+}
@@ -0,0 +1,109 @@
+package uk.gov.dhsc.htbhf.smartstub.sampling;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome;
+import uk.gov.dhsc.htbhf.smartstub.settings.RandomOutcomeSettings;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.within;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.PARTIAL;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome.IDENTITY_NOT_MATCHED;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.RandomDwpOutcome.MOBILE_NOT_HELD;
+
+class RandomOutcomesTest {
+
+    private static final int REQUESTS = 200_000;
+
+    private final RandomOutcomes randomOutcomes = new RandomOutcomes();
+
+    @Test
+    void shouldGiveHappyPathWithoutRandomOutcomes() {
+        assertThat(randomOutcomes.sampleDwpOutcome(RandomOutcomeSettings.NONE, "AB123456C")).isNull();
+        assertThat(randomOutcomes.sampleCardScenario(RandomOutcomeSettings.NONE, "claim")).isNull();
+    }
+
+    @Test
+    void shouldGiveOutcomesInConfiguredProportions() {
+        //Given
+        RandomOutcomeSettings settings = new RandomOutcomeSettings(
+                Map.of(IDENTITY_NOT_MATCHED, 8.0, MOBILE_NOT_HELD, 2.0), Map.of(PARTIAL, 5.0), false);
+
+        //When
+        Map<RandomDwpOutcome, Integer> dwpCounts = new EnumMap<>(RandomDwpOutcome.class);
+        int happyPaths = 0;
+        int partialCards = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            RandomDwpOutcome outcome = randomOutcomes.sampleDwpOutcome(settings, "AB123456C");
+            if (outcome == null) {
+                happyPaths++;
+            } else {
+                dwpCounts.merge(outcome, 1, Integer::sum);
+            }
+            if (randomOutcomes.sampleCardScenario(settings, "claim") == PARTIAL) {
+                partialCards++;
+            }
+        }
+
+        //Then
+        assertThat(dwpCounts).containsOnlyKeys(IDENTITY_NOT_MATCHED, MOBILE_NOT_HELD);
+        assertThat(dwpCounts.get(IDENTITY_NOT_MATCHED) / (double) REQUESTS).isCloseTo(0.08, within(0.005));
+        assertThat(dwpCounts.get(MOBILE_NOT_HELD) / (double) REQUESTS).isCloseTo(0.02, within(0.005));
+        assertThat(happyPaths / (double) REQUESTS).isCloseTo(0.9, within(0.005));
+        assertThat(partialCards / (double) REQUESTS).isCloseTo(0.05, within(0.005));
+    }
+
+    @Test
+    void shouldGiveSameOutcomeToSameClaimantWhenSticky() {
+        //Given
+        RandomOutcomeSettings settings = new RandomOutcomeSettings(Map.of(IDENTITY_NOT_MATCHED, 50.0), Map.of(), true);
+        Set<RandomDwpOutcome> outcomesForDifferentNinos = new HashSet<>();
+
+        for (int i = 0; i < 100; i++) {
+            String nino = String.format("AB%06dC", i);
+            //When
+            RandomDwpOutcome first = randomOutcomes.sampleDwpOutcome(settings, nino);
+            RandomDwpOutcome second = randomOutcomes.sampleDwpOutcome(settings, nino);
+            //Then
+            assertThat(second).isEqualTo(first);
+            outcomesForDifferentNinos.add(first);
+        }
+        assertThat(outcomesForDifferentNinos).containsExactlyInAnyOrder(IDENTITY_NOT_MATCHED, null);
+    }
+
+    @Test
+    void shouldGiveSameStickyOutcomeForEqualSettings() {
+        //Given
+        Map<FirstNameScenario, Double> percentages = Map.of(PARTIAL, 30.0, FirstNameScenario.NO_TOP_UP, 30.0);
+        RandomOutcomeSettings settings = new RandomOutcomeSettings(Map.of(), percentages, true);
+        RandomOutcomeSettings equalSettings = new RandomOutcomeSettings(Map.of(), new EnumMap<>(percentages), true);
+
+        for (int i = 0; i < 100; i++) {
+            String claimId = "claim-" + i;
+            //When
+            FirstNameScenario scenario = randomOutcomes.sampleCardScenario(settings, claimId);
+            //Then
+            assertThat(new RandomOutcomes().sampleCardScenario(equalSettings, claimId)).isEqualTo(scenario);
+        }
+    }
+
+    @Test
+    void shouldRejectPercentagesAddingUpToMoreThanOneHundred() {
+        //Given
+        RandomOutcomeSettings settings = new RandomOutcomeSettings(Map.of(IDENTITY_NOT_MATCHED, 60.0, MOBILE_NOT_HELD, 50.0), Map.of(), false);
+
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> randomOutcomes.sampleDwpOutcome(settings, "AB123456C"),
+                IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessage("Outcome percentages must add up to 100 or less, not 110.0");
+        assertThat(settings.isEachTotalAtMostOneHundred()).isFalse();
+    }
+}
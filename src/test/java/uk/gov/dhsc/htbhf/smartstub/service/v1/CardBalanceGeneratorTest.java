@@ -5,6 +5,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
@@ -12,9 +16,15 @@ import static org.assertj.core.api.Assertions.catchThrowableOfType;
 @SpringBootTest
 class CardBalanceGeneratorTest {
 
+    private static final int MAX_LOW_BALANCE = 1239;
+    private static final int SAMPLES_PER_BALANCE = 500;
+
     @Autowired
     private CardBalanceGenerator cardBalanceGenerator;
 
+    private final CardBalanceGenerator hashingCardBalanceGenerator
+            = new CardBalanceGenerator(new StubSettingsHolder(MAX_LOW_BALANCE, 1860, 100000), LowBalanceMode.CARD_ID_HASH);
+
     @ParameterizedTest
     @ValueSource(strings = {
             "5-sadkfjh",
@@ -79,4 +89,68 @@ class CardBalanceGeneratorTest {
         //Then
         assertThat(balance).isBetween(0, 1239);
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "9-0b6a3c3e-8f4e-4d5b-9a43-44a1e7b3c2d1",
+            "4-0b6a3c3e-8f4e-4d5b-9a43-44a1e7b3c2d1",
+            ""
+    })
+    void shouldGenerateSameLowBalanceForSameCardIdWhenHashingCardId(String cardId) {
+        //When
+        int first = hashingCardBalanceGenerator.generateBalanceForCardId(cardId);
+        int second = hashingCardBalanceGenerator.generateBalanceForCardId(cardId);
+        //Then
+        assertThat(first).isBetween(0, MAX_LOW_BALANCE - 1);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void shouldGenerateScenarioBalancesWhenHashingCardId() {
+        //When
+        int noTopUpBalance = hashingCardBalanceGenerator.generateBalanceForCardId("1-sadkfjh");
+        int partialBalance = hashingCardBalanceGenerator.generateBalanceForCardId("2-sadkfjh");
+        //Then
+        assertThat(noTopUpBalance).isEqualTo(100000);
+        assertThat(partialBalance).isEqualTo(1860);
+    }
+
+    @Test
+    void shouldSpreadHashedLowBalancesUniformlyForRandomCardIds() {
+        //Given
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[MAX_LOW_BALANCE];
+        //When
+        for (int i = 0; i < MAX_LOW_BALANCE * SAMPLES_PER_BALANCE; i++) {
+            String cardId = "9-" + new UUID(random.nextLong(), random.nextLong());
+            counts[hashingCardBalanceGenerator.generateBalanceForCardId(cardId)]++;
+        }
+        //Then
+        assertUniform(counts);
+    }
+
+    @Test
+    void shouldSpreadHashedLowBalancesUniformlyForSequentialCardIds() {
+        //Given
+        int[] counts = new int[MAX_LOW_BALANCE];
+        //When
+        for (int i = 0; i < MAX_LOW_BALANCE * SAMPLES_PER_BALANCE; i++) {
+            counts[hashingCardBalanceGenerator.generateBalanceForCardId("9-" + i)]++;
+        }
+        //Then
+        assertUniform(counts);
+    }
+
+    // A chi-squared test: with 1238 degrees of freedom the statistic has a mean of 1238 and a standard deviation of
+    // about 50, so a uniform distribution exceeds 1238 + 5 * 50 far less than once in a million runs. Every balance
+    // from 0 to max - 1 must also occur.
+    private static void assertUniform(int[] counts) {
+        double chiSquared = 0;
+        for (int count : counts) {
+            double difference = count - SAMPLES_PER_BALANCE;
+            chiSquared += difference * difference / SAMPLES_PER_BALANCE;
+        }
+        assertThat(counts).doesNotContain(0);
+        assertThat(chiSquared).isLessThan(MAX_LOW_BALANCE - 1 + 5 * Math.sqrt(2 * (MAX_LOW_BALANCE - 1)));
+    }
 }
@@ -1,5 +1,6 @@
 package uk.gov.dhsc.htbhf.smartstub.service.v1;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -7,17 +8,30 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.dhsc.htbhf.smartstub.idempotency.IdempotencyCache;
+import uk.gov.dhsc.htbhf.smartstub.journal.DepositJournal;
 import uk.gov.dhsc.htbhf.smartstub.model.v1.*;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccount;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.settings.RandomOutcomeSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+import uk.gov.dhsc.htbhf.smartstub.settlement.SettlementScheduler;
+
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowableOfType;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static uk.gov.dhsc.htbhf.smartstub.helper.v1.CardRequestDTOTestDataFactory.aCardRequestWithFirstName;
 import static uk.gov.dhsc.htbhf.smartstub.helper.v1.DepositFundsRequestDTOTestDataFactory.aValidDepositFundsRequest;
+import static uk.gov.dhsc.htbhf.smartstub.warmup.WarmUpRequests.WARM_UP_NAMESPACE;
 
 @ExtendWith(MockitoExtension.class)
 class CardServiceTest {
@@ -25,9 +39,26 @@ class CardServiceTest {
     @Mock
     private CardBalanceGenerator cardBalanceGenerator;
 
+    @Mock
+    private SettlementScheduler settlementScheduler;
+
+    @Mock
+    private DepositJournal depositJournal;
+
+    @Spy
+    private StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+
+    @Spy
+    private RandomOutcomes randomOutcomes = new RandomOutcomes();
+
+    @Spy
+    private IdempotencyCache idempotencyCache = new IdempotencyCache(false, 0, 0, new SimpleMeterRegistry());
+
     @InjectMocks
     private CardService cardService;
 
+    private final StubNamespace namespace = new StubNamespace("test", 1);
+
     @ParameterizedTest
     @CsvSource({
             "NOTOPUP, 1-",
@@ -40,21 +71,36 @@ class CardServiceTest {
         //Given
         CardRequestDTO cardRequestDTO = aCardRequestWithFirstName(firstName);
         //When
-        CreateCardResponse response = cardService.createCard(cardRequestDTO);
+        CreateCardResponse response = cardService.createCard(cardRequestDTO, namespace);
         //Then
         assertThat(response).isNotNull();
         assertThat(response.getCardAccountId()).isNotNull().startsWith(expectedCardIdPrefix);
+        assertThat(namespace.findCardAccount(response.getCardAccountId())).get().extracting(CardAccount::isCreated).isEqualTo(true);
         verifyNoInteractions(cardBalanceGenerator);
     }
 
+    @Test
+    void shouldGiveRandomScenarioToCardTriggeringNone() {
+        //Given
+        stubSettingsHolder.update(stubSettingsHolder.get().toBuilder()
+                .randomOutcomes(new RandomOutcomeSettings(Map.of(), Map.of(FirstNameScenario.PARTIAL, 100.0), false))
+                .build());
+        CardRequestDTO cardRequestDTO = aCardRequestWithFirstName("Homer");
+        //When
+        CreateCardResponse response = cardService.createCard(cardRequestDTO, namespace);
+        //Then
+        assertThat(response.getCardAccountId()).startsWith("2-");
+    }
+
     @Test
     void shouldThrowExceptionWhenErrorFirstNameProvided() {
         //Given
         CardRequestDTO cardRequestDTO = aCardRequestWithFirstName("CardError");
         //When
-        RuntimeException thrown = catchThrowableOfType(() -> cardService.createCard(cardRequestDTO), RuntimeException.class);
+        RuntimeException thrown = catchThrowableOfType(() -> cardService.createCard(cardRequestDTO, namespace), RuntimeException.class);
         //Then
         assertThat(thrown).hasMessage("First name provided [CardError] has been configured to trigger an Exception when creating a card");
+        assertThat(namespace.getCardsCreated()).isZero();
         verifyNoInteractions(cardBalanceGenerator);
     }
 
@@ -64,7 +110,7 @@ class CardServiceTest {
         String cardId = "myId";
         given(cardBalanceGenerator.generateBalanceForCardId(anyString())).willReturn(52);
         //When
-        CardBalanceResponse response = cardService.getCardBalance(cardId);
+        CardBalanceResponse response = cardService.getCardBalance(cardId, namespace);
         //Then
         assertThat(response).isNotNull();
         assertThat(response.getAvailableBalanceInPence()).isEqualTo(52);
@@ -72,6 +118,34 @@ class CardServiceTest {
         verify(cardBalanceGenerator).generateBalanceForCardId(cardId);
     }
 
+    @Test
+    void shouldIgnoreDepositsInBalanceWhenSettlementDisabled() {
+        //Given
+        String cardId = "myId";
+        namespace.recordDeposit(cardId, 100);
+        given(cardBalanceGenerator.generateBalanceForCardId(anyString())).willReturn(52);
+        //When
+        CardBalanceResponse response = cardService.getCardBalance(cardId, namespace);
+        //Then
+        assertThat(response.getAvailableBalanceInPence()).isEqualTo(52);
+        assertThat(response.getLedgerBalanceInPence()).isEqualTo(52);
+    }
+
+    @Test
+    void shouldAddDepositsToLedgerBalanceAndSettledDepositsToAvailableBalance() {
+        //Given
+        String cardId = "myId";
+        namespace.recordDeposit(cardId, 100);
+        namespace.recordDeposit(cardId, 30).settle(30);
+        given(settlementScheduler.isEnabled()).willReturn(true);
+        given(cardBalanceGenerator.generateBalanceForCardId(anyString())).willReturn(52);
+        //When
+        CardBalanceResponse response = cardService.getCardBalance(cardId, namespace);
+        //Then
+        assertThat(response.getAvailableBalanceInPence()).isEqualTo(82);
+        assertThat(response.getLedgerBalanceInPence()).isEqualTo(182);
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "myId",
@@ -85,23 +159,65 @@ class CardServiceTest {
         //Given
         DepositFundsRequestDTO requestDTO = aValidDepositFundsRequest();
         //When
-        DepositFundsResponse response = cardService.depositFunds(cardId, requestDTO);
+        DepositFundsResponse response = cardService.depositFunds(cardId, requestDTO, namespace);
         //Then
         assertThat(response).isNotNull();
         assertThat(response.getReferenceId()).isNotNull();
+        assertThat(namespace.findCardAccount(cardId)).get().extracting(CardAccount::getDepositedInPence)
+                .isEqualTo((long) requestDTO.getAmountInPence());
+        verify(settlementScheduler).schedule(namespace.findCardAccount(cardId).get(), requestDTO.getAmountInPence());
+        verify(depositJournal).record("test", cardId, requestDTO.getAmountInPence(), requestDTO.getReference(), response.getReferenceId());
         verifyNoInteractions(cardBalanceGenerator);
     }
 
+    @Test
+    void shouldReturnOriginalResponsesToRepeatedRequestsWhenIdempotent() {
+        //Given
+        CardService idempotentCardService = new CardService(cardBalanceGenerator, stubSettingsHolder, settlementScheduler, depositJournal,
+                randomOutcomes, new IdempotencyCache(true, 100, 60, new SimpleMeterRegistry()));
+        CardRequestDTO cardRequestDTO = aCardRequestWithFirstName("Homer");
+        DepositFundsRequestDTO depositRequestDTO = aValidDepositFundsRequest();
+        //When
+        CreateCardResponse firstCard = idempotentCardService.createCard(cardRequestDTO, namespace);
+        CreateCardResponse repeatedCard = idempotentCardService.createCard(cardRequestDTO, namespace);
+        DepositFundsResponse firstDeposit = idempotentCardService.depositFunds(firstCard.getCardAccountId(), depositRequestDTO, namespace);
+        DepositFundsResponse repeatedDeposit = idempotentCardService.depositFunds(firstCard.getCardAccountId(), depositRequestDTO, namespace);
+        //Then
+        assertThat(repeatedCard).isEqualTo(firstCard);
+        assertThat(repeatedDeposit).isEqualTo(firstDeposit);
+        assertThat(namespace.getCardsCreated()).isEqualTo(1);
+        assertThat(namespace.getDeposits()).isEqualTo(1);
+        verify(depositJournal, times(1)).record("test", firstCard.getCardAccountId(), depositRequestDTO.getAmountInPence(),
+                depositRequestDTO.getReference(), firstDeposit.getReferenceId());
+    }
+
+    @Test
+    void shouldNotJournalOrRememberWarmUpRequests() {
+        //Given
+        IdempotencyCache enabledIdempotencyCache = new IdempotencyCache(true, 100, 60, new SimpleMeterRegistry());
+        CardService idempotentCardService = new CardService(cardBalanceGenerator, stubSettingsHolder, settlementScheduler, depositJournal,
+                randomOutcomes, enabledIdempotencyCache);
+        StubNamespace warmUpNamespace = new StubNamespace(WARM_UP_NAMESPACE, 1);
+        CardRequestDTO cardRequestDTO = aCardRequestWithFirstName("Homer");
+        //When
+        CreateCardResponse card = idempotentCardService.createCard(cardRequestDTO, warmUpNamespace);
+        idempotentCardService.depositFunds(card.getCardAccountId(), aValidDepositFundsRequest(), warmUpNamespace);
+        //Then
+        assertThat(warmUpNamespace.getDeposits()).isEqualTo(1);
+        assertThat(enabledIdempotencyCache.size()).isZero();
+        verifyNoInteractions(depositJournal);
+    }
+
     @Test
     void shouldThrowExceptionWhenDepositFundsReceivesCardIdWithPrefix4() {
         //Given
         String cardId = "4-myId";
         DepositFundsRequestDTO requestDTO = aValidDepositFundsRequest();
         //When
-        RuntimeException thrown = catchThrowableOfType(() -> cardService.depositFunds(cardId, requestDTO), RuntimeException.class);
+        RuntimeException thrown = catchThrowableOfType(() -> cardService.depositFunds(cardId, requestDTO, namespace), RuntimeException.class);
         //Then
         assertThat(thrown).hasMessage("Card ID provided [4-myId] matches prefix [4] that has been configured to trigger an Exception when trying to deposit "
                 + "funds to the card");
-        verifyNoInteractions(cardBalanceGenerator);
+        verifyNoInteractions(cardBalanceGenerator, settlementScheduler, depositJournal);
     }
 }
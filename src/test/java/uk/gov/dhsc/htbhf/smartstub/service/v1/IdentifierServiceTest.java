@@ -3,6 +3,7 @@ package uk.gov.dhsc.htbhf.smartstub.service.v1;
 import org.junit.jupiter.api.Test;
 
 import java.util.Base64;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static uk.gov.dhsc.htbhf.smartstub.service.v1.IdentifierService.DWP_DELIMITER;
@@ -30,4 +31,28 @@ class IdentifierServiceTest {
 
         assertThat(result).isEqualTo(expected);
     }
+
+    @Test
+    void shouldGenerateSameHashedIdentifierForSameNino() {
+        String first = service.getHashedHouseholdIdentifier(NINO);
+        String second = new IdentifierService().getHashedHouseholdIdentifier(NINO);
+
+        assertThat(first).isEqualTo(second);
+        assertThat(UUID.fromString(first).toString()).isEqualTo(first);
+    }
+
+    @Test
+    void shouldGenerateDifferentHashedIdentifiersForDifferentNinos() {
+        String result = service.getHashedHouseholdIdentifier(NINO);
+
+        assertThat(result).isNotEqualTo(service.getHashedHouseholdIdentifier("QQ123456B"));
+        assertThat(result).isNotEqualTo(service.getHashedHouseholdIdentifier("QQ123457A"));
+    }
+
+    @Test
+    void shouldGenerateHashedIdentifierWhenNoNinoProvided() {
+        String result = service.getHashedHouseholdIdentifier(null);
+
+        assertThat(result).isEqualTo(service.getHashedHouseholdIdentifier("null"));
+    }
 }
@@ -0,0 +1,64 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.generatePostcodeDataset;
+
+class PostcodePrefixIndexTest {
+
+    private static final PostcodeDataset DATASET = generatePostcodeDataset(20_000, 42);
+    private static final PostcodePrefixIndex INDEX = new PostcodePrefixIndex(DATASET);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"B", "BS", "BS1", "bs1 4", "BS14TB", "W1", "SW1", "ZE", "AB12"})
+    void shouldReturnFirstMatchesInSortedOrder(String partialPostcode) {
+        //Given
+        List<String> expected = sortedPostcodesStartingWith(partialPostcode.replace(" ", "").toUpperCase()).stream()
+                .limit(10)
+                .collect(Collectors.toList());
+        //When
+        List<String> postcodes = INDEX.findPostcodesStartingWith(partialPostcode, 10);
+        //Then
+        assertThat(postcodes).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldFindStubPostcode() {
+        //When
+        List<String> postcodes = INDEX.findPostcodesStartingWith("BS14TB", 10);
+        //Then
+        assertThat(postcodes).containsExactly("BS1 4TB");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"QQ", "BS1 4TBX", "12345678", "\u00C4"})
+    void shouldReturnNoMatchesForUnknownPrefix(String partialPostcode) {
+        //When
+        List<String> postcodes = INDEX.findPostcodesStartingWith(partialPostcode, 10);
+        //Then
+        assertThat(postcodes).isEmpty();
+    }
+
+    @Test
+    void shouldReturnNoMatchesForZeroLimit() {
+        //When
+        List<String> postcodes = INDEX.findPostcodesStartingWith("BS", 0);
+        //Then
+        assertThat(postcodes).isEmpty();
+    }
+
+    private List<String> sortedPostcodesStartingWith(String prefix) {
+        return IntStream.range(0, DATASET.size())
+                .mapToObj(DATASET::getPostcode)
+                .filter(postcode -> postcode.replace(" ", "").startsWith(prefix))
+                .sorted((first, second) -> first.replace(" ", "").compareTo(second.replace(" ", "")))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.STUB_LATITUDE;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.STUB_LONGITUDE;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDatasetFactory.generatePostcodeDataset;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.PostcodeSpatialIndex.EARTH_RADIUS_IN_METRES;
+
+class PostcodeSpatialIndexTest {
+
+    private static final PostcodeDataset DATASET = generatePostcodeDataset(20_000, 42);
+    private static final PostcodeSpatialIndex INDEX = new PostcodeSpatialIndex(DATASET);
+
+    @Test
+    void shouldFindStubPostcodeAtItsOwnCoordinates() {
+        //When
+        PostcodeSpatialIndex.Neighbours neighbours = INDEX.findNearest(STUB_LONGITUDE, STUB_LATITUDE, 1, 0);
+        //Then
+        assertThat(neighbours.size()).isEqualTo(1);
+        assertThat(DATASET.getPostcode(neighbours.getIndex(0))).isEqualTo("BS1 4TB");
+        assertThat(neighbours.getDistanceInMetres(0)).isCloseTo(0, within(0.001));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10, 20000",
+            "1, 50000",
+            "100, 10000",
+            "5, 500"
+    })
+    void shouldMatchBruteForceSearch(int limit, int radiusInMetres) {
+        Random random = new Random(limit);
+        for (int query = 0; query < 50; query++) {
+            //Given
+            double longitude = -5 + random.nextDouble() * 6;
+            double latitude = 50.5 + random.nextDouble() * 7;
+            double[] expectedDistances = bruteForceDistances(longitude, latitude, radiusInMetres);
+            //When
+            PostcodeSpatialIndex.Neighbours neighbours = INDEX.findNearest(longitude, latitude, limit, radiusInMetres);
+            //Then
+            assertThat(neighbours.size()).isEqualTo(Math.min(limit, expectedDistances.length));
+            for (int n = 0; n < neighbours.size(); n++) {
+                assertThat(neighbours.getDistanceInMetres(n)).isCloseTo(expectedDistances[n], within(0.01));
+            }
+        }
+    }
+
+    @Test
+    void shouldReturnNoNeighboursForZeroLimit() {
+        //When
+        PostcodeSpatialIndex.Neighbours neighbours = INDEX.findNearest(STUB_LONGITUDE, STUB_LATITUDE, 0, 2000);
+        //Then
+        assertThat(neighbours.size()).isZero();
+    }
+
+    private double[] bruteForceDistances(double longitude, double latitude, int radiusInMetres) {
+        return IntStream.range(0, DATASET.size())
+                .mapToDouble(i -> haversine(longitude, latitude, DATASET.getLongitude(i), DATASET.getLatitude(i)))
+                .filter(distance -> distance <= radiusInMetres)
+                .sorted()
+                .toArray();
+    }
+
+    private static double haversine(double longitude1, double latitude1, double longitude2, double latitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double deltaPhi = phi2 - phi1;
+        double deltaLambda = Math.toRadians(longitude2 - longitude1);
+        double h = Math.pow(Math.sin(deltaPhi / 2), 2) + Math.cos(phi1) * Math.cos(phi2) * Math.pow(Math.sin(deltaLambda / 2), 2);
+        return 2 * EARTH_RADIUS_IN_METRES * Math.asin(Math.sqrt(h));
+    }
+}
@@ -0,0 +1,51 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class BlockedBloomFilterTest {
+
+    @Test
+    void shouldContainEveryKeyAddedAndFewOthers() {
+        //Given
+        int keys = 100_000;
+        BlockedBloomFilter filter = new BlockedBloomFilter(keys);
+
+        //When
+        for (long key = 0; key < keys; key++) {
+            filter.add(key * 2);
+        }
+
+        //Then
+        int falsePositives = 0;
+        for (long key = 0; key < keys; key++) {
+            assertThat(filter.mightContain(key * 2)).isTrue();
+            falsePositives += filter.mightContain(key * 2 + 1) ? 1 : 0;
+        }
+        assertThat(falsePositives).isLessThan(keys / 50);
+    }
+
+    @Test
+    void shouldRecreateFilterFromWords() {
+        //Given
+        BlockedBloomFilter filter = new BlockedBloomFilter(1000);
+        filter.add(42);
+
+        //When
+        BlockedBloomFilter copy = new BlockedBloomFilter(filter.getWords().clone());
+
+        //Then
+        assertThat(copy.mightContain(42)).isTrue();
+    }
+
+    @Test
+    void shouldRejectWordsThatAreNotWholeBlocks() {
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> new BlockedBloomFilter(new long[12]), IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessageContaining("power of two");
+    }
+}
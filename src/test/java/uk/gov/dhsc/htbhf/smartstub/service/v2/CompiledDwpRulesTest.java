@@ -0,0 +1,115 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.MATCHED;
+import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.NOT_HELD;
+import static uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome.NOT_MATCHED;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService.ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService.MOBILE_AND_EMAIL_NOT_HELD_SURNAME;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService.POSTCODE_NOT_MATCHED_SURNAME;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.NinoOutcome.ELIGIBILITY_NOT_CONFIRMED;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.NinoOutcome.IDENTITY_NOT_MATCHED;
+
+class CompiledDwpRulesTest {
+
+    private final StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+    private final DwpRules dwpRules = DwpRules.defaultRules(stubSettingsHolder);
+
+    @ParameterizedTest(name = "NINO={0}")
+    @CsvSource({
+            "MC123456A, MATCHED, CONFIRMED",
+            "XC123456A, NOT_MATCHED, NOT_SET",
+            "XX123456A, NOT_MATCHED, NOT_SET",
+            "MX123456A, MATCHED, NOT_CONFIRMED",
+            "ØC123456A, MATCHED, CONFIRMED",
+            "M, MATCHED, CONFIRMED"
+    })
+    void shouldEvaluateDefaultNinoRules(String nino, IdentityOutcome identityOutcome, EligibilityOutcome eligibilityOutcome) {
+        //Given
+        CompiledDwpRules rules = dwpRules.compiledFor(stubSettingsHolder.get());
+
+        //When
+        int flags = rules.evaluateNino(nino);
+
+        //Then
+        assertThat(rules.getIdentityOutcome(flags)).isEqualTo(identityOutcome);
+        assertThat(rules.getEligibilityOutcome(flags)).isEqualTo(eligibilityOutcome);
+    }
+
+    @Test
+    void shouldGetSurnameRulesFromSettings() {
+        //Given
+        CompiledDwpRules rules = dwpRules.compiledFor(stubSettingsHolder.get());
+
+        //Then
+        assertThat(rules.getSurnameRule(ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME)).isEqualTo(new SurnameRule(NOT_MATCHED, MATCHED, MATCHED, MATCHED));
+        assertThat(rules.getSurnameRule(POSTCODE_NOT_MATCHED_SURNAME)).isEqualTo(new SurnameRule(MATCHED, NOT_MATCHED, MATCHED, MATCHED));
+        assertThat(rules.getSurnameRule(MOBILE_AND_EMAIL_NOT_HELD_SURNAME)).isEqualTo(new SurnameRule(MATCHED, MATCHED, NOT_HELD, NOT_HELD));
+        assertThat(rules.getSurnameRule("Simpson")).isEqualTo(SurnameRule.ALL_MATCHED);
+        assertThat(rules.getSurnameRule(null)).isEqualTo(SurnameRule.ALL_MATCHED);
+    }
+
+    @Test
+    void shouldCombineNewRulesFromTableWithSettings() {
+        //Given
+        DwpRuleTable ruleTable = DwpRuleTable.builder()
+                .ninoRules(List.of(new NinoRule(8, "DE", ELIGIBILITY_NOT_CONFIRMED), new NinoRule(8, "E", IDENTITY_NOT_MATCHED)))
+                .surnameRules(Map.of(
+                        "AddressAndMobileNotMatched", SurnameRule.builder().addressLine1(NOT_MATCHED).mobile(NOT_MATCHED).build(),
+                        POSTCODE_NOT_MATCHED_SURNAME, SurnameRule.builder().email(NOT_HELD).build()))
+                .build();
+
+        //When
+        CompiledDwpRules rules = CompiledDwpRules.compile(ruleTable, stubSettingsHolder.get());
+
+        //Then
+        assertThat(rules.getEligibilityOutcome(rules.evaluateNino("MC123456D"))).isEqualTo(EligibilityOutcome.NOT_CONFIRMED);
+        assertThat(rules.getIdentityOutcome(rules.evaluateNino("MC123456E"))).isEqualTo(IdentityOutcome.NOT_MATCHED);
+        assertThat(rules.getIdentityOutcome(rules.evaluateNino("XC123456A"))).isEqualTo(IdentityOutcome.MATCHED);
+        assertThat(rules.getSurnameRule("AddressAndMobileNotMatched")).isEqualTo(new SurnameRule(NOT_MATCHED, MATCHED, NOT_MATCHED, MATCHED));
+        assertThat(rules.getSurnameRule(POSTCODE_NOT_MATCHED_SURNAME)).isEqualTo(new SurnameRule(MATCHED, NOT_MATCHED, MATCHED, NOT_HELD));
+    }
+
+    @Test
+    void shouldRecompileWhenSettingsAreReplaced() {
+        //Given
+        CompiledDwpRules before = dwpRules.compiledFor(stubSettingsHolder.get());
+        StubSettings updated = stubSettingsHolder.update(stubSettingsHolder.get().toBuilder()
+                .addressLine1NotMatchedSurname("Flanders")
+                .surnameVerificationOutcomes(Map.of())
+                .build());
+
+        //When
+        CompiledDwpRules after = dwpRules.compiledFor(updated);
+
+        //Then
+        assertThat(dwpRules.compiledFor(stubSettingsHolder.get())).isSameAs(after);
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getSurnameRule("Flanders").getAddressLine1()).isEqualTo(NOT_MATCHED);
+        assertThat(after.getSurnameRule(ADDRESS_LINE_ONE_NOT_MATCHED_SURNAME)).isEqualTo(SurnameRule.ALL_MATCHED);
+        assertThat(after.getSurnameRule(MOBILE_AND_EMAIL_NOT_HELD_SURNAME)).isEqualTo(SurnameRule.ALL_MATCHED);
+    }
+
+    @Test
+    void shouldRejectRuleForCharacterThatIsNotAscii() {
+        //Given
+        DwpRuleTable ruleTable = DwpRuleTable.builder()
+                .ninoRules(List.of(new NinoRule(0, "Ø", IDENTITY_NOT_MATCHED)))
+                .build();
+
+        //Then
+        assertThatIllegalArgumentException().isThrownBy(() -> CompiledDwpRules.compile(ruleTable, stubSettingsHolder.get()));
+    }
+}
@@ -6,12 +6,20 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import uk.gov.dhsc.htbhf.dwp.model.DWPEligibilityRequest;
 import uk.gov.dhsc.htbhf.dwp.model.IdentityAndEligibilityResponse;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
 import uk.gov.dhsc.htbhf.dwp.model.PersonDTO;
 import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
 import uk.gov.dhsc.htbhf.eligibility.model.testhelper.ChildDobGenerator;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.IdentifierService;
+import uk.gov.dhsc.htbhf.smartstub.settings.RandomOutcomeSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
@@ -42,7 +50,10 @@ class IdentityAndEligibilityServiceTest {
     private static final String IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_NO_CHILDREN_NINO = "MC009999A";
     private static final String NOT_SET = null;
 
-    private IdentityAndEligibilityService service = new IdentityAndEligibilityService();
+    private final StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+    private final SimulationClock simulationClock = new SimulationClock();
+    private IdentityAndEligibilityService service = new IdentityAndEligibilityService(stubSettingsHolder, DwpRules.defaultRules(stubSettingsHolder),
+            new IdentifierService(), HouseholdIdentifierMode.RANDOM, simulationClock, new RandomOutcomes());
 
     @Test
     void shouldFailIdentityMatch() {
@@ -150,6 +161,86 @@ class IdentityAndEligibilityServiceTest {
         runEvaluateEligibilityTest(person, expectedResponse);
     }
 
+    @Test
+    void shouldGenerateHouseholdIdentifierFromNinoHash() {
+        //Given
+        IdentifierService identifierService = new IdentifierService();
+        IdentityAndEligibilityService hashingService = new IdentityAndEligibilityService(stubSettingsHolder, DwpRules.defaultRules(stubSettingsHolder),
+                identifierService, HouseholdIdentifierMode.NINO_HASH, simulationClock, new RandomOutcomes());
+        DWPEligibilityRequest requestV2 = aValidDWPEligibilityRequestWithPerson(aPersonDTOWithNino(IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_NINO));
+        //When
+        IdentityAndEligibilityResponse first = hashingService.evaluateEligibility(requestV2);
+        IdentityAndEligibilityResponse second = hashingService.evaluateEligibility(requestV2);
+        //Then
+        assertThat(first.getHouseholdIdentifier())
+                .isEqualTo(identifierService.getHashedHouseholdIdentifier(IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_NINO));
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void shouldGiveChildrenDatesOfBirthRelativeToSimulatedDate() {
+        //Given
+        simulationClock.set(Instant.parse("2030-06-15T12:00:00Z"), 0);
+        PersonDTO person = aPersonDTOWithNino(IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_FULL_CHILDREN_MATCH_NINO);
+
+        //When
+        IdentityAndEligibilityResponse response = service.evaluateEligibility(aValidDWPEligibilityRequestWithPerson(person));
+
+        //Then
+        assertThat(response.getDobOfChildrenUnder4()).containsExactlyInAnyOrder(LocalDate.of(2029, 12, 1), LocalDate.of(2027, 6, 1));
+    }
+
+    @Test
+    void shouldGiveRandomOutcomeToRequestTriggeringNone() {
+        //Given
+        setRandomDwpOutcome(RandomDwpOutcome.IDENTITY_NOT_MATCHED);
+        PersonDTO person = aPersonDTOWithNino(IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_NINO);
+
+        //When
+        IdentityAndEligibilityResponse response = service.evaluateEligibility(aValidDWPEligibilityRequestWithPerson(person));
+
+        //Then
+        assertIsEqualIgnoringHouseholdIdentifier(response, anIdMatchFailedResponse());
+    }
+
+    @Test
+    void shouldGiveRandomVerificationOutcomesToRequestTriggeringNone() {
+        //Given
+        setRandomDwpOutcome(RandomDwpOutcome.MOBILE_NOT_MATCHED);
+        PersonDTO person = aPersonDTOWithNino(IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_NINO);
+
+        //When
+        IdentityAndEligibilityResponse response = service.evaluateEligibility(aValidDWPEligibilityRequestWithPerson(person));
+
+        //Then
+        assertThat(response.getIdentityStatus()).isEqualTo(IdentityOutcome.MATCHED);
+        assertThat(response.getMobilePhoneMatch()).isEqualTo(NOT_MATCHED);
+        assertThat(response.getEmailAddressMatch()).isEqualTo(MATCHED);
+    }
+
+    @Test
+    void shouldNotGiveRandomOutcomeToRequestTriggeringOne() {
+        //Given
+        setRandomDwpOutcome(RandomDwpOutcome.IDENTITY_NOT_MATCHED);
+        PersonDTO notEligiblePerson = aPersonDTOWithNino(IDENTITY_MATCHED_NOT_ELIGIBLE_NINO);
+        PersonDTO mobileNotHeldPerson = aPersonDTOWithSurnameAndNino(MOBILE_NOT_HELD_SURNAME, IDENTITY_MATCHED_ELIGIBILITY_CONFIRMED_NINO);
+
+        //When
+        IdentityAndEligibilityResponse notEligibleResponse = service.evaluateEligibility(aValidDWPEligibilityRequestWithPerson(notEligiblePerson));
+        IdentityAndEligibilityResponse mobileNotHeldResponse = service.evaluateEligibility(aValidDWPEligibilityRequestWithPerson(mobileNotHeldPerson));
+
+        //Then
+        assertIsEqualIgnoringHouseholdIdentifier(notEligibleResponse, anIdMatchedEligibilityNotConfirmedResponse());
+        assertThat(mobileNotHeldResponse.getIdentityStatus()).isEqualTo(IdentityOutcome.MATCHED);
+        assertThat(mobileNotHeldResponse.getMobilePhoneMatch()).isEqualTo(NOT_HELD);
+    }
+
+    private void setRandomDwpOutcome(RandomDwpOutcome outcome) {
+        stubSettingsHolder.update(stubSettingsHolder.get().toBuilder()
+                .randomOutcomes(new RandomOutcomeSettings(Map.of(outcome, 100.0), Map.of(), false))
+                .build());
+    }
+
     private void runEvaluateEligibilityTest(PersonDTO person, IdentityAndEligibilityResponse expectedResponse) {
         //Given
         DWPEligibilityRequest requestV2 = aValidDWPEligibilityRequestWithPerson(person);
@@ -0,0 +1,154 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.QualifyingBenefits;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class NinoFixtureIndexTest {
+
+    private Path csvFile;
+    private Path indexFile;
+
+    @BeforeEach
+    void createFiles() throws IOException {
+        csvFile = Files.createTempFile("nino-fixtures", ".csv");
+        indexFile = Files.createTempFile("nino-fixtures", ".idx");
+    }
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    @Test
+    void shouldFindFixtureForNino() throws IOException {
+        //Given
+        Files.write(csvFile, List.of(
+                "nino,identityStatus,eligibilityStatus,qualifyingBenefits,addressLine1Match,postcodeMatch,mobilePhoneMatch,emailAddressMatch",
+                "# Identity not matched",
+                "AB123456C,NOT_MATCHED,NOT_SET",
+                "",
+                "MA123456C,MATCHED,CONFIRMED,UNIVERSAL_CREDIT,NOT_MATCHED,MATCHED,NOT_HELD,"));
+
+        //When
+        NinoFixtureIndex index = NinoFixtureIndex.build(csvFile, indexFile);
+
+        //Then
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.find("AB123456C")).contains(NinoFixture.builder()
+                .identityStatus(IdentityOutcome.NOT_MATCHED)
+                .eligibilityStatus(EligibilityOutcome.NOT_SET)
+                .build());
+        assertThat(index.find("ma123456c")).contains(NinoFixture.builder()
+                .identityStatus(IdentityOutcome.MATCHED)
+                .eligibilityStatus(EligibilityOutcome.CONFIRMED)
+                .qualifyingBenefits(QualifyingBenefits.UNIVERSAL_CREDIT)
+                .addressLine1Match(VerificationOutcome.NOT_MATCHED)
+                .postcodeMatch(VerificationOutcome.MATCHED)
+                .mobilePhoneMatch(VerificationOutcome.NOT_HELD)
+                .build());
+        assertThat(index.find("AB123456D")).isEmpty();
+        assertThat(index.find("AB123456")).isEmpty();
+        assertThat(index.find("AB 123456C")).isEmpty();
+        assertThat(index.find(null)).isEmpty();
+    }
+
+    @Test
+    void shouldFindEveryFixtureOfLargeFileAndStoreEachDistinctFixtureOnce() throws IOException {
+        //Given
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100_000; i += 2) {
+            lines.add(String.format("AB%06dC,%s,CONFIRMED", i, i % 4 == 0 ? "MATCHED" : "NOT_MATCHED"));
+        }
+        Files.write(csvFile, lines);
+
+        //When
+        NinoFixtureIndex index = NinoFixtureIndex.build(csvFile, indexFile);
+
+        //Then
+        assertThat(index.size()).isEqualTo(50_000);
+        assertThat(index.getDistinctFixtures()).isEqualTo(2);
+        for (int i = 0; i < 100_000; i++) {
+            String nino = String.format("AB%06dC", i);
+            if (i % 2 == 0) {
+                IdentityOutcome expected = i % 4 == 0 ? IdentityOutcome.MATCHED : IdentityOutcome.NOT_MATCHED;
+                assertThat(index.find(nino)).get().extracting(NinoFixture::getIdentityStatus).isEqualTo(expected);
+            } else {
+                assertThat(index.find(nino)).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void shouldOpenExistingIndexFile() throws IOException {
+        //Given
+        Files.write(csvFile, List.of("AB123456C,MATCHED,NOT_CONFIRMED"));
+        NinoFixtureIndex.build(csvFile, indexFile);
+
+        //When
+        NinoFixtureIndex index = NinoFixtureIndex.open(indexFile);
+
+        //Then
+        assertThat(index.find("AB123456C")).get().extracting(NinoFixture::getEligibilityStatus).isEqualTo(EligibilityOutcome.NOT_CONFIRMED);
+    }
+
+    @Test
+    void shouldRejectMoreThanOneFixtureForNino() throws IOException {
+        //Given
+        Files.write(csvFile, List.of("AB123456C,MATCHED,CONFIRMED", "ab123456c,MATCHED,NOT_CONFIRMED"));
+
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> NinoFixtureIndex.build(csvFile, indexFile), IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessageStartingWith("More than one fixture for NINO AB123456C");
+    }
+
+    @Test
+    void shouldRejectInvalidOutcome() throws IOException {
+        //Given
+        Files.write(csvFile, List.of("AB123456C,MATCHED,CONFIRMED", "AB123457C,MATCHED,MAYBE"));
+
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> NinoFixtureIndex.build(csvFile, indexFile), IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessageStartingWith("Invalid outcome on line 2");
+    }
+
+    @Test
+    void shouldRejectMissingEligibilityOutcome() throws IOException {
+        //Given
+        Files.write(csvFile, List.of("AB123456C,MATCHED"));
+
+        //When
+        IllegalArgumentException thrown = catchThrowableOfType(() -> NinoFixtureIndex.build(csvFile, indexFile), IllegalArgumentException.class);
+
+        //Then
+        assertThat(thrown).hasMessageStartingWith("Missing identity or eligibility outcome on line 1");
+    }
+
+    @Test
+    void shouldFindNothingInEmptyIndex() {
+        //When
+        NinoFixtureIndex index = NinoFixtureIndex.empty();
+
+        //Then
+        assertThat(index.size()).isZero();
+        assertThat(index.find("AB123456C")).isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package uk.gov.dhsc.htbhf.smartstub.service.v2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfectHashMapTest {
+
+    @Test
+    void shouldGetValueForEveryKeyWithoutCollisions() {
+        //Given
+        Map<String, Integer> entries = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            entries.put("Surname" + i, i);
+        }
+
+        //When
+        PerfectHashMap<Integer> map = PerfectHashMap.of(entries);
+
+        //Then
+        assertThat(map.isPerfect()).isTrue();
+        assertThat(map.size()).isEqualTo(200);
+        entries.forEach((key, value) -> assertThat(map.getOrDefault(key, -1)).isEqualTo(value));
+    }
+
+    @Test
+    void shouldReturnDefaultForMissingOrNullKey() {
+        //Given
+        PerfectHashMap<Integer> map = PerfectHashMap.of(Map.of("Simpson", 1, "Flanders", 2));
+
+        //Then
+        assertThat(map.getOrDefault("Burns", -1)).isEqualTo(-1);
+        assertThat(map.getOrDefault("", -1)).isEqualTo(-1);
+        assertThat(map.getOrDefault(null, -1)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldReturnDefaultFromEmptyMap() {
+        //Given
+        PerfectHashMap<Integer> map = PerfectHashMap.of(Map.of());
+
+        //Then
+        assertThat(map.size()).isZero();
+        assertThat(map.getOrDefault("Simpson", -1)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldKeepKeysWithIdenticalHashCodes() {
+        //Given "Aa" and "BB" have the same hash code, so can never be given slots of their own
+        PerfectHashMap<Integer> map = PerfectHashMap.of(Map.of("Aa", 1, "BB", 2, "Simpson", 3));
+
+        //Then
+        assertThat(map.isPerfect()).isFalse();
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.getOrDefault("Aa", -1)).isEqualTo(1);
+        assertThat(map.getOrDefault("BB", -1)).isEqualTo(2);
+        assertThat(map.getOrDefault("Simpson", -1)).isEqualTo(3);
+        assertThat(map.getOrDefault("C#", -1)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,135 @@
+package uk.gov.dhsc.htbhf.smartstub.settings;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.CardBalanceGenerator;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.LowBalanceMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.NO_TOP_UP;
+import static uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario.PARTIAL;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.VerificationOutcomeForSurname.DEFAULT;
+import static uk.gov.dhsc.htbhf.smartstub.service.v2.VerificationOutcomeForSurname.EMAIL_NOT_HELD;
+
+class StubSettingsHolderTest {
+
+    private final StubSettingsHolder holder = new StubSettingsHolder(1239, 1860, 100000);
+
+    @Test
+    void shouldStartWithConfiguredBalancesAndDefaultScenarios() {
+        //When
+        StubSettings settings = holder.get();
+
+        //Then
+        assertThat(settings.getBalances()).isEqualTo(new BalanceSettings(1239, 1860, 100000));
+        assertThat(settings.findScenarioForFirstName("notopup")).contains(NO_TOP_UP);
+        assertThat(settings.findScenarioForFirstName("Homer")).isEmpty();
+        assertThat(settings.getVerificationOutcomesForSurname("EmailNotHeld")).isEqualTo(EMAIL_NOT_HELD);
+        assertThat(settings.getVerificationOutcomesForSurname("Simpson")).isEqualTo(DEFAULT);
+        assertThat(settings.getLatency()).isEqualTo(LatencySettings.NONE);
+        assertThat(settings.getFaults()).isEqualTo(FaultSettings.NONE);
+        assertThat(settings.getSlowDrip()).isEqualTo(SlowDripSettings.NONE);
+        assertThat(settings.getRandomOutcomes()).isEqualTo(RandomOutcomeSettings.NONE);
+    }
+
+    @Test
+    void shouldReplaceSettingsWithImmutableCopyMatchingFirstNamesIgnoringCase() {
+        //Given
+        StubSettings newSettings = holder.get().toBuilder()
+                .firstNameScenarios(Map.of("Marge", PARTIAL))
+                .build();
+
+        //When
+        StubSettings updated = holder.update(newSettings);
+
+        //Then
+        assertThat(holder.get()).isSameAs(updated);
+        assertThat(updated.findScenarioForFirstName("MARGE")).contains(PARTIAL);
+        assertThat(updated.findScenarioForFirstName("NoTopup")).isEmpty();
+        assertThatThrownBy(() -> updated.getFirstNameScenarios().put("homer", NO_TOP_UP))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> updated.getSurnameVerificationOutcomes().put("simpson", EMAIL_NOT_HELD))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldResetToInitialSettings() {
+        //Given
+        StubSettings initial = holder.get();
+        holder.update(initial.toBuilder().exceptionNino("AB123456C").build());
+
+        //When
+        StubSettings reset = holder.reset();
+
+        //Then
+        assertThat(reset).isSameAs(initial);
+        assertThat(holder.get()).isSameAs(initial);
+    }
+
+    @Test
+    void shouldOnlyEverSeeWholeSnapshotsWhileReconfiguring() throws Exception {
+        //Given
+        int readers = 8;
+        CardBalanceGenerator cardBalanceGenerator = new CardBalanceGenerator(holder, LowBalanceMode.RANDOM);
+        holder.update(settingsWithVersion(1));
+        AtomicBoolean reconfiguring = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(readers);
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        List<Future<Long>> results = new ArrayList<>();
+
+        //When
+        for (int r = 0; r < readers; r++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                long reads = 0;
+                int lastVersion = 0;
+                while (reconfiguring.get()) {
+                    StubSettings settings = holder.get();
+                    int version = settings.getBalances().getHighBalanceInPence();
+                    // every value in a snapshot is set to its version, so any mix of snapshots would show here
+                    assertThat(settings.getBalances().getPartialPaymentBalanceInPence()).isEqualTo(version);
+                    assertThat(settings.getLatency().getFixedDelayInMillis()).isEqualTo(version);
+                    assertThat(settings.getExceptionNino()).isEqualTo(Integer.toString(version));
+                    // snapshots are published in order, so a reader never goes back to an older one
+                    assertThat(version).isGreaterThanOrEqualTo(lastVersion);
+                    assertThat(cardBalanceGenerator.generateBalanceForCardId("1-card")).isGreaterThanOrEqualTo(version);
+                    lastVersion = version;
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        started.await(5, TimeUnit.SECONDS);
+        for (int version = 2; version <= 20_000; version++) {
+            holder.update(settingsWithVersion(version));
+        }
+        reconfiguring.set(false);
+
+        //Then
+        long totalReads = 0;
+        for (Future<Long> result : results) {
+            totalReads += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(totalReads).isPositive();
+        assertThat(holder.get().getBalances().getHighBalanceInPence()).isEqualTo(20_000);
+    }
+
+    private StubSettings settingsWithVersion(int version) {
+        return holder.get().toBuilder()
+                .balances(new BalanceSettings(version, version, version))
+                .latency(new LatencySettings(version, 0))
+                .exceptionNino(Integer.toString(version))
+                .build();
+    }
+}
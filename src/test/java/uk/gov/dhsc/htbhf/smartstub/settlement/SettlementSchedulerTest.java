@@ -0,0 +1,95 @@
+package uk.gov.dhsc.htbhf.smartstub.settlement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccount;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementSchedulerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SimulationClock simulationClock = new SimulationClock();
+    private final StubNamespace namespace = new StubNamespace("test", 1);
+    private SettlementScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldSettleDepositImmediatelyWhenDisabled() {
+        //Given
+        scheduler = new SettlementScheduler(false, 60_000, 10, 100, simulationClock, meterRegistry);
+        CardAccount cardAccount = namespace.recordDeposit("card", 100);
+
+        //When
+        scheduler.schedule(cardAccount, 100);
+
+        //Then
+        assertThat(cardAccount.getSettledInPence()).isEqualTo(100);
+        assertThat(scheduler.getPending()).isZero();
+    }
+
+    @Test
+    void shouldSettleDepositAfterDelay() throws InterruptedException {
+        //Given
+        scheduler = new SettlementScheduler(true, 200, 10, 100, simulationClock, meterRegistry);
+        CardAccount cardAccount = namespace.recordDeposit("card", 100);
+        long start = System.nanoTime();
+
+        //When
+        scheduler.schedule(cardAccount, 100);
+
+        //Then
+        assertThat(cardAccount.getSettledInPence()).isZero();
+        assertThat(meterRegistry.get("stub.settlement.pending").gauge().value()).isEqualTo(1);
+        while (cardAccount.getSettledInPence() == 0 && System.nanoTime() - start < 5_000_000_000L) {
+            Thread.sleep(10);
+        }
+        assertThat(cardAccount.getSettledInPence()).isEqualTo(100);
+        assertThat((System.nanoTime() - start) / 1_000_000).isGreaterThanOrEqualTo(190);
+        assertThat(scheduler.getPending()).isZero();
+    }
+
+    @Test
+    void shouldSettleDepositSoonerWhenClockRunsFaster() throws InterruptedException {
+        //Given
+        simulationClock.set(null, 100);
+        scheduler = new SettlementScheduler(true, 60_000, 10, 100, simulationClock, meterRegistry);
+        CardAccount cardAccount = namespace.recordDeposit("card", 100);
+        long start = System.nanoTime();
+
+        //When
+        scheduler.schedule(cardAccount, 100);
+
+        //Then
+        while (cardAccount.getSettledInPence() == 0 && System.nanoTime() - start < 30_000_000_000L) {
+            Thread.sleep(10);
+        }
+        assertThat(cardAccount.getSettledInPence()).isEqualTo(100);
+        assertThat((System.nanoTime() - start) / 1_000_000).isBetween(590L, 10_000L);
+    }
+
+    @Test
+    void shouldSettleDepositImmediatelyWhenMaxPendingReached() {
+        //Given
+        scheduler = new SettlementScheduler(true, 60_000, 10, 1, simulationClock, meterRegistry);
+        CardAccount first = namespace.recordDeposit("first", 100);
+        CardAccount second = namespace.recordDeposit("second", 200);
+        scheduler.schedule(first, 100);
+
+        //When
+        scheduler.schedule(second, 200);
+
+        //Then
+        assertThat(first.getSettledInPence()).isZero();
+        assertThat(second.getSettledInPence()).isEqualTo(200);
+        assertThat(meterRegistry.get("stub.settlement.settled-immediately").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,128 @@
+package uk.gov.dhsc.htbhf.smartstub.settlement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class TimerWheelTest {
+
+    private final TimerWheel<String> wheel = new TimerWheel<>();
+    private final List<String> expired = new ArrayList<>();
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 255, 256, 257, 65_535, 65_536, 65_537, 16_777_216, 16_777_217})
+    void shouldExpireTimerAtItsDeadline(long delay) {
+        //Given
+        wheel.advanceTo(1000, this::record);
+        wheel.schedule(delay, "timer", delay);
+
+        //When
+        wheel.advanceTo(1000 + delay - 1, this::record);
+        List<String> expiredBeforeDeadline = new ArrayList<>(expired);
+        wheel.advanceTo(1000 + delay, this::record);
+
+        //Then
+        assertThat(expiredBeforeDeadline).isEmpty();
+        assertThat(expired).containsExactly("timer:" + delay);
+        assertThat(wheel.getPending()).isZero();
+    }
+
+    @Test
+    void shouldExpireTimerWithNoDelayOnNextTick() {
+        //Given
+        wheel.schedule(0, "timer", 1);
+
+        //When
+        int count = wheel.advanceTo(1, this::record);
+
+        //Then
+        assertThat(count).isEqualTo(1);
+        assertThat(expired).containsExactly("timer:1");
+    }
+
+    @Test
+    void shouldExpireTimersInDeadlineOrder() {
+        //Given
+        wheel.schedule(70_000, "third", 3);
+        wheel.schedule(300, "second", 2);
+        wheel.schedule(5, "first", 1);
+
+        //When
+        wheel.advanceTo(100_000, this::record);
+
+        //Then
+        assertThat(expired).containsExactly("first:1", "second:2", "third:3");
+    }
+
+    @Test
+    void shouldExpireEveryTimerOnceAndNotBeforeItsDeadline() {
+        //Given
+        SplittableRandom random = new SplittableRandom(42);
+        long[] deadlines = new long[100_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = 1 + random.nextLong(1_000_000);
+            wheel.schedule(deadlines[i], Integer.toString(i), deadlines[i]);
+        }
+        List<Long> early = new ArrayList<>();
+        int[] count = new int[1];
+
+        //When
+        for (long tick = 0; wheel.getPending() > 0; tick += 1 + random.nextInt(1000)) {
+            long now = tick;
+            wheel.advanceTo(now, (target, deadline) -> {
+                count[0]++;
+                if (deadline > now || deadlines[Integer.parseInt(target)] != deadline) {
+                    early.add(deadline);
+                }
+            });
+        }
+
+        //Then
+        assertThat(count[0]).isEqualTo(deadlines.length);
+        assertThat(early).isEmpty();
+    }
+
+    @Test
+    void shouldSkipEmptySlotsWhenAdvancingFarAhead() {
+        //Given
+        wheel.schedule(4_000_000_000L, "far", 1);
+        wheel.schedule(3, "near", 2);
+
+        //When
+        int count = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> wheel.advanceTo(1L << 40, this::record));
+
+        //Then
+        assertThat(count).isEqualTo(2);
+        assertThat(expired).containsExactly("near:2", "far:1");
+        assertThat(wheel.getCurrentTick()).isEqualTo(1L << 40);
+    }
+
+    @Test
+    void shouldReuseEntriesOfExpiredTimers() {
+        //Given
+        for (int i = 0; i < 10_000; i++) {
+            wheel.schedule(1, "timer", i);
+        }
+        wheel.advanceTo(1, this::record);
+
+        //When
+        wheel.schedule(1, "again", 0);
+        wheel.advanceTo(2, this::record);
+
+        //Then
+        assertThat(expired).hasSize(10_001).endsWith("again:0");
+        assertThat(wheel.getPending()).isZero();
+    }
+
+    private void record(String target, long value) {
+        expired.add(target + ":" + value);
+    }
+}
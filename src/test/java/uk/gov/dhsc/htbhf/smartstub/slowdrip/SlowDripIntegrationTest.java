@@ -0,0 +1,110 @@
+package uk.gov.dhsc.htbhf.smartstub.slowdrip;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import uk.gov.dhsc.htbhf.smartstub.settings.FaultSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.SlowDripSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.factory.v1.PostcodeDataFactory.postcodeData;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.max-threads=4",
+        "server.tomcat.min-spare-threads=4"
+})
+class SlowDripIntegrationTest {
+
+    private static final String POSTCODE = "bs14tb";
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StubSettingsHolder stubSettingsHolder;
+
+    @AfterEach
+    void resetSettings() {
+        stubSettingsHolder.reset();
+    }
+
+    @Test
+    void shouldTrickleWholeBodyAtConfiguredRate() throws Exception {
+        //Given
+        String expectedBody = postcodeData(POSTCODE);
+        setSlowDrip(new SlowDripSettings(2000, 100, 250));
+        long start = System.nanoTime();
+
+        //When
+        HttpResponse<String> response = httpClient.send(postcodeRequest(), HttpResponse.BodyHandlers.ofString());
+
+        //Then
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(expectedBody);
+        assertThat(response.headers().firstValue("Content-Length")).contains(Integer.toString(expectedBody.length()));
+        long minimumMillis = 250 + (expectedBody.length() - 100) * 1000L / 2000;
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(minimumMillis);
+    }
+
+    @Test
+    void shouldNotHoldRequestThreadsWhileTrickling() throws Exception {
+        //Given
+        setSlowDrip(new SlowDripSettings(1000, 100, 0));
+        long start = System.nanoTime();
+
+        //When
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(httpClient.sendAsync(postcodeRequest(), HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        //Then
+        // Each response takes over a second, so on four request threads they would take at least four seconds one after another.
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(elapsedMillis).isLessThan(4000);
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertThat(response.get().statusCode()).isEqualTo(200);
+            assertThat(response.get().body()).isEqualTo(postcodeData(POSTCODE));
+        }
+    }
+
+    @Test
+    void shouldWriteInjectedFaultsAsNormal() throws Exception {
+        //Given
+        stubSettingsHolder.update(stubSettingsHolder.get().toBuilder()
+                .slowDrip(new SlowDripSettings(1, 1, 60_000))
+                .faults(new FaultSettings(100.0, 503))
+                .build());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/cards/9-abc/balance")).build();
+
+        //When
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        //Then
+        assertThat(response.statusCode()).isEqualTo(503);
+    }
+
+    private void setSlowDrip(SlowDripSettings slowDrip) {
+        stubSettingsHolder.update(stubSettingsHolder.get().toBuilder().slowDrip(slowDrip).build());
+    }
+
+    private HttpRequest postcodeRequest() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/postcodes/" + POSTCODE)).build();
+    }
+}
@@ -0,0 +1,170 @@
+package uk.gov.dhsc.htbhf.smartstub.slowdrip;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.settings.SlowDripSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class SlowDripWriterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final RecordingOutputStream outputStream = new RecordingOutputStream();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void shouldWriteWholeBodyInChunksAtConfiguredRate() throws Exception {
+        //Given
+        byte[] body = randomBody(1000);
+        SlowDripWriter writer = new SlowDripWriter(asyncContext, outputStream, body, new SlowDripSettings(5000, 100, 0), scheduler, finished::countDown);
+        long start = System.nanoTime();
+
+        //When
+        writer.onWritePossible();
+
+        //Then
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(180);
+        assertThat(outputStream.toByteArray()).isEqualTo(body);
+        assertThat(outputStream.flushedSizes).containsExactly(100, 200, 300, 400, 500, 600, 700, 800, 900, 1000);
+        verify(asyncContext).complete();
+    }
+
+    @Test
+    void shouldStallHalfWayThroughBody() throws Exception {
+        //Given
+        byte[] body = randomBody(999);
+        SlowDripWriter writer = new SlowDripWriter(asyncContext, outputStream, body, new SlowDripSettings(100_000, 200, 300), scheduler, finished::countDown);
+
+        //When
+        writer.onWritePossible();
+
+        //Then
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(outputStream.toByteArray()).isEqualTo(body);
+        assertThat(outputStream.flushedSizes).containsExactly(200, 400, 499, 699, 899, 999);
+        long stallMillis = (outputStream.flushedNanos.get(3) - outputStream.flushedNanos.get(2)) / 1_000_000;
+        assertThat(stallMillis).isGreaterThanOrEqualTo(300);
+    }
+
+    @Test
+    void shouldWaitForContainerWhenStreamIsNotReady() throws Exception {
+        //Given
+        byte[] body = randomBody(10);
+        outputStream.ready = false;
+        SlowDripWriter writer = new SlowDripWriter(asyncContext, outputStream, body, new SlowDripSettings(1_000_000, 5, 0), scheduler, finished::countDown);
+
+        //When
+        writer.onWritePossible();
+
+        //Then
+        assertThat(outputStream.size()).isZero();
+        outputStream.ready = true;
+        writer.onWritePossible();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(outputStream.toByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void shouldStopWritingWhenClientGoesAway() throws Exception {
+        //Given
+        byte[] body = randomBody(100);
+        SlowDripWriter writer = new SlowDripWriter(asyncContext, outputStream, body, new SlowDripSettings(100, 10, 0), scheduler, finished::countDown);
+        writer.onWritePossible();
+
+        //When
+        writer.onError(new IOException("Connection reset by peer"));
+
+        //Then
+        assertThat(finished.getCount()).isZero();
+        verify(asyncContext).complete();
+        Thread.sleep(200);
+        assertThat(outputStream.size()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldNotCompleteUntilWholeBodyWritten() throws Exception {
+        //Given
+        byte[] body = randomBody(100);
+        SlowDripWriter writer = new SlowDripWriter(asyncContext, outputStream, body, new SlowDripSettings(200, 50, 0), scheduler, finished::countDown);
+
+        //When
+        writer.onWritePossible();
+
+        //Then
+        verify(asyncContext, never()).complete();
+        verify(asyncContext, timeout(2000)).complete();
+        assertThat(outputStream.toByteArray()).isEqualTo(body);
+    }
+
+    private static byte[] randomBody(int length) {
+        byte[] body = new byte[length];
+        new Random(length).nextBytes(body);
+        return body;
+    }
+
+    private static class RecordingOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Integer> flushedSizes = new ArrayList<>();
+        private final List<Long> flushedNanos = new ArrayList<>();
+        private volatile boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int offset, int length) {
+            bytes.write(b, offset, length);
+        }
+
+        @Override
+        public synchronized void flush() {
+            flushedSizes.add(bytes.size());
+            flushedNanos.add(System.nanoTime());
+        }
+
+        synchronized int size() {
+            return bytes.size();
+        }
+
+        synchronized byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
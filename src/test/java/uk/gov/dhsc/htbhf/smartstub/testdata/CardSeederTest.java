@@ -0,0 +1,81 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.namespace.CardAccount;
+import uk.gov.dhsc.htbhf.smartstub.namespace.StubNamespace;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CardSeederTest {
+
+    private static final String CARD_ID_PATTERN = "[1-49]-[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}";
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final CardSeeder seeder = new CardSeeder(pool);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldCreateEveryCardInNamespace() throws IOException {
+        //Given
+        StubNamespace namespace = new StubNamespace("seeded", 1);
+        int count = CardSeeder.BLOCK_SIZE * 10 + 7;
+
+        //When
+        List<String> lines = seed(namespace, ScenarioMix.parse(ScenarioMix.DEFAULT_MIX).without(DataScenario.CARD_ERROR), count, 42);
+
+        //Then
+        assertThat(lines).hasSize(count + 1).first().isEqualTo("cardId");
+        List<String> cardIds = lines.subList(1, lines.size());
+        assertThat(cardIds).doesNotHaveDuplicates().allMatch(cardId -> cardId.matches(CARD_ID_PATTERN));
+        assertThat(cardIds).anyMatch(cardId -> cardId.startsWith("9-")).anyMatch(cardId -> cardId.startsWith("4-"));
+        assertThat(namespace.getCardsCreated()).isEqualTo(count);
+        assertThat(cardIds).allMatch(cardId -> namespace.findCardAccount(cardId).map(CardAccount::isCreated).orElse(false));
+    }
+
+    @Test
+    void shouldGiveSameCardIdsForSameSeed() throws IOException {
+        //Given
+        ScenarioMix mix = ScenarioMix.parse("PARTIAL:1,NO_TOP_UP:1");
+
+        //When
+        List<String> first = seed(new StubNamespace("first", 1), mix, 10_000, 7);
+        List<String> second = seed(new StubNamespace("second", 2), mix, 10_000, 7);
+        List<String> otherSeed = seed(new StubNamespace("other", 3), mix, 10_000, 8);
+
+        //Then
+        assertThat(second).isEqualTo(first);
+        assertThat(otherSeed).isNotEqualTo(first);
+        assertThat(first.subList(1, first.size())).allMatch(cardId -> cardId.startsWith("1-") || cardId.startsWith("2-"));
+    }
+
+    @Test
+    void shouldWriteOnlyHeaderForNoCards() throws IOException {
+        //Given
+        StubNamespace namespace = new StubNamespace("empty", 1);
+
+        //When
+        List<String> lines = seed(namespace, ScenarioMix.parse("PARTIAL:1"), 0, 42);
+
+        //Then
+        assertThat(lines).containsExactly("cardId");
+        assertThat(namespace.getCardsCreated()).isZero();
+    }
+
+    private List<String> seed(StubNamespace namespace, ScenarioMix mix, long count, long seed) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        seeder.seed(output, namespace, mix, count, seed);
+        return output.toString(StandardCharsets.UTF_8).lines().collect(toList());
+    }
+}
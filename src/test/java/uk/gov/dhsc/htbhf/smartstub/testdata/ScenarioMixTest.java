@@ -0,0 +1,69 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+class ScenarioMixTest {
+
+    @Test
+    void shouldPickScenariosInProportionToWeights() {
+        //Given
+        ScenarioMix mix = ScenarioMix.parse("eligible_one_child:70, IDENTITY_NOT_MATCHED:5,CARD_ERROR:2.5,PARTIAL:0");
+        SplittableRandom random = new SplittableRandom(1);
+        Map<DataScenario, Integer> counts = new EnumMap<>(DataScenario.class);
+        int picks = 100_000;
+
+        //When
+        for (int i = 0; i < picks; i++) {
+            counts.merge(mix.pick(random), 1, Integer::sum);
+        }
+
+        //Then
+        assertThat(counts).containsOnlyKeys(DataScenario.ELIGIBLE_ONE_CHILD, DataScenario.IDENTITY_NOT_MATCHED, DataScenario.CARD_ERROR);
+        assertThat(counts.get(DataScenario.ELIGIBLE_ONE_CHILD) / (double) picks).isCloseTo(70 / 77.5, within(0.01));
+        assertThat(counts.get(DataScenario.IDENTITY_NOT_MATCHED) / (double) picks).isCloseTo(5 / 77.5, within(0.01));
+        assertThat(counts.get(DataScenario.CARD_ERROR) / (double) picks).isCloseTo(2.5 / 77.5, within(0.01));
+    }
+
+    @Test
+    void shouldParseDefaultMix() {
+        ScenarioMix mix = ScenarioMix.parse(ScenarioMix.DEFAULT_MIX);
+
+        assertThat(mix.getScenarios()).contains(DataScenario.ELIGIBLE_ONE_CHILD, DataScenario.CARD_ERROR);
+    }
+
+    @Test
+    void shouldLeaveScenarioOutOfMix() {
+        //Given
+        ScenarioMix mix = ScenarioMix.parse("PARTIAL:3,CARD_ERROR:10,NO_TOP_UP:1");
+        SplittableRandom random = new SplittableRandom(1);
+        Map<DataScenario, Integer> counts = new EnumMap<>(DataScenario.class);
+        int picks = 100_000;
+
+        //When
+        ScenarioMix withoutCardError = mix.without(DataScenario.CARD_ERROR);
+
+        //Then
+        for (int i = 0; i < picks; i++) {
+            counts.merge(withoutCardError.pick(random), 1, Integer::sum);
+        }
+        assertThat(counts).containsOnlyKeys(DataScenario.PARTIAL, DataScenario.NO_TOP_UP);
+        assertThat(counts.get(DataScenario.PARTIAL) / (double) picks).isCloseTo(0.75, within(0.01));
+        assertThatIllegalArgumentException().isThrownBy(() -> ScenarioMix.parse("CARD_ERROR:1").without(DataScenario.CARD_ERROR));
+    }
+
+    @ParameterizedTest(name = "mix={0}")
+    @ValueSource(strings = {"ELIGIBLE_ONE_CHILD", "ELIGIBLE_ONE_CHILD:lots", "NOT_A_SCENARIO:10", "ELIGIBLE_ONE_CHILD:-1", "ELIGIBLE_ONE_CHILD:0"})
+    void shouldRejectInvalidMix(String mix) {
+        assertThatIllegalArgumentException().isThrownBy(() -> ScenarioMix.parse(mix));
+    }
+}
@@ -0,0 +1,117 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import uk.gov.dhsc.htbhf.dwp.model.DWPEligibilityRequest;
+import uk.gov.dhsc.htbhf.dwp.model.EligibilityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityAndEligibilityResponse;
+import uk.gov.dhsc.htbhf.dwp.model.IdentityOutcome;
+import uk.gov.dhsc.htbhf.dwp.model.PersonDTO;
+import uk.gov.dhsc.htbhf.dwp.model.VerificationOutcome;
+import uk.gov.dhsc.htbhf.smartstub.clock.SimulationClock;
+import uk.gov.dhsc.htbhf.smartstub.sampling.RandomOutcomes;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.FirstNameScenario;
+import uk.gov.dhsc.htbhf.smartstub.service.v1.IdentifierService;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.DwpRules;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.HouseholdIdentifierMode;
+import uk.gov.dhsc.htbhf.smartstub.service.v2.IdentityAndEligibilityService;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettingsHolder;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TestDataRecordGeneratorTest {
+
+    private static final int RECORDS_PER_SCENARIO = 50;
+
+    private final StubSettingsHolder stubSettingsHolder = new StubSettingsHolder(1239, 1860, 100000);
+    private final IdentityAndEligibilityService identityAndEligibilityService
+            = new IdentityAndEligibilityService(stubSettingsHolder, DwpRules.defaultRules(stubSettingsHolder), new IdentifierService(),
+            HouseholdIdentifierMode.RANDOM, new SimulationClock(), new RandomOutcomes());
+
+    @ParameterizedTest(name = "scenario={0}")
+    @EnumSource(DataScenario.class)
+    void shouldGenerateRecordsThatTriggerScenario(DataScenario scenario) {
+        //Given
+        StubSettings settings = stubSettingsHolder.get();
+        TestDataRecordGenerator generator = new TestDataRecordGenerator(settings, ScenarioMix.parse(scenario + ":1"));
+        SplittableRandom random = new SplittableRandom(scenario.ordinal());
+
+        for (int i = 0; i < RECORDS_PER_SCENARIO; i++) {
+            //When
+            String[] record = generator.generateRecord(scenario, random);
+
+            //Then
+            assertThat(record).hasSameSizeAs(TestDataFormat.FIELD_NAMES).doesNotContainNull();
+            assertThat(record[0]).isEqualTo(scenario.name());
+            assertThat(settings.findScenarioForFirstName(record[2]).orElse(null)).isEqualTo(scenario.getFirstNameScenario());
+            assertTriggersScenario(scenario, buildRequest(record));
+        }
+    }
+
+    @Test
+    void shouldRejectScenarioThatNothingTriggers() {
+        //Given
+        StubSettings settings = stubSettingsHolder.get().toBuilder()
+                .firstNameScenarios(Map.of("Bart", FirstNameScenario.NO_TOP_UP))
+                .build();
+
+        //When/Then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new TestDataRecordGenerator(settings, ScenarioMix.parse("CARD_ERROR:1")))
+                .withMessage("No first name triggers CARD_ERROR with the current settings");
+    }
+
+    private void assertTriggersScenario(DataScenario scenario, DWPEligibilityRequest request) {
+        if (scenario == DataScenario.EXCEPTION) {
+            assertThatIllegalArgumentException().isThrownBy(() -> identityAndEligibilityService.evaluateEligibility(request));
+            return;
+        }
+        IdentityAndEligibilityResponse response = identityAndEligibilityService.evaluateEligibility(request);
+        switch (scenario) {
+            case IDENTITY_NOT_MATCHED:
+                assertThat(response.getIdentityStatus()).isEqualTo(IdentityOutcome.NOT_MATCHED);
+                break;
+            case ELIGIBILITY_NOT_CONFIRMED:
+                assertThat(response.getIdentityStatus()).isEqualTo(IdentityOutcome.MATCHED);
+                assertThat(response.getEligibilityStatus()).isEqualTo(EligibilityOutcome.NOT_CONFIRMED);
+                break;
+            default:
+                assertThat(response.getEligibilityStatus()).isEqualTo(EligibilityOutcome.CONFIRMED);
+                if (scenario.getChildrenUnder4() != DataScenario.ANY_CHILDREN) {
+                    assertThat(response.getDobOfChildrenUnder4()).hasSize(scenario.getChildrenUnder4());
+                }
+                assertThat(response.getAddressLine1Match())
+                        .isEqualTo(scenario == DataScenario.ADDRESS_LINE_1_NOT_MATCHED ? VerificationOutcome.NOT_MATCHED : VerificationOutcome.MATCHED);
+                assertThat(response.getPostcodeMatch())
+                        .isEqualTo(scenario == DataScenario.POSTCODE_NOT_MATCHED ? VerificationOutcome.NOT_MATCHED : VerificationOutcome.MATCHED);
+                if (scenario.getSurnameOutcome() != null) {
+                    assertThat(response.getMobilePhoneMatch()).isEqualTo(scenario.getSurnameOutcome().getMobileOutcome());
+                    assertThat(response.getEmailAddressMatch()).isEqualTo(scenario.getSurnameOutcome().getEmailOutcome());
+                }
+        }
+    }
+
+    private DWPEligibilityRequest buildRequest(String[] record) {
+        PersonDTO person = PersonDTO.builder()
+                .nino(record[1])
+                .surname(record[3])
+                .dateOfBirth(LocalDate.parse(record[4]))
+                .addressLine1(record[5])
+                .postcode(record[7])
+                .emailAddress(record[8])
+                .mobilePhoneNumber(record[9])
+                .build();
+        return DWPEligibilityRequest.builder()
+                .person(person)
+                .eligibilityEndDate(LocalDate.now().plusDays(28))
+                .ucMonthlyIncomeThresholdInPence(40800)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package uk.gov.dhsc.htbhf.smartstub.testdata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import uk.gov.dhsc.htbhf.smartstub.settings.BalanceSettings;
+import uk.gov.dhsc.htbhf.smartstub.settings.StubSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.testdata.TestDataWriter.BLOCK_SIZE;
+
+class TestDataWriterTest {
+
+    private static final StubSettings SETTINGS = StubSettings.defaultSettings(BalanceSettings.builder().build());
+    private static final ScenarioMix MIX = ScenarioMix.parse(ScenarioMix.DEFAULT_MIX);
+    private static final TestDataRecordGenerator GENERATOR = new TestDataRecordGenerator(SETTINGS, MIX);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldWriteSameRecordsWhateverTheParallelism() throws IOException {
+        //Given
+        long count = BLOCK_SIZE * 5 + 7;
+
+        //When
+        String singleThreaded = write(new TestDataWriter(executor, 1), TestDataFormat.CSV, count, 42);
+        String parallel = write(new TestDataWriter(executor, 4), TestDataFormat.CSV, count, 42);
+
+        //Then
+        assertThat(parallel).isEqualTo(singleThreaded);
+        List<String> lines = singleThreaded.lines().collect(toList());
+        assertThat(lines).hasSize((int) count + 1);
+        assertThat(lines.get(0)).isEqualTo(String.join(",", TestDataFormat.FIELD_NAMES));
+        assertThat(lines).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldWriteDifferentRecordsForDifferentSeeds() throws IOException {
+        //Given
+        TestDataWriter writer = new TestDataWriter(executor, 4);
+
+        //When
+        String first = write(writer, TestDataFormat.NDJSON, 100, 1);
+        String second = write(writer, TestDataFormat.NDJSON, 100, 2);
+
+        //Then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first.lines()).hasSize(100).allMatch(line -> line.startsWith("{\"scenario\":\"") && line.endsWith("\"}"));
+    }
+
+    @Test
+    void shouldWriteOnlyHeaderForNoRecords() throws IOException {
+        String output = write(new TestDataWriter(executor, 4), TestDataFormat.CSV, 0, 42);
+
+        assertThat(output.lines()).hasSize(1);
+    }
+
+    private String write(TestDataWriter writer, TestDataFormat format, long count, long seed) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(output, GENERATOR, MIX, format, count, seed);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,84 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.BIND;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.QUEUE;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.SERVICE;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.TOTAL;
+import static uk.gov.dhsc.htbhf.smartstub.timing.RequestPhase.VALIDATE;
+
+class RequestTimingsTest {
+
+    private final RequestTimings timings = RequestTimings.current();
+
+    @AfterEach
+    void finishTimings() {
+        timings.finish();
+    }
+
+    @Test
+    void shouldGiveEachPhaseTheTimeSinceThePreviousMark() throws InterruptedException {
+        //Given
+        long start = System.nanoTime();
+        timings.start(start, -1);
+
+        //When
+        Thread.sleep(5);
+        timings.mark(BIND);
+        timings.mark(SERVICE);
+        timings.markTotal(System.nanoTime());
+
+        //Then
+        assertThat(timings.isMarked(QUEUE)).isFalse();
+        assertThat(timings.isMarked(VALIDATE)).isFalse();
+        assertThat(timings.getDurationNanos(BIND)).isGreaterThanOrEqualTo(5_000_000);
+        assertThat(timings.getDurationNanos(SERVICE)).isLessThan(timings.getDurationNanos(BIND));
+        assertThat(timings.getDurationNanos(TOTAL))
+                .isGreaterThanOrEqualTo(timings.getDurationNanos(BIND) + timings.getDurationNanos(SERVICE));
+    }
+
+    @Test
+    void shouldFormatMarkedPhasesInMilliseconds() {
+        //Given
+        timings.start(0, 12_345_678);
+
+        //When
+        timings.markTotal(1_005_000);
+
+        //Then
+        assertThat(timings.toServerTimingHeader()).isEqualTo("queue;dur=12.345, total;dur=1.005");
+    }
+
+    @Test
+    void shouldDiscardPreviousRequestWhenStarted() {
+        //Given
+        timings.start(System.nanoTime(), 1_000_000);
+        timings.mark(BIND);
+
+        //When
+        timings.start(System.nanoTime(), -1);
+
+        //Then
+        assertThat(timings.isMarked(QUEUE)).isFalse();
+        assertThat(timings.isMarked(BIND)).isFalse();
+        assertThat(timings.getDurationNanos(QUEUE)).isZero();
+        assertThat(timings.toServerTimingHeader()).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreMarksWhenNotActive() {
+        //Given
+        timings.start(System.nanoTime(), -1);
+        timings.finish();
+
+        //When
+        timings.mark(SERVICE);
+
+        //Then
+        assertThat(timings.isActive()).isFalse();
+        assertThat(timings.isMarked(SERVICE)).isFalse();
+    }
+}
@@ -0,0 +1,50 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.timing.ServerTimingFilter.getQueueNanos;
+
+class ServerTimingFilterTest {
+
+    private static final long NOW_MILLIS = 1_571_400_000_250L;
+
+    @ParameterizedTest(name = "X-Request-Start={0}")
+    @ValueSource(strings = {"t=1571400000.200", "1571400000.200", "t=1571400000200", "1571400000200000", "t=1571400000200000"})
+    void shouldCalculateQueueTimeFromRequestStart(String requestStart) {
+        long queueNanos = getQueueNanos(requestStart, NOW_MILLIS);
+
+        assertThat(queueNanos).isBetween(49_000_000L, 51_000_000L);
+    }
+
+    @Test
+    void shouldCalculateQueueTimeFromWholeSeconds() {
+        long queueNanos = getQueueNanos("t=1571400000", NOW_MILLIS);
+
+        assertThat(queueNanos).isEqualTo(250_000_000L);
+    }
+
+    @Test
+    void shouldReturnZeroQueueTimeWhenRequestStartIsInTheFuture() {
+        long queueNanos = getQueueNanos("t=1571400001000", NOW_MILLIS);
+
+        assertThat(queueNanos).isZero();
+    }
+
+    @ParameterizedTest(name = "X-Request-Start={0}")
+    @ValueSource(strings = {"", "t=", "yesterday", "t=12:00"})
+    void shouldNotReportQueueTimeForInvalidRequestStart(String requestStart) {
+        long queueNanos = getQueueNanos(requestStart, NOW_MILLIS);
+
+        assertThat(queueNanos).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldNotReportQueueTimeWithoutRequestStart() {
+        long queueNanos = getQueueNanos(null, NOW_MILLIS);
+
+        assertThat(queueNanos).isEqualTo(-1);
+    }
+}
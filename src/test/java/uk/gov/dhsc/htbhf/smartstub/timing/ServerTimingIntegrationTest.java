@@ -0,0 +1,70 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.OK;
+import static uk.gov.dhsc.htbhf.dwp.testhelper.HttpRequestTestDataFactory.aValidEligibilityHttpEntity;
+import static uk.gov.dhsc.htbhf.smartstub.timing.ServerTimingFilter.REQUEST_START_HEADER;
+import static uk.gov.dhsc.htbhf.smartstub.timing.ServerTimingFilter.SERVER_TIMING_HEADER;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server-timing.enabled=true")
+class ServerTimingIntegrationTest {
+
+    private static final String PHASE_DURATION = "\\d+\\.\\d{3}";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldBreakDownDwpEligibilityRequest() {
+        //Given
+        HttpEntity request = aValidEligibilityHttpEntity();
+
+        //When
+        ResponseEntity<String> response = restTemplate.exchange(URI.create("/v2/dwp/benefits"), HttpMethod.GET, request, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getFirst(SERVER_TIMING_HEADER)).matches(
+                "intercept;dur=" + PHASE_DURATION
+                        + ", bind;dur=" + PHASE_DURATION
+                        + ", validate;dur=" + PHASE_DURATION
+                        + ", service;dur=" + PHASE_DURATION
+                        + ", serialize;dur=" + PHASE_DURATION
+                        + ", total;dur=" + PHASE_DURATION);
+        assertThat(meterRegistry.get("stub.request.phase").tag("phase", "validate").timer().count()).isPositive();
+    }
+
+    @Test
+    void shouldReportQueueTimeFromRequestStartHeader() {
+        //Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(REQUEST_START_HEADER, "t=" + (System.currentTimeMillis() - 1000));
+
+        //When
+        ResponseEntity<String> response = restTemplate.exchange("/v1/cards/123/balance", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getHeaders().getFirst(SERVER_TIMING_HEADER)).matches(
+                "queue;dur=1\\d{3}\\.\\d{3}, intercept;dur=" + PHASE_DURATION
+                        + ", service;dur=" + PHASE_DURATION
+                        + ", serialize;dur=" + PHASE_DURATION
+                        + ", total;dur=" + PHASE_DURATION);
+        assertThat(meterRegistry.get("stub.request.phase").tag("phase", "queue").timer().count()).isPositive();
+    }
+}
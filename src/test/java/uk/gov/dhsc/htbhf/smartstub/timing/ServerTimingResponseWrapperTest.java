@@ -0,0 +1,75 @@
+package uk.gov.dhsc.htbhf.smartstub.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.dhsc.htbhf.smartstub.timing.ServerTimingFilter.SERVER_TIMING_HEADER;
+
+class ServerTimingResponseWrapperTest {
+
+    private final RequestTimings timings = RequestTimings.current();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final ServerTimingResponseWrapper responseWrapper = new ServerTimingResponseWrapper(response, timings);
+
+    @AfterEach
+    void finishTimings() {
+        timings.finish();
+    }
+
+    @Test
+    void shouldAddHeaderWhenOutputStreamIsFlushed() throws IOException {
+        //Given
+        timings.start(System.nanoTime(), -1);
+
+        //When
+        responseWrapper.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        responseWrapper.getOutputStream().flush();
+
+        //Then
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(SERVER_TIMING_HEADER)).startsWith("total;dur=");
+    }
+
+    @Test
+    void shouldAddHeaderWhenWriterIsFlushed() throws IOException {
+        //Given
+        timings.start(System.nanoTime(), -1);
+
+        //When
+        PrintWriter writer = responseWrapper.getWriter();
+        writer.write("<html>Error</html>");
+        writer.flush();
+
+        //Then
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(SERVER_TIMING_HEADER)).startsWith("total;dur=");
+        assertThat(response.getContentAsString()).isEqualTo("<html>Error</html>");
+    }
+
+    @Test
+    void shouldAddHeaderWhenWriterIsClosed() throws IOException {
+        //Given
+        timings.start(System.nanoTime(), -1);
+
+        //When
+        responseWrapper.getWriter().close();
+
+        //Then
+        assertThat(response.getHeader(SERVER_TIMING_HEADER)).startsWith("total;dur=");
+    }
+
+    @Test
+    void shouldNotAddHeaderWhenRequestIsNotTimed() throws IOException {
+        //When
+        responseWrapper.getWriter().flush();
+
+        //Then
+        assertThat(response.getHeader(SERVER_TIMING_HEADER)).isNull();
+    }
+}
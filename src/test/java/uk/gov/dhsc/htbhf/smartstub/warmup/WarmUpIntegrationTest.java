@@ -0,0 +1,66 @@
+package uk.gov.dhsc.htbhf.smartstub.warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "warm-up.enabled=true",
+        "warm-up.min-iterations=2",
+        "warm-up.max-iterations=3",
+        "warm-up.batch-size=1"
+})
+class WarmUpIntegrationTest {
+
+    private static final long TIMEOUT_IN_MILLIS = 60_000;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private WarmUp warmUp;
+
+    @Test
+    void shouldReportReadyWithSummaryOnceWarmedUp() throws InterruptedException {
+        //When
+        ResponseEntity<JsonNode> response = waitUntilReady();
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        JsonNode details = response.getBody().path("components").path("warmUp").path("details");
+        assertThat(details.path("iterations").asInt()).isBetween(2, 3);
+        assertThat(details.path("requests").asLong()).isGreaterThan(0);
+        assertThat(details.has("durationInMillis")).isTrue();
+        assertThat(details.has("compiledMethodsAfter")).isTrue();
+        assertThat(warmUp.getReport().getIterations()).isEqualTo(details.path("iterations").asInt());
+    }
+
+    @Test
+    void shouldDropWarmUpNamespaceOnceWarmedUp() throws InterruptedException {
+        //Given
+        waitUntilReady();
+
+        //When
+        ResponseEntity<String> response = restTemplate.getForEntity("/admin/namespaces/" + WarmUpRequests.WARM_UP_NAMESPACE, String.class);
+
+        //Then
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    private ResponseEntity<JsonNode> waitUntilReady() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_IN_MILLIS;
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity("/actuator/health/readiness", JsonNode.class);
+        while (response.getStatusCode() != OK && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            response = restTemplate.getForEntity("/actuator/health/readiness", JsonNode.class);
+        }
+        return response;
+    }
+}